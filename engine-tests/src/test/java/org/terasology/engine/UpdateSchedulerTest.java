@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.ComponentAccess;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UpdateSchedulerTest {
+
+    private final EventSystem eventSystem = mock(EventSystem.class);
+    private final EngineEntityManager entityManager = mock(EngineEntityManager.class);
+
+    @Before
+    public void setup() {
+        when(entityManager.getEventSystem()).thenReturn(eventSystem);
+    }
+
+    @Test
+    public void testNonConflictingSystemsShareAPhase() {
+        UpdateSubscriberSystem readsString = new ReadsString();
+        UpdateSubscriberSystem writesInteger = new WritesInteger();
+        UpdateSubscriberSystem writesString = new WritesString();
+        UpdateSubscriberSystem undeclared = new UndeclaredAccess();
+        UpdateSubscriberSystem readsStringAgain = new ReadsString();
+
+        UpdateScheduler scheduler = new UpdateScheduler(
+                Arrays.asList(readsString, writesInteger, writesString, undeclared, readsStringAgain), entityManager);
+
+        assertEquals(Arrays.asList(
+                Arrays.asList(readsString, writesInteger),
+                Collections.singletonList(writesString),
+                Collections.singletonList(undeclared),
+                Collections.singletonList(readsStringAgain)),
+                scheduler.getPhases());
+    }
+
+    @Test
+    public void testEventsAreProcessedAfterParallelPhase() {
+        ReadsString readsString = new ReadsString();
+        WritesInteger writesInteger = new WritesInteger();
+        UndeclaredAccess undeclared = new UndeclaredAccess();
+        UpdateScheduler scheduler = new UpdateScheduler(Arrays.asList(readsString, writesInteger, undeclared), entityManager);
+
+        scheduler.update(0.5f);
+        scheduler.update(0.5f);
+        scheduler.shutdown();
+
+        assertEquals(2, readsString.updates.size());
+        assertEquals(2, writesInteger.updates.size());
+        assertEquals(2, undeclared.updates.size());
+        assertEquals(Thread.currentThread(), undeclared.updates.get(0));
+        verify(eventSystem, times(2)).process();
+    }
+
+    @Test
+    public void testEntityChangesAreAppliedBeforeEventsAfterParallelPhase() {
+        UpdateScheduler scheduler = new UpdateScheduler(Arrays.asList(new ReadsString(), new WritesInteger()), entityManager);
+
+        scheduler.update(0.5f);
+        scheduler.shutdown();
+
+        InOrder inOrder = inOrder(entityManager, eventSystem);
+        inOrder.verify(entityManager).deferChangesOfOtherThreads();
+        inOrder.verify(entityManager).processDeferredChanges();
+        inOrder.verify(eventSystem).process();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureIsRethrown() {
+        UpdateScheduler scheduler = new UpdateScheduler(Arrays.asList(new ReadsString(), new FailingSystem()), entityManager);
+        try {
+            scheduler.update(0.5f);
+        } finally {
+            scheduler.shutdown();
+            verify(entityManager).processDeferredChanges();
+        }
+    }
+
+    private static class RecordingSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+        final List<Thread> updates = Collections.synchronizedList(Lists.newArrayList());
+
+        @Override
+        public void update(float delta) {
+            updates.add(Thread.currentThread());
+        }
+    }
+
+    @ComponentAccess(reads = StringComponent.class)
+    private static class ReadsString extends RecordingSystem {
+    }
+
+    @ComponentAccess(reads = StringComponent.class, writes = IntegerComponent.class)
+    private static class WritesInteger extends RecordingSystem {
+    }
+
+    @ComponentAccess(writes = StringComponent.class)
+    private static class WritesString extends RecordingSystem {
+    }
+
+    private static class UndeclaredAccess extends RecordingSystem {
+    }
+
+    @ComponentAccess(writes = IntegerComponent.class)
+    private static class FailingSystem extends RecordingSystem {
+        @Override
+        public void update(float delta) {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem;
+
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ArchetypeComponentTableTest {
+
+    private ArchetypeComponentTable table;
+
+    @Before
+    public void setup() {
+        table = new ArchetypeComponentTable();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        StringComponent comp = new StringComponent("a");
+        assertNull(table.put(1, comp));
+        assertSame(comp, table.get(1, StringComponent.class));
+        assertNull(table.get(1, IntegerComponent.class));
+        assertNull(table.get(2, StringComponent.class));
+    }
+
+    @Test
+    public void testReplaceComponent() {
+        StringComponent first = new StringComponent("a");
+        StringComponent second = new StringComponent("b");
+        table.put(1, first);
+        assertSame(first, table.put(1, second));
+        assertSame(second, table.get(1, StringComponent.class));
+        assertEquals(1, table.getArchetypeCount());
+    }
+
+    @Test
+    public void testAddingComponentKeepsOthers() {
+        StringComponent stringComp = new StringComponent("a");
+        IntegerComponent intComp = new IntegerComponent(1);
+        table.put(1, stringComp);
+        table.put(1, intComp);
+        assertSame(stringComp, table.get(1, StringComponent.class));
+        assertSame(intComp, table.get(1, IntegerComponent.class));
+        assertEquals(2, table.getComponentsInNewList(1).size());
+    }
+
+    @Test
+    public void testRemoveComponent() {
+        StringComponent stringComp = new StringComponent("a");
+        table.put(1, stringComp);
+        table.put(1, new IntegerComponent(1));
+        assertTrue(table.remove(1, IntegerComponent.class) instanceof IntegerComponent);
+        assertNull(table.get(1, IntegerComponent.class));
+        assertSame(stringComp, table.get(1, StringComponent.class));
+        assertNull(table.remove(1, IntegerComponent.class));
+
+        table.remove(1, StringComponent.class);
+        assertEquals(0, table.numEntities());
+    }
+
+    @Test
+    public void testRemovingEntityKeepsOtherEntities() {
+        for (int id = 1; id <= 100; id++) {
+            table.put(id, new IntegerComponent(id));
+        }
+        for (int id = 1; id <= 100; id += 3) {
+            assertEquals(1, table.removeAndReturnComponentsOf(id).size());
+        }
+        for (int id = 1; id <= 100; id++) {
+            IntegerComponent comp = table.get(id, IntegerComponent.class);
+            if (id % 3 == 1) {
+                assertNull(comp);
+            } else {
+                assertEquals(id, comp.value);
+            }
+        }
+        assertEquals(66, table.getComponentCount(IntegerComponent.class));
+        assertEquals(66, table.numEntities());
+    }
+
+    @Test
+    public void testEntitiesWithWalksMatchingEntitiesOnly() {
+        table.put(1, new StringComponent("a"));
+        table.put(2, new StringComponent("b"));
+        table.put(2, new IntegerComponent(2));
+        table.put(3, new IntegerComponent(3));
+        table.put(4, new IntegerComponent(4));
+        table.put(4, new FlagComponent());
+        table.put(4, new StringComponent("d"));
+
+        assertEquals(Sets.newHashSet(2L, 4L), collect(table.entityIdIterator(classes(StringComponent.class, IntegerComponent.class))));
+        assertEquals(Sets.newHashSet(1L, 2L, 4L), collect(table.entityIdIterator(classes(StringComponent.class))));
+        assertEquals(2, table.getEntityCount(classes(StringComponent.class, IntegerComponent.class)));
+        assertEquals(0, table.getEntityCount(classes(StringComponent.class, UnusedComponent.class)));
+    }
+
+    @Test
+    public void testEntitiesWithSkipsEntitiesThatLostComponents() {
+        for (int id = 1; id <= 10; id++) {
+            table.put(id, new StringComponent("a"));
+            table.put(id, new IntegerComponent(id));
+        }
+        Set<Long> found = Sets.newHashSet();
+        TLongIterator iterator = table.entityIdIterator(classes(StringComponent.class, IntegerComponent.class));
+        while (iterator.hasNext()) {
+            long id = iterator.next();
+            found.add(id);
+            for (int other = 1; other <= 10; other++) {
+                if (other != id) {
+                    table.remove(other, IntegerComponent.class);
+                }
+            }
+        }
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    public void testComponentIterator() {
+        table.put(1, new IntegerComponent(1));
+        table.put(2, new IntegerComponent(2));
+        table.put(2, new StringComponent("b"));
+
+        Set<Long> ids = Sets.newHashSet();
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.key(), iterator.value().value);
+            ids.add(iterator.key());
+        }
+        assertEquals(Sets.newHashSet(1L, 2L), ids);
+        assertNull(table.componentIterator(FlagComponent.class));
+    }
+
+    @Test
+    public void testClear() {
+        table.put(1, new IntegerComponent(1));
+        table.clear();
+        assertNull(table.get(1, IntegerComponent.class));
+        assertFalse(table.entityIdIterator().hasNext());
+    }
+
+    @SafeVarargs
+    private static Class<? extends Component>[] classes(Class<? extends Component>... componentClasses) {
+        return componentClasses;
+    }
+
+    private static Set<Long> collect(TLongIterator iterator) {
+        Set<Long> ids = Sets.newHashSet();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+
+    private static final class FlagComponent implements Component {
+    }
+
+    private static final class UnusedComponent implements Component {
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem;
+
+import org.junit.Before;
+import org.terasology.config.Config;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.internal.ArchetypeEntityPool;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the entity manager tests against entities stored by archetype.
+ */
+public class ArchetypeEntityManagerTest extends PojoEntityManagerTest {
+
+    @Before
+    @Override
+    public void setup() {
+        Config config = new Config(context);
+        config.loadDefaults();
+        config.getSystem().setArchetypeEntityStorage(true);
+        context.put(Config.class, config);
+        super.setup();
+
+        EngineEntityManager entityManager = (EngineEntityManager) context.get(EntityManager.class);
+        assertTrue(entityManager.getGlobalPool() instanceof ArchetypeEntityPool);
+    }
+}
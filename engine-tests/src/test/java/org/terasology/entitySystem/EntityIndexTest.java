@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.internal.EntityIndex;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class EntityIndexTest {
+
+    private EntityIndex index;
+
+    @Before
+    public void setup() {
+        index = new EntityIndex();
+    }
+
+    @Test
+    public void testSlotsAreDense() {
+        assertEquals(0, index.add(100));
+        assertEquals(1, index.add(5000));
+        assertEquals(0, index.add(100));
+        assertEquals(2, index.getCapacity());
+        assertEquals(5000, index.getEntityId(1));
+        assertEquals(1, index.getSlot(5000));
+    }
+
+    @Test
+    public void testFreedSlotIsReusedWithNewGeneration() {
+        int slot = index.add(1);
+        int generation = index.getGeneration(slot);
+        assertTrue(index.remove(1));
+        assertFalse(index.contains(1));
+        assertEquals(EntityIndex.NO_SLOT, index.getSlot(1));
+        assertEquals(PojoEntityManager.NULL_ID, index.getEntityId(slot));
+
+        assertEquals(slot, index.add(2));
+        assertFalse(index.isCurrent(slot, generation));
+        assertTrue(index.isCurrent(slot, index.getGeneration(slot)));
+        assertEquals(1, index.getCapacity());
+    }
+
+    @Test
+    public void testClearInvalidatesSlots() {
+        int slot = index.add(1);
+        int generation = index.getGeneration(slot);
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.isCurrent(slot, generation));
+        assertEquals(slot, index.add(1));
+        assertFalse(index.isCurrent(slot, generation));
+    }
+
+    @Test
+    public void testRemoveUnknownEntity() {
+        assertFalse(index.remove(1));
+    }
+}
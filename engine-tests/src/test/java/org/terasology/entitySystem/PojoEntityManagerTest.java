@@ -15,7 +15,9 @@
  */
 package org.terasology.entitySystem;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -29,6 +31,7 @@
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.entity.internal.PojoEntityPool;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
@@ -52,12 +55,18 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.terasology.entitySystem.entity.internal.EntityScope.CHUNK;
@@ -66,7 +75,7 @@
  */
 public class PojoEntityManagerTest {
 
-    private static Context context;
+    protected static Context context;
     private PojoEntityManager entityManager;
     private Prefab prefab;
 
@@ -315,6 +324,136 @@ public void testDestroyingEntityInvalidatesEntityRefs() {
 
     }
 
+    @Test
+    public void testGetComponentCountWithTwoComponents() {
+        EntityRef entity1 = entityManager.create(new StringComponent(), new IntegerComponent());
+        entityManager.create(new StringComponent());
+        entityManager.create(new IntegerComponent());
+        assertEquals(1, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+
+        entity1.removeComponent(IntegerComponent.class);
+        assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+    }
+
+    @Test
+    public void testEntityViewIncludesExistingEntities() {
+        EntityRef entity1 = entityManager.create(new StringComponent(), new IntegerComponent());
+        entityManager.create(new StringComponent());
+
+        EntityView view = entityManager.getEntityView(IntegerComponent.class, StringComponent.class);
+        assertEquals(1, view.size());
+        assertTrue(view.contains(entity1));
+    }
+
+    @Test
+    public void testEntityViewFollowsComponentChanges() {
+        EntityView view = entityManager.getEntityView(StringComponent.class, IntegerComponent.class);
+        assertTrue(view.isEmpty());
+
+        EntityRef entity1 = entityManager.create(new StringComponent());
+        assertFalse(view.contains(entity1));
+        entity1.addComponent(new IntegerComponent());
+        assertTrue(view.contains(entity1));
+        assertEquals(Lists.newArrayList(entity1), Lists.newArrayList(view));
+
+        entity1.removeComponent(StringComponent.class);
+        assertFalse(view.contains(entity1));
+
+        EntityRef entity2 = entityManager.create(new StringComponent(), new IntegerComponent());
+        assertEquals(1, view.size());
+        entity2.destroy();
+        assertTrue(view.isEmpty());
+    }
+
+    @Test
+    public void testEntityViewsIncludeNewEntitiesDuringLifecycleEvents() {
+        EventSystem eventSystem = mock(EventSystem.class);
+        entityManager.setEventSystem(eventSystem);
+        EntityView view = entityManager.getEntityView(StringComponent.class);
+        List<EntityRef> found = Lists.newArrayList();
+        doAnswer(invocation -> {
+            Iterables.addAll(found, entityManager.getEntitiesWith(StringComponent.class));
+            assertEquals(found.size(), entityManager.getCountOfEntitiesWith(StringComponent.class));
+            return null;
+        }).when(eventSystem).send(any(EntityRef.class), any(OnActivatedComponent.class));
+
+        EntityRef entity = entityManager.create(new StringComponent());
+
+        assertEquals(Lists.newArrayList(entity), found);
+        assertTrue(view.contains(entity));
+    }
+
+    @Test
+    public void testChangesOfOtherThreadsAreDeferred() throws InterruptedException {
+        EntityRef entity = entityManager.create(new StringComponent());
+        EntityRef destroyed = entityManager.create(new StringComponent());
+        entityManager.deferChangesOfOtherThreads();
+        Thread thread = new Thread(() -> {
+            entity.addComponent(new IntegerComponent());
+            entity.removeComponent(StringComponent.class);
+            destroyed.destroy();
+        });
+        thread.start();
+        thread.join();
+
+        assertTrue(entity.hasComponent(StringComponent.class));
+        assertFalse(entity.hasComponent(IntegerComponent.class));
+        assertTrue(destroyed.exists());
+
+        entityManager.processDeferredChanges();
+        assertFalse(entity.hasComponent(StringComponent.class));
+        assertTrue(entity.hasComponent(IntegerComponent.class));
+        assertFalse(destroyed.exists());
+    }
+
+    @Test
+    public void testOtherThreadsCannotCreateEntitiesWhileChangesAreDeferred() throws InterruptedException {
+        entityManager.deferChangesOfOtherThreads();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                entityManager.create(new StringComponent());
+            } catch (IllegalStateException e) {
+                failure.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        entityManager.processDeferredChanges();
+
+        assertNotNull(failure.get());
+        assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class));
+    }
+
+    @Test
+    public void testEntityViewIsShared() {
+        assertSame(entityManager.getEntityView(StringComponent.class, IntegerComponent.class),
+                entityManager.getEntityView(IntegerComponent.class, StringComponent.class));
+    }
+
+    @Test
+    public void testEntityViewForEachWhileRemovingComponents() {
+        EntityView view = entityManager.getEntityView(StringComponent.class);
+        for (int i = 0; i < 5; i++) {
+            entityManager.create(new StringComponent(), new IntegerComponent(i));
+        }
+        List<EntityRef> visited = Lists.newArrayList();
+        view.forEach(entity -> {
+            visited.add(entity);
+            for (EntityRef other : entityManager.getEntitiesWith(IntegerComponent.class)) {
+                if (other.getComponent(IntegerComponent.class).value == 4) {
+                    other.removeComponent(StringComponent.class);
+                }
+            }
+            entity.removeComponent(StringComponent.class);
+            entityManager.create(new StringComponent());
+        });
+
+        assertEquals(4, visited.size());
+        assertEquals(Sets.newHashSet(visited).size(), visited.size());
+        assertEquals(4, view.size());
+    }
+
     @Test
     public void testPrefabCopiedCorrectly() {
         EntityRef entity1 = entityManager.create(prefab);
@@ -337,6 +476,40 @@ public void testPrefabCopiedCorrectly2() {
         assertFalse(test1.getComponent(StringComponent.class) == (test2.getComponent(StringComponent.class)));
     }
 
+    @Test
+    public void testCreateBatchFromPrefab() {
+        List<EntityRef> entities = entityManager.createBatch(prefab, 3);
+        assertEquals(3, entities.size());
+        assertEquals(3, Sets.newHashSet(entities).size());
+        for (EntityRef entity : entities) {
+            assertTrue(entity.isActive());
+            assertEquals(prefab, entity.getParentPrefab());
+            assertEquals("Test", entity.getComponent(StringComponent.class).value);
+        }
+        assertNotSame(entities.get(0).getComponent(StringComponent.class), entities.get(1).getComponent(StringComponent.class));
+    }
+
+    @Test
+    public void testCreateBatchSendsLifecycleEvents() {
+        EventSystem eventSystem = mock(EventSystem.class);
+        entityManager.setEventSystem(eventSystem);
+
+        List<EntityRef> entities = entityManager.createBatch(prefab, 2);
+        verify(eventSystem).sendToAll(eq(entities), any(OnAddedComponent.class));
+        verify(eventSystem).sendToAll(eq(entities), any(OnActivatedComponent.class));
+    }
+
+    @Test
+    public void testPrefabChangesApplyToNewEntities() {
+        entityManager.create(prefab);
+        PrefabData changedPrefab = new PrefabData();
+        changedPrefab.addComponent(new StringComponent("Changed"));
+        Assets.generateAsset(new ResourceUrn("unittest:myprefab"), changedPrefab, Prefab.class);
+
+        EntityRef entity = entityManager.create(prefab);
+        assertEquals("Changed", entity.getComponent(StringComponent.class).value);
+    }
+
     @Test
     public void testPrefabPersistedRetainedCorrectly() {
         PrefabData protoPrefab = new PrefabData();
@@ -42,6 +42,8 @@
 import org.terasology.reflection.reflect.ReflectionReflectFactory;
 import org.terasology.registry.CoreRegistry;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -212,6 +214,73 @@ public void testEventReceiverRegistration() {
         assertEquals(1, receiver.eventList.size());
     }
 
+    @Test
+    public void testHandlerRegisteredAfterSendReceivesEvent() {
+        entity.addComponent(new StringComponent());
+        eventSystem.send(entity, new TestEvent());
+
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testUnregisteredHandlerReceivesNoEvent() {
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testSendToAll() {
+        entity.addComponent(new StringComponent());
+        EntityRef otherEntity = entityManager.create(new StringComponent(), new IntegerComponent());
+        EntityRef ignoredEntity = entityManager.create(new IntegerComponent());
+
+        TestBatchEventHandler handler = new TestBatchEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        TestBroadcastEvent event = new TestBroadcastEvent();
+        eventSystem.sendToAll(Arrays.asList(entity, otherEntity, ignoredEntity), event);
+
+        assertEquals(Arrays.asList(entity, otherEntity), handler.received);
+        assertEquals(1, handler.receivedBatches.size());
+        assertEquals(Arrays.asList(entity, otherEntity), handler.receivedBatches.get(0));
+    }
+
+    @Test
+    public void testBatchHandlerReceivesSingleEntity() {
+        entity.addComponent(new StringComponent());
+
+        TestBatchEventHandler handler = new TestBatchEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        eventSystem.send(entity, new TestBroadcastEvent());
+        assertEquals(1, handler.receivedBatches.size());
+        assertEquals(Collections.singletonList(entity), handler.receivedBatches.get(0));
+    }
+
+    @Test
+    public void testSendToAllStopsWhenConsumed() {
+        entity.addComponent(new StringComponent());
+        EntityRef otherEntity = entityManager.create(new StringComponent());
+
+        TestHighPriorityEventHandler handlerHigh = new TestHighPriorityEventHandler();
+        handlerHigh.cancel = true;
+        eventSystem.registerEventHandler(handlerHigh);
+
+        eventSystem.sendToAll(Arrays.asList(entity, otherEntity), new TestEvent());
+        assertEquals(1, handlerHigh.receivedList.size());
+        assertEquals(entity, handlerHigh.receivedList.get(0).entity);
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
@@ -333,6 +402,26 @@ public Received(TestEvent event, EntityRef entity) {
         }
     }
 
+    public static class TestBroadcastEvent implements Event {
+
+    }
+
+    public static class TestBatchEventHandler extends BaseComponentSystem {
+
+        List<EntityRef> received = Lists.newArrayList();
+        List<List<EntityRef>> receivedBatches = Lists.newArrayList();
+
+        @ReceiveEvent(components = StringComponent.class)
+        public void handleEvent(TestBroadcastEvent event, EntityRef entity) {
+            received.add(entity);
+        }
+
+        @ReceiveEvent(components = StringComponent.class)
+        public void handleBatch(TestBroadcastEvent event, List<EntityRef> entities) {
+            receivedBatches.add(Lists.newArrayList(entities));
+        }
+    }
+
     public static class TestEventReceiver implements EventReceiver<TestEvent> {
         List<Event> eventList = Lists.newArrayList();
 
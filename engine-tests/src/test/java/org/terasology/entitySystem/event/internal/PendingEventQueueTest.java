@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.event.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.entitySystem.event.Event;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PendingEventQueueTest {
+
+    @Test
+    public void testEventsKeepOrderWhenRingOverflows() throws InterruptedException {
+        PendingEventQueue queue = new PendingEventQueue();
+        int count = 3 * PendingEventQueue.RING_CAPACITY;
+        Thread producer = new Thread(() -> offerEvents(queue, 0, count));
+        producer.start();
+        producer.join();
+
+        assertEquals(count, queue.size());
+        List<PendingEvent> events = queue.drain();
+        assertEquals(count, events.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, ((SequenceEvent) events.get(i).getEvent()).sequence);
+        }
+        assertEquals(0, queue.size());
+        assertEquals(count, queue.getMaxDrained());
+    }
+
+    @Test
+    public void testEventsOfConcurrentProducers() throws InterruptedException {
+        PendingEventQueue queue = new PendingEventQueue();
+        int producerCount = 4;
+        int eventsPerProducer = 5000;
+        List<Thread> producers = Lists.newArrayList();
+        for (int i = 0; i < producerCount; i++) {
+            int producerId = i;
+            producers.add(new Thread(() -> offerEvents(queue, producerId, eventsPerProducer)));
+        }
+        producers.forEach(Thread::start);
+
+        int[] nextSequence = new int[producerCount];
+        int received = 0;
+        while (received < producerCount * eventsPerProducer) {
+            for (PendingEvent pendingEvent : queue.drain()) {
+                SequenceEvent event = (SequenceEvent) pendingEvent.getEvent();
+                assertEquals(nextSequence[event.producer]++, event.sequence);
+                received++;
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(0, queue.drain().size());
+        assertEquals(0, queue.size());
+    }
+
+    private static void offerEvents(PendingEventQueue queue, int producer, int count) {
+        for (int i = 0; i < count; i++) {
+            queue.offer(new PendingEvent(null, new SequenceEvent(producer, i)));
+        }
+    }
+
+    private static class SequenceEvent implements Event {
+        private final int producer;
+        private final int sequence;
+
+        SequenceEvent(int producer, int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        TimingHistogram histogram = new TimingHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMs(), 0);
+        assertEquals(0, histogram.getPercentileMs(99), 0);
+    }
+
+    @Test
+    public void testMeanAndMax() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(1_000_000);
+        histogram.record(3_000_000);
+        assertEquals(2, histogram.getCount());
+        assertEquals(2.0, histogram.getMeanMs(), 1e-9);
+        assertEquals(3.0, histogram.getMaxMs(), 1e-9);
+    }
+
+    @Test
+    public void testPercentilesAreUpperBoundsWithinFactorTwo() {
+        TimingHistogram histogram = new TimingHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(50_000_000);
+        }
+        double median = histogram.getPercentileMs(50);
+        assertTrue(median >= 0.1 && median <= 0.2);
+        double p99 = histogram.getPercentileMs(99);
+        assertTrue(p99 >= 25 && p99 <= 50);
+        assertEquals(50.0, histogram.getPercentileMs(100), 1e-9);
+    }
+
+    @Test
+    public void testReset() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(5_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMs(), 0);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkStreamerTest {
+    private static final Vector3i CENTER = new Vector3i(0, 0, 0);
+    private static final Vector3f FORWARD = new Vector3f(0, 0, 1);
+
+    private ChunkEncodingCache encodingCache;
+    private ChunkStreamer chunkStreamer;
+    private List<Vector3i> sent;
+
+    @Before
+    public void setup() {
+        encodingCache = new ChunkEncodingCache(MoreExecutors.newDirectExecutorService(), 16);
+        chunkStreamer = new ChunkStreamer();
+        sent = Lists.newArrayList();
+    }
+
+    @After
+    public void teardown() {
+        encodingCache.shutdown();
+    }
+
+    @Test
+    public void testSendsClosestChunksFirst() {
+        add(new Vector3i(0, 0, 3));
+        add(new Vector3i(0, 0, 1));
+        add(new Vector3i(0, 0, 2));
+
+        send(Integer.MAX_VALUE / 2);
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 1), new Vector3i(0, 0, 2), new Vector3i(0, 0, 3)), sent);
+        assertTrue(chunkStreamer.isEmpty());
+    }
+
+    @Test
+    public void testPrefersChunksInViewDirection() {
+        add(new Vector3i(0, 0, -1));
+        add(new Vector3i(0, 0, 1));
+
+        send(1);
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 1)), sent);
+    }
+
+    @Test
+    public void testBudgetLimitsChunksPerTick() {
+        add(new Vector3i(0, 0, 1));
+        add(new Vector3i(0, 0, 2));
+        int chunkSize = encodedChunk(new Vector3i(0, 0, 1)).build().getSerializedSize();
+
+        send(chunkSize);
+        assertEquals(1, sent.size());
+        send(chunkSize);
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void testRemovedChunksAreNotSent() {
+        add(new Vector3i(0, 0, 1));
+        chunkStreamer.remove(new Vector3i(0, 0, 1));
+
+        send(Integer.MAX_VALUE / 2);
+
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    public void testChunksStillEncodingAreSentLater() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ChunkEncodingCache slowCache = new ChunkEncodingCache(executor, 16);
+        Chunk chunk = mockChunk(new Vector3i(0, 0, 1), 0);
+        when(chunk.copyForEncoding()).thenReturn(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return encodedChunk(new Vector3i(0, 0, 1));
+        });
+        chunkStreamer.add(chunk.getPosition(), chunk);
+
+        chunkStreamer.send(Integer.MAX_VALUE / 2, CENTER, FORWARD, slowCache, (pos, store) -> sent.add(pos));
+        assertTrue(sent.isEmpty());
+
+        slowCache.request(chunk).join();
+        chunkStreamer.send(Integer.MAX_VALUE / 2, CENTER, FORWARD, slowCache, (pos, store) -> sent.add(pos));
+        assertEquals(1, sent.size());
+        slowCache.shutdown();
+    }
+
+    @Test
+    public void testChunksChangingEveryTickAreEventuallySent() {
+        CountDownLatch encoderBlocked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> {
+            try {
+                encoderBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ChunkEncodingCache slowCache = new ChunkEncodingCache(executor, 16);
+        Chunk chunk = mockChunk(new Vector3i(0, 0, 1), 0);
+        chunkStreamer.add(chunk.getPosition(), chunk);
+
+        for (long generation = 1; generation <= ChunkEncodingCache.MAX_BACKGROUND_ATTEMPTS; generation++) {
+            chunkStreamer.send(Integer.MAX_VALUE / 2, CENTER, FORWARD, slowCache, (pos, store) -> sent.add(pos));
+            assertTrue(sent.isEmpty());
+            when(chunk.getModificationGeneration()).thenReturn(generation);
+        }
+        chunkStreamer.send(Integer.MAX_VALUE / 2, CENTER, FORWARD, slowCache, (pos, store) -> sent.add(pos));
+
+        assertEquals(1, sent.size());
+        encoderBlocked.countDown();
+        slowCache.shutdown();
+    }
+
+    @Test
+    public void testEncodedChunksAreSharedUntilModified() {
+        Chunk chunk = mockChunk(new Vector3i(0, 0, 1), 0);
+        EntityData.ChunkStore first = encodingCache.request(chunk).join();
+
+        assertSame(first, encodingCache.request(chunk).join());
+
+        when(chunk.getModificationGeneration()).thenReturn(1L);
+        assertNotSame(first, encodingCache.request(chunk).join());
+    }
+
+    private void add(Vector3i pos) {
+        Chunk chunk = mockChunk(pos, 0);
+        chunkStreamer.add(pos, chunk);
+    }
+
+    private void send(int budget) {
+        chunkStreamer.send(budget, CENTER, FORWARD, encodingCache, (pos, store) -> sent.add(pos));
+    }
+
+    private static Chunk mockChunk(Vector3i pos, long generation) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getPosition()).thenReturn(pos);
+        when(chunk.getModificationGeneration()).thenReturn(generation);
+        Supplier<EntityData.ChunkStore.Builder> encoder = () -> encodedChunk(pos);
+        when(chunk.copyForEncoding()).thenReturn(encoder);
+        return chunk;
+    }
+
+    private static EntityData.ChunkStore.Builder encodedChunk(Vector3i pos) {
+        return EntityData.ChunkStore.newBuilder().setX(pos.x).setY(pos.y).setZ(pos.z);
+    }
+}
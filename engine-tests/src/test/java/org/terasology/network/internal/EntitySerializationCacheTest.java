@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class EntitySerializationCacheTest {
+    private static final Set<Class<? extends Component>> NONE = ImmutableSet.of();
+
+    private EntitySerializationCache cache;
+    private AtomicInteger serializations;
+    private Supplier<EntityData.PackedEntity> serializer;
+
+    @Before
+    public void setup() {
+        cache = new EntitySerializationCache();
+        serializations = new AtomicInteger();
+        serializer = () -> {
+            serializations.incrementAndGet();
+            return EntityData.PackedEntity.newBuilder().setId(1).build();
+        };
+    }
+
+    @Test
+    public void testSameViewIsSerializedOnce() {
+        Set<Class<? extends Component>> changed = Sets.newLinkedHashSet();
+        changed.add(StringComponent.class);
+        changed.add(IntegerComponent.class);
+        Set<Class<? extends Component>> reordered = Sets.newLinkedHashSet();
+        reordered.add(IntegerComponent.class);
+        reordered.add(StringComponent.class);
+
+        EntityData.PackedEntity first = cache.getUpdate(1, false, NONE, changed, NONE, serializer);
+        EntityData.PackedEntity second = cache.getUpdate(1, false, NONE, reordered, NONE, serializer);
+
+        assertSame(first, second);
+        assertEquals(1, serializations.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testViewsAreSerializedSeparately() {
+        Set<Class<? extends Component>> changed = ImmutableSet.of(StringComponent.class);
+        cache.getUpdate(1, false, NONE, changed, NONE, serializer);
+        cache.getUpdate(1, true, NONE, changed, NONE, serializer);
+        cache.getUpdate(1, false, changed, NONE, NONE, serializer);
+        cache.getUpdate(2, false, NONE, changed, NONE, serializer);
+        cache.getInitial(1, false, serializer);
+
+        assertEquals(5, serializations.get());
+    }
+
+    @Test
+    public void testMissingChangesAreCached() {
+        cache.getUpdate(1, false, NONE, NONE, NONE, () -> {
+            serializations.incrementAndGet();
+            return null;
+        });
+
+        assertNull(cache.getUpdate(1, false, NONE, NONE, NONE, serializer));
+        assertEquals(1, serializations.get());
+    }
+
+    @Test
+    public void testInvalidateDropsEntity() {
+        cache.getInitial(1, false, serializer);
+        cache.getInitial(2, false, serializer);
+        cache.invalidate(1);
+        cache.getInitial(1, false, serializer);
+        cache.getInitial(2, false, serializer);
+
+        assertEquals(3, serializations.get());
+    }
+
+    @Test
+    public void testClearDropsEverything() {
+        cache.getInitial(1, false, serializer);
+        cache.clear();
+        cache.getInitial(1, false, serializer);
+
+        assertEquals(2, serializations.get());
+    }
+}
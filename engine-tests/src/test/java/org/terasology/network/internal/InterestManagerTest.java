@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InterestManagerTest {
+    private static final Vector3i CHUNK_DISTANCE = new Vector3i(8, 8, 8);
+    private static final String VIEWER = "viewer";
+
+    private InterestManager<String> interestManager;
+    private TIntList enrolled;
+    private TIntList retired;
+
+    @Before
+    public void setup() {
+        interestManager = new InterestManager<>();
+        enrolled = new TIntArrayList();
+        retired = new TIntArrayList();
+    }
+
+    @Test
+    public void testEnrollsInEntitiesWithinViewDistance() {
+        interestManager.add(1, new Vector3i(4, 0, 0));
+        interestManager.add(2, new Vector3i(5, 0, 0));
+        update(new Vector3i(0, 0, 0));
+
+        assertEquals(new TIntArrayList(new int[]{1}), enrolled);
+        assertTrue(interestManager.isEnrolled(VIEWER, 1));
+        assertFalse(interestManager.isEnrolled(VIEWER, 2));
+    }
+
+    @Test
+    public void testRetiresOnlyBeyondHysteresis() {
+        interestManager.add(1, new Vector3i(4, 0, 0));
+        update(new Vector3i(0, 0, 0));
+
+        interestManager.move(1, new Vector3i(4 + InterestManager.HYSTERESIS_CHUNKS, 0, 0));
+        update(new Vector3i(0, 0, 0));
+        assertTrue(retired.isEmpty());
+        assertTrue(interestManager.isEnrolled(VIEWER, 1));
+
+        interestManager.move(1, new Vector3i(5 + InterestManager.HYSTERESIS_CHUNKS, 0, 0));
+        update(new Vector3i(0, 0, 0));
+        assertEquals(new TIntArrayList(new int[]{1}), retired);
+        assertFalse(interestManager.isEnrolled(VIEWER, 1));
+    }
+
+    @Test
+    public void testEnrollsAndRetiresInCrowdedWorld() {
+        // more occupied cells than cells within the view distance
+        for (int x = -600; x < 600; x++) {
+            interestManager.add(x + 1000, new Vector3i(x, 0, 0));
+        }
+        update(new Vector3i(0, 0, 0));
+        assertEquals(9, enrolled.size());
+        for (int x = -4; x <= 4; x++) {
+            assertTrue(interestManager.isEnrolled(VIEWER, x + 1000));
+        }
+
+        enrolled.clear();
+        update(new Vector3i(2, 0, 0));
+        assertEquals(new TIntArrayList(new int[]{-4 + 1000}), retired);
+        assertEquals(new TIntArrayList(new int[]{5 + 1000, 6 + 1000}), sorted(enrolled));
+        assertTrue(interestManager.isEnrolled(VIEWER, -3 + 1000));
+    }
+
+    @Test
+    public void testEntityWithoutPositionIsAlwaysRelevant() {
+        interestManager.add(1, null);
+        update(null);
+
+        assertEquals(new TIntArrayList(new int[]{1}), enrolled);
+        assertTrue(interestManager.enrollIfRelevant("other", 1, new Vector3i(100, 0, 0), CHUNK_DISTANCE));
+    }
+
+    @Test
+    public void testPinnedEntityIsNeverRetired() {
+        interestManager.add(1, new Vector3i(100, 0, 0));
+        interestManager.update(VIEWER, new Vector3i(0, 0, 0), CHUNK_DISTANCE, new TIntHashSet(new int[]{1}), enrolled::add, retired::add);
+
+        assertEquals(new TIntArrayList(new int[]{1}), enrolled);
+        interestManager.update(VIEWER, new Vector3i(0, 0, 0), CHUNK_DISTANCE, new TIntHashSet(new int[]{1}), enrolled::add, retired::add);
+        assertTrue(retired.isEmpty());
+    }
+
+    @Test
+    public void testEnrollIfRelevant() {
+        interestManager.add(1, new Vector3i(0, 0, 3));
+
+        assertFalse(interestManager.enrollIfRelevant(VIEWER, 1, new Vector3i(0, 0, -2), CHUNK_DISTANCE));
+        assertTrue(interestManager.enrollIfRelevant(VIEWER, 1, new Vector3i(0, 0, 0), CHUNK_DISTANCE));
+        assertFalse(interestManager.enrollIfRelevant(VIEWER, 1, new Vector3i(0, 0, 0), CHUNK_DISTANCE));
+    }
+
+    @Test
+    public void testRemovedEntityIsForgotten() {
+        interestManager.add(1, new Vector3i(0, 0, 0));
+        update(new Vector3i(0, 0, 0));
+        interestManager.remove(1);
+
+        assertFalse(interestManager.contains(1));
+        assertFalse(interestManager.isEnrolled(VIEWER, 1));
+        update(new Vector3i(0, 0, 0));
+        assertEquals(1, enrolled.size());
+    }
+
+    private static TIntList sorted(TIntList list) {
+        TIntList result = new TIntArrayList(list);
+        result.sort();
+        return result;
+    }
+
+    private void update(Vector3i viewerCell) {
+        interestManager.update(VIEWER, viewerCell, CHUNK_DISTANCE, new TIntHashSet(), enrolled::add, retired::add);
+    }
+}
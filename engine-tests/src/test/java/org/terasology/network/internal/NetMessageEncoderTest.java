@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.protobuf.ByteString;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.junit.Test;
+import org.terasology.protobuf.NetData;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.CompressionCodecs;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NetMessageEncoderTest {
+
+    @Test
+    public void testMessagesRoundTripWithEveryCodec() {
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            EncoderEmbedder<ChannelBuffer> encoder = new EncoderEmbedder<>(new NetMessageEncoder(codec));
+            DecoderEmbedder<NetData.NetMessage> decoder = createDecoder();
+            for (int i = 0; i < 10; i++) {
+                NetData.NetMessage message = createMessage(i, i * 1000);
+                encoder.offer(message);
+                decoder.offer(encoder.poll());
+                assertEquals(codec.getName(), message, decoder.poll());
+            }
+        }
+    }
+
+    @Test
+    public void testFramesSplitAcrossReadsAreDecoded() {
+        EncoderEmbedder<ChannelBuffer> encoder = new EncoderEmbedder<>(new NetMessageEncoder(CompressionCodecs.LZ4));
+        NetData.NetMessage first = createMessage(1, 5000);
+        NetData.NetMessage second = createMessage(2, 20);
+        encoder.offer(first);
+        encoder.offer(second);
+        ChannelBuffer stream = ChannelBuffers.wrappedBuffer(encoder.poll(), encoder.poll());
+
+        DecoderEmbedder<NetData.NetMessage> decoder = createDecoder();
+        while (stream.readable()) {
+            decoder.offer(stream.readBytes(Math.min(7, stream.readableBytes())));
+        }
+        assertEquals(first, decoder.poll());
+        assertEquals(second, decoder.poll());
+        assertNull(decoder.poll());
+    }
+
+    @Test
+    public void testCodecCanBeChangedBetweenMessages() {
+        NetMessageEncoder messageEncoder = new NetMessageEncoder(CompressionCodecs.DEFLATE);
+        EncoderEmbedder<ChannelBuffer> encoder = new EncoderEmbedder<>(messageEncoder);
+        DecoderEmbedder<NetData.NetMessage> decoder = createDecoder();
+        NetData.NetMessage message = createMessage(3, 2000);
+
+        encoder.offer(message);
+        messageEncoder.setCodec(CompressionCodecs.LZ4);
+        encoder.offer(message);
+        messageEncoder.setCodec(CompressionCodecs.DEFLATE);
+        encoder.offer(message);
+
+        ChannelBuffer deflated = encoder.poll();
+        ChannelBuffer lz4Compressed = encoder.poll();
+        ChannelBuffer deflatedAgain = encoder.poll();
+        assertEquals(CompressionCodecs.DEFLATE.getId(), deflated.getByte(NetMessageEncoder.LENGTH_FIELD_BYTES));
+        assertEquals(CompressionCodecs.LZ4.getId(), lz4Compressed.getByte(NetMessageEncoder.LENGTH_FIELD_BYTES));
+        assertTrue(deflatedAgain.readableBytes() < deflated.readableBytes());
+        decoder.offer(deflated);
+        decoder.offer(lz4Compressed);
+        decoder.offer(deflatedAgain);
+        assertEquals(message, decoder.poll());
+        assertEquals(message, decoder.poll());
+        assertEquals(message, decoder.poll());
+    }
+
+    @Test
+    public void testMessagesLargerThanTheRetainedBuffersRoundTrip() {
+        EncoderEmbedder<ChannelBuffer> encoder = new EncoderEmbedder<>(new NetMessageEncoder(CompressionCodecs.LZ4));
+        DecoderEmbedder<NetData.NetMessage> decoder = createDecoder();
+        NetData.NetMessage large = createMessage(4, 1 << 20);
+        NetData.NetMessage small = createMessage(5, 100);
+        for (NetData.NetMessage message : new NetData.NetMessage[]{large, small, large}) {
+            encoder.offer(message);
+            decoder.offer(encoder.poll());
+            assertEquals(message, decoder.poll());
+        }
+    }
+
+    private static DecoderEmbedder<NetData.NetMessage> createDecoder() {
+        return new DecoderEmbedder<>(NetMessageDecoder.createFrameDecoder(), new NetMessageDecoder());
+    }
+
+    /**
+     * @return a message with module data, half of which is random and half repetitive.
+     */
+    private static NetData.NetMessage createMessage(long time, int dataLength) {
+        byte[] data = new byte[dataLength];
+        new Random(time).nextBytes(data);
+        for (int i = dataLength / 2; i < dataLength; i++) {
+            data[i] = (byte) (i % 3);
+        }
+        return NetData.NetMessage.newBuilder()
+                .setTime(time)
+                .setModuleData(NetData.ModuleData.newBuilder().setModule(ByteString.copyFrom(data)))
+                .build();
+    }
+}
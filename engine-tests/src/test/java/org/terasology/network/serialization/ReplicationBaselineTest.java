@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.serialization;
+
+import gnu.trove.map.TLongObjectMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
+import org.terasology.network.Replicate;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicationBaselineTest {
+    private static final long ENTITY_ID = 1;
+
+    private ReplicationBaseline baseline;
+    private ReplicatedFieldMetadata<QuantizedComponent, ?> nameField;
+    private ReplicatedFieldMetadata<QuantizedComponent, ?> valueField;
+    private QuantizedComponent component;
+
+    @Before
+    public void setup() throws Exception {
+        ReflectFactory reflectFactory = new ReflectionReflectFactory();
+        ComponentMetadata<QuantizedComponent> metadata = new ComponentMetadata<>(new SimpleUri("test:quantized"), QuantizedComponent.class,
+                reflectFactory, new CopyStrategyLibrary(reflectFactory));
+        nameField = metadata.getField("name");
+        valueField = metadata.getField("value");
+        baseline = new ReplicationBaseline();
+        component = new QuantizedComponent();
+    }
+
+    @Test
+    public void testFieldWithoutBaselineHasChanged() {
+        assertTrue(baseline.hasChanged(ENTITY_ID, nameField, component));
+    }
+
+    @Test
+    public void testRecordedValueBecomesBaselineOnCommit() {
+        baseline.record(ENTITY_ID, nameField, component);
+        assertTrue(baseline.hasChanged(ENTITY_ID, nameField, component));
+
+        baseline.commit();
+        assertFalse(baseline.hasChanged(ENTITY_ID, nameField, component));
+
+        component.name = "changed";
+        assertTrue(baseline.hasChanged(ENTITY_ID, nameField, component));
+    }
+
+    @Test
+    public void testChangesSmallerThanQuantizationAreIgnored() {
+        baseline.record(ENTITY_ID, valueField, component);
+        baseline.commit();
+
+        component.value = 0.05f;
+        assertFalse(baseline.hasChanged(ENTITY_ID, valueField, component));
+        component.value = 0.1f;
+        assertTrue(baseline.hasChanged(ENTITY_ID, valueField, component));
+    }
+
+    @Test
+    public void testConflictingValuesWithinTickDropBaseline() {
+        baseline.record(ENTITY_ID, nameField, component);
+        baseline.commit();
+
+        baseline.record(ENTITY_ID, nameField, component);
+        component.name = "changed";
+        baseline.record(ENTITY_ID, nameField, component);
+        baseline.commit();
+
+        assertTrue(baseline.hasChanged(ENTITY_ID, nameField, component));
+    }
+
+    @Test
+    public void testResetForgetsEntity() {
+        baseline.record(ENTITY_ID, nameField, component);
+        baseline.commit();
+        baseline.reset(ENTITY_ID);
+
+        assertTrue(baseline.hasChanged(ENTITY_ID, nameField, component));
+    }
+
+    @Test
+    public void testHeldBackChangeIsSettledOnceComponentStopsChanging() {
+        baseline.record(ENTITY_ID, valueField, component);
+        baseline.commit();
+
+        component.value = 0.05f;
+        assertFalse(baseline.hasChanged(ENTITY_ID, valueField, component));
+        assertTrue(baseline.commit().isEmpty());
+
+        TLongObjectMap<Set<Class<? extends Component>>> settled = baseline.commit();
+        assertTrue(settled.get(ENTITY_ID).contains(QuantizedComponent.class));
+        assertTrue(baseline.hasChanged(ENTITY_ID, valueField, component));
+    }
+
+    @Test
+    public void testHeldBackChangeIsNotSettledWhileComponentKeepsChanging() {
+        baseline.record(ENTITY_ID, valueField, component);
+        baseline.commit();
+
+        component.value = 0.05f;
+        assertFalse(baseline.hasChanged(ENTITY_ID, valueField, component));
+        baseline.commit();
+        component.value = 0.06f;
+        assertFalse(baseline.hasChanged(ENTITY_ID, valueField, component));
+
+        assertTrue(baseline.commit().isEmpty());
+    }
+
+    public static class QuantizedComponent implements Component {
+        @Replicate
+        public String name = "name";
+        @Replicate(quantization = 0.1f)
+        public float value;
+    }
+}
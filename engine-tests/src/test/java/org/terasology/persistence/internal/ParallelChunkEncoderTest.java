@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelChunkEncoderTest {
+
+    @Test
+    public void testChunksAreWrittenInOrder() throws IOException {
+        List<Integer> chunks = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            chunks.add(i);
+        }
+        List<String> written = Lists.newArrayList();
+        new ParallelChunkEncoder<Integer>(4).encodeAndWrite(chunks,
+                chunk -> {
+                    if (chunk % 7 == 0) {
+                        Thread.yield();
+                    }
+                    return String.valueOf(chunk).getBytes(StandardCharsets.UTF_8);
+                },
+                (chunk, encoded) -> written.add(chunk + "=" + new String(encoded, StandardCharsets.UTF_8)));
+
+        assertEquals(chunks.size(), written.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            assertEquals(i + "=" + i, written.get(i));
+        }
+    }
+
+    @Test
+    public void testNoChunks() throws IOException {
+        new ParallelChunkEncoder<Integer>(2).encodeAndWrite(Collections.emptyList(), chunk -> new byte[0],
+                (chunk, encoded) -> {
+                    throw new IllegalStateException();
+                });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEncodingFailureIsRethrown() throws IOException {
+        new ParallelChunkEncoder<Integer>(2).encodeAndWrite(Lists.newArrayList(1, 2, 3),
+                chunk -> {
+                    if (chunk == 2) {
+                        throw new IllegalStateException();
+                    }
+                    return new byte[0];
+                },
+                (chunk, encoded) -> {
+                });
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteFailureIsRethrown() throws IOException {
+        new ParallelChunkEncoder<Integer>(2).encodeAndWrite(Lists.newArrayList(1, 2, 3), chunk -> new byte[0],
+                (chunk, encoded) -> {
+                    throw new IOException();
+                });
+    }
+}
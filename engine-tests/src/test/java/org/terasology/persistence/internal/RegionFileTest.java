@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RegionFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setup() throws IOException {
+        path = temporaryFolder.getRoot().toPath().resolve("0.0.0.chunks.region");
+    }
+
+    @Test
+    public void testReadWrittenChunk() throws IOException {
+        byte[] data = createData(100, 1);
+        try (RegionFile regionFile = RegionFile.create(path)) {
+            regionFile.write(5, data);
+            assertArrayEquals(data, regionFile.read(5));
+            assertNull(regionFile.read(6));
+            assertEquals(1, regionFile.getChunkCount());
+        }
+    }
+
+    @Test
+    public void testChunksSurviveReopening() throws IOException {
+        byte[] first = createData(5000, 1);
+        byte[] second = createData(10, 2);
+        try (RegionFile regionFile = RegionFile.create(path)) {
+            regionFile.write(0, first);
+            regionFile.write(RegionFile.MAX_CHUNKS - 1, second);
+        }
+        try (RegionFile regionFile = RegionFile.open(path)) {
+            assertEquals(2, regionFile.getChunkCount());
+            assertArrayEquals(first, regionFile.read(0));
+            assertArrayEquals(second, regionFile.read(RegionFile.MAX_CHUNKS - 1));
+        }
+    }
+
+    @Test
+    public void testGrowingChunkDoesNotOverwriteOthers() throws IOException {
+        byte[] neighbour = createData(RegionFile.SECTOR_SIZE, 3);
+        byte[] grown = createData(3 * RegionFile.SECTOR_SIZE, 4);
+        try (RegionFile regionFile = RegionFile.create(path)) {
+            regionFile.write(1, createData(10, 1));
+            regionFile.write(2, neighbour);
+            regionFile.write(1, grown);
+            assertArrayEquals(grown, regionFile.read(1));
+            assertArrayEquals(neighbour, regionFile.read(2));
+        }
+    }
+
+    @Test
+    public void testRewriteInPlaceDoesNotGrowFile() throws IOException {
+        try (RegionFile regionFile = RegionFile.create(path)) {
+            regionFile.write(1, createData(RegionFile.SECTOR_SIZE, 1));
+            long size = Files.size(path);
+            byte[] smaller = createData(100, 2);
+            regionFile.write(1, smaller);
+            assertEquals(size, Files.size(path));
+            assertArrayEquals(smaller, regionFile.read(1));
+        }
+    }
+
+    @Test
+    public void testDeletedSectorsAreReused() throws IOException {
+        try (RegionFile regionFile = RegionFile.create(path)) {
+            regionFile.write(1, createData(RegionFile.SECTOR_SIZE, 1));
+            regionFile.write(2, createData(RegionFile.SECTOR_SIZE, 2));
+            long size = Files.size(path);
+            regionFile.delete(1);
+            assertFalse(regionFile.contains(1));
+            regionFile.write(3, createData(RegionFile.SECTOR_SIZE, 3));
+            assertEquals(size, Files.size(path));
+            assertTrue(regionFile.contains(3));
+        }
+    }
+
+    @Test
+    public void testCopyChunksTo() throws IOException {
+        Path targetPath = temporaryFolder.getRoot().toPath().resolve("target.chunks.region");
+        byte[] kept = createData(50, 1);
+        byte[] replaced = createData(60, 2);
+        byte[] added = createData(70, 3);
+        try (RegionFile target = RegionFile.create(targetPath); RegionFile source = RegionFile.create(path)) {
+            target.write(1, kept);
+            target.write(2, createData(40, 4));
+            source.write(2, replaced);
+            source.write(3, added);
+            source.copyChunksTo(target);
+            assertArrayEquals(kept, target.read(1));
+            assertArrayEquals(replaced, target.read(2));
+            assertArrayEquals(added, target.read(3));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Files.write(path, createData(2 * 1024 * 1024, 1));
+        RegionFile.open(path);
+    }
+
+    private static byte[] createData(int length, int seed) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) seed);
+        data[0] = (byte) (seed + 1);
+        return data;
+    }
+}
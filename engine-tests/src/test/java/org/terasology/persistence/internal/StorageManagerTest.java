@@ -273,9 +273,9 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
         when(chunkProvider.getChunk(Matchers.any(Vector3i.class))).thenReturn(chunk);
         CoreRegistry.put(ChunkProvider.class, chunkProvider);
-        boolean storeChunkInZips = true;
+        boolean storeChunksInRegions = true;
 
-        esm.setStoreChunksInZips(storeChunkInZips);
+        esm.setStoreChunksInRegions(storeChunksInRegions);
         esm.waitForCompletionOfPreviousSaveAndStartSaving();
         esm.finishSavingAndShutdown();
 
@@ -283,7 +283,7 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
         EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
         StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
-                biomeManager, storeChunkInZips);
+                biomeManager, storeChunksInRegions);
         newSM.loadGlobalStore();
 
         ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
@@ -294,6 +294,27 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void testUnmodifiedChunkIsNotSavedAgain() throws Exception {
+        ChunkImpl chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        assertEquals(1, esm.getEncodedChunksOfLastSave());
+        esm.finishSavingAndShutdown();
+        assertEquals(0, esm.getEncodedChunksOfLastSave());
+        assertEquals(1, esm.getSkippedChunksOfLastSave());
+        assertFalse(chunk.isModifiedSincePersisted());
+
+        chunk.setBlock(0, 1, 0, testBlock2);
+        assertTrue(chunk.isModifiedSincePersisted());
+    }
+
     @Test
     public void testEntitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
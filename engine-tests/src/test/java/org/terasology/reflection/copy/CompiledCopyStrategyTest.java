@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.reflection.copy;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.engine.SimpleUri;
+import org.terasology.reflection.metadata.DefaultClassMetadata;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledCopyStrategyTest {
+
+    private CompiledCopyStrategy<TestObject> strategy;
+
+    @Before
+    public void setup() throws NoSuchMethodException, IllegalAccessException {
+        ReflectionReflectFactory reflectFactory = new ReflectionReflectFactory();
+        CopyStrategyLibrary copyStrategies = new CopyStrategyLibrary(reflectFactory);
+        strategy = CompiledCopyStrategy.create(new DefaultClassMetadata<>(new SimpleUri(), TestObject.class, reflectFactory, copyStrategies));
+    }
+
+    @Test
+    public void testCopy() {
+        TestObject original = createObject();
+
+        TestObject copy = strategy.copy(original);
+
+        assertNotSame(original, copy);
+        assertEquals(3, copy.intValue);
+        assertEquals(0.5f, copy.floatValue, 0);
+        assertEquals("text", copy.text);
+        assertEquals(7L, copy.getPrivateValue());
+        assertEquals(original.list, copy.list);
+        assertNotSame(original.list, copy.list);
+        assertEquals(1, copy.setterCalls);
+    }
+
+    @Test
+    public void testCopyOfNull() {
+        assertNull(strategy.copy(null));
+    }
+
+    @Test
+    public void testFieldsEqual() {
+        TestObject original = createObject();
+        TestObject copy = strategy.copy(original);
+        assertTrue(strategy.fieldsEqual(original, copy));
+
+        copy.list.add("more");
+        assertFalse(strategy.fieldsEqual(original, copy));
+        copy.list.remove("more");
+        copy.setPrivateValue(8L);
+        assertFalse(strategy.fieldsEqual(original, copy));
+    }
+
+    @Test
+    public void testNaNEqualsItself() {
+        TestObject original = createObject();
+        original.floatValue = Float.NaN;
+        assertTrue(strategy.fieldsEqual(original, strategy.copy(original)));
+    }
+
+    private static TestObject createObject() {
+        TestObject object = new TestObject();
+        object.intValue = 3;
+        object.floatValue = 0.5f;
+        object.text = "text";
+        object.setPrivateValue(7L);
+        object.list.add("a");
+        object.list.add("b");
+        return object;
+    }
+
+    public static class TestObject {
+        public int intValue;
+        public float floatValue;
+        public String text;
+        public List<String> list = Lists.newArrayList();
+        private long privateValue;
+        private transient int setterCalls;
+
+        public long getPrivateValue() {
+            return privateValue;
+        }
+
+        public void setPrivateValue(long privateValue) {
+            setterCalls++;
+            this.privateValue = privateValue;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.WhiteNoise;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that evaluating a grid at once yields the same values as evaluating one position at a time.
+ */
+@RunWith(Parameterized.class)
+public class NoiseGridTest {
+
+    private static final float[] XS = {-33.5f, -1.25f, 0, 0.75f, 17, 123.125f, 1000.5f};
+    private static final float[] YS = {-7.5f, 0, 2.25f, 64.5f, 255.75f};
+    private static final float[] ZS = {-3, 0.5f, 9.75f};
+
+    private Noise noiseGen;
+
+    public NoiseGridTest(Noise noiseGen) {
+        this.noiseGen = noiseGen;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Noise[]> data() {
+        return Arrays.asList(new Noise[][]{
+                {new WhiteNoise(0xCAFE)},
+                {new SimplexNoise(0xCAFE)},
+                {new PerlinNoise(0xCAFE)},
+                {new BrownianNoise(new PerlinNoise(0xCAFE), 8)},
+                {new BrownianNoise(new SimplexNoise(0xCAFE), 3)}
+        });
+    }
+
+    @Test
+    public void testGrid2D() {
+        float[] result = new float[XS.length * YS.length];
+        noiseGen.noise(XS, YS, result);
+        for (int y = 0; y < YS.length; y++) {
+            for (int x = 0; x < XS.length; x++) {
+                assertEquals(noiseGen.noise(XS[x], YS[y]), result[x + XS.length * y], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testGrid3D() {
+        float[] result = new float[XS.length * YS.length * ZS.length];
+        noiseGen.noise(XS, YS, ZS, result);
+        for (int z = 0; z < ZS.length; z++) {
+            for (int y = 0; y < YS.length; y++) {
+                for (int x = 0; x < XS.length; x++) {
+                    assertEquals(noiseGen.noise(XS[x], YS[y], ZS[z]), result[x + XS.length * (y + YS.length * z)], 0);
+                }
+            }
+        }
+    }
+}
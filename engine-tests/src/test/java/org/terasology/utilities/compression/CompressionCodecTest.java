@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompressionCodecTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(42);
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            for (int length : new int[]{0, 1, 12, 13, 100, 4096, 70000, 300000}) {
+                byte[] repetitive = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    repetitive[i] = (byte) ((i / 7) % 5);
+                }
+                assertRoundTrip(codec, repetitive);
+
+                byte[] randomData = new byte[length];
+                random.nextBytes(randomData);
+                assertRoundTrip(codec, randomData);
+            }
+        }
+    }
+
+    @Test
+    public void testLongRunsAreCompressed() throws IOException {
+        byte[] data = new byte[100000];
+        Arrays.fill(data, 50000, 100000, (byte) 3);
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            byte[] compressed = assertRoundTrip(codec, data);
+            assertTrue(codec.getName(), compressed.length < data.length / 100);
+        }
+    }
+
+    @Test
+    public void testCompressedBlocksAreDecompressedInOrder() throws IOException {
+        Random random = new Random(7);
+        byte[] data = new byte[100000];
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            try (Compressor compressor = codec.newCompressor(); Decompressor decompressor = codec.newDecompressor()) {
+                for (int length : new int[]{70000, 0, 13, 4096, 100000, 100}) {
+                    random.nextBytes(data);
+                    Arrays.fill(data, length / 2, length, (byte) 9);
+                    byte[] compressed = compressBlock(compressor, data, length);
+                    assertArrayEquals(codec.getName() + " " + length, Arrays.copyOf(data, length), decompressor.decompress(compressed, length));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDeflateBlocksReferToEarlierBlocks() throws IOException {
+        byte[] data = new byte[200];
+        new Random(3).nextBytes(data);
+        try (Compressor compressor = CompressionCodecs.DEFLATE.newCompressor();
+             Decompressor decompressor = CompressionCodecs.DEFLATE.newDecompressor()) {
+            byte[] first = compressBlock(compressor, data, data.length);
+            byte[] second = compressBlock(compressor, data, data.length);
+            assertTrue(second.length < first.length / 4);
+            assertArrayEquals(data, decompressor.decompress(first, data.length));
+            assertArrayEquals(data, decompressor.decompress(second, data.length));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testDeflateBlocksOutOfOrderAreRejected() throws IOException {
+        byte[] data = new byte[200];
+        new Random(3).nextBytes(data);
+        try (Compressor compressor = CompressionCodecs.DEFLATE.newCompressor();
+             Decompressor decompressor = CompressionCodecs.DEFLATE.newDecompressor()) {
+            compressBlock(compressor, data, data.length);
+            decompressor.decompress(compressBlock(compressor, data, data.length), data.length);
+        }
+    }
+
+    @Test
+    public void testCodecsAreFoundByNameAndId() {
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            assertEquals(codec, CompressionCodecs.getByName(codec.getName()));
+            assertEquals(codec, CompressionCodecs.getById(codec.getId()));
+        }
+    }
+
+    @Test
+    public void testNamesStartWithPreferredCodec() {
+        assertEquals(Arrays.asList("lz4", "gzip", "deflate"), CompressionCodecs.getNames("lz4"));
+        assertEquals(Arrays.asList("gzip", "deflate", "lz4"), CompressionCodecs.getNames("unknown"));
+    }
+
+    @Test
+    public void testChoosePreferredCodecIfSupported() {
+        assertEquals(CompressionCodecs.LZ4, CompressionCodecs.choose("lz4", Arrays.asList("deflate", "lz4")));
+        assertEquals(CompressionCodecs.DEFLATE, CompressionCodecs.choose("lz4", Arrays.asList("unknown", "deflate", "gzip")));
+        assertNull(CompressionCodecs.choose("lz4", Collections.singletonList("unknown")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedLz4BlockIsRejected() throws IOException {
+        byte[] data = new byte[1000];
+        new Random(1).nextBytes(data);
+        byte[] compressed = CompressionCodecs.LZ4.compress(data);
+        CompressionCodecs.LZ4.decompress(Arrays.copyOf(compressed, compressed.length - 10));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedDeflateDataIsRejected() throws IOException {
+        byte[] data = new byte[1000];
+        new Random(1).nextBytes(data);
+        byte[] compressed = CompressionCodecs.DEFLATE.compress(data);
+        CompressionCodecs.DEFLATE.decompress(Arrays.copyOf(compressed, compressed.length - 10));
+    }
+
+    @Test
+    public void testDecompressedLengthIsLimited() throws IOException {
+        byte[] data = new byte[1000];
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            byte[] compressed = codec.compress(data);
+            assertArrayEquals(data, codec.decompress(compressed, data.length));
+            try {
+                codec.decompress(compressed, data.length - 1);
+                fail(codec.getName() + " decompressed beyond the limit");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testForgedLengthIsRejectedBeforeAllocating() throws IOException {
+        byte[] compressed = CompressionCodecs.LZ4.compress(new byte[100]);
+        compressed[0] = 0x7F;
+        CompressionCodecs.LZ4.decompress(compressed, 1 << 20);
+    }
+
+    private static byte[] compressBlock(Compressor compressor, byte[] data, int length) {
+        byte[] target = new byte[5 + compressor.maxCompressedLength(length)];
+        int written = compressor.compress(data, length, target, 5);
+        return Arrays.copyOfRange(target, 5, 5 + written);
+    }
+
+    private static byte[] assertRoundTrip(CompressionCodec codec, byte[] data) throws IOException {
+        byte[] compressed = codec.compress(data);
+        assertNotNull(compressed);
+        assertArrayEquals(codec.getName() + " " + data.length, data, codec.decompress(compressed));
+        return compressed;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskMasterTest {
+
+    private TaskMaster<Task> taskMaster;
+
+    @Before
+    public void setup() {
+        taskMaster = TaskMaster.createFIFOTaskMaster("Test", 1);
+    }
+
+    @After
+    public void tearDown() {
+        taskMaster.shutdown(new ShutdownTask(), false);
+    }
+
+    @Test
+    public void testAddedThreadsProcessTasks() throws InterruptedException {
+        taskMaster.setThreads(4);
+        CountDownLatch started = new CountDownLatch(4);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            taskMaster.put(new BlockingTask(started, release));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals(4, taskMaster.getThreads());
+    }
+
+    @Test
+    public void testRemovedThreadsStop() throws InterruptedException {
+        taskMaster.setThreads(4);
+        taskMaster.setThreads(2);
+        // idle threads notice that they have been removed the next time they look for a task
+        Thread.sleep(1500);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            taskMaster.put(new AbstractTask() {
+                @Override
+                public String getName() {
+                    return "Counting";
+                }
+
+                @Override
+                public void run() {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+    }
+
+    private static class BlockingTask extends AbstractTask {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingTask(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String getName() {
+            return "Blocking";
+        }
+
+        @Override
+        public void run() {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
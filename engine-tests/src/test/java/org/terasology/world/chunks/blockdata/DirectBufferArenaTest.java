@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DirectBufferArenaTest {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    private DirectBufferArena arena = new DirectBufferArena(SIZE_X * SIZE_Y * SIZE_Z);
+
+    @Test
+    public void testAcquireTracksLiveSlabs() {
+        TeraOffHeapArray8Bit first = new TeraOffHeapArray8Bit(arena, SIZE_X, SIZE_Y, SIZE_Z);
+        TeraOffHeapArray8Bit second = new TeraOffHeapArray8Bit(arena, SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(2, arena.getLiveSlabs());
+        assertEquals(2L * arena.getSlabSize(), arena.getBytesInUse());
+        assertEquals(arena.getBytesAllocated(), arena.getBytesInUse() + arena.getBytesFree());
+
+        first.release();
+        assertTrue(first.isReleased());
+        assertFalse(second.isReleased());
+        assertEquals(1, arena.getLiveSlabs());
+        assertEquals(arena.getBytesAllocated(), arena.getBytesInUse() + arena.getBytesFree());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleReleaseFails() {
+        TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(arena, SIZE_X, SIZE_Y, SIZE_Z);
+        array.release();
+        array.release();
+    }
+
+    @Test
+    public void testReleasedSlabsAreReusedWithoutOpenSections() {
+        DirectBufferArena singleSlabArena = createSingleSlabPerBlockArena();
+        TeraOffHeapArray8Bit first = new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z);
+        first.set(1, 2, 3, 42);
+        first.release();
+
+        TeraOffHeapArray8Bit second = new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(singleSlabArena.getSlabSize(), singleSlabArena.getBytesAllocated());
+        assertEquals(0, second.get(1, 2, 3));
+    }
+
+    @Test
+    public void testSlabsReleasedWithinSectionAreNotReusedUntilItIsClosed() {
+        DirectBufferArena singleSlabArena = createSingleSlabPerBlockArena();
+        TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(1, 2, 3, 42);
+        DirectBufferArena.Section section = singleSlabArena.enter();
+        array.release();
+
+        TeraOffHeapArray8Bit other = new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z);
+        other.set(1, 2, 3, 7);
+        assertEquals(42, array.get(1, 2, 3));
+        assertEquals(1, singleSlabArena.getRetiredSlabs());
+        assertEquals(2L * singleSlabArena.getSlabSize(), singleSlabArena.getBytesAllocated());
+
+        section.close();
+        new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, singleSlabArena.getRetiredSlabs());
+        assertEquals(2L * singleSlabArena.getSlabSize(), singleSlabArena.getBytesAllocated());
+    }
+
+    @Test
+    public void testSectionsOpenedAfterReleaseDoNotDelayReuse() {
+        DirectBufferArena singleSlabArena = createSingleSlabPerBlockArena();
+        new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z).release();
+        try (DirectBufferArena.Section ignored = singleSlabArena.enter()) {
+            new TeraOffHeapArray8Bit(singleSlabArena, SIZE_X, SIZE_Y, SIZE_Z);
+            assertEquals(singleSlabArena.getSlabSize(), singleSlabArena.getBytesAllocated());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWritingReleasedArrayFails() {
+        TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(arena, SIZE_X, SIZE_Y, SIZE_Z);
+        array.release();
+        array.set(0, 0, 0, 1);
+    }
+
+    @Test
+    public void testReadWrite() {
+        TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(arena, SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, array.set(31, 63, 31, 15));
+        assertEquals(15, array.get(31, 63, 31));
+        assertEquals(15, array.set(31, 63, 31, -3));
+        assertTrue(array.set(0, 0, 0, 7, 0));
+        assertFalse(array.set(0, 0, 0, 8, 0));
+
+        TeraArray copy = array.copy();
+        assertEquals(-3, copy.get(31, 63, 31));
+        assertEquals(7, copy.get(0, 0, 0));
+    }
+
+    @Test
+    public void testDeflateCollapsesUniformArrays() {
+        TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(arena, SIZE_X, SIZE_Y, SIZE_Z);
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+        assertTrue(deflated instanceof TeraSparseArray8Bit);
+        assertEquals(0, deflated.get(3, 4, 5));
+
+        array.set(3, 4, 5, 1);
+        assertNull(array.deflate(new TeraStandardDeflator()));
+    }
+
+    /**
+     * @return an arena whose slabs are as large as its blocks, so every slab that is not reused causes an allocation.
+     */
+    private static DirectBufferArena createSingleSlabPerBlockArena() {
+        return new DirectBufferArena(1 << 20);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TeraPaletteArrayTest {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    @Test
+    public void testStartsWithOneBitEntries() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(1, array.getElementSizeInBits());
+        assertEquals(1, array.getPaletteSize());
+        assertEquals(0, array.get(5, 6, 7));
+    }
+
+    @Test
+    public void testWidensAsValuesAppear() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        int[] expectedBits = {1, 2, 4, 4, 8, 8, 8, 8, 16};
+        int[] distinctValues = {2, 3, 5, 16, 17, 100, 200, 256, 257};
+        for (int i = 0; i < distinctValues.length; i++) {
+            fillDistinct(array, distinctValues[i]);
+            assertEquals("bits for " + distinctValues[i] + " values", expectedBits[i], array.getElementSizeInBits());
+            assertDistinct(array, distinctValues[i]);
+        }
+        assertEquals(-1, array.getPaletteSize());
+    }
+
+    @Test
+    public void testSetReturnsPreviousValue() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, array.set(1, 2, 3, 42));
+        assertEquals(42, array.set(1, 2, 3, -7));
+        assertEquals(-7, array.get(1, 2, 3));
+        assertFalse(array.set(1, 2, 3, 5, 42));
+        assertTrue(array.set(1, 2, 3, 5, -7));
+        assertEquals(5, array.get(1, 2, 3));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(0, 0, 0, 3);
+        TeraArray copy = array.copy();
+        copy.set(0, 0, 0, 4);
+        copy.set(1, 0, 0, 5);
+        assertEquals(3, array.get(0, 0, 0));
+        assertEquals(0, array.get(1, 0, 0));
+        assertEquals(4, copy.get(0, 0, 0));
+        assertEquals(5, copy.get(1, 0, 0));
+    }
+
+    @Test
+    public void testDeflateDropsUnusedPaletteEntries() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        fillDistinct(array, 300);
+        assertEquals(16, array.getElementSizeInBits());
+        fillDistinct(array, 3);
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+        assertEquals(2, deflated.getElementSizeInBits());
+        assertDistinct(deflated, 3);
+        assertTrue(deflated.getEstimatedMemoryConsumptionInBytes() < array.getEstimatedMemoryConsumptionInBytes());
+        assertNull(deflated.deflate(new TeraStandardDeflator()));
+    }
+
+    @Test
+    public void testUsesLessMemoryThanDenseArray() {
+        TeraPaletteArray palette = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        TeraDenseArray16Bit dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        fillDistinct(palette, 12);
+        fillDistinct(dense, 12);
+        assertTrue(palette.getEstimatedMemoryConsumptionInBytes() * 3 < dense.getEstimatedMemoryConsumptionInBytes());
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        TeraPaletteArray.SerializationHandler handler = new TeraPaletteArray.SerializationHandler();
+        for (int distinctValues : new int[]{1, 7, 1000}) {
+            TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+            fillDistinct(array, distinctValues);
+            ByteBuffer buffer = handler.serialize(array);
+            buffer.flip();
+            TeraPaletteArray result = handler.deserialize(buffer);
+            assertEquals(array.getElementSizeInBits(), result.getElementSizeInBits());
+            assertDistinct(result, distinctValues);
+        }
+    }
+
+    private static void fillDistinct(TeraArray array, int distinctValues) {
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    array.set(x, y, z, valueAt(x, y, z, distinctValues));
+                }
+            }
+        }
+    }
+
+    private static void assertDistinct(TeraArray array, int distinctValues) {
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    assertEquals(valueAt(x, y, z, distinctValues), array.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    private static int valueAt(int x, int y, int z, int distinctValues) {
+        return ((y * SIZE_Z + z) * SIZE_X + x) % distinctValues - 1;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class LockFreeChunkCacheTest {
+
+    private LockFreeChunkCache chunkCache;
+    private Chunk[] chunks;
+
+    @Before
+    public void setup() {
+        chunkCache = new LockFreeChunkCache();
+        chunks = new Chunk[16];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = mock(Chunk.class);
+        }
+    }
+
+    @Test
+    public void testPutGetAndRemove() {
+        Vector3i pos = new Vector3i(1, -2, 3);
+        chunkCache.put(pos, chunks[0]);
+
+        assertSame(chunks[0], chunkCache.get(pos));
+        assertSame(chunks[0], chunkCache.get(1, -2, 3));
+        assertTrue(chunkCache.containsChunkAt(pos));
+        assertNull(chunkCache.get(new Vector3i(1, 2, 3)));
+        assertEquals(1, chunkCache.getAllChunks().size());
+
+        chunkCache.removeChunkAt(pos);
+        assertNull(chunkCache.get(pos));
+        assertFalse(chunkCache.containsChunkAt(pos));
+        assertTrue(chunkCache.getAllChunks().isEmpty());
+    }
+
+    @Test
+    public void testPutReplacesChunk() {
+        Vector3i pos = new Vector3i(4, 5, 6);
+        chunkCache.put(pos, chunks[0]);
+        chunkCache.put(pos, chunks[1]);
+
+        assertSame(chunks[1], chunkCache.get(pos));
+        assertEquals(1, chunkCache.getAllChunks().size());
+    }
+
+    @Test
+    public void testRemovedPositionIsReused() {
+        Vector3i pos = new Vector3i(7, 8, 9);
+        chunkCache.put(pos, chunks[0]);
+        chunkCache.removeChunkAt(pos);
+        chunkCache.put(pos, chunks[1]);
+
+        assertSame(chunks[1], chunkCache.get(pos));
+        assertEquals(1, chunkCache.getAllChunks().size());
+        assertEquals(Lists.newArrayList(pos), Lists.newArrayList(chunkCache.iterateChunkPositions()));
+    }
+
+    @Test
+    public void testRemovedChunksAreDroppedWhenRebuilding() {
+        Vector3i kept = new Vector3i(0, 0, 0);
+        chunkCache.put(kept, chunks[0]);
+        for (int i = 1; i < 10000; i++) {
+            Vector3i pos = new Vector3i(i, -i, i % 7);
+            chunkCache.put(pos, chunks[i % chunks.length]);
+            chunkCache.removeChunkAt(pos);
+        }
+
+        assertSame(chunks[0], chunkCache.get(kept));
+        assertEquals(1, chunkCache.getAllChunks().size());
+        for (int i = 1; i < 10000; i++) {
+            assertNull(chunkCache.get(i, -i, i % 7));
+        }
+    }
+
+    @Test
+    public void testCoordinatesAtTheLimitsOfTheRange() {
+        int min = LockFreeChunkCache.MIN_COORDINATE;
+        int max = LockFreeChunkCache.MAX_COORDINATE;
+        Set<Vector3i> positions = Sets.newHashSet(new Vector3i(min, min, min), new Vector3i(max, max, max),
+                new Vector3i(min, 0, max), new Vector3i(-1, -1, -1));
+        int i = 0;
+        for (Vector3i pos : positions) {
+            chunkCache.put(pos, chunks[i++]);
+        }
+
+        assertEquals(positions, Sets.newHashSet(chunkCache.iterateChunkPositions()));
+        i = 0;
+        for (Vector3i pos : positions) {
+            assertSame(chunks[i++], chunkCache.get(pos));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPositionOutOfRangeIsRejected() {
+        chunkCache.put(new Vector3i(0, LockFreeChunkCache.MAX_COORDINATE + 1, 0), chunks[0]);
+    }
+
+    @Test
+    public void testPositionOutOfRangeIsNotFound() {
+        chunkCache.put(new Vector3i(LockFreeChunkCache.MIN_COORDINATE, 0, 0), chunks[0]);
+
+        // would have the same packed position, if it was not checked
+        Vector3i outOfRange = new Vector3i(LockFreeChunkCache.MAX_COORDINATE + 1, 0, 0);
+        assertNull(chunkCache.get(outOfRange));
+        chunkCache.removeChunkAt(outOfRange);
+        assertEquals(1, chunkCache.getAllChunks().size());
+    }
+
+    @Test
+    public void testRemoveWhileIteratingPositions() {
+        for (int i = 0; i < 100; i++) {
+            chunkCache.put(new Vector3i(i, 0, 0), chunks[i % chunks.length]);
+        }
+        Iterator<Vector3i> iterator = chunkCache.iterateChunkPositions();
+        while (iterator.hasNext()) {
+            if (iterator.next().x % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(50, chunkCache.getAllChunks().size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, chunkCache.containsChunkAt(new Vector3i(i, 0, 0)));
+        }
+    }
+
+    @Test
+    public void testRemoveWhileIteratingChunks() {
+        for (int i = 0; i < chunks.length; i++) {
+            chunkCache.put(new Vector3i(0, i, 0), chunks[i]);
+        }
+        Iterator<Chunk> iterator = chunkCache.getAllChunks().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() != chunks[3]) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(Lists.newArrayList(chunks[3]), Lists.newArrayList(chunkCache.getAllChunks()));
+        assertSame(chunks[3], chunkCache.get(0, 3, 0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveRequiresNext() {
+        chunkCache.put(new Vector3i(0, 0, 0), chunks[0]);
+        chunkCache.iterateChunkPositions().remove();
+    }
+
+    @Test
+    public void testReadsWhileTheTableIsRebuilt() throws InterruptedException {
+        int stableChunks = 100;
+        for (int i = 0; i < stableChunks; i++) {
+            chunkCache.put(new Vector3i(i, 0, 0), chunks[i % chunks.length]);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger wrongReads = new AtomicInteger();
+        CountDownLatch readersStarted = new CountDownLatch(4);
+        List<Thread> readers = Lists.newArrayList();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                readersStarted.countDown();
+                while (writing.get()) {
+                    for (int i = 0; i < stableChunks; i++) {
+                        if (chunkCache.get(i, 0, 0) != chunks[i % chunks.length]) {
+                            wrongReads.incrementAndGet();
+                        }
+                        Chunk added = chunkCache.get(i, 1, 0);
+                        if (added != null && added != chunks[i % chunks.length]) {
+                            wrongReads.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        readersStarted.await();
+        for (int i = 0; i < 20000; i++) {
+            chunkCache.put(new Vector3i(i, 1, 0), chunks[i % chunks.length]);
+            if (i % 3 == 0) {
+                chunkCache.removeChunkAt(new Vector3i(i, 1, 0));
+            }
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, wrongReads.get());
+        assertEquals(stableChunks + 20000 - 6667, chunkCache.getAllChunks().size());
+    }
+}
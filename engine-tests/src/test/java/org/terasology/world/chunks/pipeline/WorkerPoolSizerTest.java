@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.pipeline;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WorkerPoolSizerTest {
+    private static final double UNKNOWN_LOAD = -1;
+
+    private final WorkerPoolSizer sizer = new WorkerPoolSizer(1, 8);
+
+    @Test
+    public void testGrowsWhileTasksPileUp() {
+        assertEquals(5, sizer.computeThreads(4, 100, 0.5));
+        assertEquals(5, sizer.computeThreads(4, 100, UNKNOWN_LOAD));
+    }
+
+    @Test
+    public void testShrinksWhileSaturated() {
+        assertEquals(3, sizer.computeThreads(4, 100, 1.5));
+    }
+
+    @Test
+    public void testShrinksWhileIdle() {
+        assertEquals(3, sizer.computeThreads(4, 0, 0.1));
+    }
+
+    @Test
+    public void testKeepsThreadsWhileBalanced() {
+        assertEquals(4, sizer.computeThreads(4, 10, 0.5));
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        assertEquals(8, sizer.computeThreads(8, 1000, 0.1));
+        assertEquals(1, sizer.computeThreads(1, 0, 2.0));
+    }
+}
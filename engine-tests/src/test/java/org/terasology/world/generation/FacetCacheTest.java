@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FacetCacheTest {
+
+    private static final Vector3i CHUNK_SIZE = new Vector3i(32, 64, 32);
+
+    private ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = ArrayListMultimap.create();
+    private HeightProvider heightProvider = new HeightProvider();
+    private DerivedHeightProvider derivedHeightProvider = new DerivedHeightProvider();
+    private SurfaceDensityProvider surfaceDensityProvider = new SurfaceDensityProvider();
+    private FacetCache facetCache;
+
+    @Before
+    public void setup() {
+        providerChains.put(HeightFacet.class, heightProvider);
+        providerChains.put(DensityFacet.class, new DensityProvider());
+        providerChains.put(DerivedHeightFacet.class, derivedHeightProvider);
+        providerChains.put(SurfaceDensityFacet.class, heightProvider);
+        providerChains.put(SurfaceDensityFacet.class, surfaceDensityProvider);
+        facetCache = new FacetCache(providerChains);
+    }
+
+    @Test
+    public void testOnly2DFacetsOf2DProvidersAreCacheable() {
+        assertTrue(facetCache.isCacheable(HeightFacet.class));
+        assertFalse(facetCache.isCacheable(DensityFacet.class));
+        assertFalse(facetCache.isCacheable(DerivedHeightFacet.class));
+        assertFalse(facetCache.isCacheable(SurfaceDensityFacet.class));
+    }
+
+    @Test
+    public void testStackedRegionsShare2DFacets() {
+        HeightFacet lower = createRegion(new Vector3i(0, 0, 0)).getFacet(HeightFacet.class);
+        HeightFacet upper = createRegion(new Vector3i(0, 1, 0)).getFacet(HeightFacet.class);
+        assertSame(lower, upper);
+        assertEquals(1, heightProvider.processed);
+    }
+
+    @Test
+    public void test3DFacetsOfStackedRegionsUseCached2DFacets() {
+        createRegion(new Vector3i(0, 0, 0)).getFacet(SurfaceDensityFacet.class);
+        RegionImpl upper = createRegion(new Vector3i(0, 1, 0));
+        HeightFacet height = upper.getFacet(HeightFacet.class);
+        upper.getFacet(SurfaceDensityFacet.class);
+        assertEquals(1, heightProvider.processed);
+        assertEquals(2, surfaceDensityProvider.processed);
+        assertSame(height, surfaceDensityProvider.lastHeightFacet);
+    }
+
+    @Test
+    public void test3DFacetsGetTheirRequired2DFacetsFromTheCache() {
+        HeightFacet height = createRegion(new Vector3i(0, 0, 0)).getFacet(HeightFacet.class);
+        createRegion(new Vector3i(0, 1, 0)).getFacet(SurfaceDensityFacet.class);
+        assertEquals(1, heightProvider.processed);
+        assertSame(height, surfaceDensityProvider.lastHeightFacet);
+    }
+
+    @Test
+    public void testNeighbouringColumnsDoNotShare2DFacets() {
+        HeightFacet first = createRegion(new Vector3i(0, 0, 0)).getFacet(HeightFacet.class);
+        HeightFacet second = createRegion(new Vector3i(1, 0, 0)).getFacet(HeightFacet.class);
+        assertNotSame(first, second);
+        assertEquals(2, heightProvider.processed);
+    }
+
+    @Test
+    public void testFacetsDependingOn3DFacetsAreNotShared() {
+        createRegion(new Vector3i(0, 0, 0)).getFacet(DerivedHeightFacet.class);
+        createRegion(new Vector3i(0, 1, 0)).getFacet(DerivedHeightFacet.class);
+        assertEquals(2, derivedHeightProvider.processed);
+    }
+
+    @Test
+    public void testClear() {
+        createRegion(new Vector3i(0, 0, 0)).getFacet(HeightFacet.class);
+        facetCache.clear();
+        createRegion(new Vector3i(0, 1, 0)).getFacet(HeightFacet.class);
+        assertEquals(2, heightProvider.processed);
+    }
+
+    private RegionImpl createRegion(Vector3i chunkPos) {
+        Vector3i min = new Vector3i(chunkPos.x * CHUNK_SIZE.x, chunkPos.y * CHUNK_SIZE.y, chunkPos.z * CHUNK_SIZE.z);
+        return new RegionImpl(Region3i.createFromMinAndSize(min, CHUNK_SIZE), providerChains, Collections.emptyMap(), facetCache);
+    }
+
+    public static class HeightFacet extends BaseFacet2D {
+        public HeightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        public DensityFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DerivedHeightFacet extends BaseFacet2D {
+        public DerivedHeightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class SurfaceDensityFacet extends BaseFacet3D {
+        public SurfaceDensityFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(HeightFacet.class)
+    public static class HeightProvider implements FacetProvider {
+        private int processed;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.setRegionFacet(HeightFacet.class, new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    public static class DensityProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(DensityFacet.class, new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class)));
+        }
+    }
+
+    @Produces(DerivedHeightFacet.class)
+    @Requires(@Facet(DensityFacet.class))
+    public static class DerivedHeightProvider implements FacetProvider {
+        private int processed;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.getRegionFacet(DensityFacet.class);
+            region.setRegionFacet(DerivedHeightFacet.class, new DerivedHeightFacet(region.getRegion(),
+                    region.getBorderForFacet(DerivedHeightFacet.class)));
+        }
+    }
+
+    @Produces(SurfaceDensityFacet.class)
+    @Requires(@Facet(HeightFacet.class))
+    public static class SurfaceDensityProvider implements FacetProvider {
+        private int processed;
+        private HeightFacet lastHeightFacet;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            lastHeightFacet = region.getRegionFacet(HeightFacet.class);
+            region.setRegionFacet(SurfaceDensityFacet.class, new SurfaceDensityFacet(region.getRegion(),
+                    region.getBorderForFacet(SurfaceDensityFacet.class)));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.compression.CompressionCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compresses or decompresses a set of encoded chunks with a codec. The title reports the compression ratio, the
+ * throughput in MB of uncompressed chunk data per second gets printed when the benchmark is finished.
+ *
+ */
+public class BenchmarkChunkCompression extends AbstractBenchmark {
+
+    /**
+     * The operation measured by a benchmark.
+     */
+    public enum Operation {
+        COMPRESS,
+        DECOMPRESS
+    }
+
+    private final CompressionCodec codec;
+    private final Operation operation;
+    private final List<byte[]> chunks;
+    private final List<byte[]> compressedChunks;
+    private final long uncompressedBytes;
+    private long processedBytes;
+    private long processingNanos;
+
+    public BenchmarkChunkCompression(CompressionCodec codec, Operation operation, List<byte[]> chunks) {
+        this(codec, operation, chunks, compressAll(codec, chunks));
+    }
+
+    private BenchmarkChunkCompression(CompressionCodec codec, Operation operation, List<byte[]> chunks,
+                                      List<byte[]> compressedChunks) {
+        super(codec.getName() + ", " + (operation == Operation.COMPRESS ? "compress " : "decompress ") + chunks.size()
+                + " generated chunks, compressed to " + formatPercentage(totalSize(compressedChunks), totalSize(chunks))
+                + " of " + totalSize(chunks) / 1024 + " KiB", 10, new int[]{20, 100});
+        this.codec = codec;
+        this.operation = operation;
+        this.chunks = chunks;
+        this.compressedChunks = compressedChunks;
+        this.uncompressedBytes = totalSize(chunks);
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        if (operation == Operation.COMPRESS) {
+            for (byte[] chunk : chunks) {
+                codec.compress(chunk);
+            }
+        } else {
+            try {
+                for (byte[] compressedChunk : compressedChunks) {
+                    codec.decompress(compressedChunk);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        processingNanos += System.nanoTime() - start;
+        processedBytes += uncompressedBytes;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && processingNanos > 0) {
+            System.out.println();
+            System.out.println(String.format(Locale.ENGLISH, "%s: %.1f MB/s", getTitle(),
+                    processedBytes * 1000.0 / processingNanos));
+        }
+    }
+
+    private static List<byte[]> compressAll(CompressionCodec codec, List<byte[]> chunks) {
+        List<byte[]> result = Lists.newArrayListWithCapacity(chunks.size());
+        for (byte[] chunk : chunks) {
+            result.add(codec.compress(chunk));
+        }
+        return result;
+    }
+
+    private static long totalSize(List<byte[]> data) {
+        long result = 0;
+        for (byte[] bytes : data) {
+            result += bytes.length;
+        }
+        return result;
+    }
+
+    private static String formatPercentage(long part, long total) {
+        return String.format(Locale.ENGLISH, "%.1f%%", 100.0 * part / total);
+    }
+}
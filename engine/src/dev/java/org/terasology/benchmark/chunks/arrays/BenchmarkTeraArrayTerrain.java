@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.chunks.blockdata.TeraArray;
+
+/**
+ * BenchmarkTeraArrayTerrain fills a tera array with layered terrain made of a given number of distinct block ids
+ * and then measures the performance of reading it back and rewriting it.
+ * The title reports the memory consumption of the filled array, so that block storages can be compared
+ * both in speed and in size.
+ *
+ */
+public class BenchmarkTeraArrayTerrain extends BenchmarkTeraArray {
+
+    private final int distinctValues;
+    private final short[] layers;
+    private final int expectedSum;
+
+    public BenchmarkTeraArrayTerrain(TeraArray array, int distinctValues) {
+        super(array);
+        Preconditions.checkArgument(distinctValues > 0 && distinctValues <= array.getSizeY(),
+                "The parameter 'distinctValues' has to be between 1 and " + array.getSizeY());
+        this.distinctValues = distinctValues;
+        this.layers = new short[array.getSizeY()];
+        for (int y = 0; y < layers.length; y++) {
+            layers[y] = (short) (1000 + y * distinctValues / layers.length);
+        }
+        expectedSum = fill();
+    }
+
+    @Override
+    public String getTitle() {
+        return array.getClass().getSimpleName() + " terrain with " + distinctValues + " block types ("
+                + array.getEstimatedMemoryConsumptionInBytes() + " bytes)";
+    }
+
+    @Override
+    public int getWarmupRepetitions() {
+        return 1000;
+    }
+
+    @Override
+    public int[] getRepetitions() {
+        return new int[]{500, 5000, 10000};
+    }
+
+    @Override
+    public void run() {
+        int tmp = 0;
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    tmp += array.get(x, y, z);
+                }
+            }
+        }
+        if (tmp != expectedSum) {
+            throw new IllegalStateException("Read back " + tmp + " instead of " + expectedSum);
+        }
+        fill();
+    }
+
+    /**
+     * Fills the array with the terrain layers.
+     *
+     * @return the sum of the values written, which reading the array back has to reproduce
+     */
+    private int fill() {
+        int sum = 0;
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    short value = layers[(y + x + z) % layers.length];
+                    array.set(x, y, z, value);
+                    sum += value;
+                }
+            }
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.CompressionCodecs;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Compares the compression codecs on generated chunks, in compression ratio and speed.
+ *
+ */
+public final class ChunkCompressionBenchmark {
+
+    private ChunkCompressionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<byte[]> chunks = GeneratedChunks.create(8, 42L);
+
+        final List<Benchmark> benchmarks = new LinkedList<>();
+        for (CompressionCodec codec : CompressionCodecs.getAll()) {
+            benchmarks.add(new BenchmarkChunkCompression(codec, BenchmarkChunkCompression.Operation.COMPRESS, chunks));
+            benchmarks.add(new BenchmarkChunkCompression(codec, BenchmarkChunkCompression.Operation.DECOMPRESS, chunks));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import com.google.common.collect.Lists;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.util.List;
+
+/**
+ * Generates chunks with noise based terrain similar to the one of the default world generators: hills of stone covered
+ * by dirt and grass, sand beaches and seas, and caves. The chunks are encoded the way they get saved and sent.
+ *
+ */
+final class GeneratedChunks {
+
+    private static final short AIR = 0;
+    private static final short STONE = 1;
+    private static final short DIRT = 2;
+    private static final short GRASS = 3;
+    private static final short SAND = 4;
+    private static final short WATER = 5;
+    private static final short ORE = 6;
+
+    private static final int SEA_LEVEL = 28;
+
+    private GeneratedChunks() {
+    }
+
+    /**
+     * @return the encoded chunks of a square area, which is {@code size} chunks wide.
+     */
+    static List<byte[]> create(int size, long seed) {
+        Noise surfaceNoise = new BrownianNoise(new SimplexNoise(seed), 6);
+        Noise caveNoise = new BrownianNoise(new SimplexNoise(seed + 1), 3);
+        Noise biomeNoise = new SimplexNoise(seed + 2);
+        List<byte[]> result = Lists.newArrayListWithCapacity(size * size);
+        for (int chunkX = 0; chunkX < size; chunkX++) {
+            for (int chunkZ = 0; chunkZ < size; chunkZ++) {
+                Vector3i pos = new Vector3i(chunkX, 0, chunkZ);
+                TeraArray blocks = new TeraPaletteArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+                TeraArray liquid = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+                TeraArray biomes = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                        float worldX = chunkX * ChunkConstants.SIZE_X + x;
+                        float worldZ = chunkZ * ChunkConstants.SIZE_Z + z;
+                        int height = SEA_LEVEL + Math.round(surfaceNoise.noise(worldX * 0.01f, worldZ * 0.01f) * 24);
+                        int biome = biomeNoise.noise(worldX * 0.002f, worldZ * 0.002f) > 0 ? 1 : 2;
+                        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                            blocks.set(x, y, z, blockAt(caveNoise, worldX, y, worldZ, height));
+                            biomes.set(x, y, z, biome);
+                        }
+                    }
+                }
+                result.add(ChunkSerializer.encode(pos, blocks, liquid, biomes).build().toByteArray());
+            }
+        }
+        return result;
+    }
+
+    private static short blockAt(Noise caveNoise, float x, int y, float z, int height) {
+        if (y > height) {
+            return y <= SEA_LEVEL ? WATER : AIR;
+        }
+        if (y < height - 4 && caveNoise.noise(x * 0.04f, y * 0.08f, z * 0.04f) > 0.35f) {
+            return AIR;
+        }
+        if (y == height) {
+            return height <= SEA_LEVEL + 1 ? SAND : GRASS;
+        }
+        if (y > height - 4) {
+            return height <= SEA_LEVEL + 1 ? SAND : DIRT;
+        }
+        return caveNoise.noise(x * 0.3f, y * 0.3f, z * 0.3f) > 0.6f ? ORE : STONE;
+    }
+}
@@ -18,7 +18,9 @@
 import org.terasology.benchmark.Benchmarks;
 import org.terasology.benchmark.Benchmark;
 import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -72,6 +74,16 @@ public static void main(String[] args) {
 //        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraSparseArray8Bit(16, 256, 16, INFLATED_8_BIT, DEFLATED_8_BIT)));
 //        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraSparseArray4Bit(16, 256, 16, INFLATED_4_BIT, DEFLATED_4_BIT)));
 
+        benchmarks.add(new BenchmarkTeraArrayRead(new TeraDenseArray16Bit(32, 64, 32)));
+        benchmarks.add(new BenchmarkTeraArrayRead(new TeraPaletteArray(32, 64, 32)));
+        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraDenseArray16Bit(32, 64, 32)));
+        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraPaletteArray(32, 64, 32)));
+
+        for (int distinctValues : new int[]{2, 12, 60}) {
+            benchmarks.add(new BenchmarkTeraArrayTerrain(new TeraDenseArray16Bit(32, 64, 32), distinctValues));
+            benchmarks.add(new BenchmarkTeraArrayTerrain(new TeraPaletteArray(32, 64, 32), distinctValues));
+        }
+
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
@@ -15,50 +15,164 @@
  */
 package org.terasology.benchmark.chunks.cache;
 
+import com.google.common.base.Preconditions;
 import org.terasology.benchmark.Benchmark;
-
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.localChunkProvider.ChunkCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * BenchmarkChunkCache measures the throughput of a chunk cache under a mixed workload of lookups, insertions and
+ * removals issued from a number of threads at once. Every run performs {@link #OPERATIONS_PER_RUN} operations, split
+ * evenly between the threads, of which 90% are lookups and 5% each are insertions and removals.
+ *
+ */
 public class BenchmarkChunkCache implements Benchmark {
 
-    public BenchmarkChunkCache() {
+    public static final int OPERATIONS_PER_RUN = 1 << 18;
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 8;
+    private static final int SIZE_Z = 32;
+    private static final int POSITIONS = SIZE_X * SIZE_Y * SIZE_Z;
+    private static final int CHUNK_POOL_SIZE = 16;
+
+    private static final int GET = 0;
+    private static final int PUT = 1;
+    private static final int REMOVE = 2;
+
+    private final String name;
+    private final Supplier<ChunkCache> cacheFactory;
+    private final int threads;
+
+    private ChunkCache cache;
+    private Chunk[] chunks;
+    private Vector3i[] positions;
+    private int[][] operations;
+    private int[][] targets;
+    private ExecutorService executor;
+    private List<Callable<Integer>> tasks;
+
+    public BenchmarkChunkCache(String name, Supplier<ChunkCache> cacheFactory, int threads) {
+        Preconditions.checkArgument(threads > 0, "The parameter 'threads' has to be greater than zero");
+        this.name = name;
+        this.cacheFactory = Preconditions.checkNotNull(cacheFactory);
+        this.threads = threads;
     }
 
     @Override
     public String getTitle() {
-        return null;
+        return name + " mixed get/put/remove with " + threads + " thread(s), " + OPERATIONS_PER_RUN + " operations per repetition";
     }
 
     @Override
     public int getWarmupRepetitions() {
-        return 1;
+        return 50;
     }
 
     @Override
     public int[] getRepetitions() {
-        return new int[]{1, 10};
+        return new int[]{100, 500};
     }
 
     @Override
     public void setup() {
+        chunks = new Chunk[CHUNK_POOL_SIZE];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new ChunkImpl(new Vector3i(i, 0, 0), null, null);
+        }
+        positions = new Vector3i[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Vector3i(i % SIZE_X - SIZE_X / 2, (i / SIZE_X) % SIZE_Y - SIZE_Y / 2, i / (SIZE_X * SIZE_Y) - SIZE_Z / 2);
+        }
+
+        cache = cacheFactory.get();
+        for (int i = 0; i < POSITIONS; i++) {
+            cache.put(positions[i], chunks[i % CHUNK_POOL_SIZE]);
+        }
+
+        FastRandom random = new FastRandom(42L);
+        int operationsPerThread = OPERATIONS_PER_RUN / threads;
+        operations = new int[threads][operationsPerThread];
+        targets = new int[threads][operationsPerThread];
+        for (int thread = 0; thread < threads; thread++) {
+            for (int i = 0; i < operationsPerThread; i++) {
+                int roll = random.nextInt(100);
+                operations[thread][i] = roll < 90 ? GET : (roll < 95 ? PUT : REMOVE);
+                targets[thread][i] = random.nextInt(POSITIONS);
+            }
+        }
+
+        executor = Executors.newFixedThreadPool(threads);
+        tasks = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            final int[] threadOperations = operations[thread];
+            final int[] threadTargets = targets[thread];
+            tasks.add(() -> runOperations(threadOperations, threadTargets));
+        }
+    }
 
+    private int runOperations(int[] threadOperations, int[] threadTargets) {
+        int found = 0;
+        for (int i = 0; i < threadOperations.length; i++) {
+            Vector3i position = positions[threadTargets[i]];
+            switch (threadOperations[i]) {
+                case GET:
+                    if (cache.get(position.x, position.y, position.z) != null) {
+                        found++;
+                    }
+                    break;
+                case PUT:
+                    cache.put(position, chunks[threadTargets[i] % CHUNK_POOL_SIZE]);
+                    break;
+                default:
+                    cache.removeChunkAt(position);
+                    break;
+            }
+        }
+        return found;
     }
 
     @Override
     public void prerun() {
-
     }
 
     @Override
     public void run() {
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running chunk cache benchmark", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Chunk cache benchmark failed", e.getCause());
+        }
     }
 
     @Override
     public void postrun() {
-
     }
 
     @Override
     public void finish(boolean aborted) {
-
+        executor.shutdownNow();
+        cache.clear();
+        for (Chunk chunk : chunks) {
+            chunk.dispose();
+        }
     }
 
 }
@@ -15,6 +15,19 @@
  */
 package org.terasology.benchmark.chunks.cache;
 
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.world.chunks.localChunkProvider.ConcurrentMapChunkCache;
+import org.terasology.world.chunks.localChunkProvider.LockFreeChunkCache;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkCachesBenchmark compares the throughput of the chunk cache implementations from 1 to 16 threads.
+ *
+ */
 public final class ChunkCachesBenchmark {
 
     private ChunkCachesBenchmark() {
@@ -22,6 +35,15 @@ private ChunkCachesBenchmark() {
 
     public static void main(String[] args) {
 
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        for (int threads = 1; threads <= 16; threads *= 2) {
+            benchmarks.add(new BenchmarkChunkCache("ConcurrentMapChunkCache", ConcurrentMapChunkCache::new, threads));
+            benchmarks.add(new BenchmarkChunkCache("LockFreeChunkCache", LockFreeChunkCache::new, threads));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+
     }
 
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.assets.AssetType;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.entitySystem.entity.internal.EntityInfoComponent;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.internal.PojoPrefab;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.rendering.logic.MeshComponent;
+
+/**
+ * Like {@link EntityCreateBenchmark}, but creates the entities from a prefab, either one at a time or as a batch.
+ */
+public class EntityCreateFromPrefabBenchmark extends AbstractBenchmark {
+    private static final int ENTITY_COUNT = 1000;
+
+    private final boolean batch;
+    private ComponentLibrary componentLibrary;
+    private AssetType<Prefab, PrefabData> prefabType;
+    private Prefab prefab;
+
+    public EntityCreateFromPrefabBenchmark(boolean batch) {
+        super("Create Entities From Prefab" + (batch ? " In Batch" : ""), 10000, new int[]{10000});
+        this.batch = batch;
+    }
+
+    @Override
+    public void setup() {
+        Context context = new ContextImpl();
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        componentLibrary = context.get(ComponentLibrary.class);
+        componentLibrary.register(new SimpleUri("engine:location"), LocationComponent.class);
+        componentLibrary.register(new SimpleUri("engine:mesh"), MeshComponent.class);
+        componentLibrary.register(new SimpleUri("engine:entityInfo"), EntityInfoComponent.class);
+
+        PrefabData prefabData = new PrefabData();
+        prefabData.addComponent(new LocationComponent());
+        prefabData.addComponent(new MeshComponent());
+        prefabType = new AssetType<>(Prefab.class, PojoPrefab::new);
+        prefab = prefabType.loadAsset(new ResourceUrn("benchmark:creature"), prefabData);
+    }
+
+    @Override
+    public void run() {
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entityManager.setComponentLibrary(componentLibrary);
+        if (batch) {
+            entityManager.createBatch(prefab, ENTITY_COUNT);
+        } else {
+            for (int i = 0; i < ENTITY_COUNT; ++i) {
+                entityManager.create(prefab);
+            }
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        prefabType = null;
+        prefab = null;
+    }
+}
@@ -22,6 +22,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.benchmark.Benchmark;
+import org.terasology.entitySystem.entity.internal.ArchetypeEntityPool;
 
 import java.util.List;
 
@@ -38,8 +39,14 @@ public static void main(String[] args) {
         final List<Benchmark> benchmarks = Lists.newArrayList();
 
         benchmarks.add(new EntityCreateBenchmark());
+        benchmarks.add(new EntityCreateFromPrefabBenchmark(false));
+        benchmarks.add(new EntityCreateFromPrefabBenchmark(true));
         benchmarks.add(new IterateSingleComponentBenchmark());
+        benchmarks.add(new RandomComponentLookupBenchmark(false));
+        benchmarks.add(new RandomComponentLookupBenchmark(true));
         benchmarks.add(new IterateMultipleComponentBenchmark());
+        benchmarks.add(new IterateMultipleComponentBenchmark("ArchetypeEntityPool", ArchetypeEntityPool::new));
+        benchmarks.add(new EventDispatchBenchmark());
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.EventPriority;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.entitySystem.metadata.EntitySystemLibrary;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.NetworkMode;
+import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.physics.events.MovedEvent;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.BlockComponent;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Sends an OnChangedComponent and a MovedEvent to each of 100000 entities, which have a mix of components that
+ * several systems listen to.
+ * <br><br>
+ * Only the public event system API is used, so running the benchmark on older versions of the engine gives the
+ * numbers to compare the event dispatch with.
+ *
+ */
+public class EventDispatchBenchmark extends AbstractBenchmark {
+
+    private static final int ENTITIES = 100000;
+
+    private List<EntityRef> entities;
+    private List<LocationComponent> locations;
+    private EventSystem eventSystem;
+    private MovedEvent movedEvent;
+
+    public EventDispatchBenchmark() {
+        super("Send OnChangedComponent and MovedEvent to " + ENTITIES + " entities", 10, new int[]{20, 50});
+    }
+
+    @Override
+    public void setup() {
+        ContextImpl context = new ContextImpl();
+        CoreRegistry.setContext(context);
+        ReflectFactory reflectFactory = new ReflectionReflectFactory();
+        CopyStrategyLibrary copyStrategies = new CopyStrategyLibrary(reflectFactory);
+        TypeSerializationLibrary serializationLibrary = new TypeSerializationLibrary(reflectFactory, copyStrategies);
+        EntitySystemLibrary entitySystemLibrary = new EntitySystemLibrary(context, serializationLibrary);
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entityManager.setComponentLibrary(entitySystemLibrary.getComponentLibrary());
+
+        FastRandom rand = new FastRandom(0L);
+        entities = Lists.newArrayListWithCapacity(ENTITIES);
+        locations = Lists.newArrayListWithCapacity(ENTITIES);
+        for (int i = 0; i < ENTITIES; ++i) {
+            List<Component> entityData = Lists.newArrayList();
+            LocationComponent location = new LocationComponent();
+            entityData.add(location);
+            if (rand.nextFloat() < 0.5f) {
+                entityData.add(new MeshComponent());
+            }
+            if (rand.nextFloat() < 0.25f) {
+                entityData.add(new BlockComponent());
+            }
+            entities.add(entityManager.create(entityData));
+            locations.add(location);
+        }
+
+        eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), createNetworkSystem());
+        entityManager.setEventSystem(eventSystem);
+        eventSystem.registerEventHandler(new LocationSystem());
+        eventSystem.registerEventHandler(new RenderingSystem());
+        eventSystem.registerEventHandler(new BlockSystem());
+        movedEvent = new MovedEvent(new Vector3f(0, 1, 0), new Vector3f(0, 1, 0));
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < ENTITIES; i++) {
+            EntityRef entity = entities.get(i);
+            eventSystem.send(entity, OnChangedComponent.newInstance(), locations.get(i));
+            eventSystem.send(entity, movedEvent);
+        }
+    }
+
+    private static NetworkSystem createNetworkSystem() {
+        return (NetworkSystem) Proxy.newProxyInstance(NetworkSystem.class.getClassLoader(), new Class<?>[]{NetworkSystem.class},
+                (proxy, method, args) -> "getMode".equals(method.getName()) ? NetworkMode.NONE : null);
+    }
+
+    public static class LocationSystem extends BaseComponentSystem {
+        private int received;
+
+        @ReceiveEvent(components = LocationComponent.class)
+        public void onLocationChanged(OnChangedComponent event, EntityRef entity) {
+            received++;
+        }
+
+        @ReceiveEvent(components = LocationComponent.class, priority = EventPriority.PRIORITY_HIGH)
+        public void onMoved(MovedEvent event, EntityRef entity, LocationComponent location) {
+            received++;
+        }
+
+        @ReceiveEvent
+        public void onAnyMove(MovedEvent event, EntityRef entity) {
+            received++;
+        }
+    }
+
+    public static class RenderingSystem extends BaseComponentSystem {
+        private int received;
+
+        @ReceiveEvent(components = {MeshComponent.class, LocationComponent.class})
+        public void onLocationChanged(OnChangedComponent event, EntityRef entity) {
+            received++;
+        }
+
+        @ReceiveEvent(components = MeshComponent.class)
+        public void onMoved(MovedEvent event, EntityRef entity) {
+            received++;
+        }
+    }
+
+    public static class BlockSystem extends BaseComponentSystem {
+        private int received;
+
+        @ReceiveEvent(components = BlockComponent.class, priority = EventPriority.PRIORITY_LOW)
+        public void onMoved(MovedEvent event, EntityRef entity, LocationComponent location) {
+            received++;
+        }
+
+        @ReceiveEvent(components = BlockComponent.class)
+        public void onBlockChanged(OnChangedComponent event, EntityRef entity) {
+            received++;
+        }
+    }
+}
@@ -20,24 +20,34 @@
 import org.terasology.benchmark.AbstractBenchmark;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityPool;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.entity.internal.PojoEntityPool;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.rendering.logic.MeshComponent;
 import org.terasology.utilities.random.FastRandom;
 import org.terasology.world.block.BlockComponent;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  *
  */
 public class IterateMultipleComponentBenchmark extends AbstractBenchmark {
 
+    private final Function<PojoEntityManager, EngineEntityPool> poolFactory;
+
     private List<List<Component>> rawEntityData;
     private PojoEntityManager entityManager;
 
     public IterateMultipleComponentBenchmark() {
-        super("Iterate entities by multiple components", 10000, new int[]{10000});
+        this("PojoEntityPool", PojoEntityPool::new);
+    }
+
+    public IterateMultipleComponentBenchmark(String poolName, Function<PojoEntityManager, EngineEntityPool> poolFactory) {
+        super("Iterate entities by multiple components (" + poolName + ")", 10000, new int[]{10000});
+        this.poolFactory = poolFactory;
     }
 
     @Override
@@ -58,7 +68,7 @@ public void setup() {
             rawEntityData.add(entityData);
         }
 
-        entityManager = new PojoEntityManager();
+        entityManager = new PojoEntityManager(poolFactory);
         for (List<Component> rawEntity : rawEntityData) {
             entityManager.create(rawEntity);
         }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.BlockComponent;
+
+import java.util.List;
+
+/**
+ * Looks up components of randomly chosen entities among a million, once through their entity refs and once through
+ * their ids.
+ */
+public class RandomComponentLookupBenchmark extends AbstractBenchmark {
+    private static final int ENTITY_COUNT = 1000000;
+    private static final int LOOKUPS_PER_RUN = 10000;
+
+    private final boolean byId;
+    private PojoEntityManager entityManager;
+    private EntityRef[] entities;
+    private int[] lookupOrder;
+
+    public RandomComponentLookupBenchmark(boolean byId) {
+        super("Random Component Lookup " + (byId ? "By Id" : "By Ref"), 1000, new int[]{1000});
+        this.byId = byId;
+    }
+
+    @Override
+    public void setup() {
+        FastRandom rand = new FastRandom(0L);
+        entityManager = new PojoEntityManager();
+        entities = new EntityRef[ENTITY_COUNT];
+        for (int i = 0; i < ENTITY_COUNT; ++i) {
+            List<Component> entityData = Lists.newArrayList();
+            entityData.add(new LocationComponent());
+            if (rand.nextFloat() < 0.5f) {
+                entityData.add(new MeshComponent());
+            }
+            if (rand.nextFloat() < 0.25f) {
+                entityData.add(new BlockComponent());
+            }
+            entities[i] = entityManager.create(entityData);
+        }
+        lookupOrder = new int[LOOKUPS_PER_RUN];
+        for (int i = 0; i < LOOKUPS_PER_RUN; ++i) {
+            lookupOrder[i] = rand.nextInt(ENTITY_COUNT);
+        }
+    }
+
+    @Override
+    public void run() {
+        for (int index : lookupOrder) {
+            LocationComponent loc;
+            if (byId) {
+                loc = entityManager.getComponent(entities[index].getId(), LocationComponent.class);
+            } else {
+                loc = entities[index].getComponent(LocationComponent.class);
+            }
+            loc.getLocalPosition();
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        entities = null;
+        entityManager = null;
+    }
+}
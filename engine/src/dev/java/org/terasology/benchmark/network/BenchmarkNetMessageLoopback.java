@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import org.jboss.netty.bootstrap.ClientBootstrap;
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.local.DefaultLocalClientChannelFactory;
+import org.jboss.netty.channel.local.DefaultLocalServerChannelFactory;
+import org.jboss.netty.channel.local.LocalAddress;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.network.internal.NetMessageDecoder;
+import org.terasology.network.internal.NetMessageEncoder;
+import org.terasology.protobuf.EntityData;
+import org.terasology.protobuf.NetData;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.random.FastRandom;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends messages from a server to a number of clients over local channels, through the pipeline handlers used for
+ * real connections. Every server side channel encodes and compresses the messages on its own, like it does for remote
+ * clients. The messages and bytes received per client and second get printed when the benchmark is finished.
+ *
+ */
+public class BenchmarkNetMessageLoopback extends AbstractBenchmark {
+
+    public static final int MESSAGES_PER_REPETITION = 200;
+
+    /**
+     * The kind of messages sent by a benchmark.
+     */
+    public enum Traffic {
+        /**
+         * The messages of ticks in which 32 entities moved.
+         */
+        ENTITY_UPDATES,
+        /**
+         * Messages with a single chunk each.
+         */
+        CHUNKS
+    }
+
+    private final CompressionCodec codec;
+    private final int clients;
+    private final List<NetData.NetMessage> messages;
+    private final List<Channel> serverChannels = new CopyOnWriteArrayList<>();
+    private final List<Channel> clientChannels = Lists.newArrayList();
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private ChannelFactory serverFactory;
+    private ChannelFactory clientFactory;
+    private Channel serverChannel;
+    private long sendingNanos;
+    private long sentMessages;
+
+    public BenchmarkNetMessageLoopback(CompressionCodec codec, Traffic traffic, int clients) {
+        super(codec.getName() + ", " + MESSAGES_PER_REPETITION + " " + (traffic == Traffic.CHUNKS ? "chunk" : "entity update")
+                + " messages to " + clients + " local client" + (clients == 1 ? "" : "s"), 10, new int[]{20, 100});
+        this.codec = codec;
+        this.clients = clients;
+        this.messages = createMessages(traffic);
+    }
+
+    @Override
+    public void setup() {
+        LocalAddress address = new LocalAddress(LocalAddress.EPHEMERAL);
+        serverFactory = new DefaultLocalServerChannelFactory();
+        ServerBootstrap serverBootstrap = new ServerBootstrap(serverFactory);
+        serverBootstrap.setPipelineFactory(() -> {
+            ChannelPipeline p = Channels.pipeline();
+            p.addLast("messageEncoder", new NetMessageEncoder(codec));
+            p.addLast("handler", new SimpleChannelUpstreamHandler() {
+                @Override
+                public void channelConnected(ChannelHandlerContext ctx, ChannelStateEvent e) {
+                    serverChannels.add(e.getChannel());
+                }
+            });
+            return p;
+        });
+        serverChannel = serverBootstrap.bind(address);
+
+        clientFactory = new DefaultLocalClientChannelFactory();
+        ClientBootstrap clientBootstrap = new ClientBootstrap(clientFactory);
+        clientBootstrap.setPipelineFactory(() -> {
+            ChannelPipeline p = Channels.pipeline();
+            p.addLast("metrics", new SimpleChannelUpstreamHandler() {
+                @Override
+                public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+                    receivedBytes.addAndGet(((ChannelBuffer) e.getMessage()).readableBytes());
+                    ctx.sendUpstream(e);
+                }
+            });
+            p.addLast("lengthFrameDecoder", NetMessageDecoder.createFrameDecoder());
+            p.addLast("messageDecoder", new NetMessageDecoder());
+            p.addLast("handler", new SimpleChannelUpstreamHandler() {
+                @Override
+                public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+                    receivedMessages.incrementAndGet();
+                }
+            });
+            return p;
+        });
+        for (int i = 0; i < clients; i++) {
+            clientChannels.add(clientBootstrap.connect(address).awaitUninterruptibly().getChannel());
+        }
+        while (serverChannels.size() < clients) {
+            Thread.yield();
+        }
+    }
+
+    @Override
+    public void run() {
+        long expectedMessages = receivedMessages.get() + (long) MESSAGES_PER_REPETITION * clients;
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES_PER_REPETITION; i++) {
+            NetData.NetMessage message = messages.get(i % messages.size());
+            for (Channel channel : serverChannels) {
+                channel.write(message);
+            }
+        }
+        while (receivedMessages.get() < expectedMessages) {
+            Thread.yield();
+        }
+        sendingNanos += System.nanoTime() - start;
+        sentMessages += (long) MESSAGES_PER_REPETITION * clients;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        for (Channel channel : clientChannels) {
+            channel.close().awaitUninterruptibly();
+        }
+        serverChannel.close().awaitUninterruptibly();
+        clientFactory.releaseExternalResources();
+        serverFactory.releaseExternalResources();
+        if (!aborted && sendingNanos > 0) {
+            double seconds = sendingNanos / 1e9;
+            System.out.println();
+            System.out.println(String.format(Locale.ENGLISH, "%s: %.0f messages/s and %.2f MB/s per client", getTitle(),
+                    sentMessages / seconds / clients, receivedBytes.get() / 1e6 / seconds / clients));
+        }
+    }
+
+    private static List<NetData.NetMessage> createMessages(Traffic traffic) {
+        FastRandom random = new FastRandom(42L);
+        List<NetData.NetMessage> result = Lists.newArrayList();
+        for (int i = 0; i < 16; i++) {
+            NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder().setTime(i * 50L);
+            if (traffic == Traffic.CHUNKS) {
+                message.addChunkInfo(createChunk(random, i));
+            } else {
+                for (int entity = 0; entity < 32; entity++) {
+                    message.addUpdateEntity(createEntityUpdate(random, entity));
+                }
+            }
+            result.add(message.build());
+        }
+        return result;
+    }
+
+    private static NetData.UpdateEntityMessage createEntityUpdate(FastRandom random, int netId) {
+        EntityData.PackedEntity.Builder entity = EntityData.PackedEntity.newBuilder()
+                .addComponentId(3)
+                .setComponentFieldCounts(ByteString.copyFrom(new byte[]{2}))
+                .setFieldIds(ByteString.copyFrom(new byte[]{0, 1}))
+                .addFieldValue(EntityData.Value.newBuilder()
+                        .addFloat(random.nextFloat(-1000, 1000))
+                        .addFloat(random.nextFloat(0, 100))
+                        .addFloat(random.nextFloat(-1000, 1000)))
+                .addFieldValue(EntityData.Value.newBuilder()
+                        .addFloat(0).addFloat(random.nextFloat(-1, 1)).addFloat(0).addFloat(1));
+        return NetData.UpdateEntityMessage.newBuilder().setNetId(netId).setEntity(entity).build();
+    }
+
+    /**
+     * @return a chunk of terrain layers, with scattered runs of other blocks.
+     */
+    private static EntityData.ChunkStore createChunk(FastRandom random, int x) {
+        EntityData.RunLengthEncoding16.Builder blocks = EntityData.RunLengthEncoding16.newBuilder();
+        int remaining = 32 * 64 * 32;
+        while (remaining > 0) {
+            int run = Math.min(remaining, 1 + random.nextInt(64));
+            blocks.addRunLengths(run);
+            blocks.addValues(random.nextInt(8));
+            remaining -= run;
+        }
+        return EntityData.ChunkStore.newBuilder().setX(x).setY(0).setZ(0).setBlockData(blocks).build();
+    }
+}
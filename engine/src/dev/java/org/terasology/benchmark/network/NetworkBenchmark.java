@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.CompressionCodecs;
+
+import java.util.List;
+
+/**
+ * NetworkBenchmark measures how many messages the server can encode and deliver to local clients per second, for
+ * every compression codec.
+ *
+ */
+public final class NetworkBenchmark {
+
+    private NetworkBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+
+        for (BenchmarkNetMessageLoopback.Traffic traffic : BenchmarkNetMessageLoopback.Traffic.values()) {
+            for (CompressionCodec codec : CompressionCodecs.getAll()) {
+                benchmarks.add(new BenchmarkNetMessageLoopback(codec, traffic, 1));
+                benchmarks.add(new BenchmarkNetMessageLoopback(codec, traffic, 8));
+            }
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+
+    }
+}
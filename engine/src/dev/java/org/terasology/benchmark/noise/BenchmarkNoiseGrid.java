@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.utilities.procedural.AbstractNoise;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SubSampledNoise;
+
+/**
+ * BenchmarkNoiseGrid measures how many 32x32 columns of fractal Perlin noise can be generated per second, the way
+ * facet providers sample it through {@link SubSampledNoise}. The batch variant uses the grid methods of the noise,
+ * the per-point variant hides them so every position is evaluated on its own.
+ *
+ */
+public class BenchmarkNoiseGrid extends AbstractBenchmark {
+
+    private static final int COLUMN_SIZE = 32;
+    private static final int COLUMNS_PER_RUN = 64;
+
+    private final boolean batch;
+    private final int sampleRate;
+
+    private SubSampledNoise noise;
+    private Rect2i[] columns;
+    private long generatedColumns;
+    private long totalNanos;
+    private long runStart;
+    private float checksum;
+
+    public BenchmarkNoiseGrid(boolean batch, int sampleRate) {
+        super((batch ? "Batch" : "Per-point") + " fractal Perlin noise, sample rate " + sampleRate + ", "
+                + COLUMNS_PER_RUN + " columns of " + COLUMN_SIZE + "x" + COLUMN_SIZE + " per repetition", 20, new int[]{100, 500});
+        this.batch = batch;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void setup() {
+        Noise source = new BrownianNoise(new PerlinNoise(0xBEEF), 8);
+        if (!batch) {
+            source = new PerPointNoise(source);
+        }
+        noise = new SubSampledNoise(source, new Vector2f(0.004f, 0.004f), sampleRate);
+        columns = new Rect2i[COLUMNS_PER_RUN];
+        for (int i = 0; i < COLUMNS_PER_RUN; i++) {
+            columns[i] = Rect2i.createFromMinAndSize((i % 8) * COLUMN_SIZE, (i / 8) * COLUMN_SIZE, COLUMN_SIZE, COLUMN_SIZE);
+        }
+    }
+
+    @Override
+    public void prerun() {
+        generatedColumns = 0;
+        totalNanos = 0;
+        runStart = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        for (Rect2i column : columns) {
+            checksum += noise.noise(column)[0];
+        }
+        generatedColumns += COLUMNS_PER_RUN;
+    }
+
+    @Override
+    public void postrun() {
+        totalNanos += System.nanoTime() - runStart;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && totalNanos > 0) {
+            System.out.format("%s: %.0f columns/s (checksum %f)%n", getTitle(), generatedColumns * 1e9 / totalNanos, checksum);
+        }
+    }
+
+    /**
+     * Delegates single positions only, so the grid methods fall back to evaluating one position at a time.
+     */
+    private static final class PerPointNoise extends AbstractNoise {
+        private final Noise delegate;
+
+        PerPointNoise(Noise delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public float noise(float x, float y) {
+            return delegate.noise(x, y);
+        }
+
+        @Override
+        public float noise(float x, float y, float z) {
+            return delegate.noise(x, y, z);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import org.terasology.persistence.internal.RegionFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores the chunks in a region file, the way save games do: a save writes the changed chunks into a separate region
+ * file first and then copies them into the existing one, loads are served from the open region file.
+ *
+ */
+public class BenchmarkChunkRegionStorage extends BenchmarkChunkStorage {
+
+    private RegionFile regionFile;
+    private Path changesPath;
+
+    public BenchmarkChunkRegionStorage(Operation operation) {
+        super("Region file", operation);
+    }
+
+    @Override
+    protected void createStore(Path storeDirectory, int[] indices) throws IOException {
+        changesPath = storeDirectory.resolve("changes.chunks.region");
+        regionFile = RegionFile.create(storeDirectory.resolve("0.0.0.chunks.region"));
+        for (int index : indices) {
+            regionFile.write(index, getChunkData(index));
+        }
+        regionFile.flush();
+    }
+
+    @Override
+    protected void save(int[] indices) throws IOException {
+        try (RegionFile changes = RegionFile.create(changesPath)) {
+            for (int index : indices) {
+                changes.write(index, getChunkData(index));
+            }
+            changes.flush();
+            changes.copyChunksTo(regionFile);
+        }
+        regionFile.flush();
+        Files.delete(changesPath);
+    }
+
+    @Override
+    protected void load(int[] indices) throws IOException {
+        for (int index : indices) {
+            regionFile.read(index);
+        }
+    }
+
+    @Override
+    protected void close() throws IOException {
+        regionFile.close();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.FilesUtil;
+import org.terasology.utilities.random.FastRandom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Base class of the chunk storage benchmarks. A store of {@link #STORED_CHUNKS} chunks gets created during setup, every
+ * repetition then either saves {@link #CHANGED_CHUNKS} changed chunks into it or loads that many chunks from it.
+ *
+ */
+public abstract class BenchmarkChunkStorage extends AbstractBenchmark {
+
+    public static final int STORED_CHUNKS = 1024;
+    public static final int CHANGED_CHUNKS = 64;
+    public static final int CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * The operation measured by a benchmark.
+     */
+    public enum Operation {
+        SAVE,
+        LOAD
+    }
+
+    private final Operation operation;
+    private final FastRandom random = new FastRandom(42L);
+    private final int[] selectedChunks = new int[CHANGED_CHUNKS];
+    private Path directory;
+    private byte[][] chunks;
+
+    public BenchmarkChunkStorage(String storageName, Operation operation) {
+        super(storageName + ", " + (operation == Operation.SAVE ? "save " : "load ") + CHANGED_CHUNKS + " of "
+                + STORED_CHUNKS + " chunks with " + CHUNK_SIZE / 1024 + " KiB each", 5, new int[]{20, 50});
+        this.operation = operation;
+    }
+
+    @Override
+    public void setup() {
+        chunks = new byte[STORED_CHUNKS][];
+        for (int i = 0; i < STORED_CHUNKS; i++) {
+            chunks[i] = createChunkData();
+        }
+        int[] allChunks = new int[STORED_CHUNKS];
+        for (int i = 0; i < STORED_CHUNKS; i++) {
+            allChunks[i] = i;
+        }
+        try {
+            directory = Files.createTempDirectory("chunk-storage-benchmark");
+            createStore(directory, allChunks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void prerun() {
+        for (int i = 0; i < CHANGED_CHUNKS; i++) {
+            selectedChunks[i] = random.nextInt(STORED_CHUNKS);
+        }
+        if (operation == Operation.SAVE) {
+            for (int index : selectedChunks) {
+                chunks[index] = createChunkData();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (operation == Operation.SAVE) {
+                save(selectedChunks);
+            } else {
+                load(selectedChunks);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        try {
+            close();
+            FilesUtil.recursiveDelete(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected byte[] getChunkData(int index) {
+        return chunks[index];
+    }
+
+    /**
+     * Creates a new store in the given directory, containing the given chunks.
+     */
+    protected abstract void createStore(Path storeDirectory, int[] indices) throws IOException;
+
+    /**
+     * Writes the current data of the given chunks into the store.
+     */
+    protected abstract void save(int[] indices) throws IOException;
+
+    /**
+     * Reads the given chunks from the store.
+     */
+    protected abstract void load(int[] indices) throws IOException;
+
+    protected abstract void close() throws IOException;
+
+    /**
+     * @return data that compresses about as well as an encoded chunk, i.e. not at all.
+     */
+    private byte[] createChunkData() {
+        byte[] data = new byte[CHUNK_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(256);
+        }
+        return data;
+    }
+}
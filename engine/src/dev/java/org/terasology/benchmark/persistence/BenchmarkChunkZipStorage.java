@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores the chunks in a zip file, the way save games did before region files were introduced: a save writes a new zip
+ * with the changed chunks and copies the unchanged ones over, every load opens the zip.
+ *
+ */
+public class BenchmarkChunkZipStorage extends BenchmarkChunkStorage {
+
+    private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
+
+    private Path zipPath;
+    private Path tempZipPath;
+
+    public BenchmarkChunkZipStorage(Operation operation) {
+        super("Chunk zip", operation);
+    }
+
+    @Override
+    protected void createStore(Path storeDirectory, int[] indices) throws IOException {
+        zipPath = storeDirectory.resolve("0.0.0.chunks.zip");
+        tempZipPath = storeDirectory.resolve("0.0.0.chunks.zip.tmp");
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + zipPath.toUri()), CREATE_ZIP_OPTIONS)) {
+            for (int index : indices) {
+                Files.write(zip.getPath(getChunkFilename(index)), getChunkData(index));
+            }
+        }
+    }
+
+    @Override
+    protected void save(int[] indices) throws IOException {
+        Files.deleteIfExists(tempZipPath);
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + tempZipPath.toUri()), CREATE_ZIP_OPTIONS)) {
+            for (int index : indices) {
+                Path chunkPath = zip.getPath(getChunkFilename(index));
+                Files.write(chunkPath, getChunkData(index));
+            }
+            try (FileSystem oldZip = FileSystems.newFileSystem(zipPath, (ClassLoader) null)) {
+                for (int index = 0; index < STORED_CHUNKS; index++) {
+                    Path chunkPath = zip.getPath(getChunkFilename(index));
+                    if (!Files.isRegularFile(chunkPath)) {
+                        Files.copy(oldZip.getPath(getChunkFilename(index)), chunkPath);
+                    }
+                }
+            }
+        }
+        Files.move(tempZipPath, zipPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    protected void load(int[] indices) throws IOException {
+        for (int index : indices) {
+            try (FileSystem zip = FileSystems.newFileSystem(zipPath, (ClassLoader) null)) {
+                Files.readAllBytes(zip.getPath(getChunkFilename(index)));
+            }
+        }
+    }
+
+    @Override
+    protected void close() {
+    }
+
+    private static String getChunkFilename(int index) {
+        return index + ".0.0.chunk";
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.reflectFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.SimpleUri;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.reflection.copy.CompiledCopyStrategy;
+import org.terasology.reflection.copy.CopyStrategy;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.metadata.ClassMetadata;
+import org.terasology.reflection.metadata.DefaultClassMetadata;
+import org.terasology.reflection.reflect.ReflectFactory;
+
+/**
+ * Compares copying a component field by field through its class metadata with the compiled copy strategy.
+ */
+public class ComponentCopyBenchmark extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentCopyBenchmark.class);
+    private final ReflectFactory reflectFactory;
+    private final boolean compiled;
+    private CopyStrategy<LocationComponent> copyStrategy;
+    private LocationComponent comp;
+
+    public ComponentCopyBenchmark(ReflectFactory reflectFactory, boolean compiled) {
+        super("Component copy via " + (compiled ? "compiled method handles" : reflectFactory.getClass().getSimpleName()),
+                10000000, new int[]{10000000, 10000000});
+        this.reflectFactory = reflectFactory;
+        this.compiled = compiled;
+    }
+
+    @Override
+    public void setup() {
+        comp = new LocationComponent();
+        try {
+            ClassMetadata<LocationComponent, ?> metadata = new DefaultClassMetadata<>(new SimpleUri(), LocationComponent.class,
+                    reflectFactory, new CopyStrategyLibrary(reflectFactory));
+            copyStrategy = compiled ? CompiledCopyStrategy.create(metadata) : metadata::copy;
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            logger.error("Failed to establish copy strategy", e);
+        }
+    }
+
+    @Override
+    public void run() {
+        comp = copyStrategy.copy(comp);
+    }
+}
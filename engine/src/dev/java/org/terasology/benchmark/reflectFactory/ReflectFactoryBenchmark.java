@@ -45,6 +45,9 @@ public static void main(String[] args) {
         benchmarks.add(new GetterSetterAccessBenchmark(new ByteCodeReflectFactory()));
         benchmarks.add(new ConstructionBenchmark(new ReflectionReflectFactory()));
         benchmarks.add(new ConstructionBenchmark(new ByteCodeReflectFactory()));
+        benchmarks.add(new ComponentCopyBenchmark(new ReflectionReflectFactory(), false));
+        benchmarks.add(new ComponentCopyBenchmark(new ByteCodeReflectFactory(), false));
+        benchmarks.add(new ComponentCopyBenchmark(new ByteCodeReflectFactory(), true));
 
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
@@ -49,6 +49,12 @@ public class NetworkConfig {
      */
     private String masterServer = "meta.terasology.org";
 
+    /**
+     * The name of the codec messages get compressed with. Hosting, it is used for all clients that support it.
+     * Joining, the server is asked to use it.
+     */
+    private String compressionCodec;
+
     public void clear() {
         servers.clear();
     }
@@ -96,4 +102,12 @@ public String getMasterServer() {
     public void setMasterServer(String masterServer) {
         this.masterServer = masterServer;
     }
+
+    public String getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(String compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
 }
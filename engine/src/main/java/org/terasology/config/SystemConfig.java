@@ -32,6 +32,9 @@ public class SystemConfig {
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
     private String locale;
+    private String chunkCompressionCodec;
+    private boolean adaptiveChunkGenerationThreads;
+    private boolean archetypeEntityStorage;
 
     public long getDayNightLengthInMs() {
         return dayNightLengthInMs;
@@ -93,6 +96,40 @@ public void setWriteSaveGamesEnabled(boolean writeSaveGamesEnabled) {
         this.writeSaveGamesEnabled = writeSaveGamesEnabled;
     }
 
+    /**
+     * @return the name of the codec the chunks of new save games get compressed with. Existing save games keep the
+     * codec they have been created with.
+     */
+    public String getChunkCompressionCodec() {
+        return chunkCompressionCodec;
+    }
+
+    public void setChunkCompressionCodec(String chunkCompressionCodec) {
+        this.chunkCompressionCodec = chunkCompressionCodec;
+    }
+
+    /**
+     * @return whether the number of chunk generation threads adapts to the queue length and the processor load.
+     */
+    public boolean isAdaptiveChunkGenerationThreads() {
+        return adaptiveChunkGenerationThreads;
+    }
+
+    public void setAdaptiveChunkGenerationThreads(boolean adaptiveChunkGenerationThreads) {
+        this.adaptiveChunkGenerationThreads = adaptiveChunkGenerationThreads;
+    }
+
+    /**
+     * @return whether entities are stored grouped by their set of components, see ArchetypeEntityPool.
+     */
+    public boolean isArchetypeEntityStorage() {
+        return archetypeEntityStorage;
+    }
+
+    public void setArchetypeEntityStorage(boolean archetypeEntityStorage) {
+        this.archetypeEntityStorage = archetypeEntityStorage;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
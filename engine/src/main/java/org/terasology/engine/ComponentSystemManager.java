@@ -24,6 +24,7 @@
 import org.terasology.context.Context;
 import org.terasology.engine.subsystem.DisplayDevice;
 import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.systems.ComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.entitySystem.systems.RenderSystem;
@@ -61,6 +62,7 @@ public class ComponentSystemManager {
     private List<UpdateSubscriberSystem> updateSubscribers = Lists.newArrayList();
     private List<RenderSystem> renderSubscribers = Lists.newArrayList();
     private List<ComponentSystem> store = Lists.newArrayList();
+    private UpdateScheduler updateScheduler;
 
     private Console console;
     private Context context;
@@ -121,6 +123,7 @@ public void register(ComponentSystem object) {
         store.add(object);
         if (object instanceof UpdateSubscriberSystem) {
             updateSubscribers.add((UpdateSubscriberSystem) object);
+            resetUpdateScheduler();
         }
         if (object instanceof RenderSystem) {
             renderSubscribers.add((RenderSystem) object);
@@ -183,11 +186,29 @@ public Iterable<RenderSystem> iterateRenderSubscribers() {
         return renderSubscribers;
     }
 
+    /**
+     * @return the scheduler updating the update subscribers, see {@link UpdateScheduler}.
+     */
+    public UpdateScheduler getUpdateScheduler() {
+        if (updateScheduler == null) {
+            updateScheduler = new UpdateScheduler(updateSubscribers, (EngineEntityManager) context.get(EntityManager.class));
+        }
+        return updateScheduler;
+    }
+
     public void shutdown() {
         for (ComponentSystem system : iterateAll()) {
             system.shutdown();
         }
         updateSubscribers.clear();
         renderSubscribers.clear();
+        resetUpdateScheduler();
+    }
+
+    private void resetUpdateScheduler() {
+        if (updateScheduler != null) {
+            updateScheduler.shutdown();
+            updateScheduler = null;
+        }
     }
 }
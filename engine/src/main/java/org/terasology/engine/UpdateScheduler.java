@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.systems.ComponentAccess;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.monitoring.PerformanceMonitor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Updates the {@link UpdateSubscriberSystem}s in the order in which they were registered, overlapping the updates of
+ * systems that declare non-conflicting {@link ComponentAccess}.
+ * <br><br>
+ * Consecutive systems with declared access are grouped into phases, as long as none of them writes a component that
+ * another one of the phase reads or writes. The systems of a phase are updated on a fork-join pool while the main
+ * thread waits. The changes they made to entities are applied and the events they sent are dispatched once all of them
+ * are done, which is the sync point of the phase. All other systems are updated one after the other on the main thread,
+ * as before.
+ */
+public class UpdateScheduler {
+
+    private final List<Phase> phases;
+    private final EngineEntityManager entityManager;
+    private ForkJoinPool pool;
+
+    public UpdateScheduler(List<UpdateSubscriberSystem> systems, EngineEntityManager entityManager) {
+        this.phases = createPhases(systems);
+        this.entityManager = entityManager;
+    }
+
+    public void update(float delta) {
+        for (Phase phase : phases) {
+            if (phase.systems.size() == 1) {
+                UpdateSubscriberSystem system = phase.systems.get(0);
+                PerformanceMonitor.startActivity(system.getClass().getSimpleName());
+                system.update(delta);
+                PerformanceMonitor.endActivity();
+            } else {
+                PerformanceMonitor.startActivity(phase.name);
+                entityManager.deferChangesOfOtherThreads();
+                try {
+                    updateInParallel(phase.systems, delta);
+                } finally {
+                    entityManager.processDeferredChanges();
+                }
+                PerformanceMonitor.endActivity();
+                entityManager.getEventSystem().process();
+            }
+        }
+    }
+
+    /**
+     * Stops the threads used for parallel updates.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * @return the systems in the order of their phases, each phase holding the systems updated at the same time.
+     */
+    List<List<UpdateSubscriberSystem>> getPhases() {
+        return phases.stream().map(phase -> phase.systems).collect(Collectors.toList());
+    }
+
+    private void updateInParallel(List<UpdateSubscriberSystem> systems, float delta) {
+        if (pool == null) {
+            int maxPhaseSize = phases.stream().mapToInt(phase -> phase.systems.size()).max().orElse(1);
+            pool = new ForkJoinPool(Math.min(maxPhaseSize, Runtime.getRuntime().availableProcessors()));
+        }
+        CountDownLatch done = new CountDownLatch(systems.size());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (UpdateSubscriberSystem system : systems) {
+            pool.execute(() -> {
+                try {
+                    system.update(delta);
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        // Joining the tasks could let the main thread run one of them, which would dispatch its events right away.
+        Uninterruptibles.awaitUninterruptibly(done);
+
+        Throwable cause = failure.get();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+    }
+
+    private static List<Phase> createPhases(List<UpdateSubscriberSystem> systems) {
+        List<Phase> phases = Lists.newArrayList();
+        Phase current = null;
+        for (UpdateSubscriberSystem system : systems) {
+            ComponentAccess access = system.getClass().getAnnotation(ComponentAccess.class);
+            if (access == null) {
+                current = null;
+                phases.add(new Phase(Collections.singletonList(system), Collections.emptySet(), Collections.emptySet()));
+            } else if (current != null && !current.conflictsWith(access)) {
+                current.add(system, access);
+            } else {
+                current = new Phase(Lists.newArrayList(system), Sets.newHashSet(access.reads()), Sets.newHashSet(access.writes()));
+                phases.add(current);
+            }
+        }
+        return phases;
+    }
+
+    private static final class Phase {
+        private final List<UpdateSubscriberSystem> systems;
+        private final Set<Class<? extends Component>> reads;
+        private final Set<Class<? extends Component>> writes;
+        private String name;
+
+        Phase(List<UpdateSubscriberSystem> systems, Set<Class<? extends Component>> reads, Set<Class<? extends Component>> writes) {
+            this.systems = systems;
+            this.reads = reads;
+            this.writes = writes;
+            this.name = createName();
+        }
+
+        boolean conflictsWith(ComponentAccess access) {
+            for (Class<? extends Component> written : access.writes()) {
+                if (reads.contains(written) || writes.contains(written)) {
+                    return true;
+                }
+            }
+            for (Class<? extends Component> read : access.reads()) {
+                if (writes.contains(read)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(UpdateSubscriberSystem system, ComponentAccess access) {
+            systems.add(system);
+            reads.addAll(Arrays.asList(access.reads()));
+            writes.addAll(Arrays.asList(access.writes()));
+            name = createName();
+        }
+
+        private String createName() {
+            return systems.stream().map(system -> system.getClass().getSimpleName())
+                    .collect(Collectors.joining(", ", "Parallel: ", ""));
+        }
+    }
+}
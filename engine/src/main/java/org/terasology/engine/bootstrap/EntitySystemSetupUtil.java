@@ -16,12 +16,14 @@
 
 package org.terasology.engine.bootstrap;
 
+import org.terasology.config.Config;
 import org.terasology.context.Context;
 import org.terasology.engine.SimpleUri;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ArchetypeEntityPool;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.event.Event;
@@ -91,7 +93,13 @@ public static void addEntityManagementRelatedClasses(Context context) {
         NetworkSystem networkSystem = context.get(NetworkSystem.class);
 
         // Entity Manager
-        PojoEntityManager entityManager = new PojoEntityManager();
+        Config config = context.get(Config.class);
+        PojoEntityManager entityManager;
+        if (config != null && config.getSystem().isArchetypeEntityStorage()) {
+            entityManager = new PojoEntityManager(ArchetypeEntityPool::new);
+        } else {
+            entityManager = new PojoEntityManager();
+        }
         context.put(EntityManager.class, entityManager);
         context.put(EngineEntityManager.class, entityManager);
 
@@ -112,6 +112,7 @@ public EntityRef build() {
         entityManager.assignToPool(finalId, pool);
 
         EntityRef entity = entityManager.getEntity(finalId);
+        entityManager.addToEntityViews(entity);
 
         if (sendLifecycleEvents && entityManager.getEventSystem() != null) {
             //TODO: don't send OnAddedComponent when the entity is being re-loaded from storage
@@ -63,6 +63,15 @@ public interface EntityManager extends EntityPool {
     // TODO: Remove? A little dangerous due to ownership
     Map<Class<? extends Component>, Component> copyComponents(EntityRef original);
 
+    /**
+     * Returns a view of the entities with all of the provided component types, which is kept up to date as components
+     * are added and removed. Views are shared, so getting the view for the same component types again is cheap.
+     *
+     * @param componentClasses the component types, at least one
+     * @return A live view of all entities with the provided component types
+     */
+    EntityView getEntityView(Class<? extends Component>... componentClasses);
+
     /**
      * @return The event system being used by the entity manager
      */
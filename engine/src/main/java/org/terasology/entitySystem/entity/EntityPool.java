@@ -20,6 +20,8 @@
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
 
+import java.util.List;
+
 public interface EntityPool {
 
     /**
@@ -101,6 +103,15 @@ public interface EntityPool {
      */
     EntityRef create(Prefab prefab, Vector3f position, Quat4f rotation);
 
+    /**
+     * Creates a number of entities from the same prefab, e.g. for spawners.
+     * <br><br>
+     * The lifecycle events are only sent once all entities have been created, to all of them at once.
+     *
+     * @return the new entities, in the order they were created.
+     */
+    List<EntityRef> createBatch(Prefab prefab, int count);
+
     /**
      * Creates an entity but doesn't send any lifecycle events.
      * <br><br>
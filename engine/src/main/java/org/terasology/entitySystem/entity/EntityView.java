@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity;
+
+import java.util.function.Consumer;
+
+/**
+ * A live set of the entities that have all of a number of component types.
+ * <br><br>
+ * The view is kept up to date as components are added to and removed from entities, so systems can obtain it once
+ * and iterate it every tick without looking the entities up again.
+ *
+ * @see EntityManager#getEntityView(Class[])
+ */
+public interface EntityView extends Iterable<EntityRef> {
+
+    /**
+     * @return The number of entities in the view
+     */
+    int size();
+
+    boolean isEmpty();
+
+    boolean contains(EntityRef entity);
+
+    /**
+     * Calls the action for every entity in the view, without creating any objects. The action may add and remove
+     * components: entities that leave the view before they are reached are skipped, entities that join it are not
+     * visited.
+     */
+    @Override
+    void forEach(Consumer<? super EntityRef> action);
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A table for storing entities and components, which groups entities by the set of component types they have.
+ * <br><br>
+ * Every such set is an archetype, which stores the components of its entities in one dense array per component type.
+ * Looking up the entities with a number of components only walks the archetypes that contain all of them, instead of
+ * probing every entity. In exchange adding or removing a component moves the entity to another archetype.
+ * <br><br>
+ * Like {@link ComponentTable}, the table is not safe for concurrent modification. Iterators work on a snapshot of the
+ * matching entities, which may be modified while they are being iterated.
+ */
+public class ArchetypeComponentTable extends ComponentTable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Set<Class<? extends Component>>, Archetype> archetypes = Maps.newHashMap();
+    private final Map<Class<? extends Component>, List<Archetype>> archetypesByComponent = Maps.newHashMap();
+    private final TLongObjectMap<EntityRecord> records = new TLongObjectHashMap<>();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        EntityRecord record = records.get(entityId);
+        if (record != null) {
+            int column = record.archetype.columnOf(componentClass);
+            if (column >= 0) {
+                return componentClass.cast(record.archetype.columns[column][record.row]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        Class<? extends Component> componentClass = component.getClass();
+        EntityRecord record = records.get(entityId);
+        if (record == null) {
+            Archetype archetype = getArchetype(ImmutableSet.<Class<? extends Component>>of(componentClass));
+            record = new EntityRecord(archetype, archetype.addRow(entityId));
+            records.put(entityId, record);
+        } else {
+            int column = record.archetype.columnOf(componentClass);
+            if (column >= 0) {
+                Component oldComponent = record.archetype.columns[column][record.row];
+                record.archetype.columns[column][record.row] = component;
+                return oldComponent;
+            }
+            moveTo(record, record.archetype.withComponent(componentClass, this), entityId);
+        }
+        record.archetype.columns[record.archetype.columnOf(componentClass)][record.row] = component;
+        return null;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        EntityRecord record = records.get(entityId);
+        if (record == null) {
+            return null;
+        }
+        int column = record.archetype.columnOf(componentClass);
+        if (column < 0) {
+            return null;
+        }
+        Component oldComponent = record.archetype.columns[column][record.row];
+        if (record.archetype.componentTypes.size() == 1) {
+            removeRecord(entityId, record);
+        } else {
+            moveTo(record, record.archetype.withoutComponent(componentClass, this), entityId);
+        }
+        return oldComponent;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        EntityRecord record = records.get(entityId);
+        if (record == null) {
+            return Lists.newArrayList();
+        }
+        List<Component> components = record.archetype.getComponents(record.row);
+        removeRecord(entityId, record);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        EntityRecord record = records.get(entityId);
+        if (record != null) {
+            removeRecord(entityId, record);
+        }
+    }
+
+    @Override
+    public void clear() {
+        archetypes.clear();
+        archetypesByComponent.clear();
+        records.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        int count = 0;
+        for (Archetype archetype : archetypesByComponent.getOrDefault(componentClass, Collections.emptyList())) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        EntityRecord record = records.get(entityId);
+        if (record == null) {
+            return Lists.newArrayList();
+        }
+        return record.archetype.getComponents(record.row);
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        List<Archetype> matching = archetypesByComponent.get(componentClass);
+        if (matching == null) {
+            return null;
+        }
+        int size = 0;
+        for (Archetype archetype : matching) {
+            size += archetype.size;
+        }
+        long[] entityIds = new long[size];
+        Component[] components = new Component[size];
+        int offset = 0;
+        for (Archetype archetype : matching) {
+            System.arraycopy(archetype.entityIds, 0, entityIds, offset, archetype.size);
+            System.arraycopy(archetype.columns[archetype.columnOf(componentClass)], 0, components, offset, archetype.size);
+            offset += archetype.size;
+        }
+        return new SnapshotComponentIterator<>(entityIds, components, componentClass);
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        return TLongArrayList.wrap(records.keys()).iterator();
+    }
+
+    @Override
+    public int numEntities() {
+        return records.size();
+    }
+
+    /**
+     * Iterates over a snapshot of the entities that have all of the given components. Entities that lose one of the
+     * components before the iterator reaches them are skipped.
+     *
+     * @param componentClasses the components the entities need to have, at least one.
+     * @return an iterator over the ids of the matching entities.
+     */
+    public TLongIterator entityIdIterator(Class<? extends Component>[] componentClasses) {
+        List<Archetype> matching = getMatchingArchetypes(componentClasses);
+        int size = 0;
+        for (Archetype archetype : matching) {
+            size += archetype.size;
+        }
+        long[] entityIds = new long[size];
+        int offset = 0;
+        for (Archetype archetype : matching) {
+            System.arraycopy(archetype.entityIds, 0, entityIds, offset, archetype.size);
+            offset += archetype.size;
+        }
+        return new SnapshotEntityIdIterator(entityIds, componentClasses);
+    }
+
+    /**
+     * @param componentClasses the components the entities need to have, at least one.
+     * @return the number of entities that have all of the given components.
+     */
+    public int getEntityCount(Class<? extends Component>[] componentClasses) {
+        int count = 0;
+        for (Archetype archetype : getMatchingArchetypes(componentClasses)) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of distinct component sets of the stored entities, including sets no entity has anymore.
+     */
+    public int getArchetypeCount() {
+        return archetypes.size();
+    }
+
+    private List<Archetype> getMatchingArchetypes(Class<? extends Component>[] componentClasses) {
+        List<Archetype> smallest = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            List<Archetype> candidates = archetypesByComponent.get(componentClass);
+            if (candidates == null) {
+                return Collections.emptyList();
+            }
+            if (smallest == null || candidates.size() < smallest.size()) {
+                smallest = candidates;
+            }
+        }
+        if (smallest == null) {
+            return Collections.emptyList();
+        }
+        List<Archetype> matching = Lists.newArrayListWithCapacity(smallest.size());
+        for (Archetype archetype : smallest) {
+            if (archetype.size > 0 && archetype.containsAll(componentClasses)) {
+                matching.add(archetype);
+            }
+        }
+        return matching;
+    }
+
+    private Archetype getArchetype(Set<Class<? extends Component>> componentTypes) {
+        Archetype archetype = archetypes.get(componentTypes);
+        if (archetype == null) {
+            archetype = new Archetype(componentTypes);
+            archetypes.put(archetype.componentTypes, archetype);
+            for (Class<? extends Component> componentType : archetype.componentTypes) {
+                archetypesByComponent.computeIfAbsent(componentType, k -> Lists.newArrayList()).add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    /**
+     * Moves the entity into the given archetype, taking along all components both archetypes have.
+     */
+    private void moveTo(EntityRecord record, Archetype target, long entityId) {
+        Archetype source = record.archetype;
+        int sourceRow = record.row;
+        int targetRow = target.addRow(entityId);
+        for (int column = 0; column < source.types.length; column++) {
+            int targetColumn = target.columnOf(source.types[column]);
+            if (targetColumn >= 0) {
+                target.columns[targetColumn][targetRow] = source.columns[column][sourceRow];
+            }
+        }
+        releaseRow(source, sourceRow);
+        record.archetype = target;
+        record.row = targetRow;
+    }
+
+    private void removeRecord(long entityId, EntityRecord record) {
+        releaseRow(record.archetype, record.row);
+        records.remove(entityId);
+    }
+
+    /**
+     * Frees the given row by moving the last row of the archetype into it.
+     */
+    private void releaseRow(Archetype archetype, int row) {
+        int lastRow = archetype.size - 1;
+        if (row != lastRow) {
+            long movedEntityId = archetype.entityIds[lastRow];
+            archetype.entityIds[row] = movedEntityId;
+            for (Component[] column : archetype.columns) {
+                column[row] = column[lastRow];
+            }
+            records.get(movedEntityId).row = row;
+        }
+        for (Component[] column : archetype.columns) {
+            column[lastRow] = null;
+        }
+        archetype.size--;
+    }
+
+    private static final class EntityRecord {
+        private Archetype archetype;
+        private int row;
+
+        EntityRecord(Archetype archetype, int row) {
+            this.archetype = archetype;
+            this.row = row;
+        }
+    }
+
+    /**
+     * The entities with a specific set of component types, with one array of components per type.
+     */
+    private static final class Archetype {
+        private final Set<Class<? extends Component>> componentTypes;
+        private final Class<?>[] types;
+        private final int[] columnsByTypeId;
+        private final Map<Class<?>, Archetype> withComponent = Maps.newHashMap();
+        private final Map<Class<?>, Archetype> withoutComponent = Maps.newHashMap();
+        private Component[][] columns;
+        private long[] entityIds = new long[INITIAL_CAPACITY];
+        private int size;
+
+        Archetype(Set<Class<? extends Component>> componentTypes) {
+            this.componentTypes = ImmutableSet.copyOf(componentTypes);
+            this.types = this.componentTypes.toArray(new Class<?>[this.componentTypes.size()]);
+            this.columns = new Component[types.length][INITIAL_CAPACITY];
+            int maxTypeId = -1;
+            for (Class<?> type : types) {
+                maxTypeId = Math.max(maxTypeId, ComponentTypeIds.of(type));
+            }
+            this.columnsByTypeId = new int[maxTypeId + 1];
+            Arrays.fill(columnsByTypeId, -1);
+            for (int i = 0; i < types.length; i++) {
+                columnsByTypeId[ComponentTypeIds.of(types[i])] = i;
+            }
+        }
+
+        int columnOf(Class<?> componentClass) {
+            int typeId = ComponentTypeIds.of(componentClass);
+            return typeId < columnsByTypeId.length ? columnsByTypeId[typeId] : -1;
+        }
+
+        boolean containsAll(Class<?>[] componentClasses) {
+            for (Class<?> componentClass : componentClasses) {
+                if (columnOf(componentClass) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int addRow(long entityId) {
+            if (size == entityIds.length) {
+                int capacity = 2 * entityIds.length;
+                entityIds = Arrays.copyOf(entityIds, capacity);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+                }
+            }
+            entityIds[size] = entityId;
+            return size++;
+        }
+
+        List<Component> getComponents(int row) {
+            List<Component> components = Lists.newArrayListWithCapacity(columns.length);
+            for (Component[] column : columns) {
+                components.add(column[row]);
+            }
+            return components;
+        }
+
+        Archetype withComponent(Class<? extends Component> componentClass, ArchetypeComponentTable table) {
+            Archetype archetype = withComponent.get(componentClass);
+            if (archetype == null) {
+                Set<Class<? extends Component>> newTypes = Sets.newHashSet(componentTypes);
+                newTypes.add(componentClass);
+                archetype = table.getArchetype(newTypes);
+                withComponent.put(componentClass, archetype);
+            }
+            return archetype;
+        }
+
+        Archetype withoutComponent(Class<? extends Component> componentClass, ArchetypeComponentTable table) {
+            Archetype archetype = withoutComponent.get(componentClass);
+            if (archetype == null) {
+                Set<Class<? extends Component>> newTypes = Sets.newHashSet(componentTypes);
+                newTypes.remove(componentClass);
+                archetype = table.getArchetype(newTypes);
+                withoutComponent.put(componentClass, archetype);
+            }
+            return archetype;
+        }
+    }
+
+    private final class SnapshotEntityIdIterator implements TLongIterator {
+        private final long[] entityIds;
+        private final Class<? extends Component>[] componentClasses;
+        private int nextIndex;
+
+        SnapshotEntityIdIterator(long[] entityIds, Class<? extends Component>[] componentClasses) {
+            this.entityIds = entityIds;
+            this.componentClasses = componentClasses;
+        }
+
+        @Override
+        public long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return entityIds[nextIndex++];
+        }
+
+        @Override
+        public boolean hasNext() {
+            skipStaleEntities();
+            return nextIndex < entityIds.length;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void skipStaleEntities() {
+            while (nextIndex < entityIds.length) {
+                EntityRecord record = records.get(entityIds[nextIndex]);
+                if (record != null && record.archetype.containsAll(componentClasses)) {
+                    return;
+                }
+                nextIndex++;
+            }
+        }
+    }
+
+    private static final class SnapshotComponentIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final long[] entityIds;
+        private final Component[] components;
+        private final Class<T> componentClass;
+        private int index = -1;
+
+        SnapshotComponentIterator(long[] entityIds, Component[] components, Class<T> componentClass) {
+            this.entityIds = entityIds;
+            this.components = components;
+            this.componentClass = componentClass;
+        }
+
+        @Override
+        public long key() {
+            return entityIds[index];
+        }
+
+        @Override
+        public T value() {
+            return componentClass.cast(components[index]);
+        }
+
+        @Override
+        public T setValue(T val) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index + 1 < entityIds.length;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
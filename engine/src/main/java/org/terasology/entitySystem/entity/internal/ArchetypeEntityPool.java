@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+
+/**
+ * An entity pool that stores its components in an {@link ArchetypeComponentTable}, so looking up the entities with a
+ * set of components only visits entities that have all of them.
+ */
+public class ArchetypeEntityPool extends PojoEntityPool {
+
+    private final ArchetypeComponentTable archetypeStore;
+
+    public ArchetypeEntityPool(PojoEntityManager entityManager) {
+        this(entityManager, new ArchetypeComponentTable());
+    }
+
+    private ArchetypeEntityPool(PojoEntityManager entityManager, ArchetypeComponentTable archetypeStore) {
+        super(entityManager, archetypeStore);
+        this.archetypeStore = archetypeStore;
+    }
+
+    @Override
+    protected Iterable<EntityRef> entitiesWith(Class<? extends Component>[] componentClasses) {
+        if (componentClasses.length == 0) {
+            return super.entitiesWith(componentClasses);
+        }
+        return () -> new EntityIterator(archetypeStore.entityIdIterator(componentClasses), this);
+    }
+
+    @Override
+    public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses) {
+        if (componentClasses.length == 0) {
+            return super.getCountOfEntitiesWith(componentClasses);
+        }
+        return archetypeStore.getEntityCount(componentClasses);
+    }
+}
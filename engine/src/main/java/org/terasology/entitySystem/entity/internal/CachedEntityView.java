@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.AbstractIterator;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * An entity view maintained by the {@link EntityViewCache}. The entities are kept in an array, with a map from
+ * entity id to array index for constant time removal.
+ * <br><br>
+ * Removed entities leave a gap instead of having another entity moved into their place, so an iteration that is
+ * running meanwhile visits no entity twice. Once the gaps outnumber the entities, the entities are copied into a new array,
+ * while running iterations keep going over the old one and check the index map for entities removed since.
+ * <br><br>
+ * Iterating never writes to the view. The view is only changed by the thread changing the entities, and as the changes
+ * of systems updated in parallel are deferred until all of them are done, any number of threads may iterate it then.
+ */
+final class CachedEntityView implements EntityView {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_INDEX = -1;
+
+    private final Class<? extends Component>[] componentClasses;
+    private final TLongIntMap indices = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, PojoEntityManager.NULL_ID, NO_INDEX);
+    private EntityRef[] entities = new EntityRef[INITIAL_CAPACITY];
+    private int length;
+    private int size;
+
+    CachedEntityView(Class<? extends Component>[] componentClasses) {
+        this.componentClasses = componentClasses;
+    }
+
+    Class<? extends Component>[] getComponentClasses() {
+        return componentClasses;
+    }
+
+    void add(EntityRef entity) {
+        long id = entity.getId();
+        if (indices.containsKey(id)) {
+            return;
+        }
+        if (length == entities.length) {
+            entities = Arrays.copyOf(entities, 2 * entities.length);
+        }
+        entities[length] = entity;
+        indices.put(id, length++);
+        size++;
+    }
+
+    void remove(long id) {
+        int index = indices.remove(id);
+        if (index == NO_INDEX) {
+            return;
+        }
+        size--;
+        entities[index] = null;
+        if (length - size > Math.max(size, INITIAL_CAPACITY)) {
+            compact();
+        }
+    }
+
+    void clear() {
+        entities = new EntityRef[INITIAL_CAPACITY];
+        indices.clear();
+        length = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(EntityRef entity) {
+        return indices.containsKey(entity.getId());
+    }
+
+    /**
+     * Visits the entities of the view, skipping entities that leave the view before they are reached. Entities that
+     * join the view meanwhile are not visited.
+     */
+    @Override
+    public void forEach(Consumer<? super EntityRef> action) {
+        EntityRef[] current = entities;
+        int end = length;
+        for (int i = 0; i < end; i++) {
+            EntityRef entity = current[i];
+            if (entity != null && isStillContained(current, entity)) {
+                action.accept(entity);
+            }
+        }
+    }
+
+    /**
+     * Iterates like {@link #forEach}.
+     */
+    @Override
+    public Iterator<EntityRef> iterator() {
+        EntityRef[] current = entities;
+        int end = length;
+        return new AbstractIterator<EntityRef>() {
+            private int next;
+
+            @Override
+            protected EntityRef computeNext() {
+                while (next < end) {
+                    EntityRef entity = current[next++];
+                    if (entity != null && isStillContained(current, entity)) {
+                        return entity;
+                    }
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    /**
+     * Removals only leave a gap in the current array, so the index map has to be checked once it has been replaced.
+     */
+    private boolean isStillContained(EntityRef[] iterated, EntityRef entity) {
+        return iterated == entities || indices.containsKey(entity.getId());
+    }
+
+    private void compact() {
+        EntityRef[] compacted = new EntityRef[Math.max(INITIAL_CAPACITY, 2 * size)];
+        int target = 0;
+        for (int i = 0; i < length; i++) {
+            EntityRef entity = entities[i];
+            if (entity != null) {
+                compacted[target] = entity;
+                indices.put(entity.getId(), target++);
+            }
+        }
+        entities = compacted;
+        length = target;
+    }
+}
@@ -16,7 +16,6 @@
 package org.terasology.entitySystem.entity.internal;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TLongObjectMap;
@@ -25,18 +24,21 @@
 import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.entitySystem.Component;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A table for storing entities and components. Focused on allowing iteration across a components of a given type
+ * <br><br>
+ * The components of each type are found through the {@link ComponentTypeIds id} of the type, by indexing an array.
  *
  */
 public class ComponentTable {
-    private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
+    @SuppressWarnings("unchecked")
+    private volatile TLongObjectMap<Component>[] store = new TLongObjectMap[0];
 
     public <T extends Component> T get(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        TLongObjectMap<Component> entityMap = getEntityMap(componentClass);
         if (entityMap != null) {
             return componentClass.cast(entityMap.get(entityId));
         }
@@ -44,10 +46,13 @@ public <T extends Component> T get(long entityId, Class<T> componentClass) {
     }
 
     public Component put(long entityId, Component component) {
-        TLongObjectMap<Component> entityMap = store.get(component.getClass());
+        TLongObjectMap<Component> entityMap = getEntityMap(component.getClass());
         if (entityMap == null) {
             entityMap = new TLongObjectHashMap<>();
-            store.put(component.getClass(), entityMap);
+            int typeId = ComponentTypeIds.of(component.getClass());
+            TLongObjectMap<Component>[] newStore = Arrays.copyOf(store, Math.max(store.length, typeId + 1));
+            newStore[typeId] = entityMap;
+            store = newStore;
         }
         return entityMap.put(entityId, component);
     }
@@ -58,7 +63,7 @@ public Component put(long entityId, Component component) {
      *         Returns null if no component could be removed.
      */
     public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        TLongObjectMap<Component> entityMap = getEntityMap(componentClass);
         if (entityMap != null) {
             return entityMap.remove(entityId);
         }
@@ -68,8 +73,8 @@ public <T extends Component> Component remove(long entityId, Class<T> componentC
 
     public List<Component> removeAndReturnComponentsOf(long entityId) {
         List<Component> componentList = Lists.newArrayList();
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            Component component = entityMap.remove(entityId);
+        for (TLongObjectMap<Component> entityMap : store) {
+            Component component = entityMap != null ? entityMap.remove(entityId) : null;
             if (component != null) {
                 componentList.add(component);
             }
@@ -78,17 +83,20 @@ public List<Component> removeAndReturnComponentsOf(long entityId) {
     }
 
     public void remove(long entityId) {
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            entityMap.remove(entityId);
+        for (TLongObjectMap<Component> entityMap : store) {
+            if (entityMap != null) {
+                entityMap.remove(entityId);
+            }
         }
     }
 
+    @SuppressWarnings("unchecked")
     public void clear() {
-        store.clear();
+        store = new TLongObjectMap[0];
     }
 
     public int getComponentCount(Class<? extends Component> componentClass) {
-        TLongObjectMap<Component> map = store.get(componentClass);
+        TLongObjectMap<Component> map = getEntityMap(componentClass);
         return (map == null) ? 0 : map.size();
     }
 
@@ -109,8 +117,8 @@ public Iterable<Component> iterateComponents(long entityId) {
      */
     public List<Component> getComponentsInNewList(long entityId) {
         List<Component> components = Lists.newArrayList();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            Component comp = componentMap.get(entityId);
+        for (TLongObjectMap<Component> componentMap : store) {
+            Component comp = componentMap != null ? componentMap.get(entityId) : null;
             if (comp != null) {
                 components.add(comp);
             }
@@ -119,7 +127,7 @@ public List<Component> getComponentsInNewList(long entityId) {
     }
 
     public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
-        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) store.get(componentClass);
+        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) getEntityMap(componentClass);
         if (entityMap != null) {
             return entityMap.iterator();
         }
@@ -135,18 +143,28 @@ public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> c
      */
     public TLongIterator entityIdIterator() {
         TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
+        for (TLongObjectMap<Component> componentMap : store) {
+            if (componentMap != null) {
+                idSet.addAll(componentMap.keys());
+            }
         }
         return idSet.iterator();
     }
 
     public int numEntities() {
         TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
+        for (TLongObjectMap<Component> componentMap : store) {
+            if (componentMap != null) {
+                idSet.addAll(componentMap.keys());
+            }
         }
         return idSet.size();
     }
 
+    private TLongObjectMap<Component> getEntityMap(Class<?> componentClass) {
+        TLongObjectMap<Component>[] currentStore = store;
+        int typeId = ComponentTypeIds.of(componentClass);
+        return typeId < currentStore.length ? currentStore[typeId] : null;
+    }
+
 }
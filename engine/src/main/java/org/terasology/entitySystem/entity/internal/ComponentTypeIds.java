@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numbers component types consecutively, so component stores can keep one entry per component type in an array
+ * instead of a map keyed by class.
+ * <br><br>
+ * Ids are assigned on first use and never change while the class is loaded. They are only meaningful within the
+ * running process and must not be persisted or sent over the network.
+ */
+public final class ComponentTypeIds {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_ID.getAndIncrement();
+        }
+    };
+
+    private ComponentTypeIds() {
+    }
+
+    public static int of(Class<?> componentClass) {
+        return IDS.get(componentClass);
+    }
+
+    /**
+     * @return an upper bound for all ids assigned so far.
+     */
+    public static int count() {
+        return NEXT_ID.get();
+    }
+}
@@ -155,6 +155,16 @@ public interface EngineEntityManager extends LowLevelEntityManager, EngineEntity
      */
     void notifyComponentAdded(EntityRef changedEntity, Class<? extends Component> component);
 
+    /**
+     * Adds a new entity to the entity views it belongs to, so that the handlers of its lifecycle events already find
+     * it in them. The other subscribers are notified with {@link #notifyComponentAdded} after the events.
+     *
+     * This method is designed for internal use by the EntityBuilder.
+     *
+     * @param entity the new entity
+     */
+    void addToEntityViews(EntityRef entity);
+
     /**
      *
      * Tell the EntityManager which pool the given entity is in, so that its components can be found.
@@ -167,4 +177,19 @@ public interface EngineEntityManager extends LowLevelEntityManager, EngineEntity
      */
     void assignToPool(long entityId, EngineEntityPool pool);
 
+    /**
+     * Defers the changes other threads than the calling one make to entities, like adding, saving or removing
+     * components and destroying entities, until {@link #processDeferredChanges()}. Other threads must not create
+     * entities in the meantime.
+     *
+     * This method is designed for internal use by the UpdateScheduler, while it updates systems in parallel.
+     */
+    void deferChangesOfOtherThreads();
+
+    /**
+     * Applies the changes deferred since {@link #deferChangesOfOtherThreads()} in the order they were made, and stops
+     * deferring changes. Has to be called by the thread that started deferring them.
+     */
+    void processDeferredChanges();
+
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+import java.util.Arrays;
+
+import static org.terasology.entitySystem.entity.internal.PojoEntityManager.NULL_ID;
+
+/**
+ * Gives every loaded entity a small, dense slot number, so data about loaded entities can be kept in flat arrays
+ * indexed by slot.
+ * <br><br>
+ * Entity ids stay the stable, external identity of an entity: they get persisted and sent over the network and are
+ * never reused. Slots on the other hand are reused once their entity gets destroyed or unloaded. Every slot has a
+ * generation that gets incremented whenever the slot is freed, so a slot and generation pair remembered earlier can be
+ * checked for still referring to the same loaded entity without looking up its id.
+ * <br><br>
+ * Like {@link ComponentTable}, the index is not safe for concurrent modification.
+ */
+public class EntityIndex {
+    public static final int NO_SLOT = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final TLongIntMap slots = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, NULL_ID, NO_SLOT);
+    private final TIntArrayList freeSlots = new TIntArrayList();
+    private long[] entityIds = new long[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int capacity;
+
+    /**
+     * Gives the entity a slot, unless it already has one.
+     *
+     * @return the slot of the entity.
+     */
+    public int add(long entityId) {
+        int slot = slots.get(entityId);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+        if (freeSlots.isEmpty()) {
+            slot = capacity++;
+            if (slot == entityIds.length) {
+                entityIds = Arrays.copyOf(entityIds, 2 * slot);
+                generations = Arrays.copyOf(generations, 2 * slot);
+            }
+        } else {
+            slot = freeSlots.removeAt(freeSlots.size() - 1);
+        }
+        entityIds[slot] = entityId;
+        slots.put(entityId, slot);
+        return slot;
+    }
+
+    /**
+     * Frees the slot of the entity and advances its generation.
+     *
+     * @return whether the entity had a slot.
+     */
+    public boolean remove(long entityId) {
+        int slot = slots.remove(entityId);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        free(slot);
+        return true;
+    }
+
+    public boolean contains(long entityId) {
+        return slots.containsKey(entityId);
+    }
+
+    /**
+     * @return the slot of the entity, or {@link #NO_SLOT} if it is not loaded.
+     */
+    public int getSlot(long entityId) {
+        return slots.get(entityId);
+    }
+
+    /**
+     * @return the id of the entity in the given slot, or {@link PojoEntityManager#NULL_ID} if the slot is free.
+     */
+    public long getEntityId(int slot) {
+        return slot >= 0 && slot < capacity ? entityIds[slot] : NULL_ID;
+    }
+
+    public int getGeneration(int slot) {
+        return generations[slot];
+    }
+
+    /**
+     * @return whether the slot has not been freed since it had the given generation.
+     */
+    public boolean isCurrent(int slot, int generation) {
+        return slot >= 0 && slot < capacity && generations[slot] == generation && entityIds[slot] != NULL_ID;
+    }
+
+    /**
+     * @return the number of entities that have a slot.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * @return an upper bound for all slots handed out so far, to be used as the size of arrays indexed by slot.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Frees all slots. Generations are kept, so slots remembered before do not become current again.
+     */
+    public void clear() {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (entityIds[slot] != NULL_ID) {
+                free(slot);
+            }
+        }
+        slots.clear();
+    }
+
+    private void free(int slot) {
+        entityIds[slot] = NULL_ID;
+        generations[slot]++;
+        freeSlots.add(slot);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates the entity views of an entity manager and keeps them up to date with the component changes it is informed
+ * of. Views are created on first use and kept for the lifetime of the entity manager.
+ */
+public class EntityViewCache implements EntityChangeSubscriber {
+
+    private final EngineEntityManager entityManager;
+    private final Map<List<Class<? extends Component>>, CachedEntityView> viewsByQuery = Maps.newConcurrentMap();
+    private final Map<Set<Class<? extends Component>>, CachedEntityView> views = Maps.newConcurrentMap();
+    private final Map<Class<? extends Component>, List<CachedEntityView>> viewsByComponent = Maps.newConcurrentMap();
+
+    public EntityViewCache(EngineEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param componentClasses the components the entities of the view have, at least one.
+     * @return the view of the entities with all of the given components.
+     */
+    public EntityView getView(Class<? extends Component>[] componentClasses) {
+        CachedEntityView view = viewsByQuery.get(Arrays.asList(componentClasses));
+        if (view == null) {
+            view = createView(componentClasses);
+        }
+        return view;
+    }
+
+    /**
+     * Empties all views, for when all entities are removed without being destroyed one by one.
+     */
+    public void clear() {
+        for (CachedEntityView view : views.values()) {
+            view.clear();
+        }
+    }
+
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        for (CachedEntityView view : viewsWith(component)) {
+            if (hasAllComponents(entity, view)) {
+                view.add(entity);
+            }
+        }
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        for (CachedEntityView view : viewsWith(component)) {
+            view.remove(entity.getId());
+        }
+    }
+
+    @Override
+    public void onReactivation(EntityRef entity, Collection<Component> components) {
+        for (Component component : components) {
+            onEntityComponentAdded(entity, component.getClass());
+        }
+    }
+
+    @Override
+    public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
+        for (Component component : components) {
+            onEntityComponentRemoved(entity, component.getClass());
+        }
+    }
+
+    private synchronized CachedEntityView createView(Class<? extends Component>[] componentClasses) {
+        Set<Class<? extends Component>> componentSet = ImmutableSet.copyOf(componentClasses);
+        CachedEntityView view = views.get(componentSet);
+        if (view == null) {
+            view = new CachedEntityView(componentSet.toArray(new Class[componentSet.size()]));
+            for (EntityRef entity : entityManager.getGlobalPool().getEntitiesWith(componentClasses)) {
+                view.add(entity);
+            }
+            for (EntityRef entity : entityManager.getSectorManager().getEntitiesWith(componentClasses)) {
+                view.add(entity);
+            }
+            for (Class<? extends Component> componentClass : componentSet) {
+                List<CachedEntityView> componentViews = Lists.newArrayList(viewsWith(componentClass));
+                componentViews.add(view);
+                viewsByComponent.put(componentClass, componentViews);
+            }
+            views.put(componentSet, view);
+        }
+        viewsByQuery.put(ImmutableList.copyOf(componentClasses), view);
+        return view;
+    }
+
+    private List<CachedEntityView> viewsWith(Class<? extends Component> componentClass) {
+        return viewsByComponent.getOrDefault(componentClass, Collections.emptyList());
+    }
+
+    private boolean hasAllComponents(EntityRef entity, CachedEntityView view) {
+        for (Class<? extends Component> componentClass : view.getComponentClasses()) {
+            if (!entityManager.hasComponent(entity.getId(), componentClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
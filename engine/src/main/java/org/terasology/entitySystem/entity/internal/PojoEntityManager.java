@@ -20,15 +20,15 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
 import gnu.trove.iterator.TLongObjectIterator;
-import gnu.trove.set.TLongSet;
-import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
@@ -44,12 +44,15 @@
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.function.Function;
 
 import static org.terasology.entitySystem.entity.internal.EntityScope.SECTOR;
 
@@ -59,11 +62,18 @@ public class PojoEntityManager implements EngineEntityManager {
     private static final Logger logger = LoggerFactory.getLogger(PojoEntityManager.class);
 
     private long nextEntityId = 1;
-    private TLongSet loadedIds = new TLongHashSet();
+    private final EntityIndex entityIndex = new EntityIndex();
 
-    private EngineEntityPool globalPool = new PojoEntityPool(this);
-    private PojoSectorManager sectorManager = new PojoSectorManager(this);
+    private final Function<PojoEntityManager, EngineEntityPool> poolFactory;
+    private EngineEntityPool globalPool;
+    private PojoSectorManager sectorManager;
+    private EntityViewCache viewCache;
     private Map<Long, EngineEntityPool> poolMap = new MapMaker().initialCapacity(1000).makeMap();
+    private Map<Prefab, PrefabTemplate> prefabTemplates = new MapMaker().weakKeys().makeMap();
+    /**
+     * The pools of the loaded entities, indexed by their slot in the {@link #entityIndex}.
+     */
+    private EngineEntityPool[] poolsBySlot = new EngineEntityPool[1000];
 
     private Set<EntityChangeSubscriber> subscribers = Sets.newLinkedHashSet();
     private Set<EntityDestroySubscriber> destroySubscribers = Sets.newLinkedHashSet();
@@ -75,6 +85,27 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private TypeSerializationLibrary typeSerializerLibrary;
 
+    /**
+     * The thread whose changes are applied right away while the changes of other threads are deferred, or null.
+     */
+    private volatile Thread deferringThread;
+    private final Queue<Runnable> deferredChanges = Queues.newConcurrentLinkedQueue();
+
+    public PojoEntityManager() {
+        this(PojoEntityPool::new);
+    }
+
+    /**
+     * @param poolFactory creates the pools that store the entities, e.g. {@code ArchetypeEntityPool::new}.
+     */
+    public PojoEntityManager(Function<PojoEntityManager, EngineEntityPool> poolFactory) {
+        this.poolFactory = poolFactory;
+        this.globalPool = poolFactory.apply(this);
+        this.sectorManager = new PojoSectorManager(this);
+        this.viewCache = new EntityViewCache(this);
+        subscribeForChanges(viewCache);
+    }
+
     public void setTypeSerializerLibrary(TypeSerializationLibrary serializerLibrary) {
         this.typeSerializerLibrary = serializerLibrary;
     }
@@ -92,6 +123,34 @@ public RefStrategy getEntityRefStrategy() {
         return refStrategy;
     }
 
+    /**
+     * @return the index giving every loaded entity a dense slot, which can be used to store data about loaded entities
+     *         in flat arrays.
+     */
+    public EntityIndex getEntityIndex() {
+        return entityIndex;
+    }
+
+    /**
+     * @return the template for instantiating the given prefab, which gets prepared on first use and again whenever
+     *         the prefab or the component library changed.
+     */
+    PrefabTemplate getPrefabTemplate(Prefab prefab) {
+        PrefabTemplate template = prefabTemplates.get(prefab);
+        if (template == null || !template.isCurrent(componentLibrary)) {
+            template = new PrefabTemplate(prefab, componentLibrary);
+            prefabTemplates.put(prefab, template);
+        }
+        return template;
+    }
+
+    /**
+     * @return a new, empty pool of the kind used by this entity manager.
+     */
+    EngineEntityPool createPool() {
+        return poolFactory.apply(this);
+    }
+
     @Override
     public EngineEntityPool getGlobalPool() {
         return globalPool;
@@ -101,8 +160,10 @@ public EngineEntityPool getGlobalPool() {
     public void clear() {
         globalPool.clear();
         sectorManager.clear();
+        viewCache.clear();
         nextEntityId = 1;
-        loadedIds.clear();
+        entityIndex.clear();
+        Arrays.fill(poolsBySlot, null);
     }
 
     @Override
@@ -145,10 +206,11 @@ public EntityRef createSectorEntity(long unloadedMaxDelta, long loadedMaxDelta)
 
     @Override
     public long createEntity() {
+        checkNotDeferring();
         if (nextEntityId == NULL_ID) {
             nextEntityId++;
         }
-        loadedIds.add(nextEntityId);
+        markLoaded(nextEntityId);
         return nextEntityId++;
     }
 
@@ -197,6 +259,11 @@ public EntityRef create(Prefab prefab) {
         return globalPool.create(prefab);
     }
 
+    @Override
+    public List<EntityRef> createBatch(Prefab prefab, int count) {
+        return globalPool.createBatch(prefab, count);
+    }
+
     @Override
     //Todo: Depreciated, maybe remove? Not many uses
     public EntityRef copy(EntityRef other) {
@@ -227,8 +294,18 @@ public Iterable<EntityRef> getAllEntities() {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
-        return Iterables.concat(globalPool.getEntitiesWith(componentClasses),
-                sectorManager.getEntitiesWith(componentClasses));
+        if (componentClasses.length == 0) {
+            return Iterables.concat(globalPool.getEntitiesWith(componentClasses),
+                    sectorManager.getEntitiesWith(componentClasses));
+        }
+        return viewCache.getView(componentClasses);
+    }
+
+    @SafeVarargs
+    @Override
+    public final EntityView getEntityView(Class<? extends Component>... componentClasses) {
+        Preconditions.checkArgument(componentClasses.length > 0, "An entity view needs at least one component type");
+        return viewCache.getView(componentClasses);
     }
 
     @Override
@@ -361,7 +438,7 @@ public void deactivateForStorage(EntityRef entity) {
         for (Component component: components) {
             getPool(entityId).ifPresent(pool -> pool.getComponentStore().remove(entityId, component.getClass()));
         }
-        loadedIds.remove(entityId);
+        markUnloaded(entityId);
     }
 
     @Override
@@ -401,7 +478,7 @@ public boolean isExistingEntity(long id) {
      */
     @Override
     public boolean isActiveEntity(long id) {
-        return loadedIds.contains(id);
+        return entityIndex.contains(id);
     }
 
     /**
@@ -417,6 +494,9 @@ public Iterable<Component> iterateComponents(long entityId) {
 
     @Override
     public void destroy(long entityId) {
+        if (deferChange(() -> destroy(entityId))) {
+            return;
+        }
         getPool(entityId).ifPresent(pool -> pool.destroy(entityId));
     }
 
@@ -439,11 +519,30 @@ protected void notifyComponentRemovalAndEntityDestruction(long entityId, EntityR
      */
     @Override
     public <T extends Component> T getComponent(long entityId, Class<T> componentClass) {
+        int slot = entityIndex.getSlot(entityId);
+        if (slot != EntityIndex.NO_SLOT) {
+            return getComponent(slot, entityId, componentClass);
+        }
         return getPool(entityId)
                 .map(pool -> pool.getComponentStore().get(entityId, componentClass))
                 .orElse(null);
     }
 
+    /**
+     * Looks up the component of a loaded entity whose slot is already known, e.g. by its entity ref.
+     *
+     * @param slot the current slot of the entity in the {@link #getEntityIndex() entity index}.
+     */
+    <T extends Component> T getComponent(int slot, long entityId, Class<T> componentClass) {
+        EngineEntityPool pool = poolsBySlot[slot];
+        if (pool == null) {
+            return getPool(entityId)
+                    .map(p -> p.getComponentStore().get(entityId, componentClass))
+                    .orElse(null);
+        }
+        return pool.getComponentStore().get(entityId, componentClass);
+    }
+
     /**
      * Adds (or replaces) a component to an entity
      *
@@ -455,6 +554,9 @@ public <T extends Component> T getComponent(long entityId, Class<T> componentCla
     @Override
     public <T extends Component> T addComponent(long entityId, T component) {
         Preconditions.checkNotNull(component);
+        if (deferChange(() -> addComponent(entityId, component))) {
+            return component;
+        }
         Optional<Component> oldComponent = getPool(entityId).map(pool -> pool.getComponentStore().put(entityId, component));
 
         if (!oldComponent.isPresent()) {
@@ -483,6 +585,9 @@ public <T extends Component> T addComponent(long entityId, T component) {
      */
     @Override
     public <T extends Component> T removeComponent(long entityId, Class<T> componentClass) {
+        if (deferChange(() -> removeComponent(entityId, componentClass))) {
+            return getComponent(entityId, componentClass);
+        }
         Optional<ComponentTable> maybeStore = getPool(entityId).map(EngineEntityPool::getComponentStore);
         Optional<T> component = maybeStore.map(store -> store.get(entityId, componentClass));
 
@@ -506,11 +611,15 @@ public <T extends Component> T removeComponent(long entityId, Class<T> component
      */
     @Override
     public void saveComponent(long entityId, Component component) {
+        if (deferChange(() -> saveComponent(entityId, component))) {
+            return;
+        }
         Optional<Component> oldComponent = getPool(entityId)
                 .map(pool -> pool.getComponentStore().put(entityId, component));
 
         if (!oldComponent.isPresent()) {
             logger.error("Saving a component ({}) that doesn't belong to this entity {}", component.getClass(), entityId);
+            viewCache.onEntityComponentAdded(getEntity(entityId), component.getClass());
         }
         if (eventSystem != null) {
             EntityRef entityRef = getEntity(entityId);
@@ -534,6 +643,10 @@ public void saveComponent(long entityId, Component component) {
      */
 
     public Optional<EngineEntityPool> getPool(long id) {
+        int slot = entityIndex.getSlot(id);
+        if (slot != EntityIndex.NO_SLOT && poolsBySlot[slot] != null) {
+            return Optional.of(poolsBySlot[slot]);
+        }
         Optional<EngineEntityPool> pool = Optional.ofNullable(poolMap.get(id));
         if (!pool.isPresent()) {
             if (id != NULL_ID) {
@@ -563,6 +676,10 @@ public void assignToPool(long entityId, EngineEntityPool pool) {
         if (poolMap.get(entityId) != pool) {
             poolMap.put(entityId, pool);
         }
+        int slot = entityIndex.getSlot(entityId);
+        if (slot != EntityIndex.NO_SLOT) {
+            poolsBySlot[slot] = pool;
+        }
     }
 
     /**
@@ -577,6 +694,10 @@ public void assignToPool(long entityId, EngineEntityPool pool) {
      */
     protected void unassignPool(long id) {
         poolMap.remove(id);
+        int slot = entityIndex.getSlot(id);
+        if (slot != EntityIndex.NO_SLOT) {
+            poolsBySlot[slot] = null;
+        }
     }
 
     public boolean moveToPool(long id, EngineEntityPool pool) {
@@ -618,6 +739,13 @@ public void notifyComponentAdded(EntityRef changedEntity, Class<? extends Compon
         }
     }
 
+    @Override
+    public void addToEntityViews(EntityRef entity) {
+        for (Component component : iterateComponents(entity.getId())) {
+            viewCache.onEntityComponentAdded(entity, component.getClass());
+        }
+    }
+
     protected void notifyComponentRemoved(EntityRef changedEntity, Class<? extends Component> component) {
         for (EntityChangeSubscriber subscriber : subscribers) {
             subscriber.onEntityComponentRemoved(changedEntity, component);
@@ -652,8 +780,11 @@ private void notifyBeforeDeactivation(EntityRef entity, Collection<Component> co
     @Override
     @SafeVarargs
     public final int getCountOfEntitiesWith(Class<? extends Component>... componentClasses) {
-        return sectorManager.getCountOfEntitiesWith(componentClasses) +
-                globalPool.getCountOfEntitiesWith(componentClasses);
+        if (componentClasses.length == 0) {
+            return sectorManager.getCountOfEntitiesWith(componentClasses) +
+                    globalPool.getCountOfEntitiesWith(componentClasses);
+        }
+        return viewCache.getView(componentClasses).size();
     }
 
     public <T extends Component> Iterable<Map.Entry<EntityRef, T>> listComponents(Class<T> componentClass) {
@@ -700,16 +831,51 @@ public T setValue(T newValue) {
 
     @Override
     public boolean registerId(long entityId) {
+        checkNotDeferring();
         if (entityId >= nextEntityId) {
             logger.error("Prevented attempt to create entity with an invalid id.");
             return false;
         }
-        loadedIds.add(entityId);
+        markLoaded(entityId);
         return true;
     }
 
+    @Override
+    public void deferChangesOfOtherThreads() {
+        Preconditions.checkState(deferringThread == null, "Changes are already being deferred");
+        deferringThread = Thread.currentThread();
+    }
+
+    @Override
+    public void processDeferredChanges() {
+        Preconditions.checkState(deferringThread == Thread.currentThread(), "Deferred changes have to be processed by the thread deferring them");
+        deferringThread = null;
+        Runnable change;
+        while ((change = deferredChanges.poll()) != null) {
+            change.run();
+        }
+    }
+
+    /**
+     * @return whether the change has been deferred, because it was made by another thread than the one deferring changes.
+     */
+    private boolean deferChange(Runnable change) {
+        Thread thread = deferringThread;
+        if (thread != null && thread != Thread.currentThread()) {
+            deferredChanges.add(change);
+            return true;
+        }
+        return false;
+    }
+
+    private void checkNotDeferring() {
+        Thread thread = deferringThread;
+        Preconditions.checkState(thread == null || thread == Thread.currentThread(),
+                "Entities can't be created while systems are updated in parallel");
+    }
+
     protected boolean idLoaded(long entityId) {
-        return loadedIds.contains(entityId);
+        return entityIndex.contains(entityId);
     }
 
     @Override
@@ -734,7 +900,23 @@ public boolean contains(long id) {
      * @param id the id to remove
      */
     protected void unregister(long id) {
-        loadedIds.remove(id);
+        markUnloaded(id);
+    }
+
+    private void markLoaded(long entityId) {
+        int slot = entityIndex.add(entityId);
+        if (slot >= poolsBySlot.length) {
+            poolsBySlot = Arrays.copyOf(poolsBySlot, Math.max(2 * poolsBySlot.length, slot + 1));
+        }
+        poolsBySlot[slot] = poolMap.get(entityId);
+    }
+
+    private void markUnloaded(long entityId) {
+        int slot = entityIndex.getSlot(entityId);
+        if (slot != EntityIndex.NO_SLOT) {
+            poolsBySlot[slot] = null;
+            entityIndex.remove(entityId);
+        }
     }
 
 }
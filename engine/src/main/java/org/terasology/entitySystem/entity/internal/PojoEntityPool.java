@@ -15,6 +15,7 @@
  */
 package org.terasology.entitySystem.entity.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import org.slf4j.Logger;
@@ -24,6 +25,8 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnAddedComponent;
 import org.terasology.entitySystem.event.internal.EventSystem;
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.logic.location.LocationComponent;
@@ -32,8 +35,10 @@
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.terasology.entitySystem.entity.internal.PojoEntityManager.NULL_ID;
 
@@ -44,10 +49,15 @@ public class PojoEntityPool implements EngineEntityPool {
     private static final Logger logger = LoggerFactory.getLogger(PojoEntityPool.class);
 
     private Map<Long, BaseEntityRef> entityStore = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable componentStore = new ComponentTable();
+    private ComponentTable componentStore;
 
     public PojoEntityPool(PojoEntityManager entityManager) {
+        this(entityManager, new ComponentTable());
+    }
+
+    protected PojoEntityPool(PojoEntityManager entityManager, ComponentTable componentStore) {
         this.entityManager = entityManager;
+        this.componentStore = componentStore;
     }
 
     @Override
@@ -109,6 +119,23 @@ public EntityRef create(Prefab prefab, Vector3f position, Quat4f rotation) {
         return create(prefab, position, rotation, true);
     }
 
+    @Override
+    public List<EntityRef> createBatch(Prefab prefab, int count) {
+        Preconditions.checkArgument(count >= 0, "The parameter 'count' must not be negative");
+        List<EntityRef> entities = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            EntityBuilder builder = newBuilder(prefab);
+            builder.setSendLifecycleEvents(false);
+            entities.add(builder.build());
+        }
+        EventSystem eventSystem = entityManager.getEventSystem();
+        if (eventSystem != null) {
+            eventSystem.sendToAll(entities, OnAddedComponent.newInstance());
+            eventSystem.sendToAll(entities, OnActivatedComponent.newInstance());
+        }
+        return entities;
+    }
+
     private EntityRef create(Prefab prefab, Vector3f position, Quat4f rotation, boolean sendLifecycleEvents) {
         EntityBuilder builder = newBuilder(prefab);
         builder.setSendLifecycleEvents(sendLifecycleEvents);
@@ -239,7 +266,11 @@ public EntityBuilder newBuilder(String prefabName) {
     @Override
     public EntityBuilder newBuilder(Prefab prefab) {
         EntityBuilder builder = newBuilder();
-        builder.addPrefab(prefab);
+        if (prefab != null) {
+            builder.addComponents(entityManager.getPrefabTemplate(prefab).instantiate());
+        } else {
+            builder.addPrefab((Prefab) null);
+        }
         return builder;
     }
 
@@ -297,14 +328,25 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
-        return () -> entityStore.keySet().stream()
-                //Keep entities which have all of the required components
-                .filter(id -> Arrays.stream(componentClasses)
-                        .allMatch(component -> componentStore.get(id, component) != null))
+        return entitiesWith(componentClasses);
+    }
+
+    /**
+     * @return An iterable over all entities of this pool with the provided component types.
+     */
+    protected Iterable<EntityRef> entitiesWith(Class<? extends Component>[] componentClasses) {
+        return () -> entityIdsWith(componentClasses)
                 .map(id -> getEntity(id))
                 .iterator();
     }
 
+    private Stream<Long> entityIdsWith(Class<? extends Component>[] componentClasses) {
+        return entityStore.keySet().stream()
+                //Keep entities which have all of the required components
+                .filter(id -> Arrays.stream(componentClasses)
+                        .allMatch(component -> componentStore.get(id, component) != null));
+    }
+
     @Override
     public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses) {
         switch (componentClasses.length) {
@@ -313,7 +355,7 @@ public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses)
             case 1:
                 return componentStore.getComponentCount(componentClasses[0]);
             default:
-                return Lists.newArrayList(getEntitiesWith(componentClasses)).size();
+                return (int) entityIdsWith(componentClasses).count();
         }
     }
 
@@ -15,6 +15,7 @@
  */
 package org.terasology.entitySystem.entity.internal;
 
+import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.LowLevelEntityManager;
 import org.terasology.entitySystem.prefab.Prefab;
@@ -25,10 +26,18 @@
 public class PojoEntityRef extends BaseEntityRef {
     private long id;
     private boolean exists = true;
+    private final PojoEntityManager pojoEntityManager;
+    private final EntityIndex entityIndex;
+    private final int slot;
+    private final int generation;
 
     PojoEntityRef(LowLevelEntityManager manager, long id) {
         super(manager);
         this.id = id;
+        this.pojoEntityManager = (manager instanceof PojoEntityManager) ? (PojoEntityManager) manager : null;
+        this.entityIndex = (pojoEntityManager != null) ? pojoEntityManager.getEntityIndex() : null;
+        this.slot = (entityIndex != null) ? entityIndex.getSlot(id) : EntityIndex.NO_SLOT;
+        this.generation = (slot != EntityIndex.NO_SLOT) ? entityIndex.getGeneration(slot) : 0;
     }
 
     @Override
@@ -49,6 +58,29 @@ public boolean exists() {
         return exists;
     }
 
+    /**
+     * Checks the slot the entity had when this ref was created, so while it stays loaded only its generation needs to
+     * be compared. Nothing is written on reads, so the ref can be used by systems updated in parallel.
+     */
+    @Override
+    public boolean isActive() {
+        if (entityIndex == null) {
+            return super.isActive();
+        }
+        if (!exists) {
+            return false;
+        }
+        return entityIndex.isCurrent(slot, generation) || entityIndex.contains(id);
+    }
+
+    @Override
+    public <T extends Component> T getComponent(Class<T> componentClass) {
+        if (entityIndex != null && exists && entityIndex.isCurrent(slot, generation)) {
+            return pojoEntityManager.getComponent(slot, id, componentClass);
+        }
+        return super.getComponent(componentClass);
+    }
+
 
     @Override
     public String toString() {
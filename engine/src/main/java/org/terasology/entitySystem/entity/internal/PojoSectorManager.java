@@ -37,7 +37,7 @@ public class PojoSectorManager implements EngineSectorManager {
     public PojoSectorManager(PojoEntityManager entityManager) {
         this.entityManager = entityManager;
         pools = new ArrayList<>();
-        pools.add(new PojoEntityPool(entityManager));
+        pools.add(entityManager.createPool());
     }
 
     @Override
@@ -98,6 +98,11 @@ public EntityRef create(Prefab prefab) {
         return getPool().create(prefab);
     }
 
+    @Override
+    public List<EntityRef> createBatch(Prefab prefab, int count) {
+        return getPool().createBatch(prefab, count);
+    }
+
     @Override
     public EntityRef create(String prefab, Vector3f position) {
         return getPool().create(prefab, position);
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.prefab.Prefab;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A plan for instantiating a prefab, which is prepared once and then used for every entity created from the prefab.
+ * <br><br>
+ * It holds the components of the prefab, which already include the ones inherited from its parents, together with the
+ * metadata used to copy each of them. Instantiating the prefab therefore neither looks up any metadata nor walks the
+ * prefab again.
+ * <br><br>
+ * Prefabs can be reloaded, so a template has to be {@link #isCurrent checked} before it gets used.
+ */
+final class PrefabTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(PrefabTemplate.class);
+
+    private final Prefab prefab;
+    private final ComponentLibrary componentLibrary;
+    private final List<Component> prefabComponents;
+    private final Component[] prototypes;
+    private final ComponentMetadata<?>[] metadata;
+
+    PrefabTemplate(Prefab prefab, ComponentLibrary componentLibrary) {
+        this.prefab = prefab;
+        this.componentLibrary = componentLibrary;
+        this.prefabComponents = ImmutableList.copyOf(prefab.iterateComponents());
+
+        List<Component> prototypeList = Lists.newArrayListWithCapacity(prefabComponents.size());
+        List<ComponentMetadata<?>> metadataList = Lists.newArrayListWithCapacity(prefabComponents.size());
+        for (Component component : prefabComponents) {
+            ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(component.getClass());
+            if (componentMetadata == null) {
+                logger.error("Skipping unregistered component {} of prefab {}", component.getClass(), prefab.getName());
+                continue;
+            }
+            prototypeList.add(component);
+            metadataList.add(componentMetadata);
+        }
+        this.prototypes = prototypeList.toArray(new Component[prototypeList.size()]);
+        this.metadata = metadataList.toArray(new ComponentMetadata<?>[metadataList.size()]);
+    }
+
+    /**
+     * @return whether the template was created with the given library and the prefab still has the same components.
+     */
+    boolean isCurrent(ComponentLibrary library) {
+        if (library != componentLibrary) {
+            return false;
+        }
+        Iterator<Component> current = prefab.iterateComponents().iterator();
+        for (Component component : prefabComponents) {
+            if (!current.hasNext() || current.next() != component) {
+                return false;
+            }
+        }
+        return !current.hasNext();
+    }
+
+    /**
+     * @return new copies of the components of the prefab, including the entity info component for the prefab.
+     */
+    List<Component> instantiate() {
+        List<Component> components = Lists.newArrayListWithCapacity(prototypes.length + 1);
+        for (int i = 0; i < prototypes.length; i++) {
+            components.add(copy(metadata[i], prototypes[i]));
+        }
+        components.add(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
+        return components;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Component> T copy(ComponentMetadata<T> componentMetadata, Component prototype) {
+        return componentMetadata.copy((T) prototype);
+    }
+}
@@ -28,6 +28,10 @@
  * <br><br>
  * These methods should have the form
  * <code>public void handlerMethod(EventType event, EntityRef entity)</code>
+ * <br><br>
+ * Methods of the form <code>public void handlerMethod(EventType event, List&lt;EntityRef&gt; entities)</code> receive
+ * all entities an event is sent to through {@link org.terasology.entitySystem.event.internal.EventSystem#sendToAll}
+ * with a single call.
  *
  */
 @Retention(RetentionPolicy.RUNTIME)
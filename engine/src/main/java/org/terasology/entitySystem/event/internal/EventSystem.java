@@ -82,6 +82,18 @@ public interface EventSystem {
      */
     void send(EntityRef entity, Event event);
 
+    /**
+     * Sends the same event to many entities. Every handler is invoked for all entities it is interested in before the
+     * next handler is invoked, and handlers which take a list of entities receive them with a single call.
+     * <br><br>
+     * Consumable events are sent to one entity after the other instead, and consuming the event stops it from
+     * being sent to the remaining entities.
+     *
+     * @param entities
+     * @param event
+     */
+    void sendToAll(Iterable<EntityRef> entities, Event event);
+
     /**
      * Sends an event to a handlers for a specific component of an entity
      *
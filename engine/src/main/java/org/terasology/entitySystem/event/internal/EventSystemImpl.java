@@ -24,9 +24,10 @@
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
 import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +43,7 @@
 import org.terasology.entitySystem.metadata.EventMetadata;
 import org.terasology.entitySystem.systems.ComponentSystem;
 import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TimingHistogram;
 import org.terasology.network.BroadcastEvent;
 import org.terasology.network.Client;
 import org.terasology.network.NetworkComponent;
@@ -54,6 +56,8 @@
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -62,7 +66,6 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 /**
  * An implementation of the EventSystem.
@@ -70,18 +73,25 @@
  */
 public class EventSystemImpl implements EventSystem {
 
+    /**
+     * The time between sending an event from another thread and dispatching it on the main thread.
+     */
+    public static final String PENDING_EVENT_LATENCY_HISTOGRAM = "Event System - Pending Event Latency";
+
     private static final Logger logger = LoggerFactory.getLogger(EventSystemImpl.class);
 
     private Map<Class<? extends Event>, SetMultimap<Class<? extends Component>, EventHandlerInfo>> componentSpecificHandlers = Maps.newHashMap();
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
+    private Map<Class<? extends Event>, DispatchTable> dispatchTables = Maps.newConcurrentMap();
 
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
 
     private Thread mainThread;
-    private BlockingQueue<PendingEvent> pendingEvents = Queues.newLinkedBlockingQueue();
+    private PendingEventQueue pendingEvents = new PendingEventQueue();
+    private final TimingHistogram pendingEventLatency = PerformanceMonitor.getHistogram(PENDING_EVENT_LATENCY_HISTOGRAM);
 
     private EventLibrary eventLibrary;
     private NetworkSystem networkSystem;
@@ -94,7 +104,8 @@ public EventSystemImpl(EventLibrary eventLibrary, NetworkSystem networkSystem) {
 
     @Override
     public void process() {
-        for (PendingEvent event = pendingEvents.poll(); event != null; event = pendingEvents.poll()) {
+        for (PendingEvent event : pendingEvents.drain()) {
+            pendingEventLatency.record(System.nanoTime() - event.getEnqueueTime());
             if (event.getComponent() != null) {
                 send(event.getEntity(), event.getEvent(), event.getComponent());
             } else {
@@ -103,6 +114,20 @@ public void process() {
         }
     }
 
+    /**
+     * @return the number of events sent from other threads which wait for the next {@link #process()}.
+     */
+    public int getPendingEventCount() {
+        return pendingEvents.size();
+    }
+
+    /**
+     * @return the most events sent from other threads that a single {@link #process()} had to dispatch.
+     */
+    public int getMaxPendingEventCount() {
+        return pendingEvents.getMaxDrained();
+    }
+
     @Override
     public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         eventIdMap.put(uri, eventType);
@@ -149,10 +174,15 @@ public void registerEventHandler(ComponentSystem handler) {
                 Class<?>[] types = method.getParameterTypes();
 
                 logger.debug("Found method: " + method.toString());
-                if (!Event.class.isAssignableFrom(types[0]) || !EntityRef.class.isAssignableFrom(types[1])) {
+                boolean batch = isBatchHandler(method);
+                if (!Event.class.isAssignableFrom(types[0]) || !(batch || EntityRef.class.isAssignableFrom(types[1]))) {
                     logger.error("Invalid event handler method: {}", method.getName());
                     return;
                 }
+                if (batch && types.length > 2) {
+                    logger.error("Invalid event handler method: {} - batch handlers cannot receive components", method.getName());
+                    return;
+                }
 
                 requiredComponents.addAll(Arrays.asList(receiveEventAnnotation.components()));
                 List<Class<? extends Component>> componentParams = Lists.newArrayList();
@@ -166,12 +196,24 @@ public void registerEventHandler(ComponentSystem handler) {
                 }
 
                 ByteCodeEventHandlerInfo handlerInfo = new ByteCodeEventHandlerInfo(handler, method, receiveEventAnnotation.priority(),
-                        receiveEventAnnotation.activity(), requiredComponents, componentParams);
+                        receiveEventAnnotation.activity(), requiredComponents, componentParams, batch);
                 addEventHandler((Class<? extends Event>) types[0], handlerInfo, requiredComponents);
             }
         }
     }
 
+    /**
+     * @return whether the method receives a list of entities instead of a single entity.
+     */
+    private boolean isBatchHandler(Method method) {
+        Type[] types = method.getGenericParameterTypes();
+        if (types.length < 2 || !(types[1] instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType listType = (ParameterizedType) types[1];
+        return List.class.equals(listType.getRawType()) && EntityRef.class.equals(listType.getActualTypeArguments()[0]);
+    }
+
     @Override
     public void unregisterEventHandler(ComponentSystem handler) {
         for (SetMultimap<Class<? extends Component>, EventHandlerInfo> eventHandlers : componentSpecificHandlers.values()) {
@@ -191,9 +233,11 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        dispatchTables.clear();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
+        dispatchTables.clear();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -251,6 +295,7 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        dispatchTables.clear();
     }
 
     @Override
@@ -260,34 +305,86 @@ public void send(EntityRef entity, Event event) {
         } else {
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            Collections.sort(selectedHandlers, priorityComparator);
-
-            if (event instanceof ConsumableEvent) {
-                sendConsumableEvent(entity, event, selectedHandlers);
+            EventHandlerInfo[] handlers = getDispatchTable(event.getClass()).handlers;
+            if (handlers.length <= Long.SIZE) {
+                sendToSelectedHandlers(entity, event, handlers, selectEventHandlers(handlers, entity));
             } else {
-                sendStandardEvent(entity, event, selectedHandlers);
+                sendToSelectedHandlers(entity, event, handlers, selectManyEventHandlers(handlers, entity));
+            }
+        }
+    }
+
+    @Override
+    public void sendToAll(Iterable<EntityRef> entities, Event event) {
+        if (Thread.currentThread() != mainThread) {
+            for (EntityRef entity : entities) {
+                pendingEvents.offer(new PendingEvent(entity, event));
+            }
+            return;
+        }
+        EventHandlerInfo[] handlers = getDispatchTable(event.getClass()).handlers;
+        if (event instanceof ConsumableEvent || handlers.length > Long.SIZE) {
+            sendToEach(entities, event);
+            return;
+        }
+
+        // Entities have no archetype the selection could be cached for, their components are looked up one by one,
+        // so the handlers are selected per entity into a bit mask and then invoked one handler after the other.
+        List<EntityRef> targets = Lists.newArrayList();
+        TLongList selectedHandlers = new TLongArrayList();
+        for (EntityRef entity : entities) {
+            networkReplicate(entity, event);
+            long selected = selectEventHandlers(handlers, entity);
+            if (selected != 0) {
+                targets.add(entity);
+                selectedHandlers.add(selected);
+            }
+        }
+        for (int i = 0; i < handlers.length; i++) {
+            long handlerBit = 1L << i;
+            List<EntityRef> receivers = Lists.newArrayListWithCapacity(targets.size());
+            for (int j = 0; j < targets.size(); j++) {
+                // Check isValid at each stage in case components were removed.
+                if ((selectedHandlers.get(j) & handlerBit) != 0 && handlers[i].isValidFor(targets.get(j))) {
+                    receivers.add(targets.get(j));
+                }
+            }
+            if (!receivers.isEmpty()) {
+                handlers[i].invokeAll(receivers, event);
             }
         }
     }
 
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        for (EventHandlerInfo handler : selectedHandlers) {
+    private void sendToEach(Iterable<EntityRef> entities, Event event) {
+        ConsumableEvent consumableEvent = (event instanceof ConsumableEvent) ? (ConsumableEvent) event : null;
+        for (EntityRef entity : entities) {
+            send(entity, event);
+            if (consumableEvent != null && consumableEvent.isConsumed()) {
+                return;
+            }
+        }
+    }
+
+    private void sendToSelectedHandlers(EntityRef entity, Event event, EventHandlerInfo[] handlers, long selected) {
+        ConsumableEvent consumableEvent = (event instanceof ConsumableEvent) ? (ConsumableEvent) event : null;
+        for (int i = 0; i < handlers.length; i++) {
             // Check isValid at each stage in case components were removed.
-            if (handler.isValidFor(entity)) {
-                handler.invoke(entity, event);
+            if ((selected & (1L << i)) != 0 && handlers[i].isValidFor(entity)) {
+                handlers[i].invoke(entity, event);
+                if (consumableEvent != null && consumableEvent.isConsumed()) {
+                    return;
+                }
             }
         }
     }
 
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        ConsumableEvent consumableEvent = (ConsumableEvent) event;
-        for (EventHandlerInfo handler : selectedHandlers) {
+    private void sendToSelectedHandlers(EntityRef entity, Event event, EventHandlerInfo[] handlers, boolean[] selected) {
+        ConsumableEvent consumableEvent = (event instanceof ConsumableEvent) ? (ConsumableEvent) event : null;
+        for (int i = 0; i < handlers.length; i++) {
             // Check isValid at each stage in case components were removed.
-            if (handler.isValidFor(entity)) {
-                handler.invoke(entity, event);
-                if (consumableEvent.isConsumed()) {
+            if (selected[i] && handlers[i].isValidFor(entity)) {
+                handlers[i].invoke(entity, event);
+                if (consumableEvent != null && consumableEvent.isConsumed()) {
                     return;
                 }
             }
@@ -358,10 +455,8 @@ public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                Collections.sort(eventHandlers, priorityComparator);
+            EventHandlerInfo[] eventHandlers = getDispatchTable(event.getClass()).componentHandlers.get(component.getClass());
+            if (eventHandlers != null) {
                 for (EventHandlerInfo eventHandler : eventHandlers) {
                     if (eventHandler.isValidFor(entity)) {
                         eventHandler.invoke(entity, event);
@@ -371,24 +466,70 @@ public void send(EntityRef entity, Event event, Component component) {
         }
     }
 
-    private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
-        Set<EventHandlerInfo> result = Sets.newHashSet();
-        result.addAll(generalHandlers.get(eventType));
-        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
-        if (handlers == null) {
-            return result;
+    /**
+     * Selects the handlers which are valid for the entity before any of them is invoked, so components added by one
+     * handler do not make the entity receive the event through another one.
+     *
+     * @return a bit mask of the selected handlers, for at most 64 handlers.
+     */
+    private long selectEventHandlers(EventHandlerInfo[] handlers, EntityRef entity) {
+        long selected = 0;
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i].isValidFor(entity)) {
+                selected |= 1L << i;
+            }
         }
+        return selected;
+    }
 
-        for (Class<? extends Component> compClass : handlers.keySet()) {
-            if (entity.hasComponent(compClass)) {
-                for (EventHandlerInfo eventHandler : handlers.get(compClass)) {
-                    if (eventHandler.isValidFor(entity)) {
-                        result.add(eventHandler);
-                    }
-                }
+    private boolean[] selectManyEventHandlers(EventHandlerInfo[] handlers, EntityRef entity) {
+        boolean[] selected = new boolean[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            selected[i] = handlers[i].isValidFor(entity);
+        }
+        return selected;
+    }
+
+    private DispatchTable getDispatchTable(Class<? extends Event> eventType) {
+        DispatchTable table = dispatchTables.get(eventType);
+        if (table == null) {
+            table = compileDispatchTable(eventType);
+            dispatchTables.put(eventType, table);
+        }
+        return table;
+    }
+
+    private DispatchTable compileDispatchTable(Class<? extends Event> eventType) {
+        Set<EventHandlerInfo> handlers = Sets.newLinkedHashSet(generalHandlers.get(eventType));
+        Map<Class<? extends Component>, EventHandlerInfo[]> componentHandlers = Maps.newHashMap();
+        SetMultimap<Class<? extends Component>, EventHandlerInfo> specificHandlers = componentSpecificHandlers.get(eventType);
+        if (specificHandlers != null) {
+            handlers.addAll(specificHandlers.values());
+            for (Class<? extends Component> componentClass : specificHandlers.keySet()) {
+                componentHandlers.put(componentClass, sortByPriority(specificHandlers.get(componentClass)));
             }
         }
-        return result;
+        return new DispatchTable(sortByPriority(handlers), componentHandlers);
+    }
+
+    private EventHandlerInfo[] sortByPriority(Collection<EventHandlerInfo> handlers) {
+        EventHandlerInfo[] sorted = handlers.toArray(new EventHandlerInfo[handlers.size()]);
+        Arrays.sort(sorted, priorityComparator);
+        return sorted;
+    }
+
+    /**
+     * The handlers of an event type, sorted by priority. Compiled on first use and dropped whenever handlers are
+     * registered or unregistered.
+     */
+    private static final class DispatchTable {
+        private final EventHandlerInfo[] handlers;
+        private final Map<Class<? extends Component>, EventHandlerInfo[]> componentHandlers;
+
+        DispatchTable(EventHandlerInfo[] handlers, Map<Class<? extends Component>, EventHandlerInfo[]> componentHandlers) {
+            this.handlers = handlers;
+            this.componentHandlers = componentHandlers;
+        }
     }
 
     private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
@@ -404,6 +545,12 @@ private interface EventHandlerInfo {
 
         void invoke(EntityRef entity, Event event);
 
+        default void invokeAll(List<EntityRef> entities, Event event) {
+            for (EntityRef entity : entities) {
+                invoke(entity, event);
+            }
+        }
+
         int getPriority();
 
         Object getHandler();
@@ -472,13 +619,15 @@ private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
         private ImmutableList<Class<? extends Component>> filterComponents;
         private ImmutableList<Class<? extends Component>> componentParams;
         private int priority;
+        private boolean batch;
 
         ByteCodeEventHandlerInfo(ComponentSystem handler,
                                         Method method,
                                         int priority,
                                         String activity,
                                         Collection<Class<? extends Component>> filterComponents,
-                                        Collection<Class<? extends Component>> componentParams) {
+                                        Collection<Class<? extends Component>> componentParams,
+                                        boolean batch) {
 
 
             this.handler = handler;
@@ -488,6 +637,7 @@ private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
             this.filterComponents = ImmutableList.copyOf(filterComponents);
             this.componentParams = ImmutableList.copyOf(componentParams);
             this.priority = priority;
+            this.batch = batch;
         }
 
         @Override
@@ -502,13 +652,32 @@ public boolean isValidFor(EntityRef entity) {
 
         @Override
         public void invoke(EntityRef entity, Event event) {
-            try {
-                Object[] params = new Object[2 + componentParams.size()];
-                params[0] = event;
-                params[1] = entity;
-                for (int i = 0; i < componentParams.size(); ++i) {
-                    params[i + 2] = entity.getComponent(componentParams.get(i));
+            if (batch) {
+                invokeMethod(new Object[]{event, Collections.singletonList(entity)});
+                return;
+            }
+            Object[] params = new Object[2 + componentParams.size()];
+            params[0] = event;
+            params[1] = entity;
+            for (int i = 0; i < componentParams.size(); ++i) {
+                params[i + 2] = entity.getComponent(componentParams.get(i));
+            }
+            invokeMethod(params);
+        }
+
+        @Override
+        public void invokeAll(List<EntityRef> entities, Event event) {
+            if (batch) {
+                invokeMethod(new Object[]{event, Collections.unmodifiableList(entities)});
+            } else {
+                for (EntityRef entity : entities) {
+                    invoke(entity, event);
                 }
+            }
+        }
+
+        private void invokeMethod(Object[] params) {
+            try {
                 if (!activity.isEmpty()) {
                     PerformanceMonitor.startActivity(activity);
                 }
@@ -26,6 +26,7 @@ class PendingEvent {
     private EntityRef entity;
     private Event event;
     private Component component;
+    private long enqueueTime = System.nanoTime();
 
      PendingEvent(EntityRef entity, Event event) {
         this.event = event;
@@ -38,6 +39,13 @@ class PendingEvent {
         this.component = component;
     }
 
+    /**
+     * @return the {@link System#nanoTime()} at which the event was sent.
+     */
+    public long getEnqueueTime() {
+        return enqueueTime;
+    }
+
     public EntityRef getEntity() {
         return entity;
     }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.event.internal;
+
+import com.google.common.collect.Lists;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the events sent by other threads until the main thread dispatches them.
+ * <br><br>
+ * Every producing thread writes into a ring buffer of its own, so producers never contend with each other and only
+ * synchronize with the main thread through the positions of their ring. When a ring is full, further events of that
+ * thread go to an unbounded lock-free queue until the main thread has caught up. The main thread drains all buffers
+ * at once and returns the events in the order in which they were offered.
+ */
+class PendingEventQueue {
+    static final int RING_CAPACITY = 1024;
+
+    private static final Comparator<PendingEvent> OFFER_ORDER = Comparator.comparingLong(PendingEvent::getEnqueueTime);
+
+    private final List<ProducerBuffer> producers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ProducerBuffer> producerBuffer = ThreadLocal.withInitial(this::addProducer);
+    private final LongAdder offered = new LongAdder();
+    private long drained;
+    private int maxDrained;
+
+    /**
+     * May be called by any thread except the one draining the queue.
+     */
+    void offer(PendingEvent event) {
+        producerBuffer.get().offer(event);
+        offered.increment();
+    }
+
+    /**
+     * Removes all events offered so far. Must only be called by a single thread.
+     *
+     * @return the events in the order in which they were offered.
+     */
+    List<PendingEvent> drain() {
+        List<PendingEvent> events = Lists.newArrayList();
+        boolean sorted = true;
+        for (ProducerBuffer producer : producers) {
+            boolean finished = !producer.owner.isAlive();
+            int start = events.size();
+            sorted &= producer.drainTo(events) && (start == 0 || events.size() == start);
+            if (finished) {
+                producers.remove(producer);
+            }
+        }
+        if (!sorted) {
+            // Stable, so the events of a single thread keep their order even if they were offered in the same tick.
+            events.sort(OFFER_ORDER);
+        }
+        drained += events.size();
+        maxDrained = Math.max(maxDrained, events.size());
+        return events;
+    }
+
+    /**
+     * @return the number of events which have been offered but not drained yet.
+     */
+    int size() {
+        return (int) Math.max(0, offered.sum() - drained);
+    }
+
+    /**
+     * @return the most events drained at once.
+     */
+    int getMaxDrained() {
+        return maxDrained;
+    }
+
+    private ProducerBuffer addProducer() {
+        ProducerBuffer producer = new ProducerBuffer(Thread.currentThread());
+        producers.add(producer);
+        return producer;
+    }
+
+    /**
+     * A single producer, single consumer ring. The producer publishes an event by advancing the tail, the consumer
+     * frees a slot by advancing the head; both use ordered writes, so a slot is never read before it is written.
+     */
+    private static final class ProducerBuffer {
+        private final Thread owner;
+        private final PendingEvent[] ring = new PendingEvent[RING_CAPACITY];
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private final Queue<PendingEvent> overflow = new ConcurrentLinkedQueue<>();
+
+        ProducerBuffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        void offer(PendingEvent event) {
+            long position = tail.get();
+            // Once events overflowed, later ones have to wait behind them to keep the order.
+            if (position - head.get() == RING_CAPACITY || !overflow.isEmpty()) {
+                overflow.add(event);
+            } else {
+                ring[index(position)] = event;
+                tail.lazySet(position + 1);
+            }
+        }
+
+        /**
+         * Events written into the ring while the overflow gets drained are newer than the overflowed events, so the
+         * ring is drained again afterwards to append them behind the overflowed ones.
+         *
+         * @return whether the drained events are in order, otherwise the caller has to restore it.
+         */
+        boolean drainTo(List<PendingEvent> target) {
+            drainRingTo(target);
+            if (overflow.isEmpty()) {
+                return true;
+            }
+            for (PendingEvent event = overflow.poll(); event != null; event = overflow.poll()) {
+                target.add(event);
+            }
+            drainRingTo(target);
+            return false;
+        }
+
+        private void drainRingTo(List<PendingEvent> target) {
+            long position = head.get();
+            long end = tail.get();
+            for (; position < end; position++) {
+                int index = index(position);
+                target.add(ring[index]);
+                ring[index] = null;
+            }
+            head.lazySet(position);
+        }
+
+        private static int index(long position) {
+            return (int) (position & (RING_CAPACITY - 1));
+        }
+    }
+}
@@ -16,11 +16,16 @@
 package org.terasology.entitySystem.metadata;
 
 import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.engine.SimpleUri;
 import org.terasology.entitySystem.Component;
 import org.terasology.network.Replicate;
+import org.terasology.reflection.copy.CompiledCopyStrategy;
 import org.terasology.reflection.copy.CopyStrategy;
 import org.terasology.reflection.copy.CopyStrategyLibrary;
 import org.terasology.reflection.metadata.ClassMetadata;
@@ -39,6 +44,8 @@
  */
 public class ComponentMetadata<T extends Component> extends ClassMetadata<T, ComponentFieldMetadata<T, ?>> {
 
+    private static final Logger logger = LoggerFactory.getLogger(ComponentMetadata.class);
+
     private boolean replicated;
     private boolean replicatedFromOwner;
     private boolean referenceOwner;
@@ -46,6 +53,7 @@
     private boolean retainUnalteredOnBlockChange;
     private boolean blockLifecycleEventsRequired;
     private List<Annotation> annotations;
+    private final Supplier<CompiledCopyStrategy<T>> compiledCopyStrategy = Suppliers.memoize(this::compileCopyStrategy);
 
     /**
      * @param uri            The uri to identify the component with.
@@ -84,6 +92,34 @@ protected <U> ComponentFieldMetadata<T, U> createField(Field field, CopyStrategy
         return new ComponentFieldMetadata<>(this, field, copyStrategy, factory, false);
     }
 
+    /**
+     * Copies the component through a {@link CompiledCopyStrategy}, which is created on first use. Falls back to
+     * copying it through the field metadata if the strategy cannot be created.
+     *
+     * @param object The component to copy
+     * @return A copy of the given component
+     */
+    @Override
+    public T copy(T object) {
+        CompiledCopyStrategy<T> strategy = compiledCopyStrategy.get();
+        if (strategy != null) {
+            return strategy.copy(object);
+        }
+        return super.copy(object);
+    }
+
+    private CompiledCopyStrategy<T> compileCopyStrategy() {
+        if (!isConstructable()) {
+            return null;
+        }
+        try {
+            return CompiledCopyStrategy.create(this);
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.warn("Failed to compile copy strategy for '{}', falling back on field metadata", this, e);
+            return null;
+        }
+    }
+
     /**
      * @return Whether this component owns any references
      */
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.systems;
+
+import org.terasology.entitySystem.Component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which components the {@link UpdateSubscriberSystem#update(float)} of a system reads and writes, which lets
+ * the system be updated at the same time as other systems that do not write what it reads or read what it writes:
+ * <br>
+ * <code>@ComponentAccess(reads = LocationComponent.class, writes = HealthComponent.class)</code>
+ * <br><br>
+ * While updated in parallel, a system must only access the declared components and state of its own. Components it
+ * adds, saves or removes and entities it destroys are changed on the main thread once all systems updated in parallel
+ * are done, followed by the events it sent. Creating entities is not possible in the meantime, it belongs into the
+ * handlers of such events. Systems without this annotation are always updated on their own.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ComponentAccess {
+
+    Class<? extends Component>[] reads() default {};
+
+    Class<? extends Component>[] writes() default {};
+}
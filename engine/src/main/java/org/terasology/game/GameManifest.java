@@ -51,6 +51,7 @@ public class GameManifest {
     private Map<String, Short> biomeIdMap = Maps.newHashMap();
     private Map<String, WorldInfo> worlds = Maps.newHashMap();
     private List<NameVersion> modules = Lists.newArrayList();
+    private String chunkCompressionCodec;
 
     public GameManifest() {
     }
@@ -125,6 +126,18 @@ public void setBiomeIdMap(Map<String, Short> biomeIdMap) {
         this.biomeIdMap = biomeIdMap;
     }
 
+    /**
+     * @return the name of the codec the chunks of the game are compressed with, null for games that have been saved
+     * before the codec could be chosen, which use gzip.
+     */
+    public String getChunkCompressionCodec() {
+        return chunkCompressionCodec;
+    }
+
+    public void setChunkCompressionCodec(String chunkCompressionCodec) {
+        this.chunkCompressionCodec = chunkCompressionCodec;
+    }
+
     public static void save(Path toFile, GameManifest gameManifest) throws IOException {
         try (Writer writer = Files.newBufferedWriter(toFile, TerasologyConstants.CHARSET)) {
             createGson().toJson(gameManifest, writer);
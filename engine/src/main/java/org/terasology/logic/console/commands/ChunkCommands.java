@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.console.commands;
+
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.console.Console;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.permission.PermissionManager;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TimingHistogram;
+import org.terasology.world.chunks.blockdata.DirectBufferArena;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.pipeline.ChunkGenerationPipeline;
+import org.terasology.world.generation.WorldImpl;
+
+/**
+ * Commands to inspect the memory and processing statistics of the chunk system.
+ */
+@RegisterSystem
+public class ChunkCommands extends BaseComponentSystem {
+
+    /**
+     * Shows how much off heap memory the light data of the chunks occupies and how well it is reused.
+     * @return String containing the statistics of the light data arena
+     */
+    @Command(shortDescription = "Shows the off heap memory statistics of the chunk light data", runOnServer = true)
+    public String chunkArenaStats() {
+        DirectBufferArena arena = ChunkImpl.getLightArena();
+        StringBuilder builder = new StringBuilder();
+        builder.append("Live slabs: ").append(arena.getLiveSlabs()).append(Console.NEW_LINE);
+        builder.append("Bytes allocated: ").append(arena.getBytesAllocated()).append(Console.NEW_LINE);
+        builder.append("Bytes in use: ").append(arena.getBytesInUse()).append(Console.NEW_LINE);
+        builder.append("Bytes free: ").append(arena.getBytesFree()).append(Console.NEW_LINE);
+        builder.append("Retired slabs: ").append(arena.getRetiredSlabs()).append(Console.NEW_LINE);
+        builder.append(String.format("Slab reuse rate: %.1f%% (%d of %d)", arena.getReuseRate() * 100,
+                arena.getSlabsReused(), arena.getSlabsAcquired()));
+        return builder.toString();
+    }
+
+    /**
+     * Shows where the chunk generation time goes: how long chunk tasks wait in the queue, how long they run and how
+     * much of that is spent on generating facets and running rasterizers.
+     * @param reset whether the statistics should be reset afterwards
+     * @return String containing the timing statistics of the chunk generation
+     */
+    @Command(shortDescription = "Shows the timing statistics of the chunk generation",
+            helpText = "Shows the queue wait, task, facet and rasterizer times of the chunk generation. "
+                    + "Pass true to reset the statistics afterwards.",
+            runOnServer = true)
+    public String chunkGenerationStats(@CommandParam(value = "reset", required = false) Boolean reset) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Adaptive thread count: ").append(ChunkGenerationPipeline.isAdaptiveThreadCount());
+        for (String name : new String[]{ChunkGenerationPipeline.QUEUE_WAIT_HISTOGRAM, ChunkGenerationPipeline.TASK_HISTOGRAM,
+                WorldImpl.FACETS_HISTOGRAM, WorldImpl.RASTERIZERS_HISTOGRAM}) {
+            TimingHistogram histogram = PerformanceMonitor.getHistogram(name);
+            builder.append(Console.NEW_LINE).append(name).append(": ").append(histogram);
+            if (Boolean.TRUE.equals(reset)) {
+                histogram.reset();
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Enables or disables the adaptive number of chunk generation threads.
+     * @param enabled whether the number of threads should adapt to the queue length and processor load
+     * @return String describing the new mode
+     */
+    @Command(shortDescription = "Lets the number of chunk generation threads adapt to the load", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String chunkGenerationAdaptive(@CommandParam("enabled") boolean enabled) {
+        ChunkGenerationPipeline.setAdaptiveThreadCount(enabled);
+        return enabled ? "Chunk generation threads adapt to the load" : "Chunk generation uses a fixed number of threads";
+    }
+}
@@ -30,6 +30,8 @@
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -51,6 +53,8 @@
 import org.terasology.math.Direction;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TimingHistogram;
 import org.terasology.naming.Name;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.JoinStatus;
@@ -449,6 +453,31 @@ public void dumpEntities() throws IOException {
         worldDumper.save(PathManager.getInstance().getHomePath().resolve("entityDump.txt"));
     }
 
+    /**
+     * Shows how many events sent from other threads wait for the main thread and how long they waited
+     * @param reset whether the latency statistics should be reset afterwards
+     * @return String containing the statistics of the pending events
+     */
+    @Command(shortDescription = "Shows the statistics of events sent from other threads",
+            helpText = "Shows the number of events waiting for the main thread, the most dispatched at once and how long "
+                    + "they waited. Pass true to reset the latency statistics afterwards.",
+            runOnServer = true)
+    public String pendingEventStats(@CommandParam(value = "reset", required = false) Boolean reset) {
+        StringBuilder builder = new StringBuilder();
+        EventSystem eventSystem = entityManager.getEventSystem();
+        if (eventSystem instanceof EventSystemImpl) {
+            EventSystemImpl eventSystemImpl = (EventSystemImpl) eventSystem;
+            builder.append("Pending events: ").append(eventSystemImpl.getPendingEventCount()).append(Console.NEW_LINE);
+            builder.append("Most events dispatched at once: ").append(eventSystemImpl.getMaxPendingEventCount()).append(Console.NEW_LINE);
+        }
+        TimingHistogram latency = PerformanceMonitor.getHistogram(EventSystemImpl.PENDING_EVENT_LATENCY_HISTOGRAM);
+        builder.append(EventSystemImpl.PENDING_EVENT_LATENCY_HISTOGRAM).append(": ").append(latency);
+        if (Boolean.TRUE.equals(reset)) {
+            latency.reset();
+        }
+        return builder.toString();
+    }
+
     /**
      * Spawns an instance of a prefab in the world
      * @param sender Sender of command
@@ -46,10 +46,10 @@ public final class LocationComponent implements Component, ReplicationCheck {
     List<EntityRef> children = Lists.newArrayList();
 
     // Standard position/rotation
-    @Replicate
+    @Replicate(quantization = 0.001f)
     @TextField
     Vector3f position = new Vector3f();
-    @Replicate
+    @Replicate(quantization = 0.0001f)
     Quat4f rotation = new Quat4f(0, 0, 0, 1);
     @Replicate
     float scale = 1.0f;
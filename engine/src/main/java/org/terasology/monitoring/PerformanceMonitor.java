@@ -15,11 +15,16 @@
  */
 package org.terasology.monitoring;
 
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
 import gnu.trove.map.TObjectDoubleMap;
 import org.terasology.monitoring.impl.NullPerformanceMonitor;
 import org.terasology.monitoring.impl.PerformanceMonitorImpl;
 import org.terasology.monitoring.impl.PerformanceMonitorInternal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Maintains a running average of execution times and memory allocated by different activities.
  * Activities call to denote when they start and stop.
@@ -28,9 +33,11 @@
  * is paused: time passing and allocated memory are not assigned to them.
  * <br><br>
  * Performance monitor is intended only for use by the main thread of Terasology, and does not handle
- * activities being started and ended on other threads at this time.
+ * activities being started and ended on other threads at this time. Durations measured on other threads can be
+ * recorded in a {@link TimingHistogram} instead.
  */
 public final class PerformanceMonitor {
+    private static final ConcurrentMap<String, TimingHistogram> HISTOGRAMS = Maps.newConcurrentMap();
     private static PerformanceMonitorInternal instance;
 
     static {
@@ -140,6 +147,28 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Returns the histogram with the given name, creating it if needed. Unlike activities, histograms may be recorded
+     * to by any thread, and they keep collecting data while the Performance Monitoring system is disabled.
+     *
+     * @param name the name of the histogram.
+     * @return the histogram with the given name.
+     */
+    public static TimingHistogram getHistogram(String name) {
+        TimingHistogram histogram = HISTOGRAMS.get(name);
+        if (histogram == null) {
+            histogram = HISTOGRAMS.computeIfAbsent(name, key -> new TimingHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * @return a mapping from histogram name to histogram, sorted by name.
+     */
+    public static Map<String, TimingHistogram> getHistograms() {
+        return ImmutableSortedMap.copyOf(HISTOGRAMS);
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
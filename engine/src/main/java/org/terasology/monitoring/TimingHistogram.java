@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often durations of different magnitudes have been recorded.
+ * <br><br>
+ * Durations are sorted into buckets whose bounds are powers of two microseconds, so percentiles are only accurate to
+ * a factor of two. In exchange recording a duration is cheap and may be done by any number of threads at once.
+ *
+ * @see PerformanceMonitor#getHistogram(String)
+ */
+public final class TimingHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param nanos the duration to record, in nanoseconds.
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(duration));
+        count.increment();
+        totalNanos.add(duration);
+        maxNanos.accumulateAndGet(duration, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMs() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / 1e6 / samples;
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100.
+     * @return an upper bound for the given percentile of the recorded durations, in milliseconds.
+     */
+    public double getPercentileMs(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBoundMs(i), getMaxMs());
+            }
+        }
+        return getMaxMs();
+    }
+
+    /**
+     * Forgets all recorded durations. Durations recorded concurrently may be partially kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count: %d, mean: %.2fms, p50: %.2fms, p90: %.2fms, p99: %.2fms, max: %.2fms",
+                getCount(), getMeanMs(), getPercentileMs(50), getPercentileMs(90), getPercentileMs(99), getMaxMs());
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static double upperBoundMs(int bucket) {
+        return (1L << bucket) / 1000.0;
+    }
+}
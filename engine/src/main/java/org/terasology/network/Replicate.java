@@ -37,4 +37,10 @@
      * @return Whether the field should only be replicated when the entity initially becomes relevant to a client
      */
     boolean initialOnly() default false;
+
+    /**
+     * @return The smallest change of a numeric field (including the parts of vectors and quaternions) that is
+     * replicated, or 0 to replicate every change. Smaller changes are held back until they add up to this step.
+     */
+    float quantization() default 0;
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Encodes the chunks that get sent to clients on background threads, and shares the encoded chunks between all
+ * clients that need the same state of a chunk.
+ * <br><br>
+ * The state of a chunk is copied by the main thread when it is requested, so the chunk may keep changing while it is
+ * encoded. An encoded chunk is only handed out again as long as the chunk did not change since. Chunks that keep
+ * changing faster than they are encoded, e.g. by a machine changing blocks every tick, are encoded by the main thread
+ * after a few attempts, so they still get sent.
+ */
+class ChunkEncodingCache {
+    /**
+     * How often the encoding of a chunk may be outdated by a change before it was handed out complete, until the
+     * chunk gets encoded by the main thread.
+     */
+    static final int MAX_BACKGROUND_ATTEMPTS = 3;
+
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final ExecutorService executor;
+    private final Cache<Vector3i, EncodedChunk> cache;
+
+    /**
+     * @param executor the executor encoding the chunks, which is shut down with the cache.
+     */
+    ChunkEncodingCache(ExecutorService executor, int maxEntries) {
+        this.executor = executor;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * @return a cache encoding on half of the available processors.
+     */
+    static ChunkEncodingCache createDefault() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ChunkEncodingCache(Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Chunk-Encoder");
+            thread.setDaemon(true);
+            return thread;
+        }), DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Returns the current state of the chunk encoded, starting to encode it if that has not happened yet. Has to be
+     * called by the main thread.
+     *
+     * @return the encoded chunk, which is complete once encoding has finished.
+     */
+    CompletableFuture<EntityData.ChunkStore> request(Chunk chunk) {
+        Vector3i pos = chunk.getPosition();
+        long generation = chunk.getModificationGeneration();
+        EncodedChunk encodedChunk = cache.getIfPresent(pos);
+        if (encodedChunk == null || !encodedChunk.isStateOf(chunk, generation)) {
+            int attempts = encodedChunk != null ? encodedChunk.getLostAttempts(chunk) + 1 : 0;
+            Supplier<EntityData.ChunkStore.Builder> encoder = chunk.copyForEncoding();
+            // the direct executor encodes on the main thread, still completing the future exceptionally on errors
+            Executor encodingExecutor = attempts >= MAX_BACKGROUND_ATTEMPTS ? Runnable::run : executor;
+            CompletableFuture<EntityData.ChunkStore> encoded = CompletableFuture.supplyAsync(() -> encode(encoder), encodingExecutor);
+            encodedChunk = new EncodedChunk(chunk, generation, encoded, attempts);
+            cache.put(new Vector3i(pos), encodedChunk);
+        } else if (encodedChunk.encoded.isDone()) {
+            encodedChunk.handedOut = true;
+        }
+        return encodedChunk.encoded;
+    }
+
+    private static EntityData.ChunkStore encode(Supplier<EntityData.ChunkStore.Builder> encoder) {
+        EntityData.ChunkStore store = encoder.get().build();
+        // computed once here, rather than by the main thread when the chunk gets sent
+        store.getSerializedSize();
+        return store;
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+        cache.invalidateAll();
+    }
+
+    private static final class EncodedChunk {
+        private final WeakReference<Chunk> chunk;
+        private final long generation;
+        private final CompletableFuture<EntityData.ChunkStore> encoded;
+        private final int attempts;
+        private boolean handedOut;
+
+        EncodedChunk(Chunk chunk, long generation, CompletableFuture<EntityData.ChunkStore> encoded, int attempts) {
+            this.chunk = new WeakReference<>(chunk);
+            this.generation = generation;
+            this.encoded = encoded;
+            this.attempts = attempts;
+            // encodings that completed right away, like those of the main thread, are handed out by this request
+            this.handedOut = encoded.isDone();
+        }
+
+        /**
+         * @return how many encodings of the chunk in a row have been outdated before they were handed out complete.
+         */
+        int getLostAttempts(Chunk currentChunk) {
+            return chunk.get() == currentChunk && !handedOut ? attempts : -1;
+        }
+
+        /**
+         * A chunk that got unloaded and loaded again is a different chunk, even if it has the same generation.
+         */
+        boolean isStateOf(Chunk currentChunk, long currentGeneration) {
+            return chunk.get() == currentChunk && generation == currentGeneration && !encoded.isCompletedExceptionally();
+        }
+    }
+}
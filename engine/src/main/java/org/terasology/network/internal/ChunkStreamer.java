@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Decides which of the chunks a client is waiting for get sent with each network tick.
+ * <br><br>
+ * Every tick adds its share of the client's bandwidth to a byte budget, and the chunks closest to the client are sent
+ * while the budget lasts. Chunks behind the client count as further away than they are, so the chunks it looks at
+ * arrive first. Chunks that are still being encoded are skipped, so a single slow chunk does not hold back the rest.
+ */
+class ChunkStreamer {
+    /**
+     * How many chunks may be encoded for a client at once, ahead of the chunks that can be sent.
+     */
+    static final int MAX_ENCODING_AHEAD = 32;
+    /**
+     * How much further away chunks behind the client count as, as a factor of the squared distance.
+     */
+    static final float BEHIND_FACTOR = 4.0f;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkStreamer.class);
+
+    private final Map<Vector3i, Chunk> pendingChunks = Maps.newHashMap();
+    private long budget;
+
+    void add(Vector3i pos, Chunk chunk) {
+        pendingChunks.put(new Vector3i(pos), chunk);
+    }
+
+    void remove(Vector3i pos) {
+        pendingChunks.remove(pos);
+    }
+
+    boolean isEmpty() {
+        return pendingChunks.isEmpty();
+    }
+
+    int size() {
+        return pendingChunks.size();
+    }
+
+    /**
+     * Sends the chunks of this tick. A chunk is sent as long as some budget is left, so the budget may end up
+     * negative, which is made up for with the following ticks.
+     *
+     * @param tickBudget    the number of bytes the chunks may take per tick.
+     * @param center        the chunk the client is in.
+     * @param viewDirection the direction the client looks at, or a zero vector if unknown.
+     * @param sender        receives the chunks to send, in order of priority.
+     */
+    void send(int tickBudget, Vector3i center, Vector3f viewDirection, ChunkEncodingCache encodingCache, BiConsumer<Vector3i, EntityData.ChunkStore> sender) {
+        if (pendingChunks.isEmpty()) {
+            budget = 0;
+            return;
+        }
+        // unused budget only carries over for one tick, so chunks that are slow to encode do not cause bursts
+        budget = Math.min(budget + tickBudget, 2L * tickBudget);
+        List<Vector3i> positions = Lists.newArrayList(pendingChunks.keySet());
+        positions.sort(Comparator.comparingDouble(pos -> priority(pos, center, viewDirection)));
+        int ahead = 0;
+        for (Vector3i pos : positions) {
+            if (ahead >= MAX_ENCODING_AHEAD) {
+                break;
+            }
+            CompletableFuture<EntityData.ChunkStore> encoded = encodingCache.request(pendingChunks.get(pos));
+            if (!encoded.isDone() || budget <= 0) {
+                // encoded in the meantime, to be sent with one of the next ticks
+                ahead++;
+            } else if (encoded.isCompletedExceptionally()) {
+                logger.error("Failed to encode chunk {}, it will not be sent", pos, encoded.handle((store, e) -> e).join());
+                pendingChunks.remove(pos);
+            } else {
+                EntityData.ChunkStore store = encoded.join();
+                sender.accept(pos, store);
+                budget -= store.getSerializedSize();
+                pendingChunks.remove(pos);
+            }
+        }
+    }
+
+    /**
+     * @return the priority of the chunk, lower values get sent first.
+     */
+    static float priority(Vector3i pos, Vector3i center, Vector3f viewDirection) {
+        float x = pos.x - center.x;
+        float y = pos.y - center.y;
+        float z = pos.z - center.z;
+        float distanceSquared = x * x + y * y + z * z;
+        if (x * viewDirection.x + y * viewDirection.y + z * viewDirection.z < 0) {
+            return distanceSquared * BEHIND_FACTOR;
+        }
+        return distanceSquared;
+    }
+}
@@ -51,6 +51,7 @@ public class ClientHandshakeHandler extends SimpleChannelUpstreamHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientHandshakeHandler.class);
     private static final String AUTHENTICATION_FAILURE = "Authentication failure";
+    private static final String INCOMPATIBLE_PROTOCOL = "Incompatible network protocol";
 
     private Config config = CoreRegistry.get(Config.class);
     private JoinStatusImpl joinStatus;
@@ -176,6 +177,13 @@ private void channelAuthenticated(ChannelHandlerContext ctx) {
     private void processServerHello(NetData.HandshakeHello helloMessage, ChannelHandlerContext ctx) {
         if (serverHello == null) {
             logger.info("Received Server Hello");
+            if (helloMessage.getProtocolVersion() != HandshakeCommon.PROTOCOL_VERSION) {
+                logger.error("Server uses network protocol version {} instead of {}: cancelling authentication",
+                        helloMessage.getProtocolVersion(), HandshakeCommon.PROTOCOL_VERSION);
+                joinStatus.setErrorMessage(INCOMPATIBLE_PROTOCOL);
+                ctx.getChannel().close();
+                return;
+            }
             serverHello = helloMessage;
             serverRandom = helloMessage.getRandom().toByteArray();
             NetData.Certificate cert = helloMessage.getCertificate();
@@ -213,6 +221,7 @@ private void sendCertificate(NetData.HandshakeHello helloMessage, ChannelHandler
                 .setRandom(ByteString.copyFrom(clientRandom))
                 .setCertificate(NetMessageUtil.convert(pubClientCert))
                 .setTimestamp(System.currentTimeMillis())
+                .setProtocolVersion(HandshakeCommon.PROTOCOL_VERSION)
                 .build();
 
         byte[] dataToSign = Bytes.concat(helloMessage.toByteArray(), clientHello.toByteArray());
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Shares the serialized entities of a network tick between the clients that receive the same view of them.
+ * <br><br>
+ * Clients that are not the owner of an entity, and which have the same changes of it pending, get byte-identical
+ * data. So every entity is serialized once per view and tick, rather than once per client. The cached data of an
+ * entity is dropped when any of its components change, as messages received from a client may modify entities
+ * while the clients are being updated.
+ */
+class EntitySerializationCache {
+    private final TIntObjectMap<Map<View, EntityData.PackedEntity>> cache = new TIntObjectHashMap<>();
+    private int hits;
+    private int misses;
+
+    /**
+     * @param owner      whether the data is for the owner of the entity.
+     * @param serializer serializes the entity if it is not cached yet.
+     * @return the full data of the entity, for the creation of the entity on a client.
+     */
+    EntityData.PackedEntity getInitial(int netId, boolean owner, Supplier<EntityData.PackedEntity> serializer) {
+        return get(netId, new View(owner, true, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of()), serializer);
+    }
+
+    /**
+     * @param owner      whether the data is for the owner of the entity.
+     * @param serializer serializes the changes if they are not cached yet.
+     * @return the changes of the entity, or null if there are none to send.
+     */
+    EntityData.PackedEntity getUpdate(int netId, boolean owner, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                                      Set<Class<? extends Component>> removed, Supplier<EntityData.PackedEntity> serializer) {
+        return get(netId, new View(owner, false, ImmutableSet.copyOf(added), ImmutableSet.copyOf(changed), ImmutableSet.copyOf(removed)), serializer);
+    }
+
+    void invalidate(int netId) {
+        cache.remove(netId);
+    }
+
+    /**
+     * Drops all cached data, which has to happen before every network tick.
+     */
+    void clear() {
+        cache.clear();
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    private EntityData.PackedEntity get(int netId, View view, Supplier<EntityData.PackedEntity> serializer) {
+        Map<View, EntityData.PackedEntity> views = cache.get(netId);
+        if (views == null) {
+            views = Maps.newHashMap();
+            cache.put(netId, views);
+        } else if (views.containsKey(view)) {
+            hits++;
+            return views.get(view);
+        }
+        misses++;
+        EntityData.PackedEntity entityData = serializer.get();
+        views.put(view, entityData);
+        return entityData;
+    }
+
+    private static final class View {
+        private final boolean owner;
+        private final boolean initial;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+
+        View(boolean owner, boolean initial, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+             Set<Class<? extends Component>> removed) {
+            this.owner = owner;
+            this.initial = initial;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof View) {
+                View other = (View) obj;
+                return owner == other.owner && initial == other.initial && added.equals(other.added)
+                        && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owner, initial, added, changed, removed);
+        }
+    }
+}
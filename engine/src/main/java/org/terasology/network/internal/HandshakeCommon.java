@@ -27,6 +27,13 @@
  */
 public final class HandshakeCommon {
 
+    /**
+     * The version of the network protocol, which both ends exchange in their hello messages. It has to be increased
+     * whenever messages or their framing change in a way the other end cannot read.
+     * Version 2 frames every message with the id of the codec it was compressed with, instead of one zlib stream.
+     */
+    public static final int PROTOCOL_VERSION = 2;
+
     private HandshakeCommon() {
     }
 
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Decides which of the entities that get replicated to the clients they are relevant to each client gets to know.
+ * <br><br>
+ * The entities are kept in a grid of chunk sized cells, by their position. A viewer enrolls in the entities of the
+ * cells within its view distance, and retires from them once they are more than {@link #HYSTERESIS_CHUNKS} chunks beyond
+ * that distance, so entities close to the border do not get created and removed over and over again. Entities
+ * without a position and entities pinned to a viewer, e.g. the ones it owns, are always relevant to it.
+ * <br><br>
+ * Updating a viewer only looks at the cells within its view distance and the entities it is enrolled in, so its cost
+ * does not grow with the size of the world.
+ * <br><br>
+ * Like the rest of the network system, the interest manager is only used by the main thread.
+ *
+ * @param <V> the type of the viewers.
+ */
+class InterestManager<V> {
+    static final int HYSTERESIS_CHUNKS = 1;
+
+    private final TIntObjectMap<Vector3i> cells = new TIntObjectHashMap<>();
+    private final Map<Vector3i, TIntSet> entitiesByCell = Maps.newHashMap();
+    private final TIntSet unpositioned = new TIntHashSet();
+    private final Map<V, TIntSet> enrolled = Maps.newHashMap();
+
+    /**
+     * @param cell the chunk position of the entity, or null if it has no position.
+     */
+    void add(int netId, Vector3i cell) {
+        if (cell == null) {
+            unpositioned.add(netId);
+        } else {
+            cells.put(netId, cell);
+            entitiesByCell.computeIfAbsent(cell, key -> new TIntHashSet()).add(netId);
+        }
+    }
+
+    /**
+     * Updates the position of an entity, which only takes effect for the viewers with their next {@link #update}.
+     */
+    void move(int netId, Vector3i cell) {
+        if (!Objects.equals(cells.get(netId), cell)) {
+            removeFromGrid(netId);
+            add(netId, cell);
+        }
+    }
+
+    /**
+     * Forgets the entity, including which viewers know it.
+     */
+    void remove(int netId) {
+        removeFromGrid(netId);
+        for (TIntSet viewerEntities : enrolled.values()) {
+            viewerEntities.remove(netId);
+        }
+    }
+
+    boolean contains(int netId) {
+        return cells.containsKey(netId) || unpositioned.contains(netId);
+    }
+
+    boolean isEnrolled(V viewer, int netId) {
+        TIntSet viewerEntities = enrolled.get(viewer);
+        return viewerEntities != null && viewerEntities.contains(netId);
+    }
+
+    /**
+     * Enrolls the viewer in a single entity if it is within its view distance, e.g. for an entity that was just added.
+     *
+     * @param viewerCell    the chunk position of the viewer, or null if it has no position.
+     * @param chunkDistance the view distance of the viewer, as the size of the region of chunks it can see.
+     * @return whether the viewer got enrolled in the entity.
+     */
+    boolean enrollIfRelevant(V viewer, int netId, Vector3i viewerCell, Vector3i chunkDistance) {
+        boolean relevant;
+        if (unpositioned.contains(netId)) {
+            relevant = true;
+        } else {
+            Vector3i cell = cells.get(netId);
+            relevant = cell != null && viewerCell != null && isWithin(cell, viewerCell, chunkDistance, 0);
+        }
+        return relevant && viewerEntities(viewer).add(netId);
+    }
+
+    /**
+     * Enrolls the viewer in the entities that became relevant to it and retires it from the ones that are no longer
+     * relevant.
+     *
+     * @param viewerCell    the chunk position of the viewer, or null if it has no position.
+     * @param chunkDistance the view distance of the viewer, as the size of the region of chunks it can see.
+     * @param pinned        the entities that are relevant to the viewer regardless of their position.
+     * @param enroll        receives the entities the viewer got enrolled in.
+     * @param retire        receives the entities the viewer got retired from.
+     */
+    void update(V viewer, Vector3i viewerCell, Vector3i chunkDistance, TIntSet pinned, IntConsumer enroll, IntConsumer retire) {
+        TIntSet viewerEntities = viewerEntities(viewer);
+        TIntIterator enrolledIterator = viewerEntities.iterator();
+        while (enrolledIterator.hasNext()) {
+            int netId = enrolledIterator.next();
+            Vector3i cell = cells.get(netId);
+            if (cell != null && !pinned.contains(netId)
+                    && (viewerCell == null || !isWithin(cell, viewerCell, chunkDistance, HYSTERESIS_CHUNKS))) {
+                enrolledIterator.remove();
+                retire.accept(netId);
+            }
+        }
+
+        enrollAll(unpositioned, viewerEntities, enroll);
+        TIntIterator pinnedIterator = pinned.iterator();
+        while (pinnedIterator.hasNext()) {
+            int netId = pinnedIterator.next();
+            if (cells.containsKey(netId) && viewerEntities.add(netId)) {
+                enroll.accept(netId);
+            }
+        }
+        if (viewerCell != null) {
+            enrollWithinViewDistance(viewerCell, chunkDistance, viewerEntities, enroll);
+        }
+    }
+
+    /**
+     * Looks up the cells within the view distance, unless fewer cells are occupied than that.
+     */
+    private void enrollWithinViewDistance(Vector3i viewerCell, Vector3i chunkDistance, TIntSet viewerEntities, IntConsumer enroll) {
+        int radiusX = chunkDistance.x / 2;
+        int radiusY = chunkDistance.y / 2;
+        int radiusZ = chunkDistance.z / 2;
+        long viewCells = (2L * radiusX + 1) * (2L * radiusY + 1) * (2L * radiusZ + 1);
+        if (viewCells > entitiesByCell.size()) {
+            for (Map.Entry<Vector3i, TIntSet> entry : entitiesByCell.entrySet()) {
+                if (isWithin(entry.getKey(), viewerCell, chunkDistance, 0)) {
+                    enrollAll(entry.getValue(), viewerEntities, enroll);
+                }
+            }
+            return;
+        }
+        Vector3i cell = new Vector3i();
+        for (int x = viewerCell.x - radiusX; x <= viewerCell.x + radiusX; x++) {
+            for (int y = viewerCell.y - radiusY; y <= viewerCell.y + radiusY; y++) {
+                for (int z = viewerCell.z - radiusZ; z <= viewerCell.z + radiusZ; z++) {
+                    cell.set(x, y, z);
+                    TIntSet cellEntities = entitiesByCell.get(cell);
+                    if (cellEntities != null) {
+                        enrollAll(cellEntities, viewerEntities, enroll);
+                    }
+                }
+            }
+        }
+    }
+
+    void removeViewer(V viewer) {
+        enrolled.remove(viewer);
+    }
+
+    void clear() {
+        cells.clear();
+        entitiesByCell.clear();
+        unpositioned.clear();
+        enrolled.clear();
+    }
+
+    /**
+     * @param margin the number of chunks by which the region of the view distance gets extended on every side.
+     */
+    static boolean isWithin(Vector3i cell, Vector3i viewerCell, Vector3i chunkDistance, int margin) {
+        return Math.abs(cell.x - viewerCell.x) <= chunkDistance.x / 2 + margin
+                && Math.abs(cell.y - viewerCell.y) <= chunkDistance.y / 2 + margin
+                && Math.abs(cell.z - viewerCell.z) <= chunkDistance.z / 2 + margin;
+    }
+
+    private TIntSet viewerEntities(V viewer) {
+        return enrolled.computeIfAbsent(viewer, key -> new TIntHashSet());
+    }
+
+    private static void enrollAll(TIntSet entities, TIntSet viewerEntities, IntConsumer enroll) {
+        TIntIterator iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            int netId = iterator.next();
+            if (viewerEntities.add(netId)) {
+                enroll.accept(netId);
+            }
+        }
+    }
+
+    private void removeFromGrid(int netId) {
+        unpositioned.remove(netId);
+        Vector3i cell = cells.remove(netId);
+        if (cell != null) {
+            TIntSet cellEntities = entitiesByCell.get(cell);
+            cellEntities.remove(netId);
+            if (cellEntities.isEmpty()) {
+                entitiesByCell.remove(cell);
+            }
+        }
+    }
+}
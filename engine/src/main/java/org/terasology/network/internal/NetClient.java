@@ -19,7 +19,6 @@
 import com.google.common.base.Objects;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
@@ -44,8 +43,8 @@
 import org.terasology.logic.common.DisplayNameComponent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
-import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.ColorComponent;
 import org.terasology.network.NetMetricSource;
@@ -60,6 +59,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.nui.Color;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.utilities.compression.CompressionCodec;
 import org.terasology.world.WorldChangeListener;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.biomes.Biome;
@@ -73,7 +73,6 @@
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -110,11 +109,9 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
 
     private PublicIdentityCertificate identity;
+    private CompressionCodec compressionCodec;
 
     // Outgoing messages
     private BlockingQueue<NetData.BlockChangeMessage> queuedOutgoingBlockChanges = Queues.newLinkedBlockingQueue();
@@ -122,7 +119,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
+    private final ChunkStreamer chunkStreamer = new ChunkStreamer();
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
 
 
@@ -199,6 +196,17 @@ public void setPreferredName(String preferredName) {
         this.preferredName = preferredName;
     }
 
+    /**
+     * @return the codec the messages to the client are compressed with.
+     */
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(CompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
     @Override
     public void disconnect() {
         super.disconnect();
@@ -245,31 +253,23 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
     }
 
     private void sendNewChunks(NetData.NetMessage.Builder message) {
-        if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
-                }
-                Vector3i pos = null;
-                int distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    int chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
-                }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
-            }
-        } else {
-            chunkSendCounter = 1.0f;
+        ChunkEncodingCache encodingCache = networkSystem.getChunkEncodingCache();
+        if (chunkStreamer.isEmpty() || encodingCache == null) {
+            return;
         }
+        Vector3i center = new Vector3i();
+        Vector3f viewDirection = new Vector3f();
+        LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+        if (loc != null) {
+            center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
+            viewDirection.set(loc.getWorldDirection());
+        }
+        // the bandwidth is given in kilobits per second
+        int tickBudget = (int) (networkSystem.getBandwidthPerClient() * 1000 / 8 * NET_TICK_RATE);
+        chunkStreamer.send(tickBudget, center, viewDirection, encodingCache, (pos, chunk) -> {
+            relevantChunks.add(pos);
+            message.addChunkInfo(chunk);
+        });
     }
 
     private void sendChunkInvalidations(NetData.NetMessage.Builder message) {
@@ -298,6 +298,13 @@ public void setNetRemoved(int netId) {
         netRelevant.remove(netId);
     }
 
+    /**
+     * @return whether the client knows the entity or is about to be sent it.
+     */
+    public boolean isReplicating(int netId) {
+        return netRelevant.contains(netId) || netInitial.contains(netId);
+    }
+
     public void setComponentAdded(int networkId, Class<? extends Component> component) {
         if (netRelevant.contains(networkId) && !netInitial.contains(networkId)) {
             if (removedComponents.remove(networkId, component)) {
@@ -381,12 +388,12 @@ void send(NetData.NetMessage data) {
     @Override
     public void onChunkRelevant(Vector3i pos, Chunk chunk) {
         invalidatedChunks.remove(pos);
-        readyChunks.put(pos, chunk);
+        chunkStreamer.add(pos, chunk);
     }
 
     @Override
     public void onChunkIrrelevant(Vector3i pos) {
-        readyChunks.remove(pos);
+        chunkStreamer.remove(pos);
         invalidatedChunks.add(pos);
     }
 
@@ -457,8 +464,12 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            Set<Class<? extends Component>> added = addedComponents.get(netId);
+            Set<Class<? extends Component>> changed = dirtyComponents.get(netId);
+            Set<Class<? extends Component>> removed = removedComponents.get(netId);
+            EntityData.PackedEntity entityData = networkSystem.getSerializationCache().getUpdate(netId, isOwner, added, changed, removed,
+                    () -> entitySerializer.serialize(entity, added, changed, removed, new ServerComponentFieldCheck(isOwner, false),
+                            networkSystem.getReplicationBaseline()));
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
@@ -489,8 +500,9 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
                 continue;
             }
             // Note: Send owner->server fields on initial create
-            Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
+            boolean isOwner = networkSystem.getOwner(entity) == this;
+            EntityData.PackedEntity entityData = networkSystem.getSerializationCache().getInitial(netId, isOwner,
+                    () -> entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(isOwner, true)).build());
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.handler.codec.frame.CorruptedFrameException;
+import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
+import org.jboss.netty.handler.codec.oneone.OneToOneDecoder;
+import org.terasology.protobuf.NetData;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.CompressionCodecs;
+import org.terasology.utilities.compression.Decompressor;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+
+/**
+ * Decodes the messages written by a {@link NetMessageEncoder}, decompressing each frame with the codec whose id
+ * precedes it. Frames have to be split by the decoder returned by {@link #createFrameDecoder()} first.
+ * <br><br>
+ * Like the compressors of the encoder, the decompressor of each codec is kept for the lifetime of the connection.
+ */
+public class NetMessageDecoder extends OneToOneDecoder {
+
+    private final Map<CompressionCodec, Decompressor> decompressors = Maps.newHashMap();
+    private boolean closed;
+
+    /**
+     * @return a decoder splitting the received data into the frames written by a {@link NetMessageEncoder}.
+     */
+    public static LengthFieldBasedFrameDecoder createFrameDecoder() {
+        return new LengthFieldBasedFrameDecoder(NetMessageEncoder.MAX_FRAME_LENGTH, 0, NetMessageEncoder.LENGTH_FIELD_BYTES,
+                0, NetMessageEncoder.LENGTH_FIELD_BYTES);
+    }
+
+    @Override
+    protected synchronized Object decode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        ChannelBuffer buffer = (ChannelBuffer) msg;
+        byte codecId = buffer.readByte();
+        CompressionCodec codec = CompressionCodecs.getById(codecId);
+        if (codec == null) {
+            throw new CorruptedFrameException("Received frame compressed with unknown codec " + codecId
+                    + ", the sender may use a network protocol older than version " + HandshakeCommon.PROTOCOL_VERSION);
+        }
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        Decompressor decompressor = decompressors.computeIfAbsent(codec, CompressionCodec::newDecompressor);
+        return NetData.NetMessage.parseFrom(decompressor.decompress(data, NetMessageEncoder.MAX_FRAME_LENGTH));
+    }
+
+    @Override
+    public void handleUpstream(ChannelHandlerContext ctx, ChannelEvent e) throws Exception {
+        if (e instanceof ChannelStateEvent) {
+            ChannelStateEvent stateEvent = (ChannelStateEvent) e;
+            if (stateEvent.getState() == ChannelState.OPEN && Boolean.FALSE.equals(stateEvent.getValue())) {
+                synchronized (this) {
+                    closed = true;
+                    decompressors.values().forEach(Decompressor::close);
+                }
+            }
+        }
+        super.handleUpstream(ctx, e);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.handler.codec.frame.TooLongFrameException;
+import org.jboss.netty.handler.codec.oneone.OneToOneStrictEncoder;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.Compressor;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+
+/**
+ * Encodes the messages sent to a client in a single pass: a message is serialized into a buffer kept by the encoder,
+ * compressed by the compressors of the connection and framed, without any intermediate objects.
+ * <br><br>
+ * Every frame starts with its length as a three byte field and the id of the codec the message was compressed with,
+ * so that the codec can be changed at any time without having to synchronize with the receiving
+ * {@link NetMessageDecoder}. The compressor of each codec is kept for the lifetime of the connection and closed with
+ * it, so that codecs compressing the frames as one stream, like deflate, can refer to the data of earlier frames.
+ * As the receiver decompresses the frames in the order they arrive, the channel stays locked from encoding a message
+ * until its frame has been passed on for writing.
+ */
+public class NetMessageEncoder extends OneToOneStrictEncoder implements ChannelUpstreamHandler {
+
+    static final int LENGTH_FIELD_BYTES = 3;
+    /**
+     * The limit of the frame decoder of the clients, including the length field. Messages must not be longer than
+     * that either before compression, so that receivers never allocate more than this for a frame.
+     */
+    static final int MAX_FRAME_LENGTH = 8388608;
+
+    private static final int HEADER_BYTES = LENGTH_FIELD_BYTES + 1;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    /**
+     * Buffers for larger messages, like module data, are allocated for the message only.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 18;
+
+    private CompressionCodec codec;
+    private Compressor compressor;
+    private final Map<CompressionCodec, Compressor> compressors = Maps.newHashMap();
+    private boolean closed;
+    private byte[] messageBuffer = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] frameBuffer = new byte[INITIAL_BUFFER_SIZE];
+
+    public NetMessageEncoder(CompressionCodec codec) {
+        this.codec = codec;
+        this.compressor = codec.newCompressor();
+        compressors.put(codec, compressor);
+    }
+
+    public synchronized CompressionCodec getCodec() {
+        return codec;
+    }
+
+    public synchronized void setCodec(CompressionCodec codec) {
+        if (codec != this.codec && !closed) {
+            this.codec = codec;
+            this.compressor = compressors.computeIfAbsent(codec, CompressionCodec::newCompressor);
+        }
+    }
+
+    @Override
+    protected synchronized Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        if (!(msg instanceof MessageLite)) {
+            return msg;
+        }
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        MessageLite message = (MessageLite) msg;
+        int messageLength = message.getSerializedSize();
+        if (messageLength > MAX_FRAME_LENGTH) {
+            throw new TooLongFrameException("Message of " + messageLength + " bytes exceeds the maximum frame length");
+        }
+        messageBuffer = ensureSize(messageBuffer, messageLength);
+        CodedOutputStream out = CodedOutputStream.newInstance(messageBuffer, 0, messageLength);
+        message.writeTo(out);
+        out.checkNoSpaceLeft();
+
+        frameBuffer = ensureSize(frameBuffer, HEADER_BYTES + compressor.maxCompressedLength(messageLength));
+        int compressedLength = compressor.compress(messageBuffer, messageLength, frameBuffer, HEADER_BYTES);
+        int frameLength = 1 + compressedLength;
+        if (LENGTH_FIELD_BYTES + frameLength > MAX_FRAME_LENGTH) {
+            throw new TooLongFrameException("Message of " + messageLength + " bytes exceeds the maximum frame length after compression");
+        }
+        frameBuffer[0] = (byte) (frameLength >>> 16);
+        frameBuffer[1] = (byte) (frameLength >>> 8);
+        frameBuffer[2] = (byte) frameLength;
+        frameBuffer[3] = codec.getId();
+        return ChannelBuffers.copiedBuffer(frameBuffer, 0, LENGTH_FIELD_BYTES + frameLength);
+    }
+
+    @Override
+    public void handleUpstream(ChannelHandlerContext ctx, ChannelEvent e) throws Exception {
+        if (e instanceof ChannelStateEvent) {
+            ChannelStateEvent stateEvent = (ChannelStateEvent) e;
+            if (stateEvent.getState() == ChannelState.OPEN && Boolean.FALSE.equals(stateEvent.getValue())) {
+                synchronized (this) {
+                    closed = true;
+                    compressors.values().forEach(Compressor::close);
+                }
+            }
+        }
+        ctx.sendUpstream(e);
+    }
+
+    private static byte[] ensureSize(byte[] buffer, int size) {
+        if (size <= buffer.length) {
+            return buffer;
+        }
+        if (size > MAX_RETAINED_BUFFER_SIZE) {
+            return new byte[size];
+        }
+        return new byte[Math.min(MAX_RETAINED_BUFFER_SIZE, Math.max(size, 2 * buffer.length))];
+    }
+}
@@ -24,8 +24,12 @@
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.protobuf.ByteString;
+import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.bootstrap.ServerBootstrap;
 import org.jboss.netty.channel.Channel;
@@ -57,9 +61,14 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.EventLibrary;
 import org.terasology.entitySystem.metadata.EventMetadata;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.module.Module;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.Client;
+import org.terasology.network.ClientComponent;
 import org.terasology.network.JoinStatus;
 import org.terasology.network.NetworkComponent;
 import org.terasology.network.NetworkMode;
@@ -72,6 +81,7 @@
 import org.terasology.network.internal.pipelineFactory.TerasologyServerPipelineFactory;
 import org.terasology.network.serialization.NetComponentSerializeCheck;
 import org.terasology.network.serialization.NetEntityRefTypeHandler;
+import org.terasology.network.serialization.ReplicationBaseline;
 import org.terasology.persistence.PlayerStore;
 import org.terasology.persistence.StorageManager;
 import org.terasology.persistence.serializers.EventSerializer;
@@ -92,6 +102,7 @@
 import org.terasology.world.chunks.remoteChunkProvider.RemoteChunkProvider;
 import org.terasology.world.generator.WorldGenerator;
 
+import java.math.RoundingMode;
 import java.net.BindException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -149,6 +160,10 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private Map<EntityRef, Client> clientPlayerLookup = Maps.newHashMap();
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
+    private final InterestManager<NetClient> interestManager = new InterestManager<>();
+    private final EntitySerializationCache serializationCache = new EntitySerializationCache();
+    private final ReplicationBaseline replicationBaseline = new ReplicationBaseline();
+    private ChunkEncodingCache chunkEncodingCache;
     private StorageManager storageManager;
 
     // Client only
@@ -173,6 +188,7 @@ public void host(int port, boolean dedicatedServer) throws HostingFailedExceptio
                 }
                 generateSerializationTables();
 
+                chunkEncodingCache = ChunkEncodingCache.createDefault();
                 factory = new NioServerSocketChannelFactory(Executors.newCachedThreadPool(), Executors.newCachedThreadPool());
                 ServerBootstrap bootstrap = new ServerBootstrap(factory);
                 bootstrap.setPipelineFactory(new TerasologyServerPipelineFactory(this));
@@ -288,6 +304,13 @@ public void shutdown() {
         biomeManager = null;
         ownerLookup.clear();
         ownedLookup.clear();
+        interestManager.clear();
+        serializationCache.clear();
+        replicationBaseline.clear();
+        if (chunkEncodingCache != null) {
+            chunkEncodingCache.shutdown();
+            chunkEncodingCache = null;
+        }
         ownershipHelper = null;
         storageManager = null;
         logger.info("Network shutdown");
@@ -314,6 +337,13 @@ public void update() {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
                 }
+                if (netTick && mode.isServer()) {
+                    serializationCache.clear();
+                    sendSettledComponents(replicationBaseline.commit());
+                    PerformanceMonitor.startActivity("Interest management");
+                    updateInterest();
+                    PerformanceMonitor.endActivity();
+                }
                 PerformanceMonitor.startActivity("Client update");
                 for (Client client : clientList) {
                     client.update(netTick);
@@ -326,6 +356,110 @@ public void update() {
         }
     }
 
+    /**
+     * Marks the components whose quantized changes were held back, and which stopped changing, as dirty for every client,
+     * so the clients end up with their exact values.
+     */
+    private void sendSettledComponents(TLongObjectMap<Set<Class<? extends Component>>> settled) {
+        TLongObjectIterator<Set<Class<? extends Component>>> iterator = settled.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            EntityRef entity = entityManager.getEntity(iterator.key());
+            NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
+            if (netComp == null || netComp.getNetworkId() == NULL_NET_ID) {
+                continue;
+            }
+            for (Class<? extends Component> componentType : iterator.value()) {
+                if (!entity.hasComponent(componentType)) {
+                    continue;
+                }
+                for (NetClient client : netClientList) {
+                    client.setComponentDirty(netComp.getNetworkId(), componentType);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets every client know about the entities that came into its view distance and forget the ones that left it.
+     */
+    private void updateInterest() {
+        for (NetClient client : netClientList) {
+            TIntSet pinned = new TIntHashSet();
+            collectOwnedNetIds(client.getEntity(), pinned, 0);
+            interestManager.update(client, getViewerChunkPosition(client), client.getViewDistance().getChunkDistance(), pinned,
+                    client::setNetInitial, client::setNetRemoved);
+        }
+    }
+
+    private void collectOwnedNetIds(EntityRef owner, TIntSet result, int depth) {
+        if (depth > OWNER_DEPTH_LIMIT) {
+            return;
+        }
+        for (EntityRef owned : ownedLookup.get(owner)) {
+            NetworkComponent netComp = owned.getComponent(NetworkComponent.class);
+            if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
+                result.add(netComp.getNetworkId());
+            }
+            collectOwnedNetIds(owned, result, depth + 1);
+        }
+    }
+
+    private Vector3i getViewerChunkPosition(Client client) {
+        ClientComponent clientComp = client.getEntity().getComponent(ClientComponent.class);
+        if (clientComp == null) {
+            return null;
+        }
+        return getChunkPosition(clientComp.character);
+    }
+
+    /**
+     * Moves an entity that is replicated by relevance to its current chunk, together with the entities attached to it,
+     * whose world positions change with it.
+     */
+    private void moveRelevantEntity(EntityRef entity) {
+        NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
+        if (netComp != null && interestManager.contains(netComp.getNetworkId())) {
+            interestManager.move(netComp.getNetworkId(), getChunkPosition(entity));
+        }
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (loc != null) {
+            for (EntityRef child : loc.getChildren()) {
+                moveRelevantEntity(child);
+            }
+        }
+    }
+
+    /**
+     * @return the chunk the entity is in, or null if it has no position.
+     */
+    private static Vector3i getChunkPosition(EntityRef entity) {
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (loc == null) {
+            return null;
+        }
+        Vector3f worldPos = loc.getWorldPosition();
+        if (!Float.isFinite(worldPos.x) || !Float.isFinite(worldPos.y) || !Float.isFinite(worldPos.z)) {
+            return null;
+        }
+        return ChunkMath.calcChunkPos(new Vector3i(worldPos, RoundingMode.HALF_UP));
+    }
+
+    EntitySerializationCache getSerializationCache() {
+        return serializationCache;
+    }
+
+    ReplicationBaseline getReplicationBaseline() {
+        return replicationBaseline;
+    }
+
+    /**
+     * @return the cache of the chunks encoded for clients, null if not hosting.
+     */
+    ChunkEncodingCache getChunkEncodingCache() {
+        return chunkEncodingCache;
+    }
+
     private void processPendingDisconnects() {
         if (!disconnectedClients.isEmpty()) {
             List<NetClient> removedPlayers = Lists.newArrayListWithExpectedSize(disconnectedClients.size());
@@ -425,9 +559,17 @@ public void registerNetworkEntity(EntityRef entity) {
                         clientPlayer.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
+                case RELEVANT:
+                    interestManager.add(netComponent.getNetworkId(), getChunkPosition(entity));
+                    for (NetClient client : netClientList) {
+                        if (interestManager.enrollIfRelevant(client, netComponent.getNetworkId(), getViewerChunkPosition(client),
+                                client.getViewDistance().getChunkDistance())) {
+                            client.setNetInitial(netComponent.getNetworkId());
+                        }
+                    }
+                    break;
                 default:
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
                         client.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
@@ -458,6 +600,9 @@ public void updateOwnership(EntityRef entity) {
             NetClient newOwner = getNetOwner(newOwnerEntity);
 
             if (!Objects.equal(lastOwner, newOwner)) {
+                // The new owner may not know the fields that were only sent to the last owner
+                replicationBaseline.reset(entity.getId());
+                serializationCache.invalidate(netComponent.getNetworkId());
                 recursiveUpdateOwnership(entity, lastOwner, newOwner);
                 if (newOwner != null) {
                     int id = netComponent.getNetworkId();
@@ -512,9 +657,14 @@ public void unregisterNetworkEntity(EntityRef entity) {
                 logger.debug("Unregistering network entity: {} with netId {}", entity, netComponent.getNetworkId());
                 netIdToEntityId.remove(netComponent.getNetworkId());
                 if (mode.isServer()) {
+                    int netId = netComponent.getNetworkId();
                     for (NetClient client : netClientList) {
-                        client.setNetRemoved(netComponent.getNetworkId());
+                        if (client.isReplicating(netId)) {
+                            client.setNetRemoved(netId);
+                        }
                     }
+                    interestManager.remove(netId);
+                    replicationBaseline.reset(entity.getId());
                 }
                 netComponent.setNetworkId(NULL_NET_ID);
                 entity.saveComponent(netComponent);
@@ -563,12 +713,16 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
+                serializationCache.invalidate(netComp.getNetworkId());
                 if (metadata.isReplicated()) {
                     for (NetClient client : netClientList) {
                         logger.info("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
                     }
                 }
+                if (component == LocationComponent.class) {
+                    moveRelevantEntity(entity);
+                }
             }
         }
         updatedOwnedEntities(entity, component, metadata);
@@ -580,12 +734,16 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
+                serializationCache.invalidate(netComp.getNetworkId());
                 if (metadata.isReplicated()) {
                     for (NetClient client : netClientList) {
                         logger.info("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
                     }
                 }
+                if (component == LocationComponent.class) {
+                    moveRelevantEntity(entity);
+                }
             }
         }
         if (mode.isAuthority() && metadata.isReferenceOwner()) {
@@ -611,11 +769,15 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
             switch (mode) {
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
+                    serializationCache.invalidate(netComp.getNetworkId());
                     if (metadata.isReplicated()) {
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
                         }
                     }
+                    if (component == LocationComponent.class) {
+                        moveRelevantEntity(entity);
+                    }
                     break;
                 case CLIENT:
                     if (server != null && metadata.isReplicatedFromOwner() && getOwnerEntity(entity).equals(server.getClientEntity())) {
@@ -786,6 +948,7 @@ private void processRemovedClient(Client client) {
         if (client instanceof NetClient) {
             NetClient netClient = (NetClient) client;
             netClientList.remove(netClient);
+            interestManager.removeViewer(netClient);
         }
         clientList.remove(client);
         clientPlayerLookup.remove(client.getEntity());
@@ -799,8 +962,12 @@ private void processNewClient(NetClient client) {
         client.connected(entityManager, entitySerializer, eventSerializer, eventLibrary);
         // log after connect so that the name has been set:
         logger.info("New client connected: {}", client.getName());
-        client.send(NetData.NetMessage.newBuilder().setJoinComplete(
-                NetData.JoinCompleteMessage.newBuilder().setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId())).build());
+        NetData.JoinCompleteMessage.Builder joinComplete = NetData.JoinCompleteMessage.newBuilder()
+                .setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId());
+        if (client.getCompressionCodec() != null) {
+            joinComplete.setCompressionCodec(client.getCompressionCodec().getName());
+        }
+        client.send(NetData.NetMessage.newBuilder().setJoinComplete(joinComplete).build());
         clientList.add(client);
         netClientList.add(client);
         clientPlayerLookup.put(client.getEntity(), client);
@@ -817,8 +984,10 @@ private void processNewClient(NetClient client) {
                             client.setNetInitial(netComp.getNetworkId());
                         }
                         break;
+                    case RELEVANT:
+                        // Enrolled with the next network tick, once the client's character is known
+                        break;
                     default:
-                        // TODO: Relevance Check
                         client.setNetInitial(netComp.getNetworkId());
                         break;
                 }
@@ -23,6 +23,7 @@
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.identity.PublicIdentityCertificate;
 import org.terasology.module.Module;
@@ -31,6 +32,8 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.nui.Color;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.CompressionCodecs;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
@@ -132,8 +135,25 @@ private void receivedConnect(NetData.JoinMessage message) {
         client.setPreferredName(message.getName());
         client.setColor(new Color(message.getColor().getRgba()));
         client.setViewDistanceMode(ViewDistance.forIndex(message.getViewDistanceLevel()));
+        client.setCompressionCodec(negotiateCompressionCodec(message.getCompressionCodecList()));
         channelHandlerContext.getPipeline().remove(this);
         serverHandler.connectionComplete(client);
     }
 
+    /**
+     * Switches the compression of the messages to the client to the configured codec, or another one the client
+     * supports. Clients can decompress every codec they know at any time, so no further coordination is needed.
+     */
+    private CompressionCodec negotiateCompressionCodec(List<String> clientCodecs) {
+        NetMessageEncoder encoder = channelHandlerContext.getPipeline().get(NetMessageEncoder.class);
+        String preferredCodec = CoreRegistry.get(Config.class).getNetwork().getCompressionCodec();
+        CompressionCodec codec = CompressionCodecs.choose(preferredCodec, clientCodecs);
+        if (codec == null) {
+            logger.warn("Client supports none of the known compression codecs, keeping {}", encoder.getCodec().getName());
+            return encoder.getCodec();
+        }
+        encoder.setCodec(codec);
+        return codec;
+    }
+
 }
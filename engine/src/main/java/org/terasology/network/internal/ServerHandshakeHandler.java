@@ -68,6 +68,7 @@ public void channelConnected(ChannelHandlerContext ctx, ChannelStateEvent e) thr
                 .setRandom(ByteString.copyFrom(serverRandom))
                 .setCertificate(NetMessageUtil.convert(serverPublicCert))
                 .setTimestamp(System.currentTimeMillis())
+                .setProtocolVersion(HandshakeCommon.PROTOCOL_VERSION)
                 .build();
 
         e.getChannel().write(NetData.NetMessage.newBuilder()
@@ -87,6 +88,12 @@ public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
 
     private void processClientHandshake(NetData.HandshakeHello clientHello, NetData.HandshakeVerification handshakeVerification, ChannelHandlerContext ctx) {
         logger.info("Received client certificate");
+        if (clientHello.getProtocolVersion() != HandshakeCommon.PROTOCOL_VERSION) {
+            logger.error("Client uses network protocol version {} instead of {}, ending connection attempt",
+                    clientHello.getProtocolVersion(), HandshakeCommon.PROTOCOL_VERSION);
+            ctx.getChannel().close();
+            return;
+        }
         PublicIdentityCertificate clientCert = NetMessageUtil.convert(clientHello.getCertificate());
 
         if (!clientCert.verifySignedBy(config.getSecurity().getServerPublicCertificate())) {
@@ -19,17 +19,13 @@
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.Channels;
-import org.jboss.netty.handler.codec.compression.ZlibDecoder;
-import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufDecoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import org.terasology.network.internal.ClientHandshakeHandler;
 import org.terasology.network.internal.ServerInfoRequestHandler;
 import org.terasology.network.internal.JoinStatusImpl;
 import org.terasology.network.internal.MetricRecordingHandler;
-import org.terasology.protobuf.NetData;
+import org.terasology.network.internal.NetMessageDecoder;
 
 /**
  * A pipeline that requests {@link org.terasology.network.ServerInfoMessage} before it auto-disconnects.
@@ -44,10 +40,8 @@ public ChannelPipeline getPipeline() throws Exception {
 
         p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler());
 
-        p.addLast("lengthFrameDecoder", new LengthFieldBasedFrameDecoder(8388608, 0, 3, 0, 3));
-        p.addLast("inflateDecoder", new ZlibDecoder());
-        p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder());
-        p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
+        p.addLast("lengthFrameDecoder", NetMessageDecoder.createFrameDecoder());
+        p.addLast("messageDecoder", new NetMessageDecoder());
 
         p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
         p.addLast("protobufEncoder", new ProtobufEncoder());
@@ -18,18 +18,16 @@
 
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.handler.codec.compression.ZlibEncoder;
-import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
 import org.jboss.netty.handler.codec.protobuf.ProtobufDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import org.terasology.network.internal.MetricRecordingHandler;
+import org.terasology.network.internal.NetMessageEncoder;
 import org.terasology.network.internal.NetworkSystemImpl;
 import org.terasology.network.internal.ServerConnectionHandler;
 import org.terasology.network.internal.ServerHandler;
 import org.terasology.network.internal.ServerHandshakeHandler;
 import org.terasology.protobuf.NetData;
+import org.terasology.utilities.compression.CompressionCodecs;
 
 import static org.jboss.netty.channel.Channels.pipeline;
 
@@ -53,10 +51,8 @@ public ChannelPipeline getPipeline() throws Exception {
         p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder());
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
-        p.addLast("frameLengthEncoder", new LengthFieldPrepender(3));
-        p.addLast("deflateEncoder", new ZlibEncoder());
-        p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
-        p.addLast("protobufEncoder", new ProtobufEncoder());
+        // the codec gets replaced by the one negotiated with the client once it joins
+        p.addLast("messageEncoder", new NetMessageEncoder(CompressionCodecs.DEFLATE));
 
         p.addLast("authenticationHandler", new ServerHandshakeHandler());
         p.addLast("connectionHandler", new ServerConnectionHandler(networkSystem));
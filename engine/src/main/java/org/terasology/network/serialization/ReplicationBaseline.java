@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.serialization;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.network.Replicate;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the field values that have been sent in updates to clients, so that changed components only send the
+ * fields that actually changed since.
+ * <br><br>
+ * Updates of an entity go to every client that knows it, over a reliable, ordered connection, so one baseline per
+ * entity serves all clients, and the serialized updates can still be shared between them. Clients that get to know an
+ * entity receive its current state instead, which is not recorded: it may differ from the baseline by less than the
+ * quantization step, and recording it would move the baseline away from what the other clients know. Values sent
+ * during a network tick only become the baseline with the next {@link #commit()}, so all clients of a tick are compared
+ * against the same values. A field that was sent with different values within one tick, because the entity changed
+ * while the clients were being updated, loses its baseline and is sent again.
+ * <br><br>
+ * Fields with a {@link Replicate#quantization()} only count as changed once their value moved by at least that step.
+ * When a component with such a held back change stops changing, {@link #commit()} returns it, so that it gets sent
+ * once more and its fields are compared exactly, leaving the clients with the exact values.
+ */
+public class ReplicationBaseline {
+    private static final Object CONFLICTING = new Object();
+
+    private final TLongObjectMap<Map<ReplicatedFieldMetadata<?, ?>, Object>> committed = new TLongObjectHashMap<>();
+    private final TLongObjectMap<Map<ReplicatedFieldMetadata<?, ?>, Object>> pending = new TLongObjectHashMap<>();
+    private TLongObjectMap<Set<Class<? extends Component>>> heldBack = new TLongObjectHashMap<>();
+    private TLongObjectMap<Set<Class<? extends Component>>> lastHeldBack = new TLongObjectHashMap<>();
+    private TLongObjectMap<Set<Class<? extends Component>>> settling = new TLongObjectHashMap<>();
+
+    /**
+     * Also remembers the component if a change of the field is held back by its quantization.
+     *
+     * @return whether the field of the component differs from the value last sent for the entity, or there is none.
+     */
+    public boolean hasChanged(long entityId, ReplicatedFieldMetadata<?, ?> field, Component component) {
+        Class<? extends Component> componentType = component.getClass();
+        remove(lastHeldBack, entityId, componentType);
+        Map<ReplicatedFieldMetadata<?, ?>, Object> values = committed.get(entityId);
+        if (values == null || !values.containsKey(field)) {
+            return true;
+        }
+        Object last = values.get(field);
+        Object value = field.getValue(component);
+        Replicate replicationInfo = field.getReplicationInfo();
+        float step = replicationInfo != null && !contains(settling, entityId, componentType) ? replicationInfo.quantization() : 0;
+        if (isWithinStep(last, value, step)) {
+            if (!Objects.equal(last, value)) {
+                add(heldBack, entityId, componentType);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records the current value of the field of the component as sent, which becomes part of the baseline with the
+     * next {@link #commit()}.
+     */
+    public void record(long entityId, ReplicatedFieldMetadata<?, ?> field, Component component) {
+        Object value = field.getCopyOfValue(component);
+        Map<ReplicatedFieldMetadata<?, ?>, Object> values = pending.get(entityId);
+        if (values == null) {
+            values = Maps.newHashMap();
+            pending.put(entityId, values);
+        } else if (values.containsKey(field)) {
+            if (!Objects.equal(values.get(field), value)) {
+                values.put(field, CONFLICTING);
+            }
+            return;
+        }
+        values.put(field, value);
+    }
+
+    /**
+     * Makes the values recorded since the last call the baseline, which has to happen before every network tick.
+     *
+     * @return the components that had a change held back two ticks ago and did not change during the last tick. They
+     * need to be sent during the coming tick, which compares their fields exactly.
+     */
+    public TLongObjectMap<Set<Class<? extends Component>>> commit() {
+        TLongObjectIterator<Map<ReplicatedFieldMetadata<?, ?>, Object>> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            Map<ReplicatedFieldMetadata<?, ?>, Object> values = committed.get(iterator.key());
+            if (values == null) {
+                values = Maps.newHashMap();
+                committed.put(iterator.key(), values);
+            }
+            for (Map.Entry<ReplicatedFieldMetadata<?, ?>, Object> entry : iterator.value().entrySet()) {
+                if (entry.getValue() == CONFLICTING) {
+                    values.remove(entry.getKey());
+                } else {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        pending.clear();
+
+        settling = lastHeldBack;
+        lastHeldBack = heldBack;
+        heldBack = new TLongObjectHashMap<>();
+        return settling;
+    }
+
+    /**
+     * Forgets the values sent for the entity, so all fields of its changed components are sent again.
+     */
+    public void reset(long entityId) {
+        committed.remove(entityId);
+        pending.remove(entityId);
+        heldBack.remove(entityId);
+        lastHeldBack.remove(entityId);
+        settling.remove(entityId);
+    }
+
+    public void clear() {
+        committed.clear();
+        pending.clear();
+        heldBack.clear();
+        lastHeldBack.clear();
+        settling.clear();
+    }
+
+    private static void add(TLongObjectMap<Set<Class<? extends Component>>> components, long entityId, Class<? extends Component> componentType) {
+        Set<Class<? extends Component>> types = components.get(entityId);
+        if (types == null) {
+            types = Sets.newHashSet();
+            components.put(entityId, types);
+        }
+        types.add(componentType);
+    }
+
+    private static void remove(TLongObjectMap<Set<Class<? extends Component>>> components, long entityId, Class<? extends Component> componentType) {
+        Set<Class<? extends Component>> types = components.get(entityId);
+        if (types != null && types.remove(componentType) && types.isEmpty()) {
+            components.remove(entityId);
+        }
+    }
+
+    private static boolean contains(TLongObjectMap<Set<Class<? extends Component>>> components, long entityId, Class<? extends Component> componentType) {
+        Set<Class<? extends Component>> types = components.get(entityId);
+        return types != null && types.contains(componentType);
+    }
+
+    /**
+     * @param step the largest difference per number that is ignored, or zero to compare the values exactly.
+     */
+    static boolean isWithinStep(Object last, Object current, float step) {
+        if (step <= 0 || last == null || current == null || last.getClass() != current.getClass()) {
+            return Objects.equal(last, current);
+        }
+        if (current instanceof Float) {
+            return isNear((Float) last, (Float) current, step);
+        }
+        if (current instanceof Double) {
+            return Math.abs((Double) last - (Double) current) < step;
+        }
+        if (current instanceof Vector3f) {
+            Vector3f a = (Vector3f) last;
+            Vector3f b = (Vector3f) current;
+            return isNear(a.x, b.x, step) && isNear(a.y, b.y, step) && isNear(a.z, b.z, step);
+        }
+        if (current instanceof Vector2f) {
+            Vector2f a = (Vector2f) last;
+            Vector2f b = (Vector2f) current;
+            return isNear(a.x, b.x, step) && isNear(a.y, b.y, step);
+        }
+        if (current instanceof Quat4f) {
+            Quat4f a = (Quat4f) last;
+            Quat4f b = (Quat4f) current;
+            return isNear(a.x, b.x, step) && isNear(a.y, b.y, step) && isNear(a.z, b.z, step) && isNear(a.w, b.w, step);
+        }
+        return Objects.equal(last, current);
+    }
+
+    private static boolean isNear(float last, float current, float step) {
+        return Math.abs(last - current) < step;
+    }
+}
@@ -19,9 +19,11 @@
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.OwnershipHelper;
+import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.AABB;
 import org.terasology.math.geom.Vector3i;
@@ -32,12 +34,14 @@
 import org.terasology.persistence.StorageManager;
 import org.terasology.persistence.serializers.PrefabSerializer;
 import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.utilities.compression.CompressionCodec;
+import org.terasology.utilities.compression.CompressionCodecs;
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
@@ -46,7 +50,6 @@
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -58,6 +61,7 @@ public abstract class AbstractStorageManager implements StorageManager {
     private static final Logger logger = LoggerFactory.getLogger(AbstractStorageManager.class);
 
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache = new RegionFileCache();
     private final BlockManager blockManager;
     private final BiomeManager biomeManager;
 
@@ -66,19 +70,53 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
 
-    private boolean storeChunksInZips = true;
+    private boolean storeChunksInRegions = true;
+    private final CompressionCodec chunkCompressionCodec;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
+                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInRegions) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.storeChunksInRegions = storeChunksInRegions;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+        this.chunkCompressionCodec = determineChunkCompressionCodec();
+    }
+
+    /**
+     * The codec of a save game can't be changed, as the chunks are not converted. New save games use the configured
+     * codec, which gets recorded in the manifest with the first save.
+     */
+    private CompressionCodec determineChunkCompressionCodec() {
+        Path manifestPath = storagePathProvider.getStoragePathDirectory().resolve(GameManifest.DEFAULT_FILE_NAME);
+        if (!Files.isRegularFile(manifestPath)) {
+            // the first save may not have been merged yet
+            manifestPath = storagePathProvider.getUnmergedChangesPath().resolve(GameManifest.DEFAULT_FILE_NAME);
+        }
+        String codecName;
+        if (Files.isRegularFile(manifestPath)) {
+            try {
+                codecName = GameManifest.load(manifestPath).getChunkCompressionCodec();
+            } catch (IOException e) {
+                logger.error("Failed to read the chunk compression codec from {}", manifestPath, e);
+                return CompressionCodecs.GZIP;
+            }
+        } else {
+            Config config = CoreRegistry.get(Config.class);
+            codecName = config != null ? config.getSystem().getChunkCompressionCodec() : null;
+        }
+        if (codecName == null) {
+            return CompressionCodecs.GZIP;
+        }
+        CompressionCodec codec = CompressionCodecs.getByName(codecName);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown chunk compression codec " + codecName);
+        }
+        return codec;
     }
 
     @Override
@@ -104,13 +142,13 @@ public PlayerStore loadPlayerStore(String playerId) {
 
     @Override
     public ChunkStore loadChunkStore(Vector3i chunkPos) {
+        boolean persisted = !hasUnsavedChunkData(chunkPos);
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
-                store = new ChunkStoreInternal(storeData, entityManager, blockManager, biomeManager);
+            try {
+                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(chunkCompressionCodec.decompress(chunkData));
+                store = new ChunkStoreInternal(storeData, entityManager, blockManager, biomeManager, persisted);
             } catch (IOException e) {
                 logger.error("Failed to read existing saved chunk {}", chunkPos);
             }
@@ -118,6 +156,33 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         return store;
     }
 
+    /**
+     * @return true if the data of the chunk would be loaded from memory, as it has not been written to disk yet.
+     */
+    protected boolean hasUnsavedChunkData(Vector3i chunkPos) {
+        return false;
+    }
+
+    protected byte[] loadChunkFromRegion(Vector3i chunkPos) {
+        Path regionPath = storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(chunkPos));
+        try {
+            RegionFile regionFile = regionFileCache.get(regionPath);
+            if (regionFile != null) {
+                byte[] chunkData = regionFile.read(storagePathProvider.getChunkRegionIndex(chunkPos));
+                if (chunkData != null) {
+                    return chunkData;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to load chunk {} from region file {}", chunkPos, regionPath, e);
+        }
+        return loadChunkZip(chunkPos);
+    }
+
+    /**
+     * Loads a chunk from the chunk zips of older versions, which are only present until they got converted by a
+     * {@link ChunkZipConverter}.
+     */
     protected byte[] loadChunkZip(Vector3i chunkPos) {
         byte[] chunkData = null;
         Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
@@ -135,24 +200,38 @@ protected byte[] loadChunkZip(Vector3i chunkPos) {
         return chunkData;
     }
 
+    protected RegionFileCache getRegionFileCache() {
+        return regionFileCache;
+    }
+
     @Override
     public void update() {
     }
 
-    public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+    /**
+     * @return true if chunks are grouped into region files, false if every chunk is stored in a file of its own.
+     */
+    public boolean isStoreChunksInRegions() {
+        return storeChunksInRegions;
+    }
+
+    /**
+     * @return the codec the chunks of this save game are compressed with.
+     */
+    public CompressionCodec getChunkCompressionCodec() {
+        return chunkCompressionCodec;
     }
 
     /**
      * For tests only
      */
-    void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+    void setStoreChunksInRegions(boolean storeChunksInRegions) {
+        this.storeChunksInRegions = storeChunksInRegions;
     }
 
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
-        if (isStoreChunksInZips()) {
-            return loadChunkZip(chunkPos);
+        if (isStoreChunksInRegions()) {
+            return loadChunkFromRegion(chunkPos);
         } else {
             Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
             if (Files.isRegularFile(chunkPath)) {
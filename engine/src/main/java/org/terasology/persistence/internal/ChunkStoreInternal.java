@@ -22,6 +22,7 @@
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.internal.ChunkSerializer;
 
 /**
@@ -34,12 +35,19 @@ final class ChunkStoreInternal implements ChunkStore {
     private EngineEntityManager entityManager;
     private EntityData.EntityStore entityStore;
 
+    /**
+     * @param persisted true if the chunk data has been read from disk, false if it has not been written to disk yet.
+     */
     ChunkStoreInternal(EntityData.ChunkStore chunkData, EngineEntityManager entityManager,
-            BlockManager blockManager, BiomeManager biomeManager) {
+            BlockManager blockManager, BiomeManager biomeManager, boolean persisted) {
         this.chunkPosition = new Vector3i(chunkData.getX(), chunkData.getY(), chunkData.getZ());
         this.entityManager = entityManager;
 
         this.chunk = ChunkSerializer.decode(chunkData, blockManager, biomeManager);
+        if (persisted && chunk instanceof ChunkImpl) {
+            ChunkImpl chunkImpl = (ChunkImpl) chunk;
+            chunkImpl.markPersisted(chunkImpl.getModificationGeneration());
+        }
         this.entityStore = chunkData.getStore();
     }
 
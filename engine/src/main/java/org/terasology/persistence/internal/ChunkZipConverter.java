@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Converts the chunk zips written by older versions into region files.
+ * <br><br>
+ * Every chunk of a zip is written into its region file, unless the region file already contains the chunk. The zip is
+ * only deleted after all of its chunks have been written and flushed, so an interrupted conversion can simply be
+ * started again.
+ *
+ */
+public class ChunkZipConverter {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkZipConverter.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
+
+    public ChunkZipConverter(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
+        this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
+    }
+
+    /**
+     * Converts all chunk zips of the world.
+     *
+     * @return the number of chunks that got converted.
+     */
+    public int convertAll() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return 0;
+        }
+        int convertedChunks = 0;
+        int convertedZips = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath, storagePathProvider::isChunkZipPath)) {
+            for (Path chunkZipPath : stream) {
+                convertedChunks += convert(chunkZipPath);
+                convertedZips++;
+            }
+        }
+        if (convertedZips > 0) {
+            logger.info("Converted {} chunks from {} chunk zips into region files", convertedChunks, convertedZips);
+        }
+        return convertedChunks;
+    }
+
+    /**
+     * Converts a single chunk zip and deletes it afterwards.
+     *
+     * @return the number of chunks that got converted.
+     */
+    public int convert(Path chunkZipPath) throws IOException {
+        int convertedChunks = 0;
+        Set<RegionFile> modifiedRegionFiles = Sets.newHashSet();
+        try (FileSystem chunkZip = FileSystems.newFileSystem(chunkZipPath, (ClassLoader) null)) {
+            for (Path root : chunkZip.getRootDirectories()) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                    for (Path chunkPath : stream) {
+                        Vector3i chunkPos = storagePathProvider.parseChunkFilename(chunkPath.getFileName().toString());
+                        if (chunkPos == null || !Files.isRegularFile(chunkPath)) {
+                            logger.warn("Skipping unexpected entry {} of chunk zip {}", chunkPath, chunkZipPath);
+                            continue;
+                        }
+                        Path regionPath = storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(chunkPos));
+                        RegionFile regionFile = regionFileCache.getOrCreate(regionPath);
+                        int index = storagePathProvider.getChunkRegionIndex(chunkPos);
+                        if (!regionFile.contains(index)) {
+                            regionFile.write(index, Files.readAllBytes(chunkPath));
+                            modifiedRegionFiles.add(regionFile);
+                            convertedChunks++;
+                        }
+                    }
+                }
+            }
+        }
+        for (RegionFile regionFile : modifiedRegionFiles) {
+            regionFile.flush();
+        }
+        Files.delete(chunkZipPath);
+        return convertedChunks;
+    }
+}
@@ -15,16 +15,15 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.base.Preconditions;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.compression.CompressionCodec;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
@@ -34,7 +33,10 @@
 public class CompressedChunkBuilder {
     private EntityData.EntityStore entityStore;
     private ChunkImpl chunk;
+    private CompressionCodec codec;
+    private long chunkGeneration;
     private boolean viaSnapshot;
+    private boolean snapshotEncoded;
     private byte[] result;
     private Set<EntityRef> storedEntities;
 
@@ -44,16 +46,20 @@ public class CompressedChunkBuilder {
      * @param chunkUnloaded if true the chunk data will be used directly.  If deactivate is false then the chunk will be
      *                      but in snapshot mode so that concurrent modifications (and possibly future unload) is
      *                      possible.
+     * @param codec         the codec the encoded chunk gets compressed with.
      */
     public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
                                   Collection<EntityRef> entitiesToSave,
-                                  boolean chunkUnloaded) {
+                                  boolean chunkUnloaded, CompressionCodec codec) {
         EntityStorer storer = new EntityStorer(entityManager);
         entitiesToSave.stream().filter(EntityRef::isPersistent).forEach(storer::store);
         storedEntities = storer.getStoredEntities();
         this.entityStore = storer.finaliseStore();
 
         this.chunk = chunk;
+        this.codec = codec;
+        // read before the snapshot is taken, so a concurrent modification can only make the chunk look changed
+        this.chunkGeneration = chunk.getModificationGeneration();
         this.viaSnapshot = !chunkUnloaded;
         if (viaSnapshot) {
             this.chunk.createSnapshot();
@@ -65,38 +71,52 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
      * @param entityStore encoded entities to be stored.
      * @param chunk       chunk for which {@link ChunkImpl#createSnapshot()} has been called.
      * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
+     * @param codec       the codec the encoded chunk gets compressed with.
      */
-    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot,
+                                  CompressionCodec codec) {
         this.entityStore = entityStore;
         this.chunk = chunk;
+        this.codec = codec;
+        // the generation of the snapshot is unknown, so the chunk keeps counting as modified
+        this.chunkGeneration = -1;
         this.viaSnapshot = viaSnapshot;
     }
 
+    /**
+     * The compressed version of an unloaded chunk is kept, as it gets served from memory until the chunk has been
+     * written. A snapshot can only be encoded once and only the save that took it asks for it, so its compressed
+     * version is not kept. This way a save holds no more compressed chunks in memory than it has in flight.
+     *
+     * @return the compressed chunk store.
+     */
     public synchronized byte[] buildEncodedChunk() {
-        if (result == null) {
-
-            EntityData.ChunkStore.Builder encoded;
-            if (viaSnapshot) {
-                encoded = chunk.encodeAndReleaseSnapshot();
-            } else {
-                encoded = chunk.encode();
-            }
-            encoded.setStore(entityStore);
-            EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+        if (result != null) {
+            return result;
+        }
+        EntityData.ChunkStore.Builder encoded;
+        if (viaSnapshot) {
+            Preconditions.checkState(!snapshotEncoded, "The snapshot of the chunk has already been encoded");
+            snapshotEncoded = true;
+            encoded = chunk.encodeAndReleaseSnapshot();
+        } else {
+            encoded = chunk.encode();
+        }
+        encoded.setStore(entityStore);
+        EntityData.ChunkStore store = encoded.build();
+        byte[] compressed = codec.compress(store.toByteArray());
+        if (!viaSnapshot) {
+            result = compressed;
         }
-        return result;
+        return compressed;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
+    /**
+     * Records that the encoded chunk has been written to disk, so that the chunk does not need to be saved again
+     * until it gets modified.
+     */
+    public void markChunkPersisted() {
+        chunk.markPersisted(chunkGeneration);
     }
 
     public Set<EntityRef> getStoredEntities() {
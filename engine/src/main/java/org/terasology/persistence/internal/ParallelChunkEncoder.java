@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.persistence.internal;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Encodes chunks on a fork-join pool while the encoded chunks get written by the calling thread, in the order in which
+ * the chunks were given.
+ * <br><br>
+ * Only a bounded number of chunks is encoded ahead of the writer, so the memory used for encoded chunks does not grow
+ * with the number of chunks that get saved, as long as the encode function does not keep the encoded chunks itself.
+ *
+ * @param <T> the type of the chunks to encode.
+ */
+class ParallelChunkEncoder<T> {
+
+    private final int parallelism;
+    private final int maxChunksAhead;
+
+    /**
+     * @param parallelism the number of threads that encode chunks.
+     */
+    ParallelChunkEncoder(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "The parameter 'parallelism' has to be greater than zero");
+        this.parallelism = parallelism;
+        this.maxChunksAhead = 4 * parallelism;
+    }
+
+    /**
+     * @return an encoder using all but one of the available processors, leaving one for the game.
+     */
+    static <T> ParallelChunkEncoder<T> createDefault() {
+        return new ParallelChunkEncoder<>(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Encodes all given chunks and passes them to the writer, in the order of the list. Returns once all chunks have
+     * been written. If encoding or writing fails, the chunks that are not encoded yet are skipped.
+     */
+    void encodeAndWrite(List<T> chunks, Function<T, byte[]> encoder, EncodedChunkWriter<T> writer) throws IOException {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, chunks.size()));
+        Deque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>(maxChunksAhead);
+        try {
+            int nextToSubmit = 0;
+            for (T chunk : chunks) {
+                while (nextToSubmit < chunks.size() && pending.size() < maxChunksAhead) {
+                    T chunkToEncode = chunks.get(nextToSubmit++);
+                    pending.addLast(pool.submit(() -> encoder.apply(chunkToEncode)));
+                }
+                writer.write(chunk, pending.removeFirst().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding chunks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to encode chunk", cause);
+        } finally {
+            for (ForkJoinTask<byte[]> task : pending) {
+                task.cancel(false);
+            }
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Receives the encoded chunks.
+     */
+    @FunctionalInterface
+    interface EncodedChunkWriter<T> {
+        void write(T chunk, byte[] encodedChunk) throws IOException;
+    }
+}
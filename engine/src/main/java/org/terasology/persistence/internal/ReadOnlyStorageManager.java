@@ -40,13 +40,13 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
     }
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+                                  BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInRegions) {
+        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInRegions);
     }
 
     @Override
     public void finishSavingAndShutdown() {
-        // don't care
+        getRegionFileCache().closeAll();
     }
 
     @Override
@@ -84,16 +84,18 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
      * This lock should be hold during read and write operation in the world directory. Currently it is being hold
      * during reads of chunks or players as they are crruently the only data that needs to be loaded during the game.
      * <br><br>
-     * This lock ensures that reading threads can properly finish reading even when for example the ZIP file with the
-     * chunks got replaced with a newer version. Chunks that are getting saved get loaded from memory. It can however
-     * still be that a thread tries to load another chunk from the same ZIP file that contains the chunk that needs to
-     * be saved. Thus it can potentially happen that 2 threads want to read/write the same ZIP file with chunks.
+     * This lock ensures that reading threads can properly finish reading even when for example the region file with
+     * the chunks gets the changes of a save written into it. Chunks that are getting saved get loaded from memory. It
+     * can however still be that a thread tries to load another chunk from the same region file that contains the chunk
+     * that needs to be saved. Thus it can potentially happen that 2 threads want to read/write the same region file.
      */
     private final ReadWriteLock worldDirectoryLock = new ReentrantReadWriteLock(true);
     private final Lock worldDirectoryReadLock = worldDirectoryLock.readLock();
     private final Lock worldDirectoryWriteLock = worldDirectoryLock.writeLock();
     private SaveTransaction saveTransaction;
     private Config config;
+    private int encodedChunksOfLastSave;
+    private int skippedChunksOfLastSave;
 
     /**
      * Time of the next save in the format that {@link System#currentTimeMillis()} returns.
@@ -120,15 +122,15 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
     }
 
     public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) throws IOException {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInRegions) throws IOException {
+        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInRegions);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
         // TODO Ensure that the component library and the type serializer library are thread save (e.g. immutable)
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
-        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
+        this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider(), getRegionFileCache());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
@@ -148,6 +150,7 @@ private static EngineEntityManager createPrivateEntityManager(ComponentLibrary c
     public void finishSavingAndShutdown() {
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        getRegionFileCache().closeAll();
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -158,6 +161,8 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
                 if (t != null) {
                     throw new RuntimeException("Saving failed", t);
                 }
+                encodedChunksOfLastSave = result.getEncodedChunks();
+                skippedChunksOfLastSave = result.getSkippedChunks();
                 saveTransaction = null;
             }
             unloadedAndSavingChunkMap.clear();
@@ -245,7 +250,8 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock);
+                entitySetDeltaRecorder, isStoreChunksInRegions(), getChunkCompressionCodec(), getStoragePathProvider(),
+                getRegionFileCache(), worldDirectoryWriteLock);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
@@ -308,11 +314,16 @@ public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
         unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+                entitiesOfChunk, true, getChunkCompressionCodec()));
 
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
     }
 
+    @Override
+    protected boolean hasUnsavedChunkData(Vector3i chunkPos) {
+        return unloadedAndUnsavedChunkMap.containsKey(chunkPos) || unloadedAndSavingChunkMap.containsKey(chunkPos);
+    }
+
     @Override
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
         CompressedChunkBuilder disposedUnsavedChunk = unloadedAndUnsavedChunkMap.get(chunkPos);
@@ -364,6 +375,7 @@ private void addGameManifestToSaveTransaction(SaveTransactionBuilder saveTransac
         }
         gameManifest.setBiomeIdMap(biomeIdMap);
         gameManifest.addWorld(worldProvider.getWorldInfo());
+        gameManifest.setChunkCompressionCodec(getChunkCompressionCodec().getName());
         saveTransactionBuilder.setGameManifest(gameManifest);
     }
 
@@ -454,6 +466,20 @@ private void scheduleNextAutoSave() {
         nextAutoSave = System.currentTimeMillis() + msBetweenAutoSave;
     }
 
+    /**
+     * @return the number of chunks the last completed save encoded and wrote.
+     */
+    public int getEncodedChunksOfLastSave() {
+        return encodedChunksOfLastSave;
+    }
+
+    /**
+     * @return the number of loaded chunks the last completed save skipped, as they had not changed.
+     */
+    public int getSkippedChunksOfLastSave() {
+        return skippedChunksOfLastSave;
+    }
+
     @Override
     public boolean isSaving() {
         return saveTransaction != null && saveTransaction.getResult() == null;
@@ -465,6 +491,9 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
         }
+        if (isStoreChunksInRegions()) {
+            new ChunkZipConverter(getStoragePathProvider(), getRegionFileCache()).convertAll();
+        }
     }
 
 
@@ -475,6 +504,7 @@ public void deleteWorld() {
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        getRegionFileCache().closeAll();
 
         try {
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
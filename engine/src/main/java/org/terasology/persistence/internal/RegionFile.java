@@ -0,0 +1,299 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.persistence.internal;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A region file stores the encoded chunks of one chunk group (see {@link StoragePathProvider#getChunkRegionPosition})
+ * in a single file.
+ * <br><br>
+ * The file is divided into sectors of {@link #SECTOR_SIZE} bytes. The first sectors hold a fixed header: a magic
+ * number, the format version and, for every chunk slot, the sector the chunk starts at and its length in bytes.
+ * Chunks occupy consecutive sectors. A chunk that still fits into its sectors is rewritten in place, otherwise it is
+ * moved to the first run of free sectors that is large enough or appended to the end of the file. Only the sectors of
+ * the chunk and its header entry are written, the rest of the file is left untouched.
+ * <br><br>
+ * Reads and writes go through the file channel without memory mapping the file, so that nothing keeps the file
+ * open once it has been closed and it can be deleted right away on every platform. All methods are synchronized,
+ * the file may however not be modified by other instances at the same time.
+ *
+ */
+public final class RegionFile implements Closeable {
+
+    public static final int SECTOR_SIZE = 4096;
+    public static final int MAX_CHUNKS = 32 * 32 * 32;
+
+    private static final int MAGIC = 0x54524547; // "TREG"
+    private static final int VERSION = 1;
+    private static final int PREAMBLE_BYTES = 8;
+    private static final int ENTRY_BYTES = 8;
+    private static final int HEADER_SECTORS = (PREAMBLE_BYTES + MAX_CHUNKS * ENTRY_BYTES + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] sectorOffsets = new int[MAX_CHUNKS];
+    private final int[] lengths = new int[MAX_CHUNKS];
+    private final BitSet usedSectors = new BitSet();
+    private final ByteBuffer entryBuffer = ByteBuffer.allocate(ENTRY_BYTES);
+    private int chunkCount;
+
+    private RegionFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens an existing region file for reading and writing.
+     *
+     * @throws IOException if the file does not exist or is not a valid region file.
+     */
+    public static RegionFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RegionFile regionFile = new RegionFile(path, channel);
+        try {
+            regionFile.readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return regionFile;
+    }
+
+    /**
+     * Creates a new, empty region file. An existing file at the given path gets replaced.
+     */
+    public static RegionFile create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        RegionFile regionFile = new RegionFile(path, channel);
+        try {
+            regionFile.writeEmptyHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return regionFile;
+    }
+
+    /**
+     * Opens the region file at the given path, creating it if it does not exist yet.
+     */
+    public static RegionFile openOrCreate(Path path) throws IOException {
+        if (Files.isRegularFile(path)) {
+            return open(path);
+        }
+        return create(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized int getChunkCount() {
+        return chunkCount;
+    }
+
+    public synchronized boolean contains(int index) {
+        checkIndex(index);
+        return lengths[index] > 0;
+    }
+
+    /**
+     * @return the indices of all chunks stored in this file, in ascending order.
+     */
+    public synchronized TIntList getChunkIndices() {
+        TIntList result = new TIntArrayList(chunkCount);
+        for (int i = 0; i < MAX_CHUNKS; i++) {
+            if (lengths[i] > 0) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the data stored for the given chunk index or null if there is none.
+     */
+    public synchronized byte[] read(int index) throws IOException {
+        checkIndex(index);
+        int length = lengths[index];
+        if (length == 0) {
+            return null;
+        }
+        ByteBuffer result = ByteBuffer.allocate(length);
+        readFully(result, (long) sectorOffsets[index] * SECTOR_SIZE);
+        return result.array();
+    }
+
+    /**
+     * Stores the data of the given chunk index, replacing any previous data.
+     */
+    public synchronized void write(int index, byte[] data) throws IOException {
+        checkIndex(index);
+        Preconditions.checkArgument(data.length > 0, "Chunk data must not be empty");
+        int neededSectors = sectorsFor(data.length);
+        int offset = sectorOffsets[index];
+        if (lengths[index] == 0 || sectorsFor(lengths[index]) < neededSectors) {
+            if (lengths[index] > 0) {
+                usedSectors.clear(offset, offset + sectorsFor(lengths[index]));
+            }
+            offset = findFreeSectors(neededSectors);
+        } else {
+            usedSectors.clear(offset + neededSectors, offset + sectorsFor(lengths[index]));
+        }
+        writeFully(ByteBuffer.wrap(data), (long) offset * SECTOR_SIZE);
+        usedSectors.set(offset, offset + neededSectors);
+        if (lengths[index] == 0) {
+            chunkCount++;
+        }
+        writeEntry(index, offset, data.length);
+    }
+
+    /**
+     * Removes the data of the given chunk index. Its sectors get reused by later writes.
+     */
+    public synchronized void delete(int index) throws IOException {
+        checkIndex(index);
+        if (lengths[index] == 0) {
+            return;
+        }
+        usedSectors.clear(sectorOffsets[index], sectorOffsets[index] + sectorsFor(lengths[index]));
+        chunkCount--;
+        writeEntry(index, 0, 0);
+    }
+
+    /**
+     * Writes all chunks of this file into the given region file, replacing the data the target had for them.
+     */
+    public synchronized void copyChunksTo(RegionFile target) throws IOException {
+        for (int i = 0; i < MAX_CHUNKS; i++) {
+            if (lengths[i] > 0) {
+                ByteBuffer data = ByteBuffer.allocate(lengths[i]);
+                readFully(data, (long) sectorOffsets[i] * SECTOR_SIZE);
+                target.write(i, data.array());
+            }
+        }
+    }
+
+    /**
+     * Forces all writes to the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkIndex(int index) {
+        Preconditions.checkElementIndex(index, MAX_CHUNKS, "chunk index");
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    private int findFreeSectors(int count) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int nextUsed = usedSectors.nextSetBit(start);
+            if (nextUsed < 0 || nextUsed - start >= count) {
+                return start;
+            }
+            start = usedSectors.nextClearBit(nextUsed);
+        }
+    }
+
+    private void writeEntry(int index, int sectorOffset, int length) throws IOException {
+        sectorOffsets[index] = sectorOffset;
+        lengths[index] = length;
+        entryBuffer.clear();
+        entryBuffer.putInt(sectorOffset).putInt(length).flip();
+        writeFully(entryBuffer, PREAMBLE_BYTES + (long) index * ENTRY_BYTES);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            current += channel.write(buffer, current);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("Unexpected end of region file " + path);
+            }
+            current += read;
+        }
+    }
+
+    private void writeEmptyHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).rewind();
+        writeFully(header, 0);
+        usedSectors.set(0, HEADER_SECTORS);
+    }
+
+    private void readHeader() throws IOException {
+        long size = channel.size();
+        if (size < (long) HEADER_SECTORS * SECTOR_SIZE) {
+            throw new IOException("Region file " + path + " is truncated");
+        }
+        ByteBuffer header = ByteBuffer.allocate(PREAMBLE_BYTES + MAX_CHUNKS * ENTRY_BYTES);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException(path + " is not a region file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Region file " + path + " has unsupported version " + version);
+        }
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int i = 0; i < MAX_CHUNKS; i++) {
+            int offset = header.getInt();
+            int length = header.getInt();
+            if (length <= 0) {
+                continue;
+            }
+            if (offset < HEADER_SECTORS || (long) offset * SECTOR_SIZE + length > size) {
+                throw new IOException("Region file " + path + " has an invalid entry for chunk " + i);
+            }
+            sectorOffsets[i] = offset;
+            lengths[i] = length;
+            usedSectors.set(offset, offset + sectorsFor(length));
+            chunkCount++;
+        }
+    }
+}
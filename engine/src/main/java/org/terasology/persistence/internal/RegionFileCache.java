@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Keeps the region files of a save game open, so that the header of a region file only needs to be read once and
+ * chunk reads can be served from its memory mapping.
+ * <br><br>
+ * All region files of a save game have to be accessed via the same cache, as a {@link RegionFile} assumes that no
+ * other instance modifies its file.
+ *
+ */
+public class RegionFileCache {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileCache.class);
+
+    private final Map<Path, RegionFile> openFiles = Maps.newHashMap();
+
+    /**
+     * @return the open region file at the given path or null if the file does not exist.
+     */
+    public synchronized RegionFile get(Path path) throws IOException {
+        RegionFile regionFile = openFiles.get(path);
+        if (regionFile == null && Files.isRegularFile(path)) {
+            regionFile = RegionFile.open(path);
+            openFiles.put(path, regionFile);
+        }
+        return regionFile;
+    }
+
+    /**
+     * @return the open region file at the given path, which gets created if it does not exist.
+     */
+    public synchronized RegionFile getOrCreate(Path path) throws IOException {
+        RegionFile regionFile = get(path);
+        if (regionFile == null) {
+            regionFile = RegionFile.create(path);
+            openFiles.put(path, regionFile);
+        }
+        return regionFile;
+    }
+
+    /**
+     * Closes all open region files, e.g. before the files get deleted.
+     */
+    public synchronized void closeAll() {
+        for (RegionFile regionFile : openFiles.values()) {
+            try {
+                regionFile.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close region file {}", regionFile.getPath(), e);
+            }
+        }
+        openFiles.clear();
+    }
+}
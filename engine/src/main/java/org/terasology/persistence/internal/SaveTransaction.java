@@ -15,14 +15,16 @@
  */
 package org.terasology.persistence.internal;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.OwnershipHelper;
 import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
@@ -30,25 +32,21 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.network.ClientComponent;
 import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.compression.CompressionCodec;
 import org.terasology.utilities.concurrency.AbstractTask;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.URI;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AtomicMoveNotSupportedException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -63,8 +61,9 @@
  */
 public class SaveTransaction extends AbstractTask {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransaction.class);
+    private static final Comparator<Vector3i> POSITION_ORDER = Comparator.<Vector3i>comparingInt(pos -> pos.x)
+            .thenComparingInt(pos -> pos.y).thenComparingInt(pos -> pos.z);
 
-    private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
     private final GameManifest gameManifest;
     private final Lock worldDirectoryWriteLock;
     private final EngineEntityManager privateEntityManager;
@@ -82,22 +81,28 @@ public class SaveTransaction extends AbstractTask {
     private EntityData.GlobalStore globalStore;
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
+    private List<CompressedChunkBuilder> loadedChunkBuilders;
+    private Set<Vector3i> chunksWithChangedEntities;
+    private int skippedChunks;
 
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final boolean storeChunksInRegions;
+    private final CompressionCodec chunkCompressionCodec;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
+    private final OwnershipHelper ownershipHelper;
 
 
     public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock) {
+                           GameManifest gameManifest, boolean storeChunksInRegions,
+                           CompressionCodec chunkCompressionCodec, StoragePathProvider storagePathProvider, RegionFileCache regionFileCache,
+                           Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.unloadedPlayers = unloadedPlayers;
@@ -106,9 +111,11 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.loadedChunks = loadedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.storeChunksInRegions = storeChunksInRegions;
+        this.chunkCompressionCodec = chunkCompressionCodec;
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider, regionFileCache);
+        this.ownershipHelper = new OwnershipHelper(privateEntityManager.getComponentLibrary());
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -126,7 +133,10 @@ public void run() {
                 throw new IOException("Save rand while there were unmerged changes");
             }
             saveTransactionHelper.cleanupSaveTransactionDirectory();
+            TLongSet changedEntityIds = getChangedEntityIds();
+            chunksWithChangedEntities = findChunksWithChangedEntities(changedEntityIds);
             applyDeltaToPrivateEntityManager();
+            chunksWithChangedEntities.addAll(findChunksWithChangedEntities(changedEntityIds));
             prepareChunksPlayersAndGlobalStore();
             createSaveTransactionDirectory();
             writePlayerStores();
@@ -135,8 +145,9 @@ public void run() {
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
-            result = SaveTransactionResult.createSuccessResult();
-            logger.info("Save game finished");
+            loadedChunkBuilders.forEach(CompressedChunkBuilder::markChunkPersisted);
+            result = SaveTransactionResult.createSuccessResult(allChunks.size(), skippedChunks);
+            logger.info("Save game finished, {} chunks encoded, {} unchanged chunks skipped", allChunks.size(), skippedChunks);
         } catch (IOException | RuntimeException t) {
             logger.error("Save game creation failed", t);
             result = SaveTransactionResult.createFailureResult(t);
@@ -168,6 +179,8 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
 
         allChunks = Maps.newHashMap();
         allChunks.putAll(unloadedChunks);
+        loadedChunkBuilders = Lists.newArrayList();
+        skippedChunks = 0;
         for (Map.Entry<Vector3i, ChunkImpl> chunkEntry : loadedChunks.entrySet()) {
             Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunkEntry.getKey());
             if (entitiesToStore == null) {
@@ -175,10 +188,65 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
             }
             ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
+            if (!chunk.isModifiedSincePersisted() && !chunksWithChangedEntities.contains(chunkEntry.getKey())) {
+                // The saved version of the chunk is still up to date, including the entities stored with it
+                unsavedEntities.removeAll(collectStoredEntities(entitiesToStore));
+                skippedChunks++;
+                continue;
+            }
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCompressionCodec);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
+            loadedChunkBuilders.add(compressedChunkBuilder);
+        }
+    }
+
+    private TLongSet getChangedEntityIds() {
+        TLongSet changedEntityIds = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
+        changedEntityIds.addAll(deltaToSave.getDestroyedEntities());
+        changedEntityIds.addAll(deltaToSave.getDeactivatedEntities());
+        return changedEntityIds;
+    }
+
+    /**
+     * Determines the chunks whose stored entities include one of the given entities, based on the current state of
+     * the private entity manager. Calling this before and after the delta got applied finds the chunks that entities
+     * got added to or removed from as well.
+     */
+    private Set<Vector3i> findChunksWithChangedEntities(TLongSet changedEntityIds) {
+        Set<Vector3i> result = new HashSet<>();
+        if (changedEntityIds.isEmpty()) {
+            return result;
+        }
+        for (Map.Entry<Vector3i, Collection<EntityRef>> entry : createChunkPosToUnsavedOwnerLessEntitiesMap().entrySet()) {
+            for (EntityRef entity : collectStoredEntities(entry.getValue())) {
+                if (changedEntityIds.contains(entity.getId())) {
+                    result.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the entities a {@link CompressedChunkBuilder} would store for the given entities, i.e. including the
+     * entities owned by them.
+     */
+    private Set<EntityRef> collectStoredEntities(Collection<EntityRef> entities) {
+        Set<EntityRef> result = new HashSet<>();
+        entities.stream().filter(EntityRef::isPersistent).forEach(entity -> collectStoredEntities(entity, result));
+        return result;
+    }
+
+    private void collectStoredEntities(EntityRef entity, Set<EntityRef> result) {
+        if (entity.isActive() && result.add(entity)) {
+            for (EntityRef ownedEntity : ownershipHelper.listOwnedEntities(entity)) {
+                if (!ownedEntity.isAlwaysRelevant() && ownedEntity.isPersistent()) {
+                    collectStoredEntities(ownedEntity, result);
+                }
+            }
         }
     }
 
@@ -345,61 +413,47 @@ private void writeGlobalStore() throws IOException {
         }
     }
 
+    /**
+     * Writes the chunks ordered by region file and position within it. The chunks get encoded in parallel, which
+     * doesn't change the files that get written.
+     */
     private void writeChunkStores() throws IOException {
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
-            Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-                FileSystem zip = newChunkZips.get(chunkZipPos);
-                if (zip == null) {
-                    Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
-                    Files.deleteIfExists(targetPath);
-                    zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS);
-                    newChunkZips.put(chunkZipPos, zip);
-                }
-                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    bos.write(compressedChunk);
+        List<Vector3i> chunkPositions = Lists.newArrayList(allChunks.keySet());
+        chunkPositions.sort(Comparator.comparing(storagePathProvider::getChunkRegionPosition, POSITION_ORDER)
+                .thenComparingInt(storagePathProvider::getChunkRegionIndex));
+        ParallelChunkEncoder<Vector3i> encoder = ParallelChunkEncoder.createDefault();
+        if (storeChunksInRegions) {
+            // The region files only contain the changed chunks, they get written into the existing ones on merge
+            Map<Vector3i, RegionFile> newChunkRegions = Maps.newHashMap();
+            try {
+                encoder.encodeAndWrite(chunkPositions, chunkPos -> allChunks.get(chunkPos).buildEncodedChunk(),
+                        (chunkPos, compressedChunk) -> {
+                            Vector3i chunkRegionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+                            RegionFile regionFile = newChunkRegions.get(chunkRegionPos);
+                            if (regionFile == null) {
+                                regionFile = RegionFile.create(storagePathProvider.getChunkRegionTempPath(chunkRegionPos));
+                                newChunkRegions.put(chunkRegionPos, regionFile);
+                            }
+                            regionFile.write(storagePathProvider.getChunkRegionIndex(chunkPos), compressedChunk);
+                        });
+                for (RegionFile regionFile : newChunkRegions.values()) {
+                    regionFile.flush();
                 }
-            }
-            // Copy existing, unmodified content into the zips and close them
-            for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
-                Vector3i chunkZipPos = chunkZipEntry.getKey();
-                Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
-                final FileSystem zip = chunkZipEntry.getValue();
-                if (Files.isRegularFile(oldChunkZipPath)) {
-                    try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
-                        for (Path root : oldZip.getRootDirectories()) {
-                            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
-                                @Override
-                                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                                        throws IOException {
-                                    if (!Files.isRegularFile(zip.getPath(file.toString()))) {
-                                        Files.copy(file, zip.getPath(file.toString()));
-                                    }
-                                    return FileVisitResult.CONTINUE;
-                                }
-                            });
-                        }
-                    }
+            } finally {
+                for (RegionFile regionFile : newChunkRegions.values()) {
+                    regionFile.close();
                 }
-                zip.close();
             }
         } else {
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
-                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    out.write(compressedChunk);
-                }
-            }
+            encoder.encodeAndWrite(chunkPositions, chunkPos -> allChunks.get(chunkPos).buildEncodedChunk(),
+                    (chunkPos, compressedChunk) -> {
+                        Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
+                        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                            out.write(compressedChunk);
+                        }
+                    });
         }
     }
 
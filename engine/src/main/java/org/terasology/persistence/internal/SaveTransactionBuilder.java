@@ -20,6 +20,7 @@
 import org.terasology.game.GameManifest;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.compression.CompressionCodec;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
@@ -38,17 +39,22 @@ class SaveTransactionBuilder {
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final boolean storeChunksInRegions;
+    private final CompressionCodec chunkCompressionCodec;
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
     private GameManifest gameManifest;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
+                           boolean storeChunksInRegions, CompressionCodec chunkCompressionCodec,
+                           StoragePathProvider storagePathProvider, RegionFileCache regionFileCache,
                            Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.storeChunksInRegions = storeChunksInRegions;
+        this.chunkCompressionCodec = chunkCompressionCodec;
         this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -75,8 +81,8 @@ public void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk)
 
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock);
+                unloadedChunks, loadedChunks, gameManifest, storeChunksInRegions, chunkCompressionCodec,
+                storagePathProvider, regionFileCache, worldDirectoryWriteLock);
 
     }
 
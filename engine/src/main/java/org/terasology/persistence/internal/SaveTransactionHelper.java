@@ -35,9 +35,11 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
 
-    public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+    public SaveTransactionHelper(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
         this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -64,6 +66,10 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
      * Merges all outstanding changes into the save game. If this operation gets interrupted it can be started again
      * without any file corruption when the file system supports atomic moves.
      * <br><br>
+     * Region files are not moved but contain only the chunks that changed, which get written into the region files
+     * of the save game. The changes are deleted once they have been written, so writing them again after an
+     * interruption leads to the same result.
+     * <br><br>
      * The write lock for the save directory should be acquired before this method gets called.
      */
     public void mergeChanges() throws IOException {
@@ -85,6 +91,10 @@ public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes
             @Override
             public FileVisitResult visitFile(Path sourcePath, BasicFileAttributes attrs) throws IOException {
                 Path targetPath = targetDirectory.resolve(sourceDirectory.relativize(sourcePath));
+                if (storagePathProvider.isChunkRegionPath(sourcePath)) {
+                    mergeRegionFile(sourcePath, targetPath);
+                    return FileVisitResult.CONTINUE;
+                }
                 try {
                     // Delete file, as behavior of atomic move is undefined if target file exists:
                     Files.deleteIfExists(targetPath);
@@ -122,4 +132,13 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
             }
         });
     }
+
+    private void mergeRegionFile(Path sourcePath, Path targetPath) throws IOException {
+        RegionFile target = regionFileCache.getOrCreate(targetPath);
+        try (RegionFile source = RegionFile.open(sourcePath)) {
+            source.copyChunksTo(target);
+        }
+        target.flush();
+        Files.delete(sourcePath);
+    }
 }
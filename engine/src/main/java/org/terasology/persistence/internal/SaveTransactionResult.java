@@ -20,17 +20,21 @@
  */
 final class SaveTransactionResult {
     private final Throwable catchedThrowable;
+    private final int encodedChunks;
+    private final int skippedChunks;
 
-    private SaveTransactionResult(Throwable catchedThrowable) {
+    private SaveTransactionResult(Throwable catchedThrowable, int encodedChunks, int skippedChunks) {
         this.catchedThrowable = catchedThrowable;
+        this.encodedChunks = encodedChunks;
+        this.skippedChunks = skippedChunks;
     }
 
-    static  SaveTransactionResult createSuccessResult() {
-        return new SaveTransactionResult(null);
+    static  SaveTransactionResult createSuccessResult(int encodedChunks, int skippedChunks) {
+        return new SaveTransactionResult(null, encodedChunks, skippedChunks);
     }
 
     static  SaveTransactionResult createFailureResult(Throwable catchedThrowable) {
-        return new SaveTransactionResult(catchedThrowable);
+        return new SaveTransactionResult(catchedThrowable, 0, 0);
     }
 
     public boolean isSuccess() {
@@ -40,4 +44,18 @@ public boolean isSuccess() {
     public Throwable getCatchedThrowable() {
         return catchedThrowable;
     }
+
+    /**
+     * @return the number of chunks that got encoded and written, including unloaded chunks.
+     */
+    public int getEncodedChunks() {
+        return encodedChunks;
+    }
+
+    /**
+     * @return the number of loaded chunks that were not saved, as they did not change since they were last saved.
+     */
+    public int getSkippedChunks() {
+        return skippedChunks;
+    }
 }
@@ -30,7 +30,10 @@ public class StoragePathProvider {
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
-    private static final int CHUNK_ZIP_DIM = 32;
+    private static final String CHUNK_EXTENSION = ".chunk";
+    private static final String CHUNK_ZIP_EXTENSION = ".chunks.zip";
+    private static final String CHUNK_REGION_EXTENSION = ".chunks.region";
+    private static final int CHUNK_REGION_DIM = 32;
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -81,13 +84,27 @@ public Path getWorldTempPath() {
         return unfinishedSaveTransactionPath.resolve(WORLDS_PATH).resolve(TerasologyConstants.MAIN_WORLD);
     }
 
+    /**
+     * @return the path of a chunk zip as written by older versions, which stored chunk groups in zip files.
+     */
     public Path getChunkZipPath(Vector3i chunkZipPos) {
         return worldPath.resolve(getChunkZipFilename(chunkZipPos));
     }
 
+    public Path getChunkRegionPath(Vector3i chunkRegionPos) {
+        return worldPath.resolve(getChunkRegionFilename(chunkRegionPos));
+    }
+
+    public Path getChunkRegionTempPath(Vector3i chunkRegionPos) {
+        return getWorldTempPath().resolve(getChunkRegionFilename(chunkRegionPos));
+    }
+
+    public boolean isChunkRegionPath(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_REGION_EXTENSION);
+    }
 
-    public Path getChunkZipTempPath(Vector3i chunkZipPos) {
-        return getWorldTempPath().resolve(getChunkZipFilename(chunkZipPos));
+    public boolean isChunkZipPath(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_ZIP_EXTENSION);
     }
 
     public Path getGlobalEntityStorePath() {
@@ -99,17 +116,42 @@ public Path getGlobalEntityStoreTempPath() {
     }
 
     public String getChunkFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunk", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_EXTENSION, pos.x, pos.y, pos.z);
     }
 
 
+    /**
+     * @return the position of the chunk with the given file name, or null if it is not the name of a chunk file.
+     */
+    public Vector3i parseChunkFilename(String filename) {
+        if (!filename.endsWith(CHUNK_EXTENSION)) {
+            return null;
+        }
+        String[] parts = filename.substring(0, filename.length() - CHUNK_EXTENSION.length()).split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private String getChunkZipFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunks.zip", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_ZIP_EXTENSION, pos.x, pos.y, pos.z);
+    }
+
+    private String getChunkRegionFilename(Vector3i pos) {
+        return String.format("%d.%d.%d" + CHUNK_REGION_EXTENSION, pos.x, pos.y, pos.z);
     }
 
+    /**
+     * @return the position of the chunk zip that older versions stored the given chunk in.
+     */
     public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         Vector3i result = new Vector3i(chunkPos);
-        result.div(CHUNK_ZIP_DIM);
+        result.div(CHUNK_REGION_DIM);
         if (chunkPos.x < 0) {
             result.x -= 1;
         }
@@ -122,6 +164,21 @@ public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         return result;
     }
 
+    public Vector3i getChunkRegionPosition(Vector3i chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x, CHUNK_REGION_DIM), Math.floorDiv(chunkPos.y, CHUNK_REGION_DIM),
+                Math.floorDiv(chunkPos.z, CHUNK_REGION_DIM));
+    }
+
+    /**
+     * @return the index of the chunk within the region file of {@link #getChunkRegionPosition(Vector3i)}.
+     */
+    public int getChunkRegionIndex(Vector3i chunkPos) {
+        int x = Math.floorMod(chunkPos.x, CHUNK_REGION_DIM);
+        int y = Math.floorMod(chunkPos.y, CHUNK_REGION_DIM);
+        int z = Math.floorMod(chunkPos.z, CHUNK_REGION_DIM);
+        return x + CHUNK_REGION_DIM * (z + CHUNK_REGION_DIM * y);
+    }
+
     public Path getChunkPath(Vector3i chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
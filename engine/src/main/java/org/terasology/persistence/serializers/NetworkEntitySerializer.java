@@ -34,6 +34,7 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.network.serialization.ReplicationBaseline;
 import org.terasology.persistence.typeHandling.PersistedData;
 import org.terasology.persistence.typeHandling.Serializer;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
@@ -202,6 +203,48 @@ private void serializeComponentFull(Component component, boolean ignoreIfNoField
         }
     }
 
+    /**
+     * Serializes the fields of a changed component which differ from the baseline, and records them as sent.
+     */
+    private void serializeComponentChanges(long entityId, Component component, ReplicationBaseline baseline, FieldSerializeCheck<Component> fieldCheck,
+                                           EntityData.PackedEntity.Builder entityData, ByteString.Output entityFieldIds,
+                                           ByteString.Output componentFieldCounts) {
+        ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(component.getClass());
+        if (componentMetadata == null) {
+            logger.error("Unregistered component type: {}", component.getClass());
+            return;
+        }
+
+        Serializer serializer = typeSerializationLibrary.getSerializerFor(componentMetadata);
+        byte fieldCount = 0;
+        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+            if (fieldCheck.shouldSerializeField(field, component, false) && baseline.hasChanged(entityId, field, component)) {
+                PersistedData fieldValue = serializer.serialize(field, component, serializationContext);
+                entityFieldIds.write(field.getId());
+                entityData.addFieldValue(((ProtobufPersistedData) fieldValue).getValue());
+                baseline.record(entityId, field, component);
+                fieldCount++;
+            }
+        }
+
+        if (fieldCount != 0) {
+            entityData.addComponentId(idTable.get(component.getClass()));
+            componentFieldCounts.write(fieldCount);
+        }
+    }
+
+    /**
+     * Records the fields of an added component, which is sent to every client that knows the entity.
+     */
+    private void recordFields(ReplicationBaseline baseline, long entityId, ComponentMetadata<?> componentMetadata, Component component,
+                              FieldSerializeCheck<Component> fieldCheck) {
+        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+            if (fieldCheck.shouldSerializeField(field, component, true)) {
+                baseline.record(entityId, field, component);
+            }
+        }
+    }
+
     public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedEntity entityData) {
         deserializeOnto(entity, entityData, FieldSerializeCheck.NullCheck.<Component>newInstance());
     }
@@ -273,6 +316,19 @@ public EntityRef deserialize(EntityData.PackedEntity entityData) {
 
     public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
                                              Set<Class<? extends Component>> removed, FieldSerializeCheck<Component> fieldCheck) {
+        return serialize(entityRef, added, changed, removed, fieldCheck, null);
+    }
+
+    /**
+     * Serializes the changes of the entity.
+     *
+     * @param baseline the values the client already knows, so only the fields of changed components that differ from
+     *                 them are sent. May be null to send all fields of changed components.
+     * @return the changes or null if there are none to send.
+     */
+    public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                                             Set<Class<? extends Component>> removed, FieldSerializeCheck<Component> fieldCheck,
+                                             ReplicationBaseline baseline) {
         EntityData.PackedEntity.Builder entity = EntityData.PackedEntity.newBuilder();
 
         ByteString.Output fieldIds = ByteString.newOutput();
@@ -283,11 +339,18 @@ public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extend
                 logger.error("Non-existent component marked as added: {}", componentType);
             }
             serializeComponentFull(entityRef.getComponent(componentType), false, fieldCheck, entity, fieldIds, componentFieldCounts, true);
+            if (component != null && baseline != null) {
+                recordFields(baseline, entityRef.getId(), componentLibrary.getMetadata(componentType), component, fieldCheck);
+            }
         }
         for (Class<? extends Component> componentType : changed) {
             Component comp = entityRef.getComponent(componentType);
             if (comp != null) {
-                serializeComponentFull(comp, true, fieldCheck, entity, fieldIds, componentFieldCounts, false);
+                if (baseline != null) {
+                    serializeComponentChanges(entityRef.getId(), comp, baseline, fieldCheck, entity, fieldIds, componentFieldCounts);
+                } else {
+                    serializeComponentFull(comp, true, fieldCheck, entity, fieldIds, componentFieldCounts, false);
+                }
             } else {
                 logger.error("Non-existent component marked as changed: {}", componentType);
             }
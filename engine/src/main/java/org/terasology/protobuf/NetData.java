@@ -6247,6 +6247,23 @@ public interface HandshakeHelloOrBuilder extends
      * <code>optional sint64 timestamp = 3;</code>
      */
     long getTimestamp();
+
+    /**
+     * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+     *
+     * <pre>
+     * The network protocol version of the sender, peers which do not send it use the first version
+     * </pre>
+     */
+    boolean hasProtocolVersion();
+    /**
+     * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+     *
+     * <pre>
+     * The network protocol version of the sender, peers which do not send it use the first version
+     * </pre>
+     */
+    int getProtocolVersion();
   }
   /**
    * Protobuf type {@code HandshakeHello}
@@ -6324,6 +6341,11 @@ private HandshakeHello(
               timestamp_ = input.readSInt64();
               break;
             }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              protocolVersion_ = input.readInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -6415,10 +6437,34 @@ public long getTimestamp() {
       return timestamp_;
     }
 
+    public static final int PROTOCOLVERSION_FIELD_NUMBER = 4;
+    private int protocolVersion_;
+    /**
+     * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+     *
+     * <pre>
+     * The network protocol version of the sender, peers which do not send it use the first version
+     * </pre>
+     */
+    public boolean hasProtocolVersion() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+     *
+     * <pre>
+     * The network protocol version of the sender, peers which do not send it use the first version
+     * </pre>
+     */
+    public int getProtocolVersion() {
+      return protocolVersion_;
+    }
+
     private void initFields() {
       random_ = com.google.protobuf.ByteString.EMPTY;
       certificate_ = org.terasology.protobuf.NetData.Certificate.getDefaultInstance();
       timestamp_ = 0L;
+      protocolVersion_ = 1;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -6455,6 +6501,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         output.writeSInt64(3, timestamp_);
       }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt32(4, protocolVersion_);
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -6477,6 +6526,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeSInt64Size(3, timestamp_);
       }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, protocolVersion_);
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -6607,6 +6660,8 @@ public Builder clear() {
         bitField0_ = (bitField0_ & ~0x00000002);
         timestamp_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000004);
+        protocolVersion_ = 1;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -6651,6 +6706,10 @@ public org.terasology.protobuf.NetData.HandshakeHello buildPartial() {
           to_bitField0_ |= 0x00000004;
         }
         result.timestamp_ = timestamp_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.protocolVersion_ = protocolVersion_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -6676,6 +6735,9 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.HandshakeHello other) {
         if (other.hasTimestamp()) {
           setTimestamp(other.getTimestamp());
         }
+        if (other.hasProtocolVersion()) {
+          setProtocolVersion(other.getProtocolVersion());
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -6897,6 +6959,54 @@ public Builder clearTimestamp() {
         return this;
       }
 
+      private int protocolVersion_ = 1;
+      /**
+       * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+       *
+       * <pre>
+       * The network protocol version of the sender, peers which do not send it use the first version
+       * </pre>
+       */
+      public boolean hasProtocolVersion() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+       *
+       * <pre>
+       * The network protocol version of the sender, peers which do not send it use the first version
+       * </pre>
+       */
+      public int getProtocolVersion() {
+        return protocolVersion_;
+      }
+      /**
+       * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+       *
+       * <pre>
+       * The network protocol version of the sender, peers which do not send it use the first version
+       * </pre>
+       */
+      public Builder setProtocolVersion(int value) {
+        bitField0_ |= 0x00000008;
+        protocolVersion_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 protocolVersion = 4 [default = 1];</code>
+       *
+       * <pre>
+       * The network protocol version of the sender, peers which do not send it use the first version
+       * </pre>
+       */
+      public Builder clearProtocolVersion() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        protocolVersion_ = 1;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:HandshakeHello)
     }
 
@@ -12933,6 +13043,41 @@ public interface JoinMessageOrBuilder extends
      * <code>optional .Color color = 4;</code>
      */
     org.terasology.protobuf.NetData.ColorOrBuilder getColorOrBuilder();
+
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    com.google.protobuf.ProtocolStringList
+        getCompressionCodecList();
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    int getCompressionCodecCount();
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    java.lang.String getCompressionCodec(int index);
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecBytes(int index);
   }
   /**
    * Protobuf type {@code JoinMessage}
@@ -13017,6 +13162,15 @@ private JoinMessage(
               bitField0_ |= 0x00000008;
               break;
             }
+            case 42: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+                compressionCodec_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              compressionCodec_.add(bs);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -13025,6 +13179,9 @@ private JoinMessage(
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+          compressionCodec_ = compressionCodec_.getUnmodifiableView();
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -13177,11 +13334,57 @@ public org.terasology.protobuf.NetData.ColorOrBuilder getColorOrBuilder() {
       return color_;
     }
 
+    public static final int COMPRESSIONCODEC_FIELD_NUMBER = 5;
+    private com.google.protobuf.LazyStringList compressionCodec_;
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    public com.google.protobuf.ProtocolStringList
+        getCompressionCodecList() {
+      return compressionCodec_;
+    }
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    public int getCompressionCodecCount() {
+      return compressionCodec_.size();
+    }
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    public java.lang.String getCompressionCodec(int index) {
+      return compressionCodec_.get(index);
+    }
+    /**
+     * <code>repeated string compressionCodec = 5;</code>
+     *
+     * <pre>
+     * The compression codecs the client supports, in order of preference
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionCodecBytes(int index) {
+      return compressionCodec_.getByteString(index);
+    }
+
     private void initFields() {
       name_ = "";
       version_ = "";
       viewDistanceLevel_ = 0;
       color_ = org.terasology.protobuf.NetData.Color.getDefaultInstance();
+      compressionCodec_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -13215,6 +13418,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
         output.writeMessage(4, color_);
       }
+      for (int i = 0; i < compressionCodec_.size(); i++) {
+        output.writeBytes(5, compressionCodec_.getByteString(i));
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -13241,6 +13447,15 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(4, color_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < compressionCodec_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeBytesSizeNoTag(compressionCodec_.getByteString(i));
+        }
+        size += dataSize;
+        size += 1 * getCompressionCodecList().size();
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -13373,6 +13588,8 @@ public Builder clear() {
           colorBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000008);
+        compressionCodec_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000010);
         return this;
       }
 
@@ -13421,6 +13638,11 @@ public org.terasology.protobuf.NetData.JoinMessage buildPartial() {
         } else {
           result.color_ = colorBuilder_.build();
         }
+        if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          compressionCodec_ = compressionCodec_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000010);
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -13453,6 +13675,16 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.JoinMessage other) {
         if (other.hasColor()) {
           mergeColor(other.getColor());
         }
+        if (!other.compressionCodec_.isEmpty()) {
+          if (compressionCodec_.isEmpty()) {
+            compressionCodec_ = other.compressionCodec_;
+            bitField0_ = (bitField0_ & ~0x00000010);
+          } else {
+            ensureCompressionCodecIsMutable();
+            compressionCodec_.addAll(other.compressionCodec_);
+          }
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -13785,6 +14017,135 @@ public org.terasology.protobuf.NetData.ColorOrBuilder getColorOrBuilder() {
         return colorBuilder_;
       }
 
+      private com.google.protobuf.LazyStringList compressionCodec_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureCompressionCodecIsMutable() {
+        if (!((bitField0_ & 0x00000010) == 0x00000010)) {
+          compressionCodec_ = new com.google.protobuf.LazyStringArrayList(compressionCodec_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public com.google.protobuf.ProtocolStringList
+          getCompressionCodecList() {
+        return compressionCodec_.getUnmodifiableView();
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public int getCompressionCodecCount() {
+        return compressionCodec_.size();
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public java.lang.String getCompressionCodec(int index) {
+        return compressionCodec_.get(index);
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecBytes(int index) {
+        return compressionCodec_.getByteString(index);
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public Builder setCompressionCodec(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureCompressionCodecIsMutable();
+        compressionCodec_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public Builder addCompressionCodec(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureCompressionCodecIsMutable();
+        compressionCodec_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public Builder addAllCompressionCodec(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureCompressionCodecIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, compressionCodec_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public Builder clearCompressionCodec() {
+        compressionCodec_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string compressionCodec = 5;</code>
+       *
+       * <pre>
+       * The compression codecs the client supports, in order of preference
+       * </pre>
+       */
+      public Builder addCompressionCodecBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureCompressionCodecIsMutable();
+        compressionCodec_.add(value);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:JoinMessage)
     }
 
@@ -14206,6 +14567,32 @@ public interface JoinCompleteMessageOrBuilder extends
      * <code>optional int32 clientId = 1;</code>
      */
     int getClientId();
+
+    /**
+     * <code>optional string compressionCodec = 2;</code>
+     *
+     * <pre>
+     * The compression codec the server has chosen for the messages to the client
+     * </pre>
+     */
+    boolean hasCompressionCodec();
+    /**
+     * <code>optional string compressionCodec = 2;</code>
+     *
+     * <pre>
+     * The compression codec the server has chosen for the messages to the client
+     * </pre>
+     */
+    java.lang.String getCompressionCodec();
+    /**
+     * <code>optional string compressionCodec = 2;</code>
+     *
+     * <pre>
+     * The compression codec the server has chosen for the messages to the client
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecBytes();
   }
   /**
    * Protobuf type {@code JoinCompleteMessage}
@@ -14265,6 +14652,12 @@ private JoinCompleteMessage(
               clientId_ = input.readInt32();
               break;
             }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              compressionCodec_ = bs;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -14320,8 +14713,63 @@ public int getClientId() {
       return clientId_;
     }
 
+    public static final int COMPRESSIONCODEC_FIELD_NUMBER = 2;
+    private java.lang.Object compressionCodec_;
+    /**
+     * <code>optional string compressionCodec = 2;</code>
+     *
+     * <pre>
+     * The compression codec the server has chosen for the messages to the client
+     * </pre>
+     */
+    public boolean hasCompressionCodec() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional string compressionCodec = 2;</code>
+     *
+     * <pre>
+     * The compression codec the server has chosen for the messages to the client
+     * </pre>
+     */
+    public java.lang.String getCompressionCodec() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compressionCodec_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string compressionCodec = 2;</code>
+     *
+     * <pre>
+     * The compression codec the server has chosen for the messages to the client
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionCodecBytes() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compressionCodec_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private void initFields() {
       clientId_ = 0;
+      compressionCodec_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -14346,6 +14794,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeInt32(1, clientId_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getCompressionCodecBytes());
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -14360,6 +14811,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(1, clientId_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, getCompressionCodecBytes());
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -14481,6 +14936,8 @@ public Builder clear() {
         super.clear();
         clientId_ = 0;
         bitField0_ = (bitField0_ & ~0x00000001);
+        compressionCodec_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -14513,6 +14970,10 @@ public org.terasology.protobuf.NetData.JoinCompleteMessage buildPartial() {
           to_bitField0_ |= 0x00000001;
         }
         result.clientId_ = clientId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -14532,6 +14993,11 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.JoinCompleteMessage oth
         if (other.hasClientId()) {
           setClientId(other.getClientId());
         }
+        if (other.hasCompressionCodec()) {
+          bitField0_ |= 0x00000002;
+          compressionCodec_ = other.compressionCodec_;
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -14596,6 +15062,106 @@ public Builder clearClientId() {
         return this;
       }
 
+      private java.lang.Object compressionCodec_ = "";
+      /**
+       * <code>optional string compressionCodec = 2;</code>
+       *
+       * <pre>
+       * The compression codec the server has chosen for the messages to the client
+       * </pre>
+       */
+      public boolean hasCompressionCodec() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional string compressionCodec = 2;</code>
+       *
+       * <pre>
+       * The compression codec the server has chosen for the messages to the client
+       * </pre>
+       */
+      public java.lang.String getCompressionCodec() {
+        java.lang.Object ref = compressionCodec_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compressionCodec_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string compressionCodec = 2;</code>
+       *
+       * <pre>
+       * The compression codec the server has chosen for the messages to the client
+       * </pre>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecBytes() {
+        java.lang.Object ref = compressionCodec_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compressionCodec_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string compressionCodec = 2;</code>
+       *
+       * <pre>
+       * The compression codec the server has chosen for the messages to the client
+       * </pre>
+       */
+      public Builder setCompressionCodec(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compressionCodec = 2;</code>
+       *
+       * <pre>
+       * The compression codec the server has chosen for the messages to the client
+       * </pre>
+       */
+      public Builder clearCompressionCodec() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        compressionCodec_ = getDefaultInstance().getCompressionCodec();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compressionCodec = 2;</code>
+       *
+       * <pre>
+       * The compression codec the server has chosen for the messages to the client
+       * </pre>
+       */
+      public Builder setCompressionCodecBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:JoinCompleteMessage)
     }
 
@@ -25438,64 +26004,66 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
       "2\023.NewIdentityRequest\022-\n\021provisionIdenti" +
       "ty\030f \001(\0132\022.ProvisionIdentity\0225\n\025handshak" +
       "eVerification\030g \001(\0132\026.HandshakeVerificat" +
-      "ion*\t\010\210\'\020\200\200\200\200\002\"a\n\016HandshakeHello\022\016\n\006rand" +
+      "ion*\t\010\210\'\020\200\200\200\200\002\"}\n\016HandshakeHello\022\016\n\006rand" +
       "om\030\001 \001(\014\022!\n\013certificate\030\002 \001(\0132\014.Certific" +
-      "ate\022\021\n\ttimestamp\030\003 \001(\022*\t\010\210\'\020\200\200\200\200\002\"H\n\022New" +
-      "IdentityRequest\022\027\n\017preMasterSecret\030\001 \001(\014" +
-      "\022\016\n\006random\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"=\n\021Provision" +
-      "Identity\022\035\n\025encryptedCertificates\030\001 \001(\014*" +
-      "\t\010\210\'\020\200\200\200\200\002\"]\n\016CertificateSet\022\'\n\021publicCe",
-      "rtificate\030\001 \001(\0132\014.Certificate\022\027\n\017private" +
-      "Exponent\030\002 \001(\014*\t\010\210\'\020\200\200\200\200\002\"5\n\025HandshakeVe" +
-      "rification\022\021\n\tsignature\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002" +
-      "\"Z\n\013Certificate\022\n\n\002id\030\001 \001(\t\022\017\n\007modulus\030\002" +
-      " \001(\014\022\020\n\010exponent\030\003 \001(\014\022\021\n\tsignature\030\004 \001(" +
-      "\014*\t\010\210\'\020\200\200\200\200\002\"L\n\034BlockFamilyRegisteredMes" +
-      "sage\022\020\n\010blockUri\030\001 \003(\t\022\017\n\007blockId\030\002 \003(\005*" +
-      "\t\010\210\'\020\200\200\200\200\002\"?\n\026InvalidateChunkMessage\022\032\n\003" +
-      "pos\030\001 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"M\n\022B" +
-      "lockChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3",
-      "iData\022\020\n\010newBlock\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"M\n\022Bi" +
-      "omeChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3i" +
-      "Data\022\020\n\010newBiome\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\014Vec" +
-      "tor3iData\022\t\n\001x\030\001 \001(\005\022\t\n\001y\030\002 \001(\005\022\t\n\001z\030\003 \001" +
-      "(\005\"\036\n\021ServerInfoRequest*\t\010\210\'\020\200\200\200\200\002\"i\n\013Jo" +
-      "inMessage\022\014\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(\t" +
-      "\022\031\n\021viewDistanceLevel\030\003 \001(\021\022\025\n\005color\030\004 \001" +
-      "(\0132\006.Color*\t\010\210\'\020\200\200\200\200\002\"\025\n\005Color\022\014\n\004rgba\030\001" +
-      " \001(\r\"2\n\023JoinCompleteMessage\022\020\n\010clientId\030" +
-      "\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"\261\003\n\021ServerInfoMessage\022\033",
-      "\n\006module\030\001 \003(\0132\013.ModuleInfo\022\023\n\007blockId\030\002" +
-      " \003(\021B\002\020\001\022\021\n\tblockName\030\003 \003(\t\022%\n\tcomponent" +
-      "\030\004 \003(\0132\022.SerializationInfo\022!\n\005event\030\005 \003(" +
-      "\0132\022.SerializationInfo\022\023\n\007assetId\030\006 \003(\005B\002" +
-      "\020\001\022\020\n\010assetUri\030\007 \003(\t\022\033\n\023registerBlockFam" +
-      "ily\030\010 \003(\t\022\035\n\tworldInfo\030\t \003(\0132\n.WorldInfo" +
-      "\022\030\n\014biomeShortId\030\n \003(\021B\002\020\001\022\017\n\007biomeId\030\013 " +
-      "\003(\t\022\017\n\007version\030\017 \001(\t\022\020\n\010gameName\030\020 \001(\t\022\014" +
-      "\n\004time\030\021 \001(\003\022\030\n\020reflectionHeight\030\022 \001(\002\022\014" +
-      "\n\004MOTD\030\023 \001(\t\022\033\n\023onlinePlayersAmount\030\024 \001(",
-      "\005*\t\010\210\'\020\200\200\200\200\002\"3\n\tWorldInfo\022\r\n\005title\030\001 \001(\t" +
-      "\022\014\n\004time\030\002 \001(\003*\t\010\210\'\020\200\200\200\200\002\"]\n\021Serializati" +
-      "onInfo\022\014\n\004name\030\001 \001(\t\022\n\n\002id\030\002 \001(\005\022\021\n\tfiel" +
-      "dName\030\003 \003(\t\022\020\n\010fieldIds\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002" +
-      "\"@\n\nModuleInfo\022\020\n\010moduleId\030\001 \001(\t\022\025\n\rmodu" +
-      "leVersion\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\",\n\rModuleRequ" +
-      "est\022\020\n\010moduleId\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"W\n\020Modu" +
-      "leDataHeader\022\n\n\002id\030\001 \001(\t\022\017\n\007version\030\002 \001(" +
-      "\t\022\014\n\004size\030\003 \001(\003\022\r\n\005error\030\017 \001(\t*\t\010\210\'\020\200\200\200\200" +
-      "\002\"\'\n\nModuleData\022\016\n\006module\030\001 \001(\014*\t\010\210\'\020\200\200\200",
-      "\200\002\"-\n\017ModuleSendError\022\017\n\007message\030\001 \001(\t*\t" +
-      "\010\210\'\020\200\200\200\200\002\"`\n\023CreateEntityMessage\022\035\n\006enti" +
-      "ty\030\001 \001(\0132\r.PackedEntity\022\037\n\010blockPos\030\002 \001(" +
-      "\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"N\n\023UpdateEnt" +
-      "ityMessage\022\035\n\006entity\030\001 \001(\0132\r.PackedEntit" +
-      "y\022\r\n\005netId\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\023RemoveEnt" +
-      "ityMessage\022\r\n\005netId\030\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"i\n\014" +
-      "EventMessage\022\020\n\010targetId\030\001 \001(\005\022\025\n\005event\030" +
-      "\002 \001(\0132\006.Event\022%\n\016targetBlockPos\030\003 \001(\0132\r." +
-      "Vector3iData*\t\010\210\'\020\200\200\200\200\002B$\n\027org.terasolog",
-      "y.protobufB\007NetDataH\001"
+      "ate\022\021\n\ttimestamp\030\003 \001(\022\022\032\n\017protocolVersio" +
+      "n\030\004 \001(\005:\0011*\t\010\210\'\020\200\200\200\200\002\"H\n\022NewIdentityRequ" +
+      "est\022\027\n\017preMasterSecret\030\001 \001(\014\022\016\n\006random\030\002" +
+      " \001(\014*\t\010\210\'\020\200\200\200\200\002\"=\n\021ProvisionIdentity\022\035\n\025" +
+      "encryptedCertificates\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"]",
+      "\n\016CertificateSet\022\'\n\021publicCertificate\030\001 " +
+      "\001(\0132\014.Certificate\022\027\n\017privateExponent\030\002 \001" +
+      "(\014*\t\010\210\'\020\200\200\200\200\002\"5\n\025HandshakeVerification\022\021" +
+      "\n\tsignature\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"Z\n\013Certific" +
+      "ate\022\n\n\002id\030\001 \001(\t\022\017\n\007modulus\030\002 \001(\014\022\020\n\010expo" +
+      "nent\030\003 \001(\014\022\021\n\tsignature\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002" +
+      "\"L\n\034BlockFamilyRegisteredMessage\022\020\n\010bloc" +
+      "kUri\030\001 \003(\t\022\017\n\007blockId\030\002 \003(\005*\t\010\210\'\020\200\200\200\200\002\"?" +
+      "\n\026InvalidateChunkMessage\022\032\n\003pos\030\001 \001(\0132\r." +
+      "Vector3iData*\t\010\210\'\020\200\200\200\200\002\"M\n\022BlockChangeMe",
+      "ssage\022\032\n\003pos\030\001 \001(\0132\r.Vector3iData\022\020\n\010new" +
+      "Block\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"M\n\022BiomeChangeMes" +
+      "sage\022\032\n\003pos\030\001 \001(\0132\r.Vector3iData\022\020\n\010newB" +
+      "iome\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\014Vector3iData\022\t\n" +
+      "\001x\030\001 \001(\005\022\t\n\001y\030\002 \001(\005\022\t\n\001z\030\003 \001(\005\"\036\n\021Server" +
+      "InfoRequest*\t\010\210\'\020\200\200\200\200\002\"\203\001\n\013JoinMessage\022\014" +
+      "\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(\t\022\031\n\021viewDis" +
+      "tanceLevel\030\003 \001(\021\022\025\n\005color\030\004 \001(\0132\006.Color\022" +
+      "\030\n\020compressionCodec\030\005 \003(\t*\t\010\210\'\020\200\200\200\200\002\"\025\n\005" +
+      "Color\022\014\n\004rgba\030\001 \001(\r\"L\n\023JoinCompleteMessa",
+      "ge\022\020\n\010clientId\030\001 \001(\005\022\030\n\020compressionCodec" +
+      "\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\"\261\003\n\021ServerInfoMessage\022" +
+      "\033\n\006module\030\001 \003(\0132\013.ModuleInfo\022\023\n\007blockId\030" +
+      "\002 \003(\021B\002\020\001\022\021\n\tblockName\030\003 \003(\t\022%\n\tcomponen" +
+      "t\030\004 \003(\0132\022.SerializationInfo\022!\n\005event\030\005 \003" +
+      "(\0132\022.SerializationInfo\022\023\n\007assetId\030\006 \003(\005B" +
+      "\002\020\001\022\020\n\010assetUri\030\007 \003(\t\022\033\n\023registerBlockFa" +
+      "mily\030\010 \003(\t\022\035\n\tworldInfo\030\t \003(\0132\n.WorldInf" +
+      "o\022\030\n\014biomeShortId\030\n \003(\021B\002\020\001\022\017\n\007biomeId\030\013" +
+      " \003(\t\022\017\n\007version\030\017 \001(\t\022\020\n\010gameName\030\020 \001(\t\022",
+      "\014\n\004time\030\021 \001(\003\022\030\n\020reflectionHeight\030\022 \001(\002\022" +
+      "\014\n\004MOTD\030\023 \001(\t\022\033\n\023onlinePlayersAmount\030\024 \001" +
+      "(\005*\t\010\210\'\020\200\200\200\200\002\"3\n\tWorldInfo\022\r\n\005title\030\001 \001(" +
+      "\t\022\014\n\004time\030\002 \001(\003*\t\010\210\'\020\200\200\200\200\002\"]\n\021Serializat" +
+      "ionInfo\022\014\n\004name\030\001 \001(\t\022\n\n\002id\030\002 \001(\005\022\021\n\tfie" +
+      "ldName\030\003 \003(\t\022\020\n\010fieldIds\030\004 \001(\014*\t\010\210\'\020\200\200\200\200" +
+      "\002\"@\n\nModuleInfo\022\020\n\010moduleId\030\001 \001(\t\022\025\n\rmod" +
+      "uleVersion\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\",\n\rModuleReq" +
+      "uest\022\020\n\010moduleId\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"W\n\020Mod" +
+      "uleDataHeader\022\n\n\002id\030\001 \001(\t\022\017\n\007version\030\002 \001",
+      "(\t\022\014\n\004size\030\003 \001(\003\022\r\n\005error\030\017 \001(\t*\t\010\210\'\020\200\200\200" +
+      "\200\002\"\'\n\nModuleData\022\016\n\006module\030\001 \001(\014*\t\010\210\'\020\200\200" +
+      "\200\200\002\"-\n\017ModuleSendError\022\017\n\007message\030\001 \001(\t*" +
+      "\t\010\210\'\020\200\200\200\200\002\"`\n\023CreateEntityMessage\022\035\n\006ent" +
+      "ity\030\001 \001(\0132\r.PackedEntity\022\037\n\010blockPos\030\002 \001" +
+      "(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200\200\002\"N\n\023UpdateEn" +
+      "tityMessage\022\035\n\006entity\030\001 \001(\0132\r.PackedEnti" +
+      "ty\022\r\n\005netId\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\023RemoveEn" +
+      "tityMessage\022\r\n\005netId\030\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"i\n" +
+      "\014EventMessage\022\020\n\010targetId\030\001 \001(\005\022\025\n\005event",
+      "\030\002 \001(\0132\006.Event\022%\n\016targetBlockPos\030\003 \001(\0132\r" +
+      ".Vector3iData*\t\010\210\'\020\200\200\200\200\002B$\n\027org.terasolo" +
+      "gy.protobufB\007NetDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -25521,7 +26089,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_HandshakeHello_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_HandshakeHello_descriptor,
-        new java.lang.String[] { "Random", "Certificate", "Timestamp", });
+        new java.lang.String[] { "Random", "Certificate", "Timestamp", "ProtocolVersion", });
     internal_static_NewIdentityRequest_descriptor =
       getDescriptor().getMessageTypes().get(2);
     internal_static_NewIdentityRequest_fieldAccessorTable = new
@@ -25593,7 +26161,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_JoinMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_JoinMessage_descriptor,
-        new java.lang.String[] { "Name", "Version", "ViewDistanceLevel", "Color", });
+        new java.lang.String[] { "Name", "Version", "ViewDistanceLevel", "Color", "CompressionCodec", });
     internal_static_Color_descriptor =
       getDescriptor().getMessageTypes().get(14);
     internal_static_Color_fieldAccessorTable = new
@@ -25605,7 +26173,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_JoinCompleteMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_JoinCompleteMessage_descriptor,
-        new java.lang.String[] { "ClientId", });
+        new java.lang.String[] { "ClientId", "CompressionCodec", });
     internal_static_ServerInfoMessage_descriptor =
       getDescriptor().getMessageTypes().get(16);
     internal_static_ServerInfoMessage_fieldAccessorTable = new
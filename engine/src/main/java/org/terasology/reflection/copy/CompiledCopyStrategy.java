@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.reflection.copy;
+
+import org.terasology.reflection.metadata.ClassMetadata;
+import org.terasology.reflection.metadata.FieldMetadata;
+import org.terasology.utilities.ReflectionUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ * Copies and compares objects of a class field by field, through a method handle composed once for the whole class.
+ * Unlike {@link ClassMetadata#copy(Object)}, no field is looked up, boxed or passed through a copy strategy which
+ * would return the value as it is.
+ * <br><br>
+ * Fields are accessed through their getter and setter if both exist, like the reflect factories do. Field values are
+ * compared with their equals method, so values of types without one only equal themselves.
+ *
+ * @param <T> the type of the objects to copy.
+ */
+public final class CompiledCopyStrategy<T> implements CopyStrategy<T> {
+    private static final MethodType COPY_FIELDS_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType FIELDS_EQUAL_TYPE = MethodType.methodType(boolean.class, Object.class, Object.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle COPY_NOTHING;
+    private static final MethodHandle COPY_VALUE;
+    private static final MethodHandle OBJECTS_EQUAL;
+    private static final MethodHandle ALWAYS_EQUAL = MethodHandles.dropArguments(
+            MethodHandles.constant(boolean.class, true), 0, Object.class, Object.class);
+    private static final MethodHandle NEVER_EQUAL = MethodHandles.dropArguments(
+            MethodHandles.constant(boolean.class, false), 0, Object.class, Object.class);
+
+    static {
+        try {
+            COPY_NOTHING = LOOKUP.findStatic(CompiledCopyStrategy.class, "copyNothing", COPY_FIELDS_TYPE);
+            COPY_VALUE = LOOKUP.findVirtual(CopyStrategy.class, "copy", MethodType.methodType(Object.class, Object.class));
+            OBJECTS_EQUAL = LOOKUP.findStatic(Objects.class, "equals", FIELDS_EQUAL_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ClassMetadata<T, ?> metadata;
+    private final MethodHandle copyFields;
+    private final MethodHandle fieldsEqual;
+
+    private CompiledCopyStrategy(ClassMetadata<T, ?> metadata, MethodHandle copyFields, MethodHandle fieldsEqual) {
+        this.metadata = metadata;
+        this.copyFields = copyFields;
+        this.fieldsEqual = fieldsEqual;
+    }
+
+    /**
+     * @param metadata the metadata of the class, which has to be constructable.
+     * @return the compiled copy strategy for the class.
+     * @throws IllegalAccessException if a field or its getter or setter cannot be accessed.
+     */
+    public static <T> CompiledCopyStrategy<T> create(ClassMetadata<T, ?> metadata) throws IllegalAccessException {
+        MethodHandle copyFields = COPY_NOTHING;
+        MethodHandle fieldsEqual = ALWAYS_EQUAL;
+        for (FieldMetadata<T, ?> field : metadata.getFields()) {
+            MethodHandle getter = createGetter(field.getField());
+            MethodHandle setter = createSetter(field.getField());
+            Class<?> valueType = setter.type().parameterType(1);
+
+            MethodHandle value = getter.asType(MethodType.methodType(valueType, Object.class));
+            if (!CopyStrategyLibrary.isReturnedAsIs(field.getCopyStrategy())) {
+                MethodHandle copyValue = COPY_VALUE.bindTo(field.getCopyStrategy());
+                value = MethodHandles.filterReturnValue(value.asType(MethodType.methodType(Object.class, Object.class)), copyValue)
+                        .asType(MethodType.methodType(valueType, Object.class));
+            }
+            // set(to, value(from)), with the arguments swapped to (from, to)
+            MethodHandle copyField = MethodHandles.permuteArguments(
+                    MethodHandles.filterArguments(setter.asType(MethodType.methodType(void.class, Object.class, valueType)), 1, value),
+                    COPY_FIELDS_TYPE, 1, 0);
+            copyFields = MethodHandles.foldArguments(copyFields, copyField);
+
+            MethodHandle getValue = getter.asType(MethodType.methodType(valueType, Object.class));
+            MethodHandle fieldEqual = MethodHandles.filterArguments(equalsFor(valueType), 0, getValue, getValue);
+            fieldsEqual = MethodHandles.guardWithTest(fieldEqual, fieldsEqual, NEVER_EQUAL);
+        }
+        return new CompiledCopyStrategy<>(metadata, copyFields, fieldsEqual);
+    }
+
+    @Override
+    public T copy(T value) {
+        if (value == null) {
+            return null;
+        }
+        T result = metadata.newInstance();
+        copyFields(value, result);
+        return result;
+    }
+
+    /**
+     * Sets the fields of the target to copies of the fields of the source.
+     */
+    public void copyFields(T from, T to) {
+        try {
+            copyFields.invokeExact((Object) from, (Object) to);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to copy " + metadata, e);
+        }
+    }
+
+    /**
+     * @return whether all fields of both objects are equal.
+     */
+    public boolean fieldsEqual(T a, T b) {
+        try {
+            return (boolean) fieldsEqual.invokeExact((Object) a, (Object) b);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to compare " + metadata, e);
+        }
+    }
+
+    private static MethodHandle createGetter(Field field) throws IllegalAccessException {
+        Method getter = ReflectionUtil.findGetter(field);
+        if (getter != null && ReflectionUtil.findSetter(field) != null) {
+            return LOOKUP.unreflect(getter);
+        }
+        field.setAccessible(true);
+        return LOOKUP.unreflectGetter(field);
+    }
+
+    private static MethodHandle createSetter(Field field) throws IllegalAccessException {
+        Method setter = ReflectionUtil.findSetter(field);
+        if (setter != null && ReflectionUtil.findGetter(field) != null) {
+            return LOOKUP.unreflect(setter);
+        }
+        field.setAccessible(true);
+        return LOOKUP.unreflectSetter(field);
+    }
+
+    private static MethodHandle equalsFor(Class<?> type) throws IllegalAccessException {
+        if (!type.isPrimitive()) {
+            return OBJECTS_EQUAL.asType(MethodType.methodType(boolean.class, type, type));
+        }
+        try {
+            return LOOKUP.findStatic(CompiledCopyStrategy.class, "primitiveEquals", MethodType.methodType(boolean.class, type, type));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Missing comparison for " + type, e);
+        }
+    }
+
+    private static void copyNothing(Object from, Object to) {
+    }
+
+    private static boolean primitiveEquals(boolean a, boolean b) {
+        return a == b;
+    }
+
+    private static boolean primitiveEquals(byte a, byte b) {
+        return a == b;
+    }
+
+    private static boolean primitiveEquals(short a, short b) {
+        return a == b;
+    }
+
+    private static boolean primitiveEquals(char a, char b) {
+        return a == b;
+    }
+
+    private static boolean primitiveEquals(int a, int b) {
+        return a == b;
+    }
+
+    private static boolean primitiveEquals(long a, long b) {
+        return a == b;
+    }
+
+    // Like Float.equals and Double.equals, so NaN equals itself.
+    private static boolean primitiveEquals(float a, float b) {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+
+    private static boolean primitiveEquals(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+}
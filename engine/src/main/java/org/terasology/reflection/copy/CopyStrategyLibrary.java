@@ -166,6 +166,13 @@ public <T>  CopyStrategyLibrary createCopyOfLibraryWithStrategy(Class<T> type, C
         return new CopyStrategyLibrary(newStrategies, this.reflectFactory);
     }
 
+    /**
+     * @return whether the strategy is the default strategy, which returns the original value.
+     */
+    public static boolean isReturnedAsIs(CopyStrategy<?> strategy) {
+        return strategy instanceof ReturnAsIsStrategy;
+    }
+
     /**
      * The default copy strategy - returns the original value.
      *
@@ -30,6 +30,8 @@
 import org.terasology.world.WorldProvider;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.RenderableChunk;
+import org.terasology.world.chunks.blockdata.DirectBufferArena;
+import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.pipeline.ChunkTask;
 import org.terasology.world.chunks.pipeline.ShutdownChunkTask;
 
@@ -162,20 +164,23 @@ public boolean isTerminateSignal() {
         @Override
         public void run() {
             ChunkMesh newMesh;
-            ChunkView chunkView = worldProvider.getLocalView(c.getPosition());
-            if (chunkView != null) {
-                /*
-                 * Important set dirty flag first, so that a concurrent modification of the chunk in the mean time we
-                 * will end up with a dirty chunk.
-                 */
-                c.setDirty(false);
-                if (chunkView.isValidView()) {
-                    newMesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
-
-                    c.setPendingMesh(newMesh);
-                    ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
-                }
+            // the chunks of the view may be unloaded meanwhile, their light data must stay readable until we are done
+            try (DirectBufferArena.Section ignored = ChunkImpl.getLightArena().enter()) {
+                ChunkView chunkView = worldProvider.getLocalView(c.getPosition());
+                if (chunkView != null) {
+                    /*
+                     * Important set dirty flag first, so that a concurrent modification of the chunk in the mean time we
+                     * will end up with a dirty chunk.
+                     */
+                    c.setDirty(false);
+                    if (chunkView.isValidView()) {
+                        newMesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+
+                        c.setPendingMesh(newMesh);
+                        ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
+                    }
 
+                }
             }
             chunkMeshUpdateManager.finishedProcessing(c);
             // Clean these up because the task executor holds the object in memory.
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.utilities.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Helpers for the block codecs, whose compressed data starts with the length of the uncompressed data.
+ */
+final class BlockFormat {
+
+    static final int LENGTH_BYTES = 4;
+
+    private BlockFormat() {
+    }
+
+    static void writeLength(ByteArrayOutputStream out, int length) {
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+    }
+
+    static void writeLength(byte[] target, int offset, int length) {
+        target[offset] = (byte) (length >>> 24);
+        target[offset + 1] = (byte) (length >>> 16);
+        target[offset + 2] = (byte) (length >>> 8);
+        target[offset + 3] = (byte) length;
+    }
+
+    /**
+     * @return an upper bound for the size of a zlib stream of data with the given length, as computed by zlib's
+     * deflateBound, with some room for the stream header and trailer.
+     */
+    static int maxDeflatedLength(int length) {
+        return length + (length >>> 12) + (length >>> 14) + (length >>> 25) + 32;
+    }
+
+    /**
+     * @param maxLength the maximum length the data may have once decompressed.
+     */
+    static int readLength(byte[] data, int maxLength) throws IOException {
+        if (data.length < LENGTH_BYTES) {
+            throw new IOException("Compressed data is truncated");
+        }
+        int length = (data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8 | data[3] & 0xFF;
+        if (length < 0) {
+            throw new IOException("Compressed data has an invalid length of " + length);
+        }
+        if (length > maxLength) {
+            throw new IOException("Compressed data exceeds the maximum length of " + maxLength + " bytes with " + length + " bytes");
+        }
+        return length;
+    }
+}
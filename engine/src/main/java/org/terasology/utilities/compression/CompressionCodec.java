@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.utilities.compression;
+
+import java.io.IOException;
+
+/**
+ * Compresses blocks of data, like encoded chunks or network frames.
+ * <br><br>
+ * Codecs are stateless and can be used by multiple threads at the same time. Every codec has a name, which is used
+ * in configuration files, save game manifests and the network handshake, and a one byte id which is used where the
+ * codec of data has to be stored next to the data itself. Both must never change once a codec has been released.
+ *
+ * @see CompressionCodecs
+ */
+public interface CompressionCodec {
+
+    String getName();
+
+    byte getId();
+
+    byte[] compress(byte[] data);
+
+    /**
+     * @return a new compressor for this codec, for a caller that compresses data repeatedly on a single thread.
+     */
+    Compressor newCompressor();
+
+    /**
+     * @return a new decompressor for the blocks written by a single compressor of this codec.
+     */
+    default Decompressor newDecompressor() {
+        return this::decompress;
+    }
+
+    /**
+     * @throws IOException if the data has not been compressed by this codec or is corrupted.
+     */
+    default byte[] decompress(byte[] data) throws IOException {
+        return decompress(data, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Decompresses data from an untrusted source, without allocating more than the given number of bytes for it.
+     *
+     * @param maxLength the maximum length of the decompressed data.
+     * @throws IOException if the data has not been compressed by this codec, is corrupted or would decompress to
+     *                     more than maxLength bytes.
+     */
+    byte[] decompress(byte[] data, int maxLength) throws IOException;
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.utilities.compression;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+
+/**
+ * The compression codecs known to the engine. Additional codecs can be added here, their name and id must differ
+ * from the ones of all existing codecs.
+ */
+public final class CompressionCodecs {
+
+    /**
+     * The format chunks were stored in before codecs could be chosen.
+     */
+    public static final CompressionCodec GZIP = new GzipCodec();
+    /**
+     * Small data at a high CPU cost, e.g. for save games on servers with little disk space.
+     */
+    public static final CompressionCodec DEFLATE = new DeflateCodec();
+    /**
+     * Fast compression for data that gets compressed often, e.g. for the network traffic of local servers.
+     */
+    public static final CompressionCodec LZ4 = new Lz4Codec();
+
+    private static final List<CompressionCodec> CODECS = ImmutableList.of(GZIP, DEFLATE, LZ4);
+
+    private CompressionCodecs() {
+    }
+
+    public static List<CompressionCodec> getAll() {
+        return CODECS;
+    }
+
+    /**
+     * @return the names of all codecs, starting with the preferred codec if it is known.
+     */
+    public static List<String> getNames(String preferredName) {
+        List<String> result = Lists.newArrayListWithCapacity(CODECS.size());
+        CompressionCodec preferred = getByName(preferredName);
+        if (preferred != null) {
+            result.add(preferred.getName());
+        }
+        for (CompressionCodec codec : CODECS) {
+            if (codec != preferred) {
+                result.add(codec.getName());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Chooses the codec to use with a remote side supporting the given codecs.
+     *
+     * @param preferredName the name of the codec that should be used if possible.
+     * @param candidates    the names of the codecs the remote side supports, in the order it prefers them.
+     * @return the preferred codec if it is a candidate, otherwise the first known candidate or null if none is known.
+     */
+    public static CompressionCodec choose(String preferredName, List<String> candidates) {
+        CompressionCodec preferred = getByName(preferredName);
+        if (preferred != null && candidates.contains(preferred.getName())) {
+            return preferred;
+        }
+        for (String candidate : candidates) {
+            CompressionCodec codec = getByName(candidate);
+            if (codec != null) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the codec with the given name or null if there is none.
+     */
+    public static CompressionCodec getByName(String name) {
+        for (CompressionCodec codec : CODECS) {
+            if (codec.getName().equals(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the codec with the given id or null if there is none.
+     */
+    public static CompressionCodec getById(byte id) {
+        for (CompressionCodec codec : CODECS) {
+            if (codec.getId() == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
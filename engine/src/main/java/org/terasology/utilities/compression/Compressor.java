@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.utilities.compression;
+
+/**
+ * Compresses consecutive blocks of data with a single codec, keeping its buffers and internal state between calls.
+ * Codecs that support it, like deflate, compress the blocks as one stream, so that later blocks can refer to data of
+ * earlier ones. Such blocks can only be decompressed in order, by a single {@link Decompressor} of the same codec.
+ * <br><br>
+ * Unlike codecs, compressors must only be used by one thread at a time, e.g. by the connection they belong to.
+ *
+ * @see CompressionCodec#newCompressor()
+ * @see CompressionCodec#newDecompressor()
+ */
+public interface Compressor extends AutoCloseable {
+
+    /**
+     * @return an upper bound for the size of the compressed data, when compressing the given number of bytes.
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * Compresses the first bytes of the given data into the target array, as the next block of the stream.
+     *
+     * @param data         the array containing the data to compress.
+     * @param length       the number of bytes to compress, starting at the beginning of the array.
+     * @param target       the array to write the compressed data to.
+     * @param targetOffset the position of the compressed data in the target array, which must have room for at least
+     *                     {@link #maxCompressedLength(int)} bytes from there.
+     * @return the number of bytes written to the target array.
+     */
+    int compress(byte[] data, int length, byte[] target, int targetOffset);
+
+    /**
+     * Releases the native resources of the compressor, if it has any. The compressor must not be used afterwards.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import java.io.IOException;
+
+/**
+ * Decompresses the blocks written by a single {@link Compressor}, in the order they have been compressed.
+ * <br><br>
+ * Decompressors must only be used by one thread at a time, e.g. by the connection they belong to.
+ *
+ * @see CompressionCodec#newDecompressor()
+ */
+@FunctionalInterface
+public interface Decompressor extends AutoCloseable {
+
+    /**
+     * Decompresses the next block of the stream, without allocating more than the given number of bytes for it.
+     *
+     * @param maxLength the maximum length of the decompressed data.
+     * @throws IOException if the data has not been compressed by this codec, is corrupted, is not the next block of
+     *                     the stream or would decompress to more than maxLength bytes.
+     */
+    byte[] decompress(byte[] data, int maxLength) throws IOException;
+
+    /**
+     * Releases the native resources of the decompressor, if it has any. The decompressor must not be used afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.utilities.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses data into the gzip format. This is the format chunks have always been stored in, so it is kept for
+ * existing save games.
+ */
+public class GzipCodec implements CompressionCodec {
+
+    public static final String NAME = "gzip";
+    public static final byte ID = 0;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * The gzip streams are still compressed all at once, only their size is known up front.
+     */
+    @Override
+    public Compressor newCompressor() {
+        return new Compressor() {
+            @Override
+            public int maxCompressedLength(int length) {
+                return BlockFormat.maxDeflatedLength(length);
+            }
+
+            @Override
+            public int compress(byte[] data, int length, byte[] target, int targetOffset) {
+                byte[] compressed = GzipCodec.this.compress(Arrays.copyOf(data, length));
+                System.arraycopy(compressed, 0, target, targetOffset, compressed.length);
+                return compressed.length;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxLength) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream((int) Math.min(maxLength, data.length * 4L));
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = gzipIn.read(buffer)) >= 0) {
+                if (read > maxLength - baos.size()) {
+                    throw new IOException("Compressed data exceeds the maximum length of " + maxLength + " bytes");
+                }
+                baos.write(buffer, 0, read);
+            }
+        }
+        return baos.toByteArray();
+    }
+}
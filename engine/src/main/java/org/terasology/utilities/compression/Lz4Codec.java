@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.utilities.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A fast codec that writes the LZ4 block format: a sequence of literal runs, each followed by a back reference of at
+ * least four bytes into the already decompressed data. There is no entropy coding, so it compresses worse than
+ * {@link DeflateCodec} but is several times faster in both directions, which suits data that gets compressed often,
+ * like chunks sent to clients.
+ * <br><br>
+ * The compressed data starts with the length of the uncompressed data as an int, followed by the LZ4 block.
+ */
+public class Lz4Codec implements CompressionCodec {
+
+    public static final String NAME = "lz4";
+    public static final byte ID = 2;
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MIN_LENGTH_FOR_MATCHES = 13;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_BITS = 12;
+    private static final int RUN_MASK = 0xF;
+    private static final int SKIP_STRENGTH = 6;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        byte[] out = new byte[maxCompressedLength(data.length)];
+        int written = compress(data, data.length, new int[1 << HASH_BITS], out, 0);
+        return Arrays.copyOf(out, written);
+    }
+
+    @Override
+    public Compressor newCompressor() {
+        return new Compressor() {
+            private final int[] hashTable = new int[1 << HASH_BITS];
+
+            @Override
+            public int maxCompressedLength(int length) {
+                return Lz4Codec.maxCompressedLength(length);
+            }
+
+            @Override
+            public int compress(byte[] data, int length, byte[] target, int targetOffset) {
+                Arrays.fill(hashTable, 0);
+                return Lz4Codec.compress(data, length, hashTable, target, targetOffset);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxLength) throws IOException {
+        byte[] result = new byte[BlockFormat.readLength(data, maxLength)];
+        int ip = BlockFormat.LENGTH_BYTES;
+        int op = 0;
+        try {
+            while (true) {
+                int token = data[ip++] & 0xFF;
+                int literalLength = token >>> 4;
+                if (literalLength == RUN_MASK) {
+                    int extra;
+                    do {
+                        extra = data[ip++] & 0xFF;
+                        literalLength += extra;
+                    } while (extra == 0xFF);
+                }
+                System.arraycopy(data, ip, result, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip == data.length) {
+                    break;
+                }
+                int offset = (data[ip++] & 0xFF) | (data[ip++] & 0xFF) << 8;
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int extra;
+                    do {
+                        extra = data[ip++] & 0xFF;
+                        matchLength += extra;
+                    } while (extra == 0xFF);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < 0 || op + matchLength > result.length) {
+                    throw new IOException("Invalid back reference in LZ4 block");
+                }
+                // copied byte by byte, as the match may overlap the bytes it produces
+                for (int i = 0; i < matchLength; i++) {
+                    result[op++] = result[ref++];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("LZ4 block is truncated", e);
+        }
+        if (op != result.length) {
+            throw new IOException("LZ4 block does not match its length of " + result.length + " bytes");
+        }
+        return result;
+    }
+
+    private static int maxCompressedLength(int length) {
+        return BlockFormat.LENGTH_BYTES + length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the first bytes of the data into the target array, which needs room for
+     * {@link #maxCompressedLength(int)} bytes.
+     *
+     * @param hashTable an empty table, which is used to find matches.
+     * @return the number of bytes written to the target array.
+     */
+    private static int compress(byte[] data, int length, int[] hashTable, byte[] out, int outOffset) {
+        BlockFormat.writeLength(out, outOffset, length);
+        int op = outOffset + BlockFormat.LENGTH_BYTES;
+        int anchor = 0;
+        if (length >= MIN_LENGTH_FOR_MATCHES) {
+            // positions are stored plus one, so that zero marks an empty slot
+            int matchStartLimit = length - (MIN_LENGTH_FOR_MATCHES - 1);
+            int matchEndLimit = length - LAST_LITERALS;
+            int ip = 0;
+            while (ip < matchStartLimit) {
+                int sequence = readInt(data, ip);
+                int hash = hash(sequence);
+                int ref = hashTable[hash] - 1;
+                hashTable[hash] = ip + 1;
+                if (ref < 0 || ip - ref > MAX_OFFSET || readInt(data, ref) != sequence) {
+                    // the longer no match has been found, the faster incompressible data gets skipped
+                    ip += 1 + ((ip - anchor) >>> SKIP_STRENGTH);
+                    continue;
+                }
+                while (ip > anchor && ref > 0 && data[ip - 1] == data[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchEndLimit && data[ip + matchLength] == data[ref + matchLength]) {
+                    matchLength++;
+                }
+                int tokenPos = op;
+                op = writeLiterals(data, anchor, ip - anchor, out, op);
+                int offset = ip - ref;
+                out[op++] = (byte) offset;
+                out[op++] = (byte) (offset >>> 8);
+                op = writeMatchLength(out, tokenPos, op, matchLength - MIN_MATCH);
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        op = writeLiterals(data, anchor, length - anchor, out, op);
+        return op - outOffset;
+    }
+
+    /**
+     * Writes the token of a sequence with its literal length, followed by the literals.
+     */
+    private static int writeLiterals(byte[] data, int start, int literalLength, byte[] out, int op) {
+        int tokenPos = op++;
+        if (literalLength >= RUN_MASK) {
+            out[tokenPos] = (byte) (RUN_MASK << 4);
+            op = writeRemainder(out, op, literalLength - RUN_MASK);
+        } else {
+            out[tokenPos] = (byte) (literalLength << 4);
+        }
+        System.arraycopy(data, start, out, op, literalLength);
+        return op + literalLength;
+    }
+
+    /**
+     * Adds the match length to the token of the sequence, the part that does not fit into the token gets appended.
+     */
+    private static int writeMatchLength(byte[] out, int tokenPos, int op, int matchLength) {
+        if (matchLength >= RUN_MASK) {
+            out[tokenPos] |= RUN_MASK;
+            return writeRemainder(out, op, matchLength - RUN_MASK);
+        }
+        out[tokenPos] |= matchLength;
+        return op;
+    }
+
+    private static int writeRemainder(byte[] out, int op, int remainder) {
+        int pos = op;
+        int left = remainder;
+        while (left >= 0xFF) {
+            out[pos++] = (byte) 0xFF;
+            left -= 0xFF;
+        }
+        out[pos++] = (byte) left;
+        return pos;
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) << 24 | (data[pos + 1] & 0xFF) << 16 | (data[pos + 2] & 0xFF) << 8 | data[pos + 3] & 0xFF;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_BITS);
+    }
+}
@@ -52,6 +52,9 @@
  * taskMaster.shutdown(new ShutdownTask());
  * }
  * </pre>
+ * <p>
+ * The number of threads can be changed while the TaskMaster is running using {@link #setThreads(int)}. Surplus threads
+ * finish their current task before they stop.
  *
  * @see Task
  * @see #createFIFOTaskMaster(String, int)
@@ -60,11 +63,18 @@
 public final class TaskMaster<T extends Task> {
     private static final Logger logger = LoggerFactory.getLogger(TaskMaster.class);
 
+    private final Object processorLock = new Object();
+
     private BlockingQueue<T> taskQueue;
     private ExecutorService executorService;
     private int threads;
     private boolean running;
     private String name;
+    private int nextProcessorId;
+
+    // guarded by processorLock
+    private int liveProcessors;
+    private int pendingRetirements;
 
     private TaskMaster(String name, int threads, BlockingQueue<T> queue) {
         this.name = name;
@@ -118,14 +128,57 @@ public void put(T task) throws InterruptedException {
         taskQueue.put(task);
     }
 
-    public void shutdown(T shutdownTask, boolean awaitComplete) {
+    /**
+     * @return the number of tasks waiting to be processed.
+     */
+    public int getQueueSize() {
+        return taskQueue.size();
+    }
+
+    public synchronized int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Changes the number of threads processing tasks. If there are more threads than wanted, the surplus threads stop
+     * after they have finished their current task.
+     *
+     * @param newThreads the number of threads, at least one.
+     */
+    public synchronized void setThreads(int newThreads) {
+        if (newThreads <= 0) {
+            throw new IllegalArgumentException("Must have at least one thread.");
+        }
+        if (running) {
+            int processorsToStart = 0;
+            synchronized (processorLock) {
+                int activeProcessors = liveProcessors - pendingRetirements;
+                if (newThreads < activeProcessors) {
+                    pendingRetirements += activeProcessors - newThreads;
+                } else {
+                    int cancelledRetirements = Math.min(pendingRetirements, newThreads - activeProcessors);
+                    pendingRetirements -= cancelledRetirements;
+                    processorsToStart = newThreads - activeProcessors - cancelledRetirements;
+                }
+            }
+            startProcessors(processorsToStart);
+        }
+        threads = newThreads;
+    }
+
+    public synchronized void shutdown(T shutdownTask, boolean awaitComplete) {
         if (!shutdownTask.isTerminateSignal()) {
             throw new IllegalArgumentException("Expected task to provide terminate signal");
         }
         if (!awaitComplete) {
             taskQueue.drainTo(Lists.newArrayList());
         }
-        for (int i = 0; i < threads; ++i) {
+        int processorsToStop;
+        synchronized (processorLock) {
+            pendingRetirements = 0;
+            processorsToStop = liveProcessors;
+        }
+        for (int i = 0; i < processorsToStop; ++i) {
             try {
                 taskQueue.offer(shutdownTask, 250, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
@@ -148,16 +201,48 @@ public void shutdown(T shutdownTask, boolean awaitComplete) {
         running = false;
     }
 
-    public void restart() {
+    public synchronized void restart() {
         if (!running) {
-            executorService = Executors.newFixedThreadPool(threads);
-            for (int i = 0; i < threads; ++i) {
-                executorService.execute(new TaskProcessor<>(name + "-" + i, taskQueue));
-            }
+            executorService = Executors.newCachedThreadPool();
+            nextProcessorId = 0;
+            startProcessors(threads);
             running = true;
         }
     }
 
+    private void startProcessors(int count) {
+        synchronized (processorLock) {
+            liveProcessors += count;
+        }
+        for (int i = 0; i < count; ++i) {
+            executorService.execute(new TaskProcessor<>(name + "-" + nextProcessorId++, taskQueue, this));
+        }
+    }
+
+    /**
+     * Called by a processor that is idle or has finished a task, to find out whether it should stop because the
+     * number of threads has been reduced.
+     */
+    boolean tryRetireProcessor() {
+        synchronized (processorLock) {
+            if (pendingRetirements > 0) {
+                pendingRetirements--;
+                liveProcessors--;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Called by a processor that stops because it has received a terminate signal.
+     */
+    void onProcessorTerminated() {
+        synchronized (processorLock) {
+            liveProcessors--;
+        }
+    }
+
     /**
      * Get the {@link ExecutorService} underlying this TaskMaster. Note that by default the service will have a
      * {@link TaskProcessor} enqueued for each thread. In order to use the ExecutorService directly you will need to
@@ -23,19 +23,23 @@
 import org.terasology.monitoring.ThreadMonitor;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  */
 final class TaskProcessor<T extends Task> implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskProcessor.class);
+    private static final long IDLE_CHECK_INTERVAL_MS = 500;
 
     private String name;
     private BlockingQueue<T> queue;
+    private TaskMaster<T> taskMaster;
 
-     TaskProcessor(String name, BlockingQueue<T> taskQueue) {
+     TaskProcessor(String name, BlockingQueue<T> taskQueue, TaskMaster<T> taskMaster) {
         this.queue = taskQueue;
         this.name = name;
+        this.taskMaster = taskMaster;
     }
 
     @Override
@@ -45,12 +49,19 @@ public void run() {
         Thread.currentThread().setName(name);
         while (running) {
             try {
-                T task = queue.take();
+                T task = queue.poll(IDLE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (task == null) {
+                    running = !taskMaster.tryRetireProcessor();
+                    continue;
+                }
                 try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
                     task.run();
                 }
                 if (task.isTerminateSignal()) {
+                    taskMaster.onProcessorTerminated();
                     running = false;
+                } else {
+                    running = !taskMaster.tryRetireProcessor();
                 }
             } catch (InterruptedException e) {
                 ThreadMonitor.addError(e);
@@ -16,6 +16,8 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -107,6 +109,62 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Evaluates the grid one octave at a time, so the values of each octave are added to the result in a simple loop.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        int count = xs.length * ys.length;
+        float[] workingXs = xs.clone();
+        float[] workingYs = ys.clone();
+        float[] octave = new float[count];
+        Arrays.fill(result, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingXs, workingYs, octave);
+            addWeighted(octave, spectralWeights[i], result, count);
+            multiply(workingXs, getLacunarity());
+            multiply(workingYs, getLacunarity());
+        }
+        for (int i = 0; i < count; i++) {
+            result[i] *= scale;
+        }
+    }
+
+    /**
+     * Evaluates the grid one octave at a time, so the values of each octave are added to the result in a simple loop.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int count = xs.length * ys.length * zs.length;
+        float[] workingXs = xs.clone();
+        float[] workingYs = ys.clone();
+        float[] workingZs = zs.clone();
+        float[] octave = new float[count];
+        Arrays.fill(result, 0, count, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingXs, workingYs, workingZs, octave);
+            addWeighted(octave, spectralWeights[i], result, count);
+            multiply(workingXs, getLacunarity());
+            multiply(workingYs, getLacunarity());
+            multiply(workingZs, getLacunarity());
+        }
+        for (int i = 0; i < count; i++) {
+            result[i] *= scale;
+        }
+    }
+
+    private static void addWeighted(float[] values, float weight, float[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] += values[i] * weight;
+        }
+    }
+
+    private static void multiply(float[] values, double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factor;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
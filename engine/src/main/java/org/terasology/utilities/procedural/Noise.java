@@ -59,4 +59,47 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Fills the given array with the noise values of a grid of positions. The value at the position (xs[i], ys[j])
+     * is stored at index i + j * xs.length, so the array is filled row by row.
+     * <br><br>
+     * Implementations may override this to evaluate a whole grid at once, which is faster than evaluating one
+     * position at a time. The values have to be the same as the ones returned by {@link #noise(float, float)}.
+     *
+     * @param xs     the positions of the grid on the x-axis
+     * @param ys     the positions of the grid on the y-axis
+     * @param result the array to fill, at least xs.length * ys.length long
+     */
+    default void noise(float[] xs, float[] ys, float[] result) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                result[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Fills the given array with the noise values of a grid of positions. The value at the position
+     * (xs[i], ys[j], zs[k]) is stored at index i + xs.length * (j + ys.length * k).
+     * <br><br>
+     * Implementations may override this to evaluate a whole grid at once, which is faster than evaluating one
+     * position at a time. The values have to be the same as the ones returned by {@link #noise(float, float, float)}.
+     *
+     * @param xs     the positions of the grid on the x-axis
+     * @param ys     the positions of the grid on the y-axis
+     * @param zs     the positions of the grid on the z-axis
+     * @param result the array to fill, at least xs.length * ys.length * zs.length long
+     */
+    default void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    result[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
 }
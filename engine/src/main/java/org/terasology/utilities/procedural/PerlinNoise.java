@@ -24,6 +24,8 @@
  */
 public class PerlinNoise extends AbstractNoise implements Noise2D, Noise3D {
 
+    private static final float[] NO_OFFSET = {0};
+
     private final int[] noisePermutations;
 
     /**
@@ -77,9 +79,46 @@ public float noise(float posX, float posY, float posZ) {
         float y = posY - TeraMath.fastFloor(posY);
         float z = posZ - TeraMath.fastFloor(posZ);
 
-        float u = TeraMath.fadePerlin(x);
-        float v = TeraMath.fadePerlin(y);
-        float w = TeraMath.fadePerlin(z);
+        return noise(xInt, x, TeraMath.fadePerlin(x), yInt, y, TeraMath.fadePerlin(y), zInt, z, TeraMath.fadePerlin(z));
+    }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        noise(xs, ys, NO_OFFSET, result);
+    }
+
+    /**
+     * Evaluates the grid row by row. The parts of the computation that only depend on the position on the x-axis are
+     * done once for the whole grid, the parts that depend on the position on the y-axis or z-axis once per row.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int sizeX = xs.length;
+        int[] xInts = new int[sizeX];
+        float[] xFractions = new float[sizeX];
+        float[] xFades = new float[sizeX];
+        for (int i = 0; i < sizeX; i++) {
+            xInts[i] = (int) TeraMath.fastFloor(xs[i]) & 255;
+            xFractions[i] = xs[i] - TeraMath.fastFloor(xs[i]);
+            xFades[i] = TeraMath.fadePerlin(xFractions[i]);
+        }
+        int index = 0;
+        for (float posZ : zs) {
+            int zInt = (int) TeraMath.fastFloor(posZ) & 255;
+            float z = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (float posY : ys) {
+                int yInt = (int) TeraMath.fastFloor(posY) & 255;
+                float y = posY - TeraMath.fastFloor(posY);
+                float v = TeraMath.fadePerlin(y);
+                for (int i = 0; i < sizeX; i++) {
+                    result[index++] = noise(xInts[i], xFractions[i], xFades[i], yInt, y, v, zInt, z, w);
+                }
+            }
+        }
+    }
+
+    private float noise(int xInt, float x, float u, int yInt, float y, float v, int zInt, float z, float w) {
         int a = noisePermutations[xInt] + yInt;
         int aa = noisePermutations[a] + zInt;
         int ab = noisePermutations[(a + 1)] + zInt;
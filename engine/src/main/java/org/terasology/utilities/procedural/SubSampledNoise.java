@@ -110,15 +110,16 @@ private float[] mapExpand(float[] keyData, Rect2i fullRegion) {
     private float[] getKeyValues(Rect2i fullRegion) {
         int xDim = fullRegion.sizeX() / sampleRate + 1;
         int yDim = fullRegion.sizeY() / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim];
+        float[] xs = new float[xDim];
+        for (int x = 0; x < xDim; x++) {
+            xs[x] = zoom.x * (x * sampleRate + fullRegion.minX());
+        }
+        float[] ys = new float[yDim];
         for (int y = 0; y < yDim; y++) {
-            for (int x = 0; x < xDim; x++) {
-                int actualX = x * sampleRate + fullRegion.minX();
-                int actualY = y * sampleRate + fullRegion.minY();
-                fullData[x + y * xDim] = source.noise(zoom.x * actualX, zoom.y * actualY);
-            }
+            ys[y] = zoom.y * (y * sampleRate + fullRegion.minY());
         }
-
+        float[] fullData = new float[xDim * yDim];
+        source.noise(xs, ys, fullData);
         return fullData;
     }
 
@@ -213,17 +214,20 @@ private float[] getKeyValues(Region3i fullRegion) {
         int xDim = fullRegion.sizeX() / sampleRate + 1;
         int yDim = fullRegion.sizeY() / sampleRate + 1;
         int zDim = fullRegion.sizeZ() / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim * zDim];
+        float[] xs = new float[xDim];
+        for (int x = 0; x < xDim; x++) {
+            xs[x] = zoom.x * (x * sampleRate + fullRegion.minX());
+        }
+        float[] ys = new float[yDim];
+        for (int y = 0; y < yDim; y++) {
+            ys[y] = zoom.y * (y * sampleRate + fullRegion.minY());
+        }
+        float[] zs = new float[zDim];
         for (int z = 0; z < zDim; z++) {
-            for (int y = 0; y < yDim; y++) {
-                for (int x = 0; x < xDim; x++) {
-                    int actualX = x * sampleRate + fullRegion.minX();
-                    int actualY = y * sampleRate + fullRegion.minY();
-                    int actualZ = z * sampleRate + fullRegion.minZ();
-                    fullData[x + xDim * (y + yDim * z)] = source.noise(zoom.x * actualX, zoom.y * actualY, zoom.z * actualZ);
-                }
-            }
+            zs[z] = zoom.z * (z * sampleRate + fullRegion.minZ());
         }
+        float[] fullData = new float[xDim * yDim * zDim];
+        source.noise(xs, ys, zs, fullData);
         return fullData;
     }
 
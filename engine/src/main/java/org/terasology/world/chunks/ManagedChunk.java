@@ -18,6 +18,8 @@
 import org.terasology.module.sandbox.API;
 import org.terasology.protobuf.EntityData;
 
+import java.util.function.Supplier;
+
 /**
  */
 @API
@@ -39,4 +41,16 @@ public interface ManagedChunk extends CoreChunk {
 
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
+
+    /**
+     * Copies the state of the chunk, so that it can be encoded on another thread while the chunk keeps changing.
+     *
+     * @return encodes the copied state when called.
+     */
+    Supplier<EntityData.ChunkStore.Builder> copyForEncoding();
+
+    /**
+     * @return a counter that gets increased whenever the block, liquid or biome data of the chunk changes.
+     */
+    long getModificationGeneration();
 }
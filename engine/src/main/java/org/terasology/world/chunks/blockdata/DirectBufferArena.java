@@ -0,0 +1,257 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * DirectBufferArena hands out equally sized slabs of direct (off-heap) memory and takes them back for reuse.
+ * <br><br>
+ * Slabs are carved out of larger direct buffers, so the number of direct allocations stays small, and memory is never
+ * given back to the operating system. Every slab tracks its own lifetime: a slab is either live, retired or free,
+ * and releasing a slab that is not live is an error.
+ * <br><br>
+ * Reclamation is epoch based: threads that read slabs outside of the main thread open a {@link Section} first.
+ * A released slab is retired and only handed out again once every section that was open when it was released has
+ * been closed. This allows threads which still read from an array that has just been released (for example mesh
+ * generation of a chunk that is being unloaded) to finish without seeing the data of another chunk.
+ *
+ */
+public final class DirectBufferArena {
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final byte[] ZEROS = new byte[4096];
+
+    private final int slabSize;
+    private final int slabsPerBlock;
+
+    private final Deque<Slab> free = new ArrayDeque<>();
+    private final Deque<Slab> retired = new ArrayDeque<>();
+    private final Deque<Section> openSections = new ArrayDeque<>();
+
+    private long epoch;
+
+    private long bytesAllocated;
+    private int liveSlabs;
+    private long slabsAcquired;
+    private long slabsReused;
+
+    public DirectBufferArena(int slabSize) {
+        Preconditions.checkArgument(slabSize > 0, "The parameter 'slabSize' has to be greater than zero");
+        this.slabSize = slabSize;
+        this.slabsPerBlock = Math.max(1, BLOCK_SIZE / slabSize);
+    }
+
+    public int getSlabSize() {
+        return slabSize;
+    }
+
+    /**
+     * @return a live slab, filled with zeros.
+     */
+    public synchronized Slab acquire() {
+        reclaimRetired();
+        Slab slab = free.pollFirst();
+        if (slab == null) {
+            allocateBlock();
+            slab = free.pollFirst();
+        } else {
+            slabsReused++;
+            clear(slab.buffer);
+        }
+        slab.state = SlabState.LIVE;
+        slabsAcquired++;
+        liveSlabs++;
+        return slab;
+    }
+
+    /**
+     * Returns a slab to the arena. The slab must not be written to anymore, but may still be read by threads within a
+     * section that was opened before.
+     */
+    public synchronized void release(Slab slab) {
+        Preconditions.checkNotNull(slab);
+        Preconditions.checkArgument(slab.arena == this, "The slab does not belong to this arena");
+        if (slab.state != SlabState.LIVE) {
+            throw new IllegalStateException("Slab released twice");
+        }
+        slab.state = SlabState.RETIRED;
+        slab.retiredEpoch = epoch++;
+        retired.addLast(slab);
+        liveSlabs--;
+    }
+
+    /**
+     * Opens a section, which keeps all slabs that are released until it is closed from being reused. The section has
+     * to be closed by the thread that works with the slabs, once it is done with them.
+     */
+    public synchronized Section enter() {
+        Section section = new Section(this, epoch);
+        openSections.addLast(section);
+        return section;
+    }
+
+    private synchronized void exit(Section section) {
+        openSections.remove(section);
+    }
+
+    public synchronized long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    public synchronized long getBytesInUse() {
+        return (long) liveSlabs * slabSize;
+    }
+
+    /**
+     * @return the number of bytes held by slabs that are free or retired.
+     */
+    public synchronized long getBytesFree() {
+        return (long) (free.size() + retired.size()) * slabSize;
+    }
+
+    /**
+     * @return the number of released slabs that cannot be reused yet, as sections opened before their release are
+     * still open.
+     */
+    public synchronized int getRetiredSlabs() {
+        return retired.size();
+    }
+
+    public synchronized int getLiveSlabs() {
+        return liveSlabs;
+    }
+
+    public synchronized long getSlabsAcquired() {
+        return slabsAcquired;
+    }
+
+    public synchronized long getSlabsReused() {
+        return slabsReused;
+    }
+
+    /**
+     * @return the fraction of acquired slabs that were served from previously released memory.
+     */
+    public synchronized double getReuseRate() {
+        if (slabsAcquired == 0) {
+            return 0;
+        }
+        return (double) slabsReused / slabsAcquired;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d slabs of %d bytes live, %d bytes allocated, %d bytes free (%d retired), reuse rate %.1f%%",
+                liveSlabs, slabSize, bytesAllocated, getBytesFree(), retired.size() * slabSize, getReuseRate() * 100);
+    }
+
+    /**
+     * Sections are opened in the order of their epochs, so the first open section is the oldest one. Slabs retired
+     * before it was opened cannot be seen by any thread anymore.
+     */
+    private void reclaimRetired() {
+        Section oldestSection = openSections.peekFirst();
+        long oldestEpoch = oldestSection == null ? epoch : oldestSection.epoch;
+        Slab slab = retired.peekFirst();
+        while (slab != null && slab.retiredEpoch < oldestEpoch) {
+            retired.pollFirst();
+            slab.state = SlabState.FREE;
+            free.addLast(slab);
+            slab = retired.peekFirst();
+        }
+    }
+
+    private void allocateBlock() {
+        ByteBuffer block = ByteBuffer.allocateDirect(slabSize * slabsPerBlock);
+        for (int i = 0; i < slabsPerBlock; i++) {
+            block.limit((i + 1) * slabSize);
+            block.position(i * slabSize);
+            free.addLast(new Slab(this, block.slice()));
+        }
+        bytesAllocated += (long) slabSize * slabsPerBlock;
+    }
+
+    private static void clear(ByteBuffer buffer) {
+        buffer.clear();
+        while (buffer.remaining() > ZEROS.length) {
+            buffer.put(ZEROS);
+        }
+        buffer.put(ZEROS, 0, buffer.remaining());
+        buffer.clear();
+    }
+
+    private enum SlabState {
+        LIVE,
+        RETIRED,
+        FREE
+    }
+
+    /**
+     * A fixed size piece of direct memory owned by an arena.
+     */
+    public static final class Slab {
+
+        private final DirectBufferArena arena;
+        private final ByteBuffer buffer;
+        private volatile SlabState state = SlabState.FREE;
+        private long retiredEpoch;
+
+        private Slab(DirectBufferArena arena, ByteBuffer buffer) {
+            this.arena = arena;
+            this.buffer = buffer;
+        }
+
+        public DirectBufferArena getArena() {
+            return arena;
+        }
+
+        /**
+         * @return the memory of this slab. The buffer's position and limit must not be relied upon.
+         */
+        public ByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        public boolean isLive() {
+            return state == SlabState.LIVE;
+        }
+    }
+
+    /**
+     * A period in which a thread may read slabs it does not own, see {@link #enter()}.
+     */
+    public static final class Section implements AutoCloseable {
+
+        private final DirectBufferArena arena;
+        private final long epoch;
+
+        private Section(DirectBufferArena arena, long epoch) {
+            this.arena = arena;
+            this.epoch = epoch;
+        }
+
+        @Override
+        public void close() {
+            arena.exit(this);
+        }
+    }
+}
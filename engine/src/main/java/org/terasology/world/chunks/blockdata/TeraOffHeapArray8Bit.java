@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * TeraOffHeapArray8Bit implements a dense array with elements of 8 bit size, stored in a slab of direct memory
+ * taken from a {@link DirectBufferArena}. Its elements are in the range -128 through +127.
+ * <br><br>
+ * As the data lives outside of the java heap it does not need to be traced or copied by the garbage collector.
+ * In exchange the array has to be released explicitly once it is no longer used, so that its slab can be reused.
+ * Deflating only collapses arrays holding a single value into an (on heap) {@link TeraSparseArray8Bit}, partially
+ * sparse arrays stay off heap.
+ *
+ */
+public final class TeraOffHeapArray8Bit extends TeraDenseArray {
+
+    private DirectBufferArena.Slab slab;
+    private ByteBuffer data;
+
+    public TeraOffHeapArray8Bit() {
+        super();
+    }
+
+    public TeraOffHeapArray8Bit(DirectBufferArena arena, int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkNotNull(arena);
+        Preconditions.checkArgument(arena.getSlabSize() >= getSizeXYZ(),
+                "The slabs of the arena are too small (" + arena.getSlabSize() + " < " + getSizeXYZ() + ")");
+        this.slab = arena.acquire();
+        this.data = slab.getBuffer();
+    }
+
+    public TeraOffHeapArray8Bit(DirectBufferArena arena, TeraArray in) {
+        this(arena, Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ());
+        copyFrom(in);
+    }
+
+    @Override
+    protected void initialize() {
+    }
+
+    /**
+     * Returns the memory of this array to its arena. Writing to the array fails afterwards, reading it is only
+     * allowed within a {@link DirectBufferArena.Section} that was opened before.
+     */
+    public void release() {
+        if (slab != null) {
+            slab.getArena().release(slab);
+        }
+    }
+
+    public boolean isReleased() {
+        return slab != null && !slab.isLive();
+    }
+
+    @Override
+    public TeraArray copy() {
+        Preconditions.checkState(slab != null, "Cannot copy an array without data");
+        TeraOffHeapArray8Bit result = new TeraOffHeapArray8Bit(slab.getArena(), getSizeX(), getSizeY(), getSizeZ());
+        ByteBuffer source = data.duplicate();
+        source.clear().limit(getSizeXYZ());
+        ByteBuffer target = result.data.duplicate();
+        target.clear();
+        target.put(source);
+        return result;
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        Preconditions.checkNotNull(deflator);
+        if (data == null) {
+            return null;
+        }
+        final byte first = data.get(0);
+        for (int i = 1; i < getSizeXYZ(); i++) {
+            if (data.get(i) != first) {
+                return null;
+            }
+        }
+        return new TeraSparseArray8Bit(getSizeX(), getSizeY(), getSizeZ(), first);
+    }
+
+    /**
+     * @return the size of the off heap slab plus the on heap bookkeeping of this array.
+     */
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        if (slab == null) {
+            return 4;
+        }
+        return 16 + 16 + slab.getArena().getSlabSize();
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 8;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return data.get(pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        checkWritable();
+        int pos = pos(x, y, z);
+        int old = data.get(pos);
+        data.put(pos, (byte) value);
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        checkWritable();
+        int pos = pos(x, y, z);
+        int old = data.get(pos);
+        if (old == expected) {
+            data.put(pos, (byte) value);
+            return true;
+        }
+        return false;
+    }
+
+    private void checkWritable() {
+        if (!slab.isLive()) {
+            throw new IllegalStateException("Cannot write to an array that has been released");
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraOffHeapArray8Bit> {
+
+        private final DirectBufferArena arena;
+
+        public SerializationHandler(DirectBufferArena arena) {
+            this.arena = Preconditions.checkNotNull(arena);
+        }
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraOffHeapArray8Bit.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraOffHeapArray8Bit array) {
+            if (array.data == null) {
+                return 4;
+            } else {
+                return 4 + array.getSizeXYZ();
+            }
+        }
+
+        @Override
+        protected void internalSerialize(TeraOffHeapArray8Bit array, ByteBuffer buffer) {
+            if (array.data == null) {
+                buffer.putInt(0);
+            } else {
+                buffer.putInt(array.getSizeXYZ());
+                ByteBuffer source = array.data.duplicate();
+                source.clear().limit(array.getSizeXYZ());
+                buffer.put(source);
+            }
+        }
+
+        @Override
+        protected TeraOffHeapArray8Bit internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int length = buffer.getInt();
+            TeraOffHeapArray8Bit result = new TeraOffHeapArray8Bit(arena, sizeX, sizeY, sizeZ);
+            if (length > 0) {
+                ByteBuffer source = buffer.duplicate();
+                source.limit(source.position() + length);
+                ByteBuffer target = result.data.duplicate();
+                target.clear();
+                target.put(source);
+                buffer.position(buffer.position() + length);
+            }
+            return result;
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraOffHeapArray8Bit> {
+
+        private final DirectBufferArena arena;
+
+        public Factory(DirectBufferArena arena) {
+            this.arena = Preconditions.checkNotNull(arena);
+        }
+
+        @Override
+        public Class<TeraOffHeapArray8Bit> getArrayClass() {
+            return TeraOffHeapArray8Bit.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler(arena);
+        }
+
+        @Override
+        public TeraOffHeapArray8Bit create() {
+            return new TeraOffHeapArray8Bit();
+        }
+
+        @Override
+        public TeraOffHeapArray8Bit create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraOffHeapArray8Bit(arena, sizeX, sizeY, sizeZ);
+        }
+    }
+
+}
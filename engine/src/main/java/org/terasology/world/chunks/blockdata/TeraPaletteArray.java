@@ -0,0 +1,450 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.map.hash.TShortIntHashMap;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * TeraPaletteArray implements an array with elements of 16 bit size which are stored as indices into a per-array palette.
+ * Its elements are in the range -32'768 through +32'767, just like {@link TeraDenseArray16Bit}, but every element only
+ * takes up as many bits as are needed to address the distinct values currently in the palette (1, 2, 4, 8 or 16 bits).
+ * <br><br>
+ * The number of bits per entry is widened automatically whenever a value is set which does not fit into the palette.
+ * Once 16 bits are required the palette is dropped and the values are stored directly.
+ * Deflating the array drops palette entries which are no longer in use and narrows the entries again where possible.
+ * <br><br>
+ * Packed entries never span two words, so reads and writes are a single shift and mask on a long.
+ * The packed words and the palette are swapped together whenever the entry size changes. The widened words are
+ * filled before they are published, so threads reading the array while it is being widened never observe an entry
+ * size that does not match the words. Writes have to come from a single thread at a time, and a read racing with a
+ * write to the same position is not guaranteed to see either value, just like with the other tera arrays.
+ *
+ */
+public final class TeraPaletteArray extends TeraArray {
+
+    private static final int DIRECT_BITS_LOG2 = 4;
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+
+    private volatile Storage storage;
+    private int paletteSize;
+    private TShortIntHashMap paletteIndex;
+
+    /**
+     * The last value looked up in the palette in the upper and its index in the lower 16 bits, packed into one field
+     * so that the pair is always read and written as a whole.
+     */
+    private int lastLookup;
+
+    public TeraPaletteArray() {
+        super();
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short[] data) {
+        super(sizeX, sizeY, sizeZ, true);
+        Preconditions.checkNotNull(data);
+        Preconditions.checkArgument(data.length == getSizeXYZ(), "The length of parameter 'data' has to be " + getSizeXYZ() + " but is " + data.length);
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != 0) {
+                int index = indexOf(data[i]);
+                storage.write(i, index);
+            }
+        }
+    }
+
+    public TeraPaletteArray(TeraArray in) {
+        super(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ(), true);
+        for (int y = 0; y < getSizeY(); y++) {
+            for (int z = 0; z < getSizeZ(); z++) {
+                for (int x = 0; x < getSizeX(); x++) {
+                    set(x, y, z, in.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    private TeraPaletteArray(int sizeX, int sizeY, int sizeZ, Storage storage, int paletteSize) {
+        super(sizeX, sizeY, sizeZ, false);
+        this.storage = storage;
+        this.paletteSize = paletteSize;
+        if (storage.palette != null) {
+            lastLookup = packLookup(storage.palette[0], 0);
+            if (paletteSize > LINEAR_SEARCH_LIMIT) {
+                rebuildPaletteIndex();
+            }
+        }
+    }
+
+    @Override
+    protected void initialize() {
+        short[] palette = new short[2];
+        storage = new Storage(0, new long[wordCount(getSizeXYZ(), 0)], palette);
+        paletteSize = 1;
+        lastLookup = packLookup((short) 0, 0);
+    }
+
+    /**
+     * @return the number of distinct values the palette currently holds, or -1 if the values are stored directly.
+     */
+    public int getPaletteSize() {
+        return storage.palette == null ? -1 : paletteSize;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public TeraArray copy() {
+        Storage s = storage;
+        short[] palette = s.palette == null ? null : s.palette.clone();
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), new Storage(s.bitsLog2, s.words.clone(), palette), paletteSize);
+    }
+
+    /**
+     * Removes palette entries which are no longer referenced and narrows the entries if the remaining palette allows it.
+     *
+     * @return a compacted copy of this array, or null if compacting would not reduce the memory consumption.
+     */
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        Preconditions.checkNotNull(deflator);
+        Storage s = storage;
+        int used = 0;
+        int[] remap;
+        if (s.palette == null) {
+            remap = new int[1 << 16];
+            for (int i = 0; i < getSizeXYZ(); i++) {
+                int value = s.read(i);
+                if (remap[value] == 0) {
+                    remap[value] = ++used;
+                    if (used > (1 << 8)) {
+                        return null;
+                    }
+                }
+            }
+        } else {
+            remap = new int[paletteSize];
+            for (int i = 0; i < getSizeXYZ(); i++) {
+                int index = s.read(i);
+                if (remap[index] == 0) {
+                    remap[index] = ++used;
+                }
+            }
+        }
+        int bitsLog2 = bitsLog2For(used);
+        if (s.palette != null && used == paletteSize && bitsLog2 == s.bitsLog2) {
+            return null;
+        }
+
+        short[] palette = new short[1 << (1 << bitsLog2)];
+        for (int i = 0; i < remap.length; i++) {
+            if (remap[i] != 0) {
+                palette[remap[i] - 1] = s.palette == null ? (short) i : s.palette[i];
+            }
+        }
+        Storage compacted = new Storage(bitsLog2, new long[wordCount(getSizeXYZ(), bitsLog2)], palette);
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            compacted.write(i, remap[s.read(i)] - 1);
+        }
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), compacted, used);
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        Storage s = storage;
+        if (s == null) {
+            return 4;
+        }
+        int result = 16 + 16 + s.words.length * 8;
+        if (s.palette != null) {
+            result += 16 + s.palette.length * 2;
+        }
+        if (paletteIndex != null) {
+            result += 32 + paletteIndex.capacity() * 7;
+        }
+        return result;
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 1 << storage.bitsLog2;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        Storage s = storage;
+        int index = s.read(pos(x, y, z));
+        if (s.palette == null) {
+            return (short) index;
+        }
+        return s.palette[index];
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int index = indexOf((short) value);
+        Storage s = storage;
+        int old = s.write(pos(x, y, z), index);
+        if (s.palette == null) {
+            return (short) old;
+        }
+        return s.palette[old];
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        Storage s = storage;
+        int old = s.read(pos);
+        int oldValue = s.palette == null ? (short) old : s.palette[old];
+        if (oldValue == expected) {
+            int index = indexOf((short) value);
+            s = storage;
+            s.write(pos, index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Looks up the palette index of the given value, adding it to the palette and widening the entries if necessary.
+     */
+    private int indexOf(short value) {
+        Storage s = storage;
+        if (s.palette == null) {
+            return value & 0xFFFF;
+        }
+        int lookup = lastLookup;
+        if (value == (short) (lookup >>> 16)) {
+            return lookup & 0xFFFF;
+        }
+        int index = -1;
+        if (paletteIndex != null) {
+            if (paletteIndex.containsKey(value)) {
+                index = paletteIndex.get(value);
+            }
+        } else {
+            short[] palette = s.palette;
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == value) {
+                    index = i;
+                    break;
+                }
+            }
+        }
+        if (index < 0) {
+            if (paletteSize == s.palette.length) {
+                s = widen();
+                if (s.palette == null) {
+                    return value & 0xFFFF;
+                }
+            }
+            index = paletteSize++;
+            s.palette[index] = value;
+            if (paletteIndex != null) {
+                paletteIndex.put(value, index);
+            } else if (paletteSize > LINEAR_SEARCH_LIMIT) {
+                rebuildPaletteIndex();
+            }
+        }
+        lastLookup = packLookup(value, index);
+        return index;
+    }
+
+    /**
+     * Doubles the entry size, copying the entries into new words which are only published once they are complete.
+     *
+     * @return the widened storage
+     */
+    private Storage widen() {
+        Storage s = storage;
+        int bitsLog2 = s.bitsLog2 + 1;
+        short[] palette = null;
+        if (bitsLog2 < DIRECT_BITS_LOG2) {
+            palette = new short[1 << (1 << bitsLog2)];
+            System.arraycopy(s.palette, 0, palette, 0, paletteSize);
+        }
+        Storage widened = new Storage(bitsLog2, new long[wordCount(getSizeXYZ(), bitsLog2)], palette);
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            int index = s.read(i);
+            widened.write(i, palette == null ? s.palette[index] & 0xFFFF : index);
+        }
+        if (palette == null) {
+            paletteIndex = null;
+        }
+        storage = widened;
+        return widened;
+    }
+
+    private void rebuildPaletteIndex() {
+        Storage s = storage;
+        paletteIndex = new TShortIntHashMap(s.palette.length);
+        for (int i = 0; i < paletteSize; i++) {
+            paletteIndex.put(s.palette[i], i);
+        }
+    }
+
+    private static int packLookup(short value, int index) {
+        return (value << 16) | index;
+    }
+
+    private static int bitsLog2For(int paletteSize) {
+        int bitsLog2 = 0;
+        while (bitsLog2 < DIRECT_BITS_LOG2 && (1 << (1 << bitsLog2)) < paletteSize) {
+            bitsLog2++;
+        }
+        return bitsLog2;
+    }
+
+    private static int wordCount(int sizeXYZ, int bitsLog2) {
+        return ((sizeXYZ << bitsLog2) + 63) >>> 6;
+    }
+
+    /**
+     * The packed entries together with the palette they refer to. A palette of null means that the entries are 16 bit
+     * values which are stored directly.
+     */
+    private static final class Storage {
+
+        private final int bitsLog2;
+        private final int entriesPerWordLog2;
+        private final int entryMask;
+        private final long valueMask;
+        private final long[] words;
+        private final short[] palette;
+
+        private Storage(int bitsLog2, long[] words, short[] palette) {
+            this.bitsLog2 = bitsLog2;
+            this.entriesPerWordLog2 = 6 - bitsLog2;
+            this.entryMask = (1 << entriesPerWordLog2) - 1;
+            this.valueMask = (1L << (1 << bitsLog2)) - 1;
+            this.words = words;
+            this.palette = palette;
+        }
+
+        private int read(int pos) {
+            int shift = (pos & entryMask) << bitsLog2;
+            return (int) ((words[pos >>> entriesPerWordLog2] >>> shift) & valueMask);
+        }
+
+        private int write(int pos, int value) {
+            int word = pos >>> entriesPerWordLog2;
+            int shift = (pos & entryMask) << bitsLog2;
+            long raw = words[word];
+            words[word] = (raw & ~(valueMask << shift)) | ((value & valueMask) << shift);
+            return (int) ((raw >>> shift) & valueMask);
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPaletteArray> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPaletteArray.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPaletteArray array) {
+            final Storage storage = array.storage;
+            if (storage == null) {
+                return 4;
+            }
+            int paletteLength = storage.palette == null ? 0 : array.paletteSize;
+            return 4 + 4 + 4 + paletteLength * 2 + storage.words.length * 8;
+        }
+
+        @Override
+        protected void internalSerialize(TeraPaletteArray array, ByteBuffer buffer) {
+            final Storage storage = array.storage;
+            if (storage == null) {
+                buffer.putInt(-1);
+                return;
+            }
+            buffer.putInt(storage.bitsLog2);
+            if (storage.palette == null) {
+                buffer.putInt(0);
+            } else {
+                buffer.putInt(array.paletteSize);
+                final ShortBuffer sbuffer = buffer.asShortBuffer();
+                sbuffer.put(storage.palette, 0, array.paletteSize);
+                buffer.position(buffer.position() + array.paletteSize * 2);
+            }
+            buffer.putInt(storage.words.length);
+            final LongBuffer lbuffer = buffer.asLongBuffer();
+            lbuffer.put(storage.words);
+            buffer.position(buffer.position() + storage.words.length * 8);
+        }
+
+        @Override
+        protected TeraPaletteArray internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int bitsLog2 = buffer.getInt();
+            if (bitsLog2 < 0) {
+                return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+            }
+            Preconditions.checkState(bitsLog2 <= DIRECT_BITS_LOG2, "Invalid entry size: " + (1 << bitsLog2) + " bits");
+            final int paletteSize = buffer.getInt();
+            short[] palette = null;
+            if (bitsLog2 < DIRECT_BITS_LOG2) {
+                palette = new short[1 << (1 << bitsLog2)];
+                final ShortBuffer sbuffer = buffer.asShortBuffer();
+                sbuffer.get(palette, 0, paletteSize);
+                buffer.position(buffer.position() + paletteSize * 2);
+            }
+            final int length = buffer.getInt();
+            final long[] words = new long[length];
+            final LongBuffer lbuffer = buffer.asLongBuffer();
+            lbuffer.get(words, 0, length);
+            buffer.position(buffer.position() + length * 8);
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ, new Storage(bitsLog2, words, palette), paletteSize);
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPaletteArray> {
+
+        @Override
+        public Class<TeraPaletteArray> getArrayClass() {
+            return TeraPaletteArray.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPaletteArray create() {
+            return new TeraPaletteArray();
+        }
+
+        @Override
+        public TeraPaletteArray create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+        }
+    }
+
+}
@@ -35,14 +35,18 @@
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.DirectBufferArena;
 import org.terasology.world.chunks.blockdata.TeraArray;
-import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraOffHeapArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
+import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
 import org.terasology.world.chunks.deflate.TeraDeflator;
 import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 import org.terasology.world.liquid.LiquidData;
 
 import java.text.DecimalFormat;
+import java.util.function.Supplier;
 
 /**
  * Chunks are the basic components of the world. Each chunk contains a fixed amount of blocks
@@ -59,6 +63,12 @@ public class ChunkImpl implements Chunk {
     private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("0.##");
     private static final DecimalFormat SIZE_FORMAT = new DecimalFormat("#,###");
 
+    /**
+     * Light data is kept off heap, as it makes up most of the data of a chunk but never contains references.
+     */
+    private static final DirectBufferArena LIGHT_ARENA = new DirectBufferArena(ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z);
+    private static final long NOT_PERSISTED = -1;
+
     private final Vector3i chunkPos = new Vector3i();
 
     private BlockManager blockManager;
@@ -83,6 +93,10 @@ public class ChunkImpl implements Chunk {
     private volatile boolean dirty;
     private boolean animated;
 
+    // Persistence
+    private long modificationGeneration;
+    private volatile long persistedGeneration = NOT_PERSISTED;
+
     // Rendering
     private ChunkMesh activeMesh;
     private ChunkMesh pendingMesh;
@@ -93,7 +107,7 @@ public ChunkImpl(int x, int y, int z, BlockManager blockManager, BiomeManager bi
     }
 
     public ChunkImpl(Vector3i chunkPos, BlockManager blockManager, BiomeManager biomeManager) {
-        this(chunkPos, new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+        this(chunkPos, new TeraPaletteArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
                 new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
                 new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
                 blockManager, biomeManager);
@@ -105,9 +119,9 @@ public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray liquid, TeraArra
         this.blockData = Preconditions.checkNotNull(blocks);
         this.extraData = Preconditions.checkNotNull(liquid);
         this.biomeData = Preconditions.checkNotNull(biome);
-        sunlightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        sunlightRegenData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        lightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
+        sunlightData = createLightArray();
+        sunlightRegenData = createLightArray();
+        lightData = createLightArray();
         dirty = true;
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
@@ -116,6 +130,23 @@ public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray liquid, TeraArra
         ChunkMonitor.fireChunkCreated(this);
     }
 
+    /**
+     * @return the arena holding the light data of all chunks.
+     */
+    public static DirectBufferArena getLightArena() {
+        return LIGHT_ARENA;
+    }
+
+    private static TeraArray createLightArray() {
+        return new TeraOffHeapArray8Bit(LIGHT_ARENA, ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+    }
+
+    private static void releaseReplaced(TeraArray previous, TeraArray current) {
+        if (previous != current && previous instanceof TeraOffHeapArray8Bit) {
+            ((TeraOffHeapArray8Bit) previous).release();
+        }
+    }
+
     @Override
     public Vector3i getPosition() {
         return new Vector3i(chunkPos);
@@ -131,6 +162,25 @@ public void setDirty(boolean dirty) {
         this.dirty = dirty;
     }
 
+    @Override
+    public long getModificationGeneration() {
+        return modificationGeneration;
+    }
+
+    /**
+     * Records that the state of the chunk at the given modification generation has been written to disk.
+     */
+    public void markPersisted(long generation) {
+        this.persistedGeneration = generation;
+    }
+
+    /**
+     * @return true if the chunk has been modified since it was last written to disk, or if it never was.
+     */
+    public boolean isModifiedSincePersisted() {
+        return persistedGeneration != modificationGeneration;
+    }
+
     @Override
     public int getEstimatedMemoryConsumptionInBytes() {
         return blockData.getEstimatedMemoryConsumptionInBytes()
@@ -160,6 +210,7 @@ public Block setBlock(int x, int y, int z, Block block) {
         }
         int oldValue = blockData.set(x, y, z, block.getId());
         if (oldValue != block.getId()) {
+            modificationGeneration++;
             if (!block.isLiquid()) {
                 setLiquid(x, y, z, new LiquidData());
             }
@@ -246,7 +297,9 @@ public void setLiquid(int x, int y, int z, LiquidData newState) {
         if (extraData == extraDataSnapshot) {
             extraData = extraData.copy();
         }
-        extraData.set(x, y, z, newValue);
+        if ((byte) extraData.set(x, y, z, newValue) != newValue) {
+            modificationGeneration++;
+        }
     }
 
     @Override
@@ -276,6 +329,9 @@ public Biome setBiome(int x, int y, int z, Biome biome) {
         }
         short shortId = biomeManager.getBiomeShortId(biome);
         short previousShortId = (short) biomeData.set(x, y, z, shortId);
+        if (previousShortId != shortId) {
+            modificationGeneration++;
+        }
         return biomeManager.getBiomeByShortId(previousShortId);
     }
 
@@ -353,10 +409,12 @@ public void deflate() {
             int biomeSize = biomeData.getEstimatedMemoryConsumptionInBytes();
             int totalSize = blocksSize + sunlightRegenSize + sunlightSize + lightSize + liquidSize + biomeSize;
 
+            TeraArray previousLightData = lightData;
             blockData = def.deflate(blockData);
             lightData = def.deflate(lightData);
             extraData = def.deflate(extraData);
             biomeData = def.deflate(biomeData);
+            releaseReplaced(previousLightData, lightData);
 
             int blocksReduced = blockData.getEstimatedMemoryConsumptionInBytes();
             int lightReduced = lightData.getEstimatedMemoryConsumptionInBytes();
@@ -389,10 +447,12 @@ public void deflate() {
             ChunkMonitor.fireChunkDeflated(this, totalSize, totalReduced);
         } else {
             final int oldSize = getEstimatedMemoryConsumptionInBytes();
+            TeraArray previousLightData = lightData;
             blockData = def.deflate(blockData);
             lightData = def.deflate(lightData);
             extraData = def.deflate(extraData);
             biomeData = def.deflate(biomeData);
+            releaseReplaced(previousLightData, lightData);
             ChunkMonitor.fireChunkDeflated(this, oldSize, getEstimatedMemoryConsumptionInBytes());
         }
     }
@@ -408,8 +468,12 @@ public void deflateSunlight() {
             int liquidSize = extraData.getEstimatedMemoryConsumptionInBytes();
             int totalSize = blocksSize + sunlightRegenSize + sunlightSize + lightSize + liquidSize;
 
+            TeraArray previousSunlightData = sunlightData;
+            TeraArray previousSunlightRegenData = sunlightRegenData;
             sunlightData = def.deflate(sunlightData);
             sunlightRegenData = def.deflate(sunlightRegenData);
+            releaseReplaced(previousSunlightData, sunlightData);
+            releaseReplaced(previousSunlightRegenData, sunlightRegenData);
 
             int sunlightReduced = sunlightData.getEstimatedMemoryConsumptionInBytes();
             int sunlightRegenReduced = sunlightRegenData.getEstimatedMemoryConsumptionInBytes();
@@ -434,8 +498,12 @@ public void deflateSunlight() {
             ChunkMonitor.fireChunkDeflated(this, totalSize, totalReduced);
         } else {
             final int oldSize = getEstimatedMemoryConsumptionInBytes();
+            TeraArray previousSunlightData = sunlightData;
+            TeraArray previousSunlightRegenData = sunlightRegenData;
             sunlightData = def.deflate(sunlightData);
             sunlightRegenData = def.deflate(sunlightRegenData);
+            releaseReplaced(previousSunlightData, sunlightData);
+            releaseReplaced(previousSunlightRegenData, sunlightRegenData);
             ChunkMonitor.fireChunkDeflated(this, oldSize, getEstimatedMemoryConsumptionInBytes());
         }
     }
@@ -507,9 +575,9 @@ public void markReady() {
     public void prepareForReactivation() {
         if (disposed) {
             disposed = false;
-            sunlightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
-            sunlightRegenData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
-            lightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+            sunlightData = createLightArray();
+            sunlightRegenData = createLightArray();
+            lightData = createLightArray();
         }
     }
 
@@ -519,8 +587,18 @@ public void dispose() {
         ready = false;
         disposeMesh();
         /*
-         * Explicitly do not clear data, so that background threads that work with the chunk can finish.
+         * Explicitly do not clear block data, so that background threads that work with the chunk can finish.
+         * The light data is handed back to the arena, which keeps it readable for threads within an arena section.
          */
+        TeraArray previousSunlightData = sunlightData;
+        TeraArray previousSunlightRegenData = sunlightRegenData;
+        TeraArray previousLightData = lightData;
+        sunlightData = new TeraSparseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, (byte) 0);
+        sunlightRegenData = new TeraSparseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, (byte) 0);
+        lightData = new TeraSparseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, (byte) 0);
+        releaseReplaced(previousSunlightData, sunlightData);
+        releaseReplaced(previousSunlightRegenData, sunlightRegenData);
+        releaseReplaced(previousLightData, lightData);
         ChunkMonitor.fireChunkDisposed(this);
     }
 
@@ -572,6 +650,15 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
     }
 
+    @Override
+    public Supplier<EntityData.ChunkStore.Builder> copyForEncoding() {
+        Vector3i pos = new Vector3i(chunkPos);
+        TeraArray blocks = blockData.copy();
+        TeraArray extra = extraData.copy();
+        TeraArray biomes = biomeData.copy();
+        return () -> ChunkSerializer.encode(pos, blocks, extra, biomes);
+    }
+
     /**
      * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk.
      * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
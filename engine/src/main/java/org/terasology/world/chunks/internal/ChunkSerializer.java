@@ -28,6 +28,7 @@
 import org.terasology.world.chunks.blockdata.TeraArray;
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 
 /**
  */
@@ -59,7 +60,8 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
             throw new IllegalArgumentException("Ill-formed protobuf message. Missing liquid data.");
         }
 
-        final TeraArray blockData = runLengthDecode(message.getBlockData());
+        final TeraArray blockData = new TeraPaletteArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z,
+                runLengthDecodeData(message.getBlockData()));
         final TeraArray liquidData = runLengthDecode(message.getLiquidData());
         final TeraArray biomeData = runLengthDecode(message.getBiomeData());
         return new ChunkImpl(pos, blockData, liquidData, biomeData, blockManager, biomeManager);
@@ -120,6 +122,11 @@ private static EntityData.RunLengthEncoding8 runLengthEncode8(TeraArray array) {
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
+        short[] decodedData = runLengthDecodeData(data);
+        return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
+    }
+
+    private static short[] runLengthDecodeData(EntityData.RunLengthEncoding16 data) {
         Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
         short[] decodedData = new short[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
         int index = 0;
@@ -130,7 +137,7 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
                 decodedData[index++] = value;
             }
         }
-        return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
+        return decodedData;
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
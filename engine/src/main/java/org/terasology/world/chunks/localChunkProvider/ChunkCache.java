@@ -24,9 +24,13 @@
 /**
  * Chunk storage which allows to look up for chunks based on their world position.
  */
-interface ChunkCache {
+public interface ChunkCache {
     Chunk get(Vector3i chunkPosition);
 
+    default Chunk get(int x, int y, int z) {
+        return get(new Vector3i(x, y, z));
+    }
+
     void put(Vector3i chunkPosition, Chunk chunk);
 
     Iterator<Vector3i> iterateChunkPositions();
@@ -52,7 +52,6 @@
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkRegionListener;
-import org.terasology.world.chunks.ManagedChunk;
 import org.terasology.world.chunks.event.BeforeChunkUnload;
 import org.terasology.world.chunks.event.OnChunkGenerated;
 import org.terasology.world.chunks.event.OnChunkLoaded;
@@ -128,7 +127,7 @@ public LocalChunkProvider(StorageManager storageManager, EntityManager entityMan
                 biomeManager,
                 new LightMergingChunkFinalizer(),
                 LightMergingChunkFinalizer::new,
-                new ConcurrentMapChunkCache());
+                new LockFreeChunkCache());
     }
 
     LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
@@ -437,6 +436,8 @@ private boolean unloadChunkInternal(Vector3i pos) {
                     break;
                 }
             }
+            // Hand the chunk's light data back to the arena
+            chunk.dispose();
             return true;
         }
         worldEntity.send(new BeforeChunkUnload(pos));
@@ -535,7 +536,11 @@ private TShortObjectMap<TIntList> createBatchBlockEventMappings(Chunk chunk) {
 
     @Override
     public Chunk getChunk(int x, int y, int z) {
-        return getChunk(new Vector3i(x, y, z));
+        Chunk chunk = chunkCache.get(x, y, z);
+        if (isChunkReady(chunk)) {
+            return chunk;
+        }
+        return null;
     }
 
     @Override
@@ -605,12 +610,15 @@ public void purgeWorld() {
         unloadRequestTaskMaster.shutdown(new ChunkUnloadRequest(), true);
         chunkFinalizer.shutdown();
 
-        chunkCache.getAllChunks().stream().filter(ManagedChunk::isReady).forEach(chunk -> {
-            worldEntity.send(new BeforeChunkUnload(chunk.getPosition()));
-            storageManager.deactivateChunk(chunk);
+        chunkCache.getAllChunks().forEach(chunk -> {
+            if (chunk.isReady()) {
+                worldEntity.send(new BeforeChunkUnload(chunk.getPosition()));
+                storageManager.deactivateChunk(chunk);
+            }
             chunk.dispose();
         });
         chunkCache.clear();
+        readyChunks.forEach(readyChunkInfo -> readyChunkInfo.getChunk().dispose());
         readyChunks.clear();
         sortedReadyChunks.clear();
         storageManager.deleteWorld();
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.base.Preconditions;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chunk cache which packs chunk positions into a long and stores the chunks in an open addressing table with linear
+ * probing, so looking up a chunk neither allocates nor hashes an object.
+ * <br><br>
+ * Lookups never lock. Modifications are serialized by a lock, which they only hold for a few array writes.
+ * Within a table, a slot is assigned to a position once and keeps it: removing a chunk only clears the slot's value.
+ * A reader which found the slot of a position therefore can never read the chunk of another position from it.
+ * When the table fills up with live or removed entries, a new table is built on the side and published at once,
+ * while readers keep using the old one.
+ * <br><br>
+ * Chunk coordinates have to fit into 21 bits each. Chunks at other positions can't be put into the cache, and are
+ * never found in it.
+ */
+public class LockFreeChunkCache implements ChunkCache {
+
+    private static final int COORDINATE_BITS = 21;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    static final int MIN_COORDINATE = -(1 << (COORDINATE_BITS - 1));
+    static final int MAX_COORDINATE = (1 << (COORDINATE_BITS - 1)) - 1;
+    private static final long EMPTY = -1L;
+    private static final int MIN_CAPACITY = 64;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Table table;
+    private volatile int size;
+
+    public LockFreeChunkCache() {
+        this(MIN_CAPACITY);
+    }
+
+    public LockFreeChunkCache(int expectedChunks) {
+        table = new Table(capacityFor(expectedChunks));
+    }
+
+    @Override
+    public Chunk get(Vector3i chunkPosition) {
+        return get(chunkPosition.x, chunkPosition.y, chunkPosition.z);
+    }
+
+    @Override
+    public Chunk get(int x, int y, int z) {
+        if (!isInRange(x, y, z)) {
+            return null;
+        }
+        return table.get(pack(x, y, z));
+    }
+
+    @Override
+    public void put(Vector3i chunkPosition, Chunk chunk) {
+        Preconditions.checkArgument(isInRange(chunkPosition.x, chunkPosition.y, chunkPosition.z),
+                "Chunk position %s is out of the range of the cache", chunkPosition);
+        long key = pack(chunkPosition.x, chunkPosition.y, chunkPosition.z);
+        writeLock.lock();
+        try {
+            Table current = table;
+            if (current.used + 1 > current.threshold()) {
+                current = rebuild(current, size + 1);
+            }
+            if (current.put(key, chunk) == null) {
+                size++;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Vector3i> iterateChunkPositions() {
+        return new PositionIterator(table);
+    }
+
+    @Override
+    public Collection<Chunk> getAllChunks() {
+        return new AbstractCollection<Chunk>() {
+            @Override
+            public Iterator<Chunk> iterator() {
+                return new ChunkIterator(table);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        writeLock.lock();
+        try {
+            table = new Table(capacityFor(MIN_CAPACITY));
+            size = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsChunkAt(Vector3i chunkPosition) {
+        return get(chunkPosition) != null;
+    }
+
+    @Override
+    public void removeChunkAt(Vector3i chunkPosition) {
+        if (!isInRange(chunkPosition.x, chunkPosition.y, chunkPosition.z)) {
+            return;
+        }
+        remove(pack(chunkPosition.x, chunkPosition.y, chunkPosition.z));
+    }
+
+    private void remove(long key) {
+        writeLock.lock();
+        try {
+            if (table.remove(key) != null) {
+                size--;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Copies the live entries into a new table, dropping the slots of removed chunks, and publishes it.
+     */
+    private Table rebuild(Table old, int expectedChunks) {
+        Table rebuilt = new Table(capacityFor(expectedChunks));
+        for (int i = 0; i < old.capacity; i++) {
+            Chunk chunk = old.values.get(i);
+            if (chunk != null) {
+                rebuilt.put(old.keys.get(i), chunk);
+            }
+        }
+        table = rebuilt;
+        return rebuilt;
+    }
+
+    private static int capacityFor(int expectedChunks) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedChunks * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static boolean isInRange(int x, int y, int z) {
+        return isInRange(x) && isInRange(y) && isInRange(z);
+    }
+
+    private static boolean isInRange(int coordinate) {
+        return coordinate >= MIN_COORDINATE && coordinate <= MAX_COORDINATE;
+    }
+
+    /**
+     * Packs a position whose coordinates fit into 21 bits, other coordinates would collide with them.
+     */
+    static long pack(int x, int y, int z) {
+        return ((x & COORDINATE_MASK) << (2 * COORDINATE_BITS)) | ((y & COORDINATE_MASK) << COORDINATE_BITS) | (z & COORDINATE_MASK);
+    }
+
+    static Vector3i unpack(long key) {
+        return new Vector3i(unpackCoordinate(key >>> (2 * COORDINATE_BITS)), unpackCoordinate(key >>> COORDINATE_BITS), unpackCoordinate(key));
+    }
+
+    private static int unpackCoordinate(long bits) {
+        return (int) ((bits & COORDINATE_MASK) << (64 - COORDINATE_BITS) >> (64 - COORDINATE_BITS));
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        private final int capacity;
+        private final int mask;
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<Chunk> values;
+        /**
+         * Number of slots that have been assigned to a position, including those whose chunk has been removed.
+         * Only accessed while holding the write lock.
+         */
+        private int used;
+
+        private Table(int capacity) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            for (int i = 0; i < capacity; i++) {
+                keys.lazySet(i, EMPTY);
+            }
+        }
+
+        private int threshold() {
+            return capacity / 2;
+        }
+
+        private Chunk get(long key) {
+            int index = hash(key) & mask;
+            while (true) {
+                long slotKey = keys.get(index);
+                if (slotKey == key) {
+                    return values.get(index);
+                }
+                if (slotKey == EMPTY) {
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private Chunk put(long key, Chunk chunk) {
+            int index = hash(key) & mask;
+            while (true) {
+                long slotKey = keys.get(index);
+                if (slotKey == key) {
+                    return values.getAndSet(index, chunk);
+                }
+                if (slotKey == EMPTY) {
+                    values.set(index, chunk);
+                    keys.set(index, key);
+                    used++;
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private Chunk remove(long key) {
+            int index = hash(key) & mask;
+            while (true) {
+                long slotKey = keys.get(index);
+                if (slotKey == key) {
+                    return values.getAndSet(index, null);
+                }
+                if (slotKey == EMPTY) {
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the slots of one table.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private final Table table;
+        private int nextIndex = -1;
+        private Chunk nextChunk;
+        private int lastIndex = -1;
+
+        SlotIterator(Table table) {
+            this.table = table;
+            advance();
+        }
+
+        protected abstract T get(long key, Chunk chunk);
+
+        private void advance() {
+            nextChunk = null;
+            while (nextChunk == null && ++nextIndex < table.capacity) {
+                nextChunk = table.values.get(nextIndex);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < table.capacity;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = nextIndex;
+            Chunk chunk = nextChunk;
+            advance();
+            return get(table.keys.get(lastIndex), chunk);
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            LockFreeChunkCache.this.remove(table.keys.get(lastIndex));
+            lastIndex = -1;
+        }
+    }
+
+    private final class PositionIterator extends SlotIterator<Vector3i> {
+        PositionIterator(Table table) {
+            super(table);
+        }
+
+        @Override
+        protected Vector3i get(long key, Chunk chunk) {
+            return unpack(key);
+        }
+    }
+
+    private final class ChunkIterator extends SlotIterator<Chunk> {
+        ChunkIterator(Table table) {
+            super(table);
+        }
+
+        @Override
+        protected Chunk get(long key, Chunk chunk) {
+            return chunk;
+        }
+    }
+}
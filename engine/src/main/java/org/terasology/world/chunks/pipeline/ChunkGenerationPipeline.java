@@ -18,25 +18,63 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TimingHistogram;
 import org.terasology.utilities.concurrency.TaskMaster;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Runs chunk tasks on a pool of threads, most relevant chunks first.
+ * <br><br>
+ * The time tasks wait in the queue and the time they take to run are recorded in the {@link PerformanceMonitor}
+ * histograms {@link #QUEUE_WAIT_HISTOGRAM} and {@link #TASK_HISTOGRAM}. In adaptive mode the number of threads is
+ * adjusted to the queue length and the load of the processors, see {@link WorkerPoolSizer}.
  */
 public class ChunkGenerationPipeline {
+    public static final String QUEUE_WAIT_HISTOGRAM = "Chunk Generator - Queue Wait";
+    public static final String TASK_HISTOGRAM = "Chunk Generator - Task";
+
     private static final int NUM_TASK_THREADS = 8;
+    private static final long ADJUSTMENT_INTERVAL_NS = TimeUnit.SECONDS.toNanos(2);
     private static final Logger logger = LoggerFactory.getLogger(ChunkGenerationPipeline.class);
 
+    private static volatile boolean adaptiveThreadCount;
+
     private TaskMaster<ChunkTask> chunkGenerator;
+    private final WorkerPoolSizer poolSizer = new WorkerPoolSizer(1, NUM_TASK_THREADS);
+    private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+    private final TimingHistogram queueWaitHistogram = PerformanceMonitor.getHistogram(QUEUE_WAIT_HISTOGRAM);
+    private final TimingHistogram taskHistogram = PerformanceMonitor.getHistogram(TASK_HISTOGRAM);
+    private long nextAdjustmentTime = System.nanoTime();
 
     public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator) {
         chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskComparator);
     }
 
+    /**
+     * @return whether the chunk generation pipelines adjust their number of threads to the load.
+     */
+    public static boolean isAdaptiveThreadCount() {
+        return adaptiveThreadCount;
+    }
+
+    /**
+     * Enables or disables the adaptive mode of all chunk generation pipelines. When disabled, pipelines return to
+     * their fixed number of threads.
+     */
+    public static void setAdaptiveThreadCount(boolean enabled) {
+        adaptiveThreadCount = enabled;
+    }
+
     public void doTask(ChunkTask task) {
+        adjustThreadCount();
         try {
-            chunkGenerator.put(task);
+            chunkGenerator.put(new TimedChunkTask(task));
         } catch (InterruptedException e) {
             logger.error("Failed to enqueue task {}", task, e);
         }
@@ -50,4 +88,69 @@ public void restart() {
         chunkGenerator.restart();
     }
 
+    public int getThreads() {
+        return chunkGenerator.getThreads();
+    }
+
+    private synchronized void adjustThreadCount() {
+        long now = System.nanoTime();
+        if (now - nextAdjustmentTime < 0) {
+            return;
+        }
+        nextAdjustmentTime = now + ADJUSTMENT_INTERVAL_NS;
+        int currentThreads = chunkGenerator.getThreads();
+        int threads = NUM_TASK_THREADS;
+        if (adaptiveThreadCount) {
+            double loadAverage = operatingSystem.getSystemLoadAverage();
+            double loadPerProcessor = loadAverage < 0 ? -1 : loadAverage / operatingSystem.getAvailableProcessors();
+            threads = poolSizer.computeThreads(currentThreads, chunkGenerator.getQueueSize(), loadPerProcessor);
+        }
+        if (threads != currentThreads) {
+            logger.debug("Changing the number of chunk generator threads from {} to {}", currentThreads, threads);
+            chunkGenerator.setThreads(threads);
+        }
+    }
+
+    /**
+     * Records how long the wrapped task waited in the queue and how long it took to run.
+     */
+    private class TimedChunkTask implements ChunkTask {
+        private final ChunkTask task;
+        private final long enqueueTime = System.nanoTime();
+
+        TimedChunkTask(ChunkTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public Vector3i getPosition() {
+            return task.getPosition();
+        }
+
+        @Override
+        public String getName() {
+            return task.getName();
+        }
+
+        @Override
+        public void run() {
+            long startTime = System.nanoTime();
+            queueWaitHistogram.record(startTime - enqueueTime);
+            try {
+                task.run();
+            } finally {
+                taskHistogram.record(System.nanoTime() - startTime);
+            }
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return task.isTerminateSignal();
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.world.chunks.pipeline;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Decides how many threads the chunk generator should use, one step at a time.
+ * <br><br>
+ * A thread is removed while the processors are saturated, as further threads would only compete with the game
+ * thread and the network threads. Otherwise a thread is added while more tasks are queued than the current threads
+ * can work through soon, and removed while there is less than one queued task per thread.
+ */
+class WorkerPoolSizer {
+    static final int QUEUED_TASKS_PER_THREAD = 4;
+    static final double SATURATED_LOAD_PER_PROCESSOR = 1.0;
+
+    private final int minThreads;
+    private final int maxThreads;
+
+    WorkerPoolSizer(int minThreads, int maxThreads) {
+        Preconditions.checkArgument(minThreads > 0, "The parameter 'minThreads' has to be greater than zero");
+        Preconditions.checkArgument(maxThreads >= minThreads, "The parameter 'maxThreads' must not be less than 'minThreads'");
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * @param currentThreads   the number of threads currently in use.
+     * @param queuedTasks      the number of tasks waiting for a thread.
+     * @param loadPerProcessor the system load average divided by the number of processors, negative if unknown.
+     * @return the number of threads to use from now on.
+     */
+    int computeThreads(int currentThreads, int queuedTasks, double loadPerProcessor) {
+        int threads;
+        if (loadPerProcessor >= SATURATED_LOAD_PER_PROCESSOR) {
+            threads = currentThreads - 1;
+        } else if (queuedTasks > currentThreads * QUEUED_TASKS_PER_THREAD) {
+            threads = currentThreads + 1;
+        } else if (queuedTasks < currentThreads) {
+            threads = currentThreads - 1;
+        } else {
+            threads = currentThreads;
+        }
+        return Math.max(minThreads, Math.min(maxThreads, threads));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.terasology.math.Region3i;
+
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Shares the 2D facets of a world between the regions of chunks that are stacked on top of each other.
+ * <br><br>
+ * A 2D facet only depends on the horizontal extent of the region it was generated for, as long as all providers
+ * involved in generating it only work with 2D facets. Such facets are cached by facet type and horizontal extent, so
+ * every column of chunks generates them only once. All other facets are generated for every region.
+ * <br><br>
+ * A cache belongs to a single {@link World}, which has a fixed seed: changing the seed builds a new world. Cached
+ * facets are shared between threads and must not be modified by rasterizers.
+ */
+public class FacetCache {
+    private static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final Set<Class<? extends WorldFacet>> cacheableFacets;
+    private final Cache<ColumnKey, WorldFacet> cache;
+
+    public FacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        this(facetProviderChains, DEFAULT_MAX_ENTRIES);
+    }
+
+    public FacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, int maxEntries) {
+        Set<Class<? extends WorldFacet>> cacheable = Sets.newHashSet();
+        Set<Class<? extends WorldFacet>> visited = Sets.newHashSet();
+        for (Class<? extends WorldFacet> facetType : facetProviderChains.keySet()) {
+            determineCacheable(facetType, facetProviderChains, cacheable, visited);
+        }
+        this.cacheableFacets = ImmutableSet.copyOf(cacheable);
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * @return whether facets of the given type only depend on the horizontal extent of their region.
+     */
+    public boolean isCacheable(Class<? extends WorldFacet> facetType) {
+        return cacheableFacets.contains(facetType);
+    }
+
+    /**
+     * Returns the cached facet for the column of the given region, generating it if it is not cached yet. Threads
+     * that ask for a facet which is being generated wait for it instead of generating it again.
+     *
+     * @param facetType the type of the facet, which has to be {@link #isCacheable cacheable}.
+     * @param region    the region the facet is needed for.
+     * @param generator generates the facet for the region.
+     * @return the facet or null if the generator did not produce one, which is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends WorldFacet> T get(Class<T> facetType, Region3i region, Supplier<T> generator) {
+        try {
+            return (T) cache.get(new ColumnKey(facetType, region), generator::get);
+        } catch (CacheLoader.InvalidCacheLoadException e) {
+            return null;
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to generate facet " + facetType.getSimpleName(), cause);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Facets which are (indirectly) required by themselves are never considered cacheable.
+     */
+    private static boolean determineCacheable(Class<? extends WorldFacet> facetType,
+                                              ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                                              Set<Class<? extends WorldFacet>> cacheable, Set<Class<? extends WorldFacet>> visited) {
+        if (!visited.add(facetType)) {
+            return cacheable.contains(facetType);
+        }
+        if (!WorldFacet2D.class.isAssignableFrom(facetType)) {
+            return false;
+        }
+        for (FacetProvider provider : facetProviderChains.get(facetType)) {
+            Produces produces = provider.getClass().getAnnotation(Produces.class);
+            if (produces != null) {
+                for (Class<? extends WorldFacet> producedFacet : produces.value()) {
+                    if (!WorldFacet2D.class.isAssignableFrom(producedFacet)) {
+                        return false;
+                    }
+                }
+            }
+            Updates updates = provider.getClass().getAnnotation(Updates.class);
+            if (updates != null) {
+                for (Facet updatedFacet : updates.value()) {
+                    if (!WorldFacet2D.class.isAssignableFrom(updatedFacet.value())) {
+                        return false;
+                    }
+                }
+            }
+            Requires requires = provider.getClass().getAnnotation(Requires.class);
+            if (requires != null) {
+                for (Facet requiredFacet : requires.value()) {
+                    if (!determineCacheable(requiredFacet.value(), facetProviderChains, cacheable, visited)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        cacheable.add(facetType);
+        return true;
+    }
+
+    private static final class ColumnKey {
+        private final Class<? extends WorldFacet> facetType;
+        private final int minX;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeZ;
+
+        ColumnKey(Class<? extends WorldFacet> facetType, Region3i region) {
+            this.facetType = facetType;
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.sizeX = region.sizeX();
+            this.sizeZ = region.sizeZ();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof ColumnKey) {
+                ColumnKey other = (ColumnKey) obj;
+                return facetType == other.facetType && minX == other.minX && minZ == other.minZ
+                        && sizeX == other.sizeX && sizeZ == other.sizeZ;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = facetType.hashCode();
+            result = 31 * result + minX;
+            result = 31 * result + minZ;
+            result = 31 * result + sizeX;
+            return 31 * result + sizeZ;
+        }
+    }
+}
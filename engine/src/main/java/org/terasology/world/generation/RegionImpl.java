@@ -20,6 +20,7 @@
 import org.terasology.math.Region3i;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,29 +31,112 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final FacetCache facetCache;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
+    private int facetDepth;
+    private long facetNanos;
+
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    /**
+     * @param facetCache the cache to share 2D facets with the regions above and below, may be null.
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      FacetCache facetCache) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.facetCache = facetCache;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
+            List<FacetProvider> chain = facetProviderChains.get(dataType);
+            if (facetCache != null && facetCache.isCacheable(dataType) && !processedProviders.containsAll(chain)) {
+                facet = facetCache.get(dataType, region, () -> generateFacet(dataType));
+                if (facet != null && !processedProviders.containsAll(chain)) {
+                    useCachedFacet(dataType, facet, chain);
+                }
+            } else {
+                facet = generateFacet(dataType);
+            }
+            generatedFacets.put(dataType, facet);
+        }
+        return facet;
+    }
+
+    /**
+     * Makes a facet taken from the cache available to the providers of this region, as if its provider chain had
+     * been processed here. The other facets produced by the chain are taken from the cache as well (or generated),
+     * as the providers which would have produced them are not processed anymore.
+     */
+    private <T extends WorldFacet> void useCachedFacet(Class<T> dataType, T facet, List<FacetProvider> chain) {
+        for (FacetProvider provider : chain) {
+            Produces produces = provider.getClass().getAnnotation(Produces.class);
+            if (produces != null && !processedProviders.contains(provider)) {
+                for (Class<? extends WorldFacet> producedFacet : produces.value()) {
+                    if (producedFacet != dataType) {
+                        getFacet(producedFacet);
+                    }
+                }
+            }
+        }
+        setRegionFacet(dataType, facet);
+        processedProviders.addAll(chain);
+    }
+
+    private <T extends WorldFacet> T generateFacet(Class<T> dataType) {
+        long startTime = System.nanoTime();
+        facetDepth++;
+        try {
+            List<FacetProvider> chain = facetProviderChains.get(dataType);
+            if (facetCache != null) {
+                getCacheableRequirements(chain);
+            }
+            chain.stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
                 provider.process(this);
                 processedProviders.add(provider);
             });
-            facet = generatingFacets.get(dataType);
-            generatedFacets.put(dataType, facet);
+        } finally {
+            facetDepth--;
+            if (facetDepth == 0) {
+                facetNanos += System.nanoTime() - startTime;
+            }
         }
-        return facet;
+        return generatingFacets.get(dataType);
+    }
+
+    /**
+     * Takes the cacheable facets required by the unprocessed providers of a chain from the cache, so that their
+     * providers do not run again for every region of a column.
+     */
+    private void getCacheableRequirements(List<FacetProvider> chain) {
+        for (FacetProvider provider : chain) {
+            Requires requires = provider.getClass().getAnnotation(Requires.class);
+            if (requires != null && !processedProviders.contains(provider)) {
+                for (Facet requiredFacet : requires.value()) {
+                    if (facetCache.isCacheable(requiredFacet.value())) {
+                        getFacet(requiredFacet.value());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the time spent generating the facets of this region so far, in nanoseconds. Facets which are requested
+     * by facet providers are not counted twice.
+     */
+    public long getFacetGenerationNanos() {
+        return facetNanos;
     }
 
     @Override
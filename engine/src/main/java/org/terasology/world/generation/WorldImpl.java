@@ -18,6 +18,8 @@
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TimingHistogram;
 import org.terasology.world.chunks.CoreChunk;
 
 import java.util.Collection;
@@ -29,11 +31,17 @@
 /**
  */
 public class WorldImpl implements World {
+    public static final String FACETS_HISTOGRAM = "World Generation - Facets";
+    public static final String RASTERIZERS_HISTOGRAM = "World Generation - Rasterizers";
+
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final List<WorldRasterizer> worldRasterizers;
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final FacetCache facetCache;
+    private final TimingHistogram facetsHistogram = PerformanceMonitor.getHistogram(FACETS_HISTOGRAM);
+    private final TimingHistogram rasterizersHistogram = PerformanceMonitor.getHistogram(RASTERIZERS_HISTOGRAM);
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
@@ -45,6 +53,7 @@ public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetP
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.facetCache = new FacetCache(facetProviderChains);
     }
 
     @Override
@@ -59,13 +68,18 @@ public int getSeaLevel() {
 
     @Override
     public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
-        Region chunkRegion = getWorldData(chunk.getRegion());
+        RegionImpl chunkRegion = new RegionImpl(chunk.getRegion(), facetProviderChains, borders, facetCache);
+        long startTime = System.nanoTime();
         for (WorldRasterizer rasterizer : worldRasterizers) {
             rasterizer.generateChunk(chunk, chunkRegion);
         }
         for (EntityProvider entityProvider : entityProviders) {
             entityProvider.process(chunkRegion, buffer);
         }
+        // facets are generated on demand of the rasterizers, so their time is taken out of the rasterizer time
+        long facetNanos = chunkRegion.getFacetGenerationNanos();
+        facetsHistogram.record(facetNanos);
+        rasterizersHistogram.record(System.nanoTime() - startTime - facetNanos);
     }
 
     @Override
@@ -78,6 +92,9 @@ public void initialize() {
         // throw them all in a set to remove duplicates
         Collection<FacetProvider> facetProviders = new LinkedHashSet<>(facetProviderChains.values());
 
+        // the configuration of the providers may have changed since facets have been cached
+        facetCache.clear();
+
         facetProviders.forEach(FacetProvider::initialize);
 
         worldRasterizers.forEach(WorldRasterizer::initialize);
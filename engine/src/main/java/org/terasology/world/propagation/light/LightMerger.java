@@ -22,6 +22,8 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.LitChunk;
+import org.terasology.world.chunks.blockdata.DirectBufferArena;
+import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
 import org.terasology.world.propagation.BatchPropagator;
 import org.terasology.world.propagation.LocalChunkView;
@@ -57,7 +59,10 @@ public LightMerger(GeneratingChunkProvider chunkProvider) {
 
     public void beginMerge(final Chunk chunk, final T data) {
         resultFuture = executorService.submit(() -> {
-            merge(chunk);
+            // the neighbouring chunks may be unloaded meanwhile, their light data must stay readable until we are done
+            try (DirectBufferArena.Section ignored = ChunkImpl.getLightArena().enter()) {
+                merge(chunk);
+            }
             return data;
         });
     }